@@ -0,0 +1,42 @@
+package com.example.notifications.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada del jar de benchmarks.
+ * <p>
+ * Acepta los mismos argumentos que el runner estándar de JMH (por ejemplo un patrón
+ * {@code TemplateRender} o {@code -p batchSize=1000}). Si no se indica formato de resultados,
+ * se escriben en JSON en {@code jmh-result.json} para poder comparar versiones entre releases.
+ * </p>
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar                       # todos los benchmarks
+ * java -jar target/benchmarks.jar SendBatchAsync -rff batch.json
+ * }</pre>
+ */
+public final class BenchmarkRunner {
+
+    static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
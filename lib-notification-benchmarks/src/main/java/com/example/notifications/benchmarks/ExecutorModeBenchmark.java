@@ -0,0 +1,90 @@
+package com.example.notifications.benchmarks;
+
+import com.example.notifications.application.port.out.template.CompiledTemplateEngine;
+import com.example.notifications.application.service.NotificationService;
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.result.NotificationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput de {@code sendAsync} con latencia simulada de proveedor, comparando el pool
+ * fijo de 4 hilos por defecto con el modo de hilos virtuales. Cada notificación es una llamada
+ * independiente al proveedor (sin agrupar en lotes nativos).
+ * <p>
+ * El resultado se expresa en notificaciones por segundo. Con I/O bloqueante, el pool fijo queda
+ * limitado a {@code 4 / latencia}, mientras que con hilos virtuales el límite lo marca
+ * {@code channelConcurrency} (0 = sin límite por canal).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class ExecutorModeBenchmark {
+
+    private static final int BATCH_SIZE = 2_000;
+
+    @Param({"fixed", "virtual"})
+    public String mode;
+
+    @Param({"1000", "10000"})
+    public long latencyMicros;
+
+    @Param({"0", "256"})
+    public int channelConcurrency;
+
+    private NotificationService service;
+    private List<Notification> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var builder = NotificationService.builder(
+                SimulatedProviders.registry(new CompiledTemplateEngine(), latencyMicros));
+        if ("virtual".equals(mode)) {
+            builder.virtualThreads();
+        }
+        if (channelConcurrency > 0) {
+            Fixtures.mixedBatch(4).forEach(n -> builder.maxConcurrency(n.getClass(), channelConcurrency));
+        }
+        service = builder.build();
+        batch = Fixtures.mixedBatch(BATCH_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void sendAll(Blackhole blackhole) {
+        List<CompletableFuture<NotificationResult>> futures = new ArrayList<>(batch.size());
+        for (Notification notification : batch) {
+            futures.add(service.sendAsync(notification));
+        }
+        for (CompletableFuture<NotificationResult> future : futures) {
+            blackhole.consume(future.join());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.notifications.benchmarks;
+
+import com.example.notifications.domain.model.ChatNotification;
+import com.example.notifications.domain.model.EmailNotification;
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.model.PushNotification;
+import com.example.notifications.domain.model.SmsNotification;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Datos de prueba compartidos por los benchmarks.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static Map<String, Object> variables(int count) {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            variables.put("var" + i, "value-" + i);
+        }
+        return variables;
+    }
+
+    /**
+     * Construye una plantilla de aproximadamente {@code length} caracteres que referencia
+     * {@code variableCount} variables repartidas de forma uniforme.
+     */
+    static String template(int length, int variableCount) {
+        StringBuilder template = new StringBuilder(length + variableCount * 10);
+        int chunk = Math.max(1, length / (variableCount + 1));
+        for (int i = 0; i < variableCount; i++) {
+            appendFiller(template, chunk);
+            template.append("{{var").append(i).append("}}");
+        }
+        appendFiller(template, chunk);
+        return template.toString();
+    }
+
+    static EmailNotification email() {
+        return new EmailNotification(
+                "sender@example.com",
+                "recipient@example.com",
+                "Hola {{name}}",
+                "Bienvenido {{name}} a {{app}}, tu código es {{code}}",
+                Map.of("name", "Javier", "app", "Notifications Lib", "code", "123456")
+        );
+    }
+
+    static SmsNotification sms() {
+        return new SmsNotification(
+                "+50512345678",
+                "+50588887777",
+                "Hola {{name}}, tu código es {{code}}",
+                Map.of("name", "Javier", "code", "123456")
+        );
+    }
+
+    static PushNotification push() {
+        return new PushNotification(
+                "user-123",
+                "device-token-abc",
+                "Hello {{name}}",
+                "Your code is {{code}}",
+                Map.of("name", "Javier", "code", "9999"),
+                Map.of("screen", "home")
+        );
+    }
+
+    static ChatNotification chat() {
+        return new ChatNotification(
+                "#alerts",
+                "Deploy {{version}} completado por {{user}}",
+                Map.of("version", "1.0.0", "user", "ci")
+        );
+    }
+
+    static Notification byChannel(String channel) {
+        return switch (channel) {
+            case "email" -> email();
+            case "sms" -> sms();
+            case "push" -> push();
+            case "chat" -> chat();
+            default -> throw new IllegalArgumentException("Canal desconocido: " + channel);
+        };
+    }
+
+    /**
+     * Lote mixto que recorre los cuatro canales en round-robin.
+     */
+    static List<Notification> mixedBatch(int size) {
+        Notification[] samples = {email(), sms(), push(), chat()};
+        List<Notification> batch = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            batch.add(samples[i % samples.length]);
+        }
+        return batch;
+    }
+
+    private static void appendFiller(StringBuilder template, int length) {
+        for (int i = 0; i < length; i++) {
+            template.append((char) ('a' + (i % 26)));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.notifications.benchmarks;
+
+import com.example.notifications.domain.model.EmailNotification;
+import com.example.notifications.domain.model.SmsNotification;
+import com.example.notifications.domain.validation.Recipients;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de construir notificaciones, dominado por la validación de remitente y destinatario en los
+ * constructores compactos (ver {@link Recipients}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class NotificationConstructionBenchmark {
+
+    private String sender = "sender@mail.com";
+    private String recipient = "recipient@mail.com";
+    private String fromNumber = "+50512345678";
+    private String toNumber = "+50588887777";
+
+    @Benchmark
+    public EmailNotification email() {
+        return new EmailNotification(sender, recipient, "Hola {{name}}", "Bienvenido {{name}}", Map.of());
+    }
+
+    @Benchmark
+    public SmsNotification sms() {
+        return new SmsNotification(fromNumber, toNumber, "Tu código es {{code}}", Map.of());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.notifications.benchmarks;
+
+import com.example.notifications.application.port.out.template.SimpleTemplateEngine;
+import com.example.notifications.application.service.NotificationService;
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.result.NotificationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Camino completo de {@link NotificationService#send(Notification)} por canal:
+ * resolución en el registry, render de plantillas, mapeo al proveedor y traducción de la respuesta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class NotificationServiceSendBenchmark {
+
+    @Param({"email", "sms", "push", "chat"})
+    public String channel;
+
+    @Param({"0", "1000"})
+    public long latencyMicros;
+
+    private NotificationService service;
+    private Notification notification;
+
+    @Setup
+    public void setUp() {
+        service = new NotificationService(SimulatedProviders.registry(new SimpleTemplateEngine(), latencyMicros));
+        notification = Fixtures.byChannel(channel);
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public NotificationResult send() {
+        return service.send(notification);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.notifications.benchmarks;
+
+import com.example.notifications.application.port.in.Notifier;
+import com.example.notifications.application.port.out.template.SimpleTemplateEngine;
+import com.example.notifications.application.registry.NotifierRegistry;
+import com.example.notifications.domain.model.Notification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de resolver el {@link Notifier} de una notificación en {@link NotifierRegistry#get(Notification)}.
+ * <p>
+ * Se itera sobre los cuatro tipos concretos para que el sitio de llamada sea megamórfico, como en
+ * un lote mixto real.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class NotifierRegistryBenchmark {
+
+    private NotifierRegistry registry;
+    private Notification[] notifications;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        registry = SimulatedProviders.registry(new SimpleTemplateEngine(), 0);
+        notifications = Fixtures.mixedBatch(4).toArray(Notification[]::new);
+    }
+
+    @Benchmark
+    public Notifier<Notification> get() {
+        Notification notification = notifications[index++ & 3];
+        return registry.get(notification);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.notifications.benchmarks;
+
+import com.example.notifications.application.port.out.template.SimpleTemplateEngine;
+import com.example.notifications.application.service.NotificationService;
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.result.NotificationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento de {@link NotificationService#sendBatchAsync(List)} con lotes mixtos de distintos tamaños.
+ * <p>
+ * Cada invocación envía un lote completo y espera a que termine, por lo que el resultado
+ * (tiempo por lote) dividido por {@code batchSize} da el coste por notificación.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class SendBatchAsyncBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int batchSize;
+
+    @Param({"0", "100"})
+    public long latencyMicros;
+
+    private NotificationService service;
+    private List<Notification> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new NotificationService(SimulatedProviders.registry(new SimpleTemplateEngine(), latencyMicros));
+        batch = Fixtures.mixedBatch(batchSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public List<NotificationResult> sendBatch() {
+        return service.sendBatchAsync(batch).join();
+    }
+}
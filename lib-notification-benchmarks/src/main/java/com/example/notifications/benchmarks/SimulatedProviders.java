@@ -0,0 +1,132 @@
+package com.example.notifications.benchmarks;
+
+import com.example.notifications.application.port.in.Notifier;
+import com.example.notifications.application.port.out.template.TemplateEngine;
+import com.example.notifications.application.registry.NotifierRegistry;
+import com.example.notifications.application.service.ChatNotifier;
+import com.example.notifications.application.service.EmailNotifier;
+import com.example.notifications.application.service.PushNotifier;
+import com.example.notifications.application.service.SmsNotifier;
+import com.example.notifications.domain.model.ChatNotification;
+import com.example.notifications.domain.model.EmailNotification;
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.model.PushNotification;
+import com.example.notifications.domain.model.SmsNotification;
+import com.example.notifications.infraestructure.chat.slack.SlackConfig;
+import com.example.notifications.infraestructure.chat.slack.SlackProvider;
+import com.example.notifications.infraestructure.chat.slack.SlackRequest;
+import com.example.notifications.infraestructure.chat.slack.SlackResponse;
+import com.example.notifications.infraestructure.email.sendgrid.SendGridBatchRequest;
+import com.example.notifications.infraestructure.email.sendgrid.SendGridConfig;
+import com.example.notifications.infraestructure.email.sendgrid.SendGridEmailProvider;
+import com.example.notifications.infraestructure.email.sendgrid.SendGridRequest;
+import com.example.notifications.infraestructure.email.sendgrid.SendGridResponse;
+import com.example.notifications.infraestructure.push.firebase.FirebaseConfig;
+import com.example.notifications.infraestructure.push.firebase.FirebaseMulticastRequest;
+import com.example.notifications.infraestructure.push.firebase.FirebaseMulticastResponse;
+import com.example.notifications.infraestructure.push.firebase.FirebasePushProvider;
+import com.example.notifications.infraestructure.push.firebase.FirebaseRequest;
+import com.example.notifications.infraestructure.push.firebase.FirebaseResponse;
+import com.example.notifications.infraestructure.sms.twilio.TwilioConfig;
+import com.example.notifications.infraestructure.sms.twilio.TwilioRequest;
+import com.example.notifications.infraestructure.sms.twilio.TwilioResponse;
+import com.example.notifications.infraestructure.sms.twilio.TwilioSmsProvider;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Proveedores simulados con una latencia artificial configurable.
+ * <p>
+ * Extienden los proveedores reales sobrescribiendo su llamada simulada, de modo que el camino
+ * de mapeo/traducción de respuesta es el mismo que en producción y solo cambia el coste de la
+ * "llamada de red": una pausa por petición, también en los envíos por lotes nativos, modelada con
+ * {@link LockSupport#parkNanos(long)} para representar I/O bloqueante.
+ * </p>
+ */
+public final class SimulatedProviders {
+
+    private SimulatedProviders() {
+    }
+
+    /**
+     * Construye un registry con los cuatro canales apuntando a proveedores con la latencia indicada.
+     *
+     * @param engine        motor de plantillas a usar en los notifiers
+     * @param latencyMicros latencia artificial por llamada al proveedor, en microsegundos
+     * @return registry listo para un {@code NotificationService}
+     */
+    public static NotifierRegistry registry(TemplateEngine engine, long latencyMicros) {
+        Map<Class<? extends Notification>, Notifier<?>> notifiers = Map.of(
+                EmailNotification.class, new EmailNotifier(sendGrid(latencyMicros), engine),
+                SmsNotification.class, new SmsNotifier(twilio(latencyMicros), engine),
+                PushNotification.class, new PushNotifier(firebase(latencyMicros), engine),
+                ChatNotification.class, new ChatNotifier(slack(latencyMicros), engine)
+        );
+        return NotifierRegistry.exhaustive(notifiers);
+    }
+
+    public static SendGridEmailProvider sendGrid(long latencyMicros) {
+        return new SendGridEmailProvider(new SendGridConfig("bench-key", "https://api.sendgrid.com/v3/mail/send")) {
+            @Override
+            protected SendGridResponse simulatedSend(SendGridRequest request) {
+                pause(latencyMicros);
+                return new SendGridResponse("msg-bench", "CREATED", "accepted", null);
+            }
+
+            @Override
+            protected SendGridResponse simulatedBatchSend(SendGridBatchRequest request) {
+                pause(latencyMicros);
+                return new SendGridResponse("msg-bench", "CREATED", "accepted", null);
+            }
+        };
+    }
+
+    public static TwilioSmsProvider twilio(long latencyMicros) {
+        return new TwilioSmsProvider(new TwilioConfig("bench-sid", "bench-token", "+15550000000")) {
+            @Override
+            protected TwilioResponse simulatedSend(TwilioRequest request) {
+                pause(latencyMicros);
+                return new TwilioResponse("SM-bench", "queued", null);
+            }
+        };
+    }
+
+    public static FirebasePushProvider firebase(long latencyMicros) {
+        return new FirebasePushProvider(new FirebaseConfig("bench-project", "bench-key")) {
+            @Override
+            protected FirebaseResponse simulatedSend(FirebaseRequest request) {
+                pause(latencyMicros);
+                return new FirebaseResponse("firebase-bench", "success", null);
+            }
+
+            @Override
+            protected FirebaseMulticastResponse simulatedMulticastSend(FirebaseMulticastRequest request) {
+                pause(latencyMicros);
+                List<FirebaseResponse> responses = Collections.nCopies(
+                        request.tokens().size(), new FirebaseResponse("firebase-bench", "success", null));
+                return new FirebaseMulticastResponse(responses.size(), 0, responses);
+            }
+        };
+    }
+
+    public static SlackProvider slack(long latencyMicros) {
+        return new SlackProvider(new SlackConfig(
+                "https://hooks.slack.com/bench", null, "#bench", "bench", ":zap:", null, "https://slack.com/api")) {
+            @Override
+            protected SlackResponse callApi(SlackRequest request) {
+                pause(latencyMicros);
+                return new SlackResponse(true, "ok", null);
+            }
+        };
+    }
+
+    static void pause(long latencyMicros) {
+        if (latencyMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros));
+        }
+    }
+}
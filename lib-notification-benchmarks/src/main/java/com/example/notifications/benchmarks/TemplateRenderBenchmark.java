@@ -0,0 +1,64 @@
+package com.example.notifications.benchmarks;
+
+import com.example.notifications.application.port.out.template.CompiledTemplateEngine;
+import com.example.notifications.application.port.out.template.SimpleTemplateEngine;
+import com.example.notifications.application.port.out.template.TemplateEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de {@code TemplateEngine.render} según el tamaño de la plantilla y el número de variables, con un hilo
+ * y con varios hilos compartiendo el mismo motor (y su caché de plantillas compiladas).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class TemplateRenderBenchmark {
+
+    @Param({"simple", "compiled"})
+    public String engine;
+
+    @Param({"64", "512", "4096"})
+    public int templateLength;
+
+    @Param({"1", "5", "15"})
+    public int variableCount;
+
+    private TemplateEngine templateEngine;
+    private String template;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setUp() {
+        templateEngine = "compiled".equals(engine) ? new CompiledTemplateEngine() : new SimpleTemplateEngine();
+        template = Fixtures.template(templateLength, variableCount);
+        variables = Fixtures.variables(variableCount);
+    }
+
+    @Benchmark
+    public String render() {
+        return templateEngine.render(template, variables);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String renderConcurrently() {
+        return templateEngine.render(template, variables);
+    }
+}
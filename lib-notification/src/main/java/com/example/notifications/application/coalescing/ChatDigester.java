@@ -0,0 +1,55 @@
+package com.example.notifications.application.coalescing;
+
+import com.example.notifications.application.port.out.template.TemplateEngine;
+import com.example.notifications.domain.model.ChatNotification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Resume los mensajes de chat dirigidos al mismo canal (y tenant).
+ * <p>
+ * Cada mensaje se renderiza con su plantilla y el resumen es una {@link ChatNotification} con la plantilla
+ * de resumen y las variables {@code count} (número de mensajes agrupados), {@code messages} (una línea por
+ * mensaje distinto, con los repetidos contados), {@code first} y {@code last}.
+ * </p>
+ */
+public class ChatDigester implements Digester<ChatNotification> {
+
+    public static final String DEFAULT_TEMPLATE = "{{count}} mensajes:\n{{messages}}";
+
+    private final TemplateEngine engine;
+    private final String digestTemplate;
+
+    public ChatDigester(TemplateEngine engine) {
+        this(engine, DEFAULT_TEMPLATE);
+    }
+
+    public ChatDigester(TemplateEngine engine, String digestTemplate) {
+        this.engine = Objects.requireNonNull(engine, "engine is required");
+        this.digestTemplate = Objects.requireNonNull(digestTemplate, "digestTemplate is required");
+    }
+
+    @Override
+    public Object key(ChatNotification notification) {
+        return new Key(notification.recipient(), notification.metadata().tenant());
+    }
+
+    @Override
+    public ChatNotification digest(List<ChatNotification> notifications) {
+        List<String> messages = notifications.stream()
+                .map(notification -> Digests.render(engine, notification.messageTemplate(), notification.variables()))
+                .toList();
+        Map<String, Object> variables = Map.of(
+                "count", notifications.size(),
+                "messages", Digests.lines(messages),
+                "first", messages.get(0),
+                "last", messages.get(messages.size() - 1));
+        return new ChatNotification(
+                notifications.get(0).recipient(), digestTemplate, variables, Digests.metadata(notifications));
+    }
+
+    private record Key(String recipient, String tenant) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.notifications.application.coalescing;
+
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.result.NotificationResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Ventanas de agrupación de un canal.
+ * <p>
+ * La primera notificación de una clave abre una ventana de {@link CoalescingPolicy#window()}; las que
+ * llegan con la misma clave mientras está abierta se acumulan. Al cerrarse (por tiempo o al llegar a
+ * {@link CoalescingPolicy#maxMessages()}), si solo hay una se envía tal cual y si hay varias se envía su
+ * resumen. Todas las agrupadas reciben el resultado del resumen.
+ * </p>
+ * <p>
+ * Las ventanas no ocupan hilos: el cierre lo programa {@code timer} y el envío lo hace {@code sink}.
+ * </p>
+ *
+ * @param <T> tipo concreto de notificación
+ */
+public final class Coalescer<T extends Notification> {
+
+    private final CoalescingPolicy<T> policy;
+    private final BiConsumer<Duration, Runnable> timer;
+    private final BiConsumer<T, CompletableFuture<NotificationResult>> sink;
+    private final Map<Object, Window<T>> windows = new ConcurrentHashMap<>();
+
+    /**
+     * @param policy ventana, tamaño máximo y resumen
+     * @param timer  programa el cierre de una ventana tras el retraso indicado
+     * @param sink   envía una notificación (o un resumen) y completa el futuro con su resultado; puede lanzar
+     *               una excepción si no la acepta
+     */
+    public Coalescer(CoalescingPolicy<T> policy,
+                     BiConsumer<Duration, Runnable> timer,
+                     BiConsumer<T, CompletableFuture<NotificationResult>> sink) {
+        this.policy = Objects.requireNonNull(policy, "policy is required");
+        this.timer = Objects.requireNonNull(timer, "timer is required");
+        this.sink = Objects.requireNonNull(sink, "sink is required");
+    }
+
+    /**
+     * Añade la notificación a la ventana de su clave; {@code future} se completará con el resultado del envío
+     * (propio o del resumen).
+     */
+    public void add(T notification, CompletableFuture<NotificationResult> future) {
+        Object key = policy.digester().key(notification);
+        while (true) {
+            Window<T> window = windows.computeIfAbsent(key, k -> new Window<>());
+            int size;
+            synchronized (window) {
+                if (window.closed) {
+                    // Se está cerrando y ya no está en el mapa: la siguiente vuelta abre una nueva.
+                    continue;
+                }
+                window.notifications.add(notification);
+                window.futures.add(future);
+                size = window.notifications.size();
+            }
+            if (size >= policy.maxMessages()) {
+                close(key, window);
+            } else if (size == 1) {
+                timer.accept(policy.window(), () -> close(key, window));
+            }
+            return;
+        }
+    }
+
+    /**
+     * Cierra y envía todas las ventanas abiertas sin esperar a que terminen.
+     */
+    public void flush() {
+        windows.forEach(this::close);
+    }
+
+    /**
+     * Ventanas abiertas en este momento.
+     */
+    public int openWindows() {
+        return windows.size();
+    }
+
+    private void close(Object key, Window<T> window) {
+        List<T> notifications;
+        List<CompletableFuture<NotificationResult>> futures;
+        synchronized (window) {
+            if (window.closed) {
+                return;
+            }
+            window.closed = true;
+            windows.remove(key, window);
+            notifications = window.notifications;
+            futures = window.futures;
+        }
+
+        if (notifications.size() == 1) {
+            send(notifications.get(0), futures.get(0));
+            return;
+        }
+        CompletableFuture<NotificationResult> digest = new CompletableFuture<>();
+        digest.whenComplete((result, error) -> {
+            for (CompletableFuture<NotificationResult> future : futures) {
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(result);
+                }
+            }
+        });
+        try {
+            send(policy.digester().digest(notifications), digest);
+        } catch (RuntimeException e) {
+            digest.completeExceptionally(e);
+        }
+    }
+
+    private void send(T notification, CompletableFuture<NotificationResult> future) {
+        try {
+            sink.accept(notification, future);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private static final class Window<T> {
+        private final List<T> notifications = new ArrayList<>();
+        private final List<CompletableFuture<NotificationResult>> futures = new ArrayList<>();
+        private boolean closed;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.notifications.application.coalescing;
+
+import com.example.notifications.domain.model.Notification;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Cómo se agrupan los envíos de un canal.
+ *
+ * @param digester    clave de agrupación y construcción del resumen
+ * @param window      tiempo que se acumulan las notificaciones de una clave desde la primera
+ * @param maxMessages número de notificaciones a partir del cual el resumen se envía sin esperar a que
+ *                    termine la ventana
+ * @param <T>         tipo concreto de notificación
+ */
+public record CoalescingPolicy<T extends Notification>(Digester<T> digester, Duration window, int maxMessages) {
+
+    public static final int DEFAULT_MAX_MESSAGES = 100;
+
+    public CoalescingPolicy {
+        Objects.requireNonNull(digester, "digester is required");
+        Objects.requireNonNull(window, "window is required");
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        if (maxMessages < 2) {
+            throw new IllegalArgumentException("maxMessages must be at least 2");
+        }
+    }
+
+    public CoalescingPolicy(Digester<T> digester, Duration window) {
+        this(digester, window, DEFAULT_MAX_MESSAGES);
+    }
+}
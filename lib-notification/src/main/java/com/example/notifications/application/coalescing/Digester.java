@@ -0,0 +1,24 @@
+package com.example.notifications.application.coalescing;
+
+import com.example.notifications.domain.model.Notification;
+
+import java.util.List;
+
+/**
+ * Agrupa notificaciones de un mismo canal en un único resumen.
+ *
+ * @param <T> tipo concreto de notificación
+ */
+public interface Digester<T extends Notification> {
+
+    /**
+     * Clave de agrupación: las notificaciones con la misma clave dentro de una ventana se envían como un solo
+     * resumen. Debe implementar {@code equals}/{@code hashCode}.
+     */
+    Object key(T notification);
+
+    /**
+     * Construye el resumen de {@code notifications} (al menos dos, en orden de llegada).
+     */
+    T digest(List<T> notifications);
+}
@@ -0,0 +1,67 @@
+package com.example.notifications.application.coalescing;
+
+import com.example.notifications.application.port.out.template.TemplateEngine;
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.model.NotificationMetadata;
+import com.example.notifications.domain.model.NotificationPriority;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utilidades comunes a los {@link Digester} de chat y push.
+ */
+final class Digests {
+
+    private Digests() {
+    }
+
+    static String render(TemplateEngine engine, String template, Map<String, Object> variables) {
+        if (template == null || variables == null || variables.isEmpty()) {
+            return template;
+        }
+        return engine.render(template, variables);
+    }
+
+    /**
+     * Una línea por mensaje distinto, en orden de primera aparición; los repetidos se cuentan en lugar de
+     * repetirse ({@code "Disco lleno (x12)"}), que es lo habitual durante una incidencia.
+     */
+    static String lines(List<String> messages) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String message : messages) {
+            counts.merge(message, 1, Integer::sum);
+        }
+        StringBuilder lines = new StringBuilder();
+        counts.forEach((message, count) -> {
+            if (!lines.isEmpty()) {
+                lines.append('\n');
+            }
+            lines.append(message);
+            if (count > 1) {
+                lines.append(" (x").append(count).append(')');
+            }
+        });
+        return lines.toString();
+    }
+
+    /**
+     * Metadatos del resumen: la prioridad más alta de las agrupadas y su tenant (la clave de agrupación lo
+     * incluye, así que es común). La clave de idempotencia no se hereda: el resumen es un envío nuevo.
+     */
+    static NotificationMetadata metadata(List<? extends Notification> notifications) {
+        NotificationPriority priority = null;
+        for (Notification notification : notifications) {
+            NotificationPriority candidate = notification.metadata().priority();
+            if (candidate != null && (priority == null || candidate.compareTo(priority) < 0)) {
+                priority = candidate;
+            }
+        }
+        String tenant = notifications.get(0).metadata().tenant();
+        if (priority == null && tenant == null) {
+            return NotificationMetadata.NONE;
+        }
+        return new NotificationMetadata(null, priority, tenant);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.notifications.application.coalescing;
+
+import com.example.notifications.application.port.out.template.TemplateEngine;
+import com.example.notifications.domain.model.PushNotification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Resume las notificaciones push dirigidas al mismo dispositivo (y tenant).
+ * <p>
+ * El resumen es una {@link PushNotification} con las plantillas de título y cuerpo de resumen y las variables
+ * {@code count}, {@code messages} (cuerpos renderizados, una línea por cuerpo distinto), {@code title}
+ * (título renderizado de la última) y {@code body} (cuerpo renderizado de la última). Los datos
+ * ({@code data}) son los de la última notificación, que suele ser la que interesa abrir.
+ * </p>
+ */
+public class PushDigester implements Digester<PushNotification> {
+
+    public static final String DEFAULT_TITLE_TEMPLATE = "{{count}} notificaciones nuevas";
+    public static final String DEFAULT_BODY_TEMPLATE = "{{messages}}";
+
+    private final TemplateEngine engine;
+    private final String titleTemplate;
+    private final String bodyTemplate;
+
+    public PushDigester(TemplateEngine engine) {
+        this(engine, DEFAULT_TITLE_TEMPLATE, DEFAULT_BODY_TEMPLATE);
+    }
+
+    public PushDigester(TemplateEngine engine, String titleTemplate, String bodyTemplate) {
+        this.engine = Objects.requireNonNull(engine, "engine is required");
+        this.titleTemplate = Objects.requireNonNull(titleTemplate, "titleTemplate is required");
+        this.bodyTemplate = Objects.requireNonNull(bodyTemplate, "bodyTemplate is required");
+    }
+
+    @Override
+    public Object key(PushNotification notification) {
+        return new Key(notification.deviceToken(), notification.metadata().tenant());
+    }
+
+    @Override
+    public PushNotification digest(List<PushNotification> notifications) {
+        PushNotification last = notifications.get(notifications.size() - 1);
+        List<String> bodies = notifications.stream()
+                .map(notification -> Digests.render(engine, notification.bodyTemplate(), notification.variables()))
+                .toList();
+        Map<String, Object> variables = Map.of(
+                "count", notifications.size(),
+                "messages", Digests.lines(bodies),
+                "title", String.valueOf(Digests.render(engine, last.titleTemplate(), last.variables())),
+                "body", String.valueOf(bodies.get(bodies.size() - 1)));
+        return new PushNotification(last.recipient(), last.deviceToken(), titleTemplate, bodyTemplate, variables,
+                last.data(), Digests.metadata(notifications));
+    }
+
+    private record Key(String deviceToken, String tenant) {
+    }
+}
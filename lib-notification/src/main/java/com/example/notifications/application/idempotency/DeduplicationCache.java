@@ -0,0 +1,135 @@
+package com.example.notifications.application.idempotency;
+
+import com.example.notifications.domain.result.NotificationResult;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché acotada de resultados por clave de idempotencia, con caducidad.
+ *
+ * <h2>Estructura</h2>
+ * <p>
+ * Tabla asociativa por conjuntos: cada clave cae en un conjunto de {@value #WAYS} posiciones y solo se busca
+ * ahí, sin listas ni rehash. Los datos van en arrays paralelos de primitivos ({@code long} para el hash y
+ * {@code int} para la caducidad en segundos), más la referencia al resultado; como los éxitos comparten
+ * una única instancia de {@link NotificationResult}, cada entrada ocupa unos 16 bytes y no genera objetos
+ * por clave. Al insertar en un conjunto lleno se reutiliza una posición caducada o, si no hay, la que
+ * caduca antes: la caché nunca crece por encima de su capacidad.
+ * </p>
+ *
+ * <h2>Concurrencia</h2>
+ * <p>
+ * Los conjuntos se reparten entre {@value #MAX_STRIPES} locks como máximo, así que hilos con claves distintas
+ * rara vez compiten.
+ * </p>
+ */
+public final class DeduplicationCache {
+
+    static final int WAYS = 8;
+    static final int MAX_STRIPES = 64;
+
+    private final long[] keys;
+    private final int[] expiries;
+    private final NotificationResult[] results;
+    private final Object[] locks;
+    private final int setMask;
+    private final int ttlSeconds;
+    private final LongSupplier nanoClock;
+    private final long origin;
+
+    /**
+     * @param maxKeys número de claves que puede recordar a la vez (se redondea a potencia de dos)
+     * @param ttl     tiempo durante el que un envío se considera duplicado; resolución de un segundo
+     */
+    public DeduplicationCache(int maxKeys, Duration ttl) {
+        this(maxKeys, ttl, System::nanoTime);
+    }
+
+    DeduplicationCache(int maxKeys, Duration ttl, LongSupplier nanoClock) {
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("maxKeys must be greater than 0");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        int minSets = (maxKeys + WAYS - 1) / WAYS;
+        int sets = minSets == 1 ? 1 : Integer.highestOneBit(minSets - 1) << 1;
+        this.setMask = sets - 1;
+        this.keys = new long[sets * WAYS];
+        this.expiries = new int[sets * WAYS];
+        this.results = new NotificationResult[sets * WAYS];
+        this.locks = new Object[Math.min(sets, MAX_STRIPES)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        this.ttlSeconds = (int) Math.max(1, Math.min(Integer.MAX_VALUE / 2, (ttl.toMillis() + 999) / 1000));
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+    }
+
+    /**
+     * Resultado guardado para la clave, o {@code null} si no está o ha caducado.
+     */
+    public NotificationResult get(long key) {
+        int set = setOf(key);
+        int base = set * WAYS;
+        int now = now();
+        synchronized (locks[set & (locks.length - 1)]) {
+            for (int i = base; i < base + WAYS; i++) {
+                if (keys[i] == key && expiries[i] > now) {
+                    return results[i];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Guarda el resultado de la clave durante el TTL, sustituyendo el anterior si lo había.
+     */
+    public void put(long key, NotificationResult result) {
+        int set = setOf(key);
+        int base = set * WAYS;
+        int now = now();
+        synchronized (locks[set & (locks.length - 1)]) {
+            int slot = -1;
+            int free = -1;
+            int oldest = base;
+            for (int i = base; i < base + WAYS; i++) {
+                if (keys[i] == key) {
+                    slot = i;
+                    break;
+                }
+                if (free < 0 && expiries[i] <= now) {
+                    free = i;
+                }
+                if (expiries[i] < expiries[oldest]) {
+                    oldest = i;
+                }
+            }
+            if (slot < 0) {
+                slot = free >= 0 ? free : oldest;
+            }
+            keys[slot] = key;
+            expiries[slot] = now + ttlSeconds;
+            results[slot] = result;
+        }
+    }
+
+    /**
+     * Número máximo de claves que puede recordar.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    private int setOf(long key) {
+        return (int) (key ^ (key >>> 32)) & setMask;
+    }
+
+    /** Segundos desde la creación de la caché, empezando en 1 para que 0 signifique "posición libre". */
+    private int now() {
+        return (int) ((nanoClock.getAsLong() - origin) / 1_000_000_000L) + 1;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.notifications.application.idempotency;
+
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.result.NotificationResult;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detecta envíos duplicados de {@code NotificationService}.
+ * <p>
+ * Un envío es duplicado si su clave coincide con la de otro que sigue en curso (se comparte su futuro) o
+ * que terminó dentro del TTL de la {@link DeduplicationCache} (se devuelve su resultado sin llamar al
+ * proveedor). Los fallos transitorios y las excepciones no se recuerdan: un reintento del sistema origen
+ * tras un fallo así vuelve a enviar.
+ * </p>
+ */
+public final class Deduplicator {
+
+    private final DeduplicationCache cache;
+    private final boolean contentKeys;
+    private final ConcurrentHashMap<Long, CompletableFuture<NotificationResult>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param cache       resultados recientes
+     * @param contentKeys si es {@code true}, las notificaciones sin clave explícita usan un hash de su
+     *                    contenido; si es {@code false}, solo se deduplican las que traen clave
+     */
+    public Deduplicator(DeduplicationCache cache, boolean contentKeys) {
+        this.cache = Objects.requireNonNull(cache, "cache is required");
+        this.contentKeys = contentKeys;
+    }
+
+    /**
+     * Clave de deduplicación de la notificación, o {@link IdempotencyKeys#NONE} si no se deduplica.
+     */
+    public long keyOf(Notification notification) {
+        long key = IdempotencyKeys.explicitKey(notification);
+        if (key == IdempotencyKeys.NONE && contentKeys) {
+            key = IdempotencyKeys.contentKey(notification);
+        }
+        return key;
+    }
+
+    /**
+     * Reserva la clave para el envío representado por {@code future}.
+     *
+     * @return {@code null} si el envío es nuevo: el llamador debe enviarlo y completar {@code future}.
+     *         Si es duplicado, el futuro del envío original (o uno ya completado con su resultado).
+     */
+    public CompletableFuture<NotificationResult> claim(long key, CompletableFuture<NotificationResult> future) {
+        NotificationResult cached = cache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<NotificationResult> original = inFlight.putIfAbsent(key, future);
+        if (original != null) {
+            return original;
+        }
+        // Puede haber terminado entre la consulta a la caché y el registro.
+        cached = cache.get(key);
+        if (cached != null) {
+            // Otro hilo puede haber obtenido ya este futuro como original: hay que completarlo.
+            inFlight.remove(key, future);
+            future.complete(cached);
+            return future;
+        }
+
+        future.whenComplete((result, error) -> {
+            if (error == null && result != null && !result.isRetryable()) {
+                cache.put(key, result);
+            }
+            inFlight.remove(key, future);
+        });
+        return null;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.notifications.application.idempotency;
+
+import com.example.notifications.domain.model.ChatNotification;
+import com.example.notifications.domain.model.EmailNotification;
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.model.PushNotification;
+import com.example.notifications.domain.model.SmsNotification;
+
+import java.util.Map;
+
+/**
+ * Calcula la clave de deduplicación de una notificación como un hash de 64 bits.
+ * <p>
+ * Guardar el hash en lugar de la clave completa permite que {@link DeduplicationCache} use arrays de
+ * primitivos. A cambio existe una probabilidad de colisión: con 50 millones de claves vivas es del orden
+ * de 1 entre 10.000 de que dos envíos distintos compartan hash, y el segundo se trataría como duplicado.
+ * </p>
+ */
+public final class IdempotencyKeys {
+
+    /** Valor reservado para "sin clave"; un hash que dé 0 se desplaza a 1. */
+    public static final long NONE = 0L;
+
+    private static final long SEED = 0x6a09e667f3bcc908L;
+    private static final long MULTIPLIER = 0x9e3779b97f4a7c15L;
+
+    private IdempotencyKeys() {
+    }
+
+    /**
+     * Hash de la clave de idempotencia explícita, o {@link #NONE} si la notificación no tiene.
+     * Incluye el canal, de modo que la misma clave en email y en SMS son envíos distintos.
+     */
+    public static long explicitKey(Notification notification) {
+        String key = notification.metadata().idempotencyKey();
+        if (key == null) {
+            return NONE;
+        }
+        return nonZero(mix(hash(SEED + channel(notification), key)));
+    }
+
+    /**
+     * Hash del contenido: canal, destinatario, plantillas y variables (sin depender del orden del mapa).
+     */
+    public static long contentKey(Notification notification) {
+        long h = SEED ^ (channel(notification) * MULTIPLIER);
+        switch (notification) {
+            case EmailNotification email -> {
+                h = hash(h, email.sender());
+                h = hash(h, email.recipient());
+                h = hash(h, email.subjectTemplate());
+                h = hash(h, email.bodyTemplate());
+                h = hash(h, email.variables());
+            }
+            case SmsNotification sms -> {
+                h = hash(h, sms.sender());
+                h = hash(h, sms.recipient());
+                h = hash(h, sms.messageTemplate());
+                h = hash(h, sms.variables());
+            }
+            case PushNotification push -> {
+                h = hash(h, push.recipient());
+                h = hash(h, push.deviceToken());
+                h = hash(h, push.titleTemplate());
+                h = hash(h, push.bodyTemplate());
+                h = hash(h, push.variables());
+                h = hash(h, push.data());
+            }
+            case ChatNotification chat -> {
+                h = hash(h, chat.recipient());
+                h = hash(h, chat.messageTemplate());
+                h = hash(h, chat.variables());
+            }
+        }
+        return nonZero(mix(h));
+    }
+
+    private static int channel(Notification notification) {
+        return switch (notification) {
+            case EmailNotification ignored -> 1;
+            case SmsNotification ignored -> 2;
+            case PushNotification ignored -> 3;
+            case ChatNotification ignored -> 4;
+        };
+    }
+
+    private static long hash(long h, Map<String, ?> map) {
+        if (map == null) {
+            return step(h, -1);
+        }
+        // Suma de los hashes de cada par: el resultado no depende del orden de iteración.
+        long entries = 0;
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            long entryHash = hash(SEED, entry.getKey());
+            entryHash = hash(entryHash, entry.getValue() == null ? null : entry.getValue().toString());
+            entries += mix(entryHash);
+        }
+        return step(step(h, map.size()), entries);
+    }
+
+    private static long hash(long h, String value) {
+        if (value == null) {
+            return step(h, -1);
+        }
+        int length = value.length();
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            long packed = (long) value.charAt(i)
+                    | (long) value.charAt(i + 1) << 16
+                    | (long) value.charAt(i + 2) << 32
+                    | (long) value.charAt(i + 3) << 48;
+            h = step(h, packed);
+        }
+        for (; i < length; i++) {
+            h = step(h, value.charAt(i));
+        }
+        return step(h, length);
+    }
+
+    private static long step(long h, long value) {
+        return Long.rotateLeft(h ^ (value * MULTIPLIER), 31) * MULTIPLIER;
+    }
+
+    /** Finalizador de MurmurHash3 (fmix64). */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long nonZero(long h) {
+        return h == NONE ? 1L : h;
+    }
+}
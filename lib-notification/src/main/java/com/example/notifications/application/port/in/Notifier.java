@@ -3,6 +3,70 @@ package com.example.notifications.application.port.in;
 import com.example.notifications.domain.model.Notification;
 import com.example.notifications.domain.result.NotificationResult;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 public interface Notifier<T extends Notification> {
     NotificationResult send(T notification);
+
+    /**
+     * Envía un lote de notificaciones del mismo tipo. Los notifiers que usan un gateway con
+     * envío por lotes nativo lo sobrescriben para agrupar las llamadas al proveedor.
+     *
+     * @param notifications notificaciones a enviar
+     * @return un resultado por notificación, en el mismo orden de entrada
+     */
+    default List<NotificationResult> sendBatch(List<T> notifications) {
+        return notifications.stream().map(this::send).toList();
+    }
+
+    /**
+     * Versión asíncrona de {@link #send(Notification)}. Los notifiers que componen la llamada asíncrona de su
+     * gateway la sobrescriben para no ocupar un hilo mientras el proveedor responde. La implementación por
+     * defecto es un adaptador síncrono: llama a {@code send} en el hilo que invoca.
+     */
+    default CompletionStage<NotificationResult> sendAsync(T notification) {
+        try {
+            return CompletableFuture.completedFuture(send(notification));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Versión asíncrona de {@link #sendBatch(List)}. Por defecto, con envío por lotes nativo es un adaptador
+     * síncrono de {@code sendBatch}; sin él lanza un {@link #sendAsync} por notificación y espera a todos.
+     */
+    default CompletionStage<List<NotificationResult>> sendBatchAsync(List<T> notifications) {
+        if (batchesNatively()) {
+            try {
+                return CompletableFuture.completedFuture(sendBatch(notifications));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        List<CompletableFuture<NotificationResult>> calls = new ArrayList<>(notifications.size());
+        for (T notification : notifications) {
+            CompletionStage<NotificationResult> call;
+            try {
+                call = sendAsync(notification);
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            calls.add(call.toCompletableFuture());
+        }
+        return CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+                .thenApply(done -> calls.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Indica si {@link #sendBatch(List)} agrupa las notificaciones en menos llamadas al proveedor que una por
+     * notificación. Si no, {@code NotificationService} despacha cada notificación de un lote como un envío
+     * independiente, en paralelo y con su propio permiso de canal. Por defecto {@code false}.
+     */
+    default boolean batchesNatively() {
+        return false;
+    }
 }
@@ -0,0 +1,13 @@
+package com.example.notifications.application.port.out.audit;
+
+/**
+ * Resultado de una llamada a un proveedor registrado en el {@link AuditSink}.
+ */
+public enum AuditOutcome {
+
+    /** El proveedor aceptó el mensaje o el lote. */
+    SENT,
+
+    /** El proveedor rechazó el mensaje o el lote. */
+    FAILED
+}
@@ -0,0 +1,26 @@
+package com.example.notifications.application.port.out.audit;
+
+/**
+ * Puerto de auditoría: un registro estructurado por cada llamada a un proveedor.
+ * <p>
+ * Sustituye al log {@code INFO} por envío de los proveedores. Se llama en el camino caliente de cada envío,
+ * así que recibe los campos sueltos en lugar de un objeto evento: una implementación asíncrona puede copiarlos
+ * a una estructura preasignada sin crear nada por llamada. Debe ser rápido, no bloquear y no lanzar
+ * excepciones.
+ * </p>
+ */
+@FunctionalInterface
+public interface AuditSink {
+
+    AuditSink NOOP = (outcome, provider, recipient, messageId, count) -> {
+    };
+
+    /**
+     * @param outcome   si el proveedor aceptó o rechazó la llamada
+     * @param provider  {@code providerName()} del gateway
+     * @param recipient destinatario, o {@code null} en los envíos por lotes
+     * @param messageId identificador devuelto por el proveedor, o el error si falló
+     * @param count     mensajes cubiertos por la llamada ({@code 1} en los envíos individuales)
+     */
+    void record(AuditOutcome outcome, String provider, String recipient, String messageId, int count);
+}
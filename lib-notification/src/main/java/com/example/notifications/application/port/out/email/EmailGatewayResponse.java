@@ -1,4 +1,20 @@
 package com.example.notifications.application.port.out.email;
 
-public record EmailGatewayResponse(String messageId, String status, String errorMessage) {
+import com.example.notifications.domain.result.ErrorClassification;
+
+/**
+ * Respuesta del proveedor traducida al modelo común del puerto.
+ *
+ * @param classification si el error es transitorio o definitivo; {@link ErrorClassification#NONE} si no hubo error
+ */
+public record EmailGatewayResponse(
+        String messageId,
+        String status,
+        String errorMessage,
+        ErrorClassification classification
+) {
+
+    public EmailGatewayResponse(String messageId, String status, String errorMessage) {
+        this(messageId, status, errorMessage, ErrorClassification.defaultFor(errorMessage));
+    }
 }
@@ -0,0 +1,117 @@
+package com.example.notifications.application.port.out.metrics;
+
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.model.NotificationPriority;
+import com.example.notifications.domain.result.ErrorClassification;
+
+import java.util.Locale;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Puerto de instrumentación: {@code NotificationService}, los {@code Notifier} y las llamadas a los gateways
+ * informan aquí de lo que hacen.
+ * <p>
+ * Todos los métodos tienen una implementación vacía, así que {@link #NOOP} no cuesta nada y una
+ * implementación solo sobrescribe lo que le interesa. Se llaman en el camino caliente de cada envío: deben
+ * ser rápidos, no bloquear y no lanzar excepciones.
+ * </p>
+ * <p>
+ * Los canales se nombran con {@link #channel(Class)} ({@code email}, {@code sms}, {@code push}, {@code chat})
+ * y los proveedores con el {@code providerName()} de su gateway, o con el de cada proveedor miembro en los
+ * gateways compuestos.
+ * </p>
+ */
+public interface NotificationMetrics {
+
+    NotificationMetrics NOOP = new NotificationMetrics() {
+    };
+
+    /**
+     * Una notificación del canal se envió con éxito (un intento; los reintentos cuentan por separado).
+     */
+    default void sent(String channel) {
+    }
+
+    /**
+     * Un intento de envío del canal falló con la clasificación indicada.
+     */
+    default void failed(String channel, ErrorClassification classification) {
+    }
+
+    /**
+     * La cola rechazó o descartó {@code count} notificaciones del canal.
+     *
+     * @param reason motivo del rechazo ({@code FULL}, {@code DROPPED}, {@code SHUTDOWN}...)
+     */
+    default void rejected(String channel, String reason, int count) {
+    }
+
+    /**
+     * Tiempo que una tarea de la prioridad indicada esperó en la cola hasta empezar a ejecutarse.
+     */
+    default void queueWait(NotificationPriority priority, long nanos) {
+    }
+
+    /**
+     * Tiempo de renderizar las plantillas de un mensaje del canal.
+     */
+    default void templateRendered(String channel, long nanos) {
+    }
+
+    /**
+     * Duración de una llamada al gateway (un mensaje o un lote completo).
+     */
+    default void providerCall(String channel, String provider, long nanos) {
+    }
+
+    /**
+     * Resultado de un mensaje en el proveedor: {@link ErrorClassification#NONE} si se aceptó.
+     */
+    default void providerResult(String channel, String provider, ErrorClassification classification) {
+    }
+
+    /**
+     * Registra un valor que se lee al exportar (ocupación del executor, profundidad de la cola...).
+     *
+     * @param name  nombre de la métrica
+     * @param help  descripción
+     * @param value lectura del valor actual
+     */
+    default void gauge(String name, String help, DoubleSupplier value) {
+    }
+
+    /**
+     * Como {@link #gauge(String, String, DoubleSupplier)}, con una serie por canal y proveedor (el reparto de
+     * tráfico de un gateway compuesto, por ejemplo).
+     */
+    default void providerGauge(String name, String help, String channel, String provider, DoubleSupplier value) {
+    }
+
+    /**
+     * Nombre de canal de un tipo de notificación: el nombre de la clase sin el sufijo {@code Notification} y
+     * en minúsculas. Se calcula una vez por clase.
+     */
+    static String channel(Class<? extends Notification> type) {
+        return Channels.NAMES.get(type);
+    }
+
+    /**
+     * Caché de {@link #channel(Class)}.
+     */
+    final class Channels {
+
+        private static final ClassValue<String> NAMES = new ClassValue<>() {
+            @Override
+            protected String computeValue(Class<?> type) {
+                String name = type.getSimpleName();
+                if (name.endsWith("Notification") && name.length() > "Notification".length()) {
+                    name = name.substring(0, name.length() - "Notification".length());
+                }
+                return name.toLowerCase(Locale.ROOT);
+            }
+        };
+
+        private Channels() {
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.notifications.application.port.out.outbox;
+
+import com.example.notifications.domain.model.Notification;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Registro persistente de las notificaciones aceptadas y aún no enviadas, para garantizar entrega
+ * at-least-once aunque el proceso se reinicie.
+ * <p>
+ * {@code NotificationService} anota cada notificación antes de aceptarla, la marca como completada
+ * cuando el {@code Notifier} termina y, al arrancar, reenvía las que quedaron pendientes.
+ * </p>
+ */
+public interface NotificationOutbox extends AutoCloseable {
+
+    /**
+     * Anota una notificación. Cuando el método vuelve, la entrada es durable.
+     *
+     * @return identificador de la entrada
+     */
+    default long append(Notification notification) {
+        return append(notification, null);
+    }
+
+    /**
+     * Anota una notificación programada para {@code dueAt} ({@code null} si se envía en cuanto se acepta).
+     * Cuando el método vuelve, la entrada es durable.
+     *
+     * @return identificador de la entrada
+     */
+    long append(Notification notification, Instant dueAt);
+
+    /**
+     * Anota varias notificaciones con una única sincronización a disco.
+     *
+     * @return identificadores de las entradas, en el mismo orden
+     */
+    long[] appendAll(List<? extends Notification> notifications);
+
+    /**
+     * Marca una entrada como completada; no se reenviará en el próximo arranque.
+     */
+    void complete(long id);
+
+    /**
+     * Entradas sin completar, en orden de aceptación.
+     */
+    List<OutboxEntry> pending();
+
+    @Override
+    void close();
+}
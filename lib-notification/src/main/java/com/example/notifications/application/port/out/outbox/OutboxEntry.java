@@ -0,0 +1,19 @@
+package com.example.notifications.application.port.out.outbox;
+
+import com.example.notifications.domain.model.Notification;
+
+import java.time.Instant;
+
+/**
+ * Notificación aceptada en el outbox y todavía sin completar.
+ *
+ * @param id           identificador asignado por el outbox al aceptarla
+ * @param notification notificación a reenviar
+ * @param dueAt        fecha de envío programada, o {@code null} si debía enviarse al aceptarla
+ */
+public record OutboxEntry(long id, Notification notification, Instant dueAt) {
+
+    public OutboxEntry(long id, Notification notification) {
+        this(id, notification, null);
+    }
+}
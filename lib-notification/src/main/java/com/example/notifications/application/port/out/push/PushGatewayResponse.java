@@ -1,7 +1,20 @@
 package com.example.notifications.application.port.out.push;
 
+import com.example.notifications.domain.result.ErrorClassification;
+
+/**
+ * Respuesta del proveedor traducida al modelo común del puerto.
+ *
+ * @param classification si el error es transitorio o definitivo; {@link ErrorClassification#NONE} si no hubo error
+ */
 public record PushGatewayResponse(
         String messageId,
         String status,
-        String errors
-) {}
+        String errors,
+        ErrorClassification classification
+) {
+
+    public PushGatewayResponse(String messageId, String status, String errors) {
+        this(messageId, status, errors, ErrorClassification.defaultFor(errors));
+    }
+}
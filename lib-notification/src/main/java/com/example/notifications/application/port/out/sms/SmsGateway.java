@@ -1,5 +1,86 @@
 package com.example.notifications.application.port.out.sms;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 public interface SmsGateway {
     SmsGatewayResponse send(SmsMessage smsMessage);
+
+    /**
+     * Envía varios mensajes en el menor número de llamadas que soporte el proveedor.
+     * La implementación por defecto llama a {@link #send(SmsMessage)} por cada mensaje.
+     *
+     * @param smsMessages mensajes a enviar
+     * @return una respuesta por mensaje, en el mismo orden de entrada
+     */
+    default List<SmsGatewayResponse> sendBatch(List<SmsMessage> smsMessages) {
+        return smsMessages.stream().map(this::send).toList();
+    }
+
+    /**
+     * Versión asíncrona de {@link #send(SmsMessage)}: devuelve en cuanto la petición sale, sin bloquear el hilo.
+     * La implementación por defecto es un adaptador síncrono: llama a {@code send} en el hilo que invoca y
+     * devuelve la respuesta ya completada (o la excepción como fallo del {@code CompletionStage}).
+     */
+    default CompletionStage<SmsGatewayResponse> sendAsync(SmsMessage smsMessage) {
+        try {
+            return CompletableFuture.completedFuture(send(smsMessage));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Versión asíncrona de {@link #sendBatch(List)}. Por defecto, con envío por lotes nativo es un adaptador
+     * síncrono de {@code sendBatch}; sin él lanza un {@link #sendAsync} por mensaje y espera a todos, de modo que
+     * un gateway asíncrono no los serializa.
+     */
+    default CompletionStage<List<SmsGatewayResponse>> sendBatchAsync(List<SmsMessage> smsMessages) {
+        if (batchesNatively()) {
+            try {
+                return CompletableFuture.completedFuture(sendBatch(smsMessages));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        List<CompletableFuture<SmsGatewayResponse>> calls = new ArrayList<>(smsMessages.size());
+        for (SmsMessage message : smsMessages) {
+            CompletionStage<SmsGatewayResponse> call;
+            try {
+                call = sendAsync(message);
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            calls.add(call.toCompletableFuture());
+        }
+        return CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+                .thenApply(done -> calls.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Indica si {@link #sendBatch(List)} agrupa los mensajes en menos llamadas al proveedor que una por mensaje.
+     * Sin envío por lotes nativo, el servicio despacha cada notificación de un lote como un envío independiente
+     * para enviarlas en paralelo. Por defecto {@code false}.
+     */
+    default boolean batchesNatively() {
+        return false;
+    }
+
+    /**
+     * Nombre del proveedor en métricas y logs. Por defecto, el nombre simple de la clase.
+     */
+    default String providerName() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Indica si el gateway publica él mismo la duración y el resultado de cada llamada por proveedor, como los
+     * gateways compuestos, que los publican con el nombre del proveedor que atendió cada intento. En ese caso el
+     * notifier no los vuelve a publicar con {@link #providerName()}. Por defecto {@code false}.
+     */
+    default boolean reportsProviderMetrics() {
+        return false;
+    }
 }
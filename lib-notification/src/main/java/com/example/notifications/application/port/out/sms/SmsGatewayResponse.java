@@ -1,7 +1,20 @@
 package com.example.notifications.application.port.out.sms;
 
+import com.example.notifications.domain.result.ErrorClassification;
+
+/**
+ * Respuesta del proveedor traducida al modelo común del puerto.
+ *
+ * @param classification si el error es transitorio o definitivo; {@link ErrorClassification#NONE} si no hubo error
+ */
 public record SmsGatewayResponse(
         String messageId,
         String status,
-        String error
-) {}
+        String error,
+        ErrorClassification classification
+) {
+
+    public SmsGatewayResponse(String messageId, String status, String error) {
+        this(messageId, status, error, ErrorClassification.defaultFor(error));
+    }
+}
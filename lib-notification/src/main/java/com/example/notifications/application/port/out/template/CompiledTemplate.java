@@ -0,0 +1,132 @@
+package com.example.notifications.application.port.out.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Representación pre-compilada de una plantilla con placeholders {@code {{variable}}}.
+ * <p>
+ * La plantilla se analiza una única vez y se descompone en segmentos literales intercalados con
+ * huecos (slots) de variables. Renderizar consiste en recorrer esos segmentos en una sola pasada
+ * escribiendo en un {@link StringBuilder} con la capacidad ya estimada.
+ * </p>
+ *
+ * <h2>Compatibilidad con {@link SimpleTemplateEngine}</h2>
+ * <ul>
+ *   <li>Un placeholder cuya variable no existe en el mapa se conserva literal ({@code {{name}}}).</li>
+ *   <li>Los valores se convierten con {@link String#valueOf(Object)}, por lo que {@code null}
+ *       se renderiza como {@code "null"}.</li>
+ *   <li><b>Diferencia</b>: los valores se insertan tal cual, en una sola pasada. Si un valor contiene a su vez
+ *       un placeholder ({@code "{{code}}"}), no se vuelve a expandir. {@link SimpleTemplateEngine} lo expande o
+ *       no según el orden en que recorra el mapa de variables; aquí el resultado no depende de ese orden y un
+ *       valor aportado por el usuario no puede inyectar otras variables en el mensaje.</li>
+ * </ul>
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    /** Capacidad estimada por cada variable sustituida. */
+    private static final int ESTIMATED_VALUE_LENGTH = 16;
+
+    private final String source;
+    private final String[] literals;
+    private final String[] slots;
+    private final int literalLength;
+
+    private CompiledTemplate(String source, String[] literals, String[] slots, int literalLength) {
+        this.source = source;
+        this.literals = literals;
+        this.slots = slots;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Analiza la plantilla y construye su forma compilada.
+     *
+     * @param template texto de la plantilla
+     * @return plantilla compilada
+     */
+    public static CompiledTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+
+        StringBuilder literal = new StringBuilder();
+        int literalLength = 0;
+        int i = 0;
+        int length = template.length();
+
+        while (i < length) {
+            int open = template.indexOf(OPEN, i);
+            if (open < 0) {
+                literal.append(template, i, length);
+                break;
+            }
+            int close = template.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                literal.append(template, i, length);
+                break;
+            }
+
+            String name = template.substring(open + OPEN.length(), close);
+            if (name.indexOf('{') >= 0) {
+                // "{{{name}}}": la llave extra es literal y el placeholder empieza más adelante
+                literal.append(template, i, open + 1);
+                i = open + 1;
+                continue;
+            }
+
+            literal.append(template, i, open);
+            literals.add(literal.toString());
+            literalLength += literal.length();
+            literal.setLength(0);
+            slots.add(name);
+            i = close + CLOSE.length();
+        }
+
+        literals.add(literal.toString());
+        literalLength += literal.length();
+
+        return new CompiledTemplate(
+                template,
+                literals.toArray(String[]::new),
+                slots.toArray(String[]::new),
+                literalLength
+        );
+    }
+
+    /**
+     * Renderiza la plantilla con las variables indicadas.
+     *
+     * @param variables valores por nombre de variable
+     * @return texto resultante
+     */
+    public String render(Map<String, Object> variables) {
+        if (slots.length == 0) {
+            return source;
+        }
+
+        StringBuilder out = new StringBuilder(literalLength + slots.length * ESTIMATED_VALUE_LENGTH);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            String name = slots[i];
+            if (variables.containsKey(name)) {
+                out.append(variables.get(name));
+            } else {
+                out.append(OPEN).append(name).append(CLOSE);
+            }
+        }
+        out.append(literals[slots.length]);
+        return out.toString();
+    }
+
+    public String source() {
+        return source;
+    }
+
+    public int slotCount() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.notifications.application.port.out.template;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link TemplateEngine} que compila cada plantilla una sola vez y reutiliza la forma compilada.
+ * <p>
+ * A diferencia de {@link SimpleTemplateEngine}, que ejecuta un {@link String#replace} por variable
+ * sobre toda la plantilla, este motor analiza la plantilla en segmentos literales y slots
+ * ({@link CompiledTemplate}) y renderiza en una única pasada. Es un reemplazo directo para
+ * {@code EmailNotifier}, {@code SmsNotifier}, {@code PushNotifier} y {@code ChatNotifier}.
+ * </p>
+ *
+ * <h2>Caché</h2>
+ * <ul>
+ *   <li>Las plantillas compiladas se guardan en un {@link ConcurrentHashMap} cuya clave es el texto de la
+ *       plantilla. Un acierto no toma ningún bloqueo ni reordena nada: solo marca la entrada como usada, y
+ *       únicamente si no lo estaba ya.</li>
+ *   <li>La caché está acotada a {@code maxEntries}; al superarse se desaloja con un reloj de segunda
+ *       oportunidad (aproximación de LRU): se recorren las plantillas en orden de inserción, las usadas desde
+ *       la última vuelta pierden la marca y se quedan, y se desaloja la primera sin marca. Así las plantillas
+ *       generadas dinámicamente que solo se usan una vez salen antes que las habituales.</li>
+ *   <li>Solo las inserciones toman el bloqueo del reloj, después de compilar fuera de él.</li>
+ * </ul>
+ */
+public class CompiledTemplateEngine implements TemplateEngine {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private final int maxEntries;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    /** Claves en orden de inserción para el reloj de desalojo; con su propio cerrojo. */
+    private final Queue<String> clock = new ArrayDeque<>();
+
+    public CompiledTemplateEngine() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public CompiledTemplateEngine(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be greater than 0");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public String render(String template, Map<String, Object> variables) {
+        if (variables == null || variables.isEmpty()) {
+            return template;
+        }
+        return compile(template).render(variables);
+    }
+
+    /**
+     * Devuelve la plantilla compilada, compilándola y cacheándola si todavía no existe.
+     *
+     * @param template texto de la plantilla
+     * @return plantilla compilada
+     */
+    public CompiledTemplate compile(String template) {
+        Entry entry = cache.get(template);
+        if (entry != null) {
+            entry.touch();
+            return entry.compiled;
+        }
+
+        Entry compiled = new Entry(CompiledTemplate.compile(template));
+        Entry previous = cache.putIfAbsent(template, compiled);
+        if (previous != null) {
+            previous.touch();
+            return previous.compiled;
+        }
+        synchronized (clock) {
+            clock.add(template);
+            evictOverflow();
+        }
+        return compiled.compiled;
+    }
+
+    public int cachedTemplates() {
+        return cache.size();
+    }
+
+    /**
+     * Desaloja hasta volver a {@code maxEntries}. Cada plantilla se salta como mucho una vez por llamada, salvo
+     * que otro hilo la vuelva a marcar entre medias; por eso el recorrido se limita a dos vueltas.
+     */
+    private void evictOverflow() {
+        for (int budget = 2 * clock.size(); cache.size() > maxEntries && budget > 0; budget--) {
+            String key = clock.poll();
+            Entry entry = cache.get(key);
+            if (entry.referenced) {
+                entry.referenced = false;
+                clock.add(key);
+            } else {
+                cache.remove(key);
+            }
+        }
+        while (cache.size() > maxEntries) {
+            // Todas siguen marcadas por otros hilos: se desaloja la más antigua. Las que aún no están en el
+            // reloj las desalojará la inserción que las añada.
+            String oldest = clock.poll();
+            if (oldest == null) {
+                return;
+            }
+            cache.remove(oldest);
+        }
+    }
+
+    private static final class Entry {
+        private final CompiledTemplate compiled;
+        private volatile boolean referenced;
+
+        private Entry(CompiledTemplate compiled) {
+            this.compiled = compiled;
+        }
+
+        /**
+         * Marca la entrada como usada. Solo escribe si no lo estaba, para que los aciertos repetidos de varios
+         * hilos no se disputen la misma línea de caché.
+         */
+        private void touch() {
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+    }
+}
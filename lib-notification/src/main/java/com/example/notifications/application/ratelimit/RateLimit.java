@@ -0,0 +1,31 @@
+package com.example.notifications.application.ratelimit;
+
+/**
+ * Límite de tasa de un token bucket: {@code permitsPerSecond} peticiones por segundo en régimen
+ * estable, con ráfagas de hasta {@code burst} peticiones seguidas.
+ *
+ * @param permitsPerSecond tasa sostenida permitida
+ * @param burst            tamaño del bucket (peticiones que pueden salir de golpe tras un periodo inactivo)
+ */
+public record RateLimit(double permitsPerSecond, int burst) {
+
+    public RateLimit {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("permitsPerSecond must be greater than 0");
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("burst must be greater than 0");
+        }
+    }
+
+    /**
+     * Límite sin ráfaga: como máximo una petición cada {@code 1 / permitsPerSecond} segundos.
+     */
+    public static RateLimit perSecond(double permitsPerSecond) {
+        return new RateLimit(permitsPerSecond, 1);
+    }
+
+    public RateLimit withBurst(int burst) {
+        return new RateLimit(permitsPerSecond, burst);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.notifications.application.ratelimit;
+
+import com.example.notifications.application.port.out.chat.ChatGateway;
+import com.example.notifications.application.port.out.chat.ChatGatewayResponse;
+import com.example.notifications.application.port.out.chat.ChatMessage;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Decorador de {@link ChatGateway} que respeta los límites de tasa del proveedor;
+ * el límite por destinatario se aplica al canal de destino.
+ */
+public class RateLimitedChatGateway implements ChatGateway {
+
+    private final ChatGateway delegate;
+    private final Supplier<RateLimiter> limiter;
+
+    public RateLimitedChatGateway(ChatGateway delegate, RateLimiter limiter) {
+        this(delegate, RateLimiter.constant(limiter));
+    }
+
+    /**
+     * Lee el limitador en cada envío, de modo que se puede sustituir en caliente (por ejemplo al cambiar de
+     * cuenta del proveedor). Los envíos que ya reservaron turno en el anterior no se ven afectados.
+     */
+    public RateLimitedChatGateway(ChatGateway delegate, Supplier<RateLimiter> limiter) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate is required");
+        this.limiter = Objects.requireNonNull(limiter, "limiter is required");
+    }
+
+    @Override
+    public ChatGatewayResponse send(ChatMessage message) {
+        limiter.get().acquire(message.destination(), 1);
+        return delegate.send(message);
+    }
+
+    @Override
+    public List<ChatGatewayResponse> sendBatch(List<ChatMessage> messages) {
+        limiter.get().acquireAll(messages.stream().map(ChatMessage::destination).toList());
+        return delegate.sendBatch(messages);
+    }
+
+    /**
+     * No bloquea: la llamada asíncrona al proveedor sale cuando el limitador da turno.
+     */
+    @Override
+    public CompletionStage<ChatGatewayResponse> sendAsync(ChatMessage message) {
+        return limiter.get().whenPermitted(message.destination(), 1, () -> delegate.sendAsync(message));
+    }
+
+    @Override
+    public CompletionStage<List<ChatGatewayResponse>> sendBatchAsync(List<ChatMessage> messages) {
+        return limiter.get().whenPermittedAll(
+                messages.stream().map(ChatMessage::destination).toList(), () -> delegate.sendBatchAsync(messages));
+    }
+
+    @Override
+    public boolean batchesNatively() {
+        return delegate.batchesNatively();
+    }
+
+    @Override
+    public String providerName() {
+        return delegate.providerName();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.notifications.application.ratelimit;
+
+import com.example.notifications.application.port.out.email.EmailGateway;
+import com.example.notifications.application.port.out.email.EmailGatewayResponse;
+import com.example.notifications.application.port.out.email.EmailMessage;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Decorador de {@link EmailGateway} que respeta los límites de tasa del proveedor;
+ * el límite por destinatario se aplica a la dirección {@code to}.
+ */
+public class RateLimitedEmailGateway implements EmailGateway {
+
+    private final EmailGateway delegate;
+    private final Supplier<RateLimiter> limiter;
+
+    public RateLimitedEmailGateway(EmailGateway delegate, RateLimiter limiter) {
+        this(delegate, RateLimiter.constant(limiter));
+    }
+
+    /**
+     * Lee el limitador en cada envío, de modo que se puede sustituir en caliente (por ejemplo al cambiar de
+     * cuenta del proveedor). Los envíos que ya reservaron turno en el anterior no se ven afectados.
+     */
+    public RateLimitedEmailGateway(EmailGateway delegate, Supplier<RateLimiter> limiter) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate is required");
+        this.limiter = Objects.requireNonNull(limiter, "limiter is required");
+    }
+
+    @Override
+    public EmailGatewayResponse send(EmailMessage message) {
+        limiter.get().acquire(message.to(), 1);
+        return delegate.send(message);
+    }
+
+    @Override
+    public List<EmailGatewayResponse> sendBatch(List<EmailMessage> messages) {
+        limiter.get().acquireAll(messages.stream().map(EmailMessage::to).toList());
+        return delegate.sendBatch(messages);
+    }
+
+    /**
+     * No bloquea: la llamada asíncrona al proveedor sale cuando el limitador da turno.
+     */
+    @Override
+    public CompletionStage<EmailGatewayResponse> sendAsync(EmailMessage message) {
+        return limiter.get().whenPermitted(message.to(), 1, () -> delegate.sendAsync(message));
+    }
+
+    @Override
+    public CompletionStage<List<EmailGatewayResponse>> sendBatchAsync(List<EmailMessage> messages) {
+        return limiter.get().whenPermittedAll(
+                messages.stream().map(EmailMessage::to).toList(), () -> delegate.sendBatchAsync(messages));
+    }
+
+    @Override
+    public boolean batchesNatively() {
+        return delegate.batchesNatively();
+    }
+
+    @Override
+    public String providerName() {
+        return delegate.providerName();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.notifications.application.ratelimit;
+
+import com.example.notifications.application.port.out.push.PushGateway;
+import com.example.notifications.application.port.out.push.PushGatewayResponse;
+import com.example.notifications.application.port.out.push.PushMessage;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Decorador de {@link PushGateway} que respeta los límites de tasa del proveedor;
+ * el límite por destinatario se aplica al token del dispositivo.
+ */
+public class RateLimitedPushGateway implements PushGateway {
+
+    private final PushGateway delegate;
+    private final Supplier<RateLimiter> limiter;
+
+    public RateLimitedPushGateway(PushGateway delegate, RateLimiter limiter) {
+        this(delegate, RateLimiter.constant(limiter));
+    }
+
+    /**
+     * Lee el limitador en cada envío, de modo que se puede sustituir en caliente (por ejemplo al cambiar de
+     * cuenta del proveedor). Los envíos que ya reservaron turno en el anterior no se ven afectados.
+     */
+    public RateLimitedPushGateway(PushGateway delegate, Supplier<RateLimiter> limiter) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate is required");
+        this.limiter = Objects.requireNonNull(limiter, "limiter is required");
+    }
+
+    @Override
+    public PushGatewayResponse send(PushMessage message) {
+        limiter.get().acquire(message.token(), 1);
+        return delegate.send(message);
+    }
+
+    @Override
+    public List<PushGatewayResponse> sendBatch(List<PushMessage> messages) {
+        limiter.get().acquireAll(messages.stream().map(PushMessage::token).toList());
+        return delegate.sendBatch(messages);
+    }
+
+    /**
+     * No bloquea: la llamada asíncrona al proveedor sale cuando el limitador da turno.
+     */
+    @Override
+    public CompletionStage<PushGatewayResponse> sendAsync(PushMessage message) {
+        return limiter.get().whenPermitted(message.token(), 1, () -> delegate.sendAsync(message));
+    }
+
+    @Override
+    public CompletionStage<List<PushGatewayResponse>> sendBatchAsync(List<PushMessage> messages) {
+        return limiter.get().whenPermittedAll(
+                messages.stream().map(PushMessage::token).toList(), () -> delegate.sendBatchAsync(messages));
+    }
+
+    @Override
+    public boolean batchesNatively() {
+        return delegate.batchesNatively();
+    }
+
+    @Override
+    public String providerName() {
+        return delegate.providerName();
+    }
+}
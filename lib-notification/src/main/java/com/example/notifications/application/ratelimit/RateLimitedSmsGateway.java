@@ -0,0 +1,69 @@
+package com.example.notifications.application.ratelimit;
+
+import com.example.notifications.application.port.out.sms.SmsGateway;
+import com.example.notifications.application.port.out.sms.SmsGatewayResponse;
+import com.example.notifications.application.port.out.sms.SmsMessage;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Decorador de {@link SmsGateway} que respeta los límites de tasa del proveedor;
+ * el límite por destinatario se aplica al número {@code to}.
+ */
+public class RateLimitedSmsGateway implements SmsGateway {
+
+    private final SmsGateway delegate;
+    private final Supplier<RateLimiter> limiter;
+
+    public RateLimitedSmsGateway(SmsGateway delegate, RateLimiter limiter) {
+        this(delegate, RateLimiter.constant(limiter));
+    }
+
+    /**
+     * Lee el limitador en cada envío, de modo que se puede sustituir en caliente (por ejemplo al cambiar de
+     * cuenta del proveedor). Los envíos que ya reservaron turno en el anterior no se ven afectados.
+     */
+    public RateLimitedSmsGateway(SmsGateway delegate, Supplier<RateLimiter> limiter) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate is required");
+        this.limiter = Objects.requireNonNull(limiter, "limiter is required");
+    }
+
+    @Override
+    public SmsGatewayResponse send(SmsMessage message) {
+        limiter.get().acquire(message.to(), 1);
+        return delegate.send(message);
+    }
+
+    @Override
+    public List<SmsGatewayResponse> sendBatch(List<SmsMessage> messages) {
+        limiter.get().acquireAll(messages.stream().map(SmsMessage::to).toList());
+        return delegate.sendBatch(messages);
+    }
+
+    /**
+     * No bloquea: la llamada asíncrona al proveedor sale cuando el limitador da turno.
+     */
+    @Override
+    public CompletionStage<SmsGatewayResponse> sendAsync(SmsMessage message) {
+        return limiter.get().whenPermitted(message.to(), 1, () -> delegate.sendAsync(message));
+    }
+
+    @Override
+    public CompletionStage<List<SmsGatewayResponse>> sendBatchAsync(List<SmsMessage> messages) {
+        return limiter.get().whenPermittedAll(
+                messages.stream().map(SmsMessage::to).toList(), () -> delegate.sendBatchAsync(messages));
+    }
+
+    @Override
+    public boolean batchesNatively() {
+        return delegate.batchesNatively();
+    }
+
+    @Override
+    public String providerName() {
+        return delegate.providerName();
+    }
+}
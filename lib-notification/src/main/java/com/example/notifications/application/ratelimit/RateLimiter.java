@@ -0,0 +1,247 @@
+package com.example.notifications.application.ratelimit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Limitador de tasa de un proveedor, con un bucket global y, opcionalmente, uno por destinatario
+ * (número, email, token o canal de Slack).
+ * <p>
+ * Cuando no hay permisos, la petición espera a su turno en lugar de salir y recibir un 429.
+ * {@link #whenPermitted} y {@link #whenPermittedAll}, que usan los {@code sendAsync} de los decoradores y por
+ * tanto {@code NotificationService}, no ocupan ningún hilo mientras esperan: la llamada sale desde un
+ * temporizador. {@link #acquire(String, int)} y {@link #acquireAll(List)} aparcan el hilo llamador y son solo
+ * para los envíos síncronos.
+ * </p>
+ * <p>
+ * Los buckets por destinatario se purgan cuando hay {@code maxTrackedRecipients}: se eliminan los que están
+ * llenos. Si casi todos siguen ocupados, la siguiente purga espera a que entren otros
+ * {@code maxTrackedRecipients / 2} destinatarios, así que cada alta cuesta O(1) amortizado.
+ * </p>
+ *
+ * <pre>{@code
+ * RateLimiter twilioLimits = RateLimiter.builder()
+ *         .perProvider(new RateLimit(100, 20))
+ *         .perRecipient(RateLimit.perSecond(1))
+ *         .build();
+ * SmsGateway sms = new RateLimitedSmsGateway(new TwilioSmsProvider(config), twilioLimits);
+ * }</pre>
+ */
+public final class RateLimiter {
+
+    static final int DEFAULT_MAX_TRACKED_RECIPIENTS = 100_000;
+
+    private static final Executor VIRTUAL_THREADS =
+            command -> Thread.ofVirtual().name("rate-limited-call").start(command);
+
+    private final TokenBucket providerBucket;
+    private final RateLimit recipientLimit;
+    private final int maxTrackedRecipients;
+    private final LongSupplier clock;
+    private final Map<String, TokenBucket> recipientBuckets = new ConcurrentHashMap<>();
+    /** Número de buckets a partir del cual se purgan los inactivos. */
+    private final AtomicInteger sweepAt;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    private RateLimiter(Builder builder) {
+        this.clock = builder.clock;
+        this.providerBucket = builder.providerLimit == null ? null : new TokenBucket(builder.providerLimit, clock);
+        this.recipientLimit = builder.recipientLimit;
+        this.maxTrackedRecipients = builder.maxTrackedRecipients;
+        this.sweepAt = new AtomicInteger(maxTrackedRecipients);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Proveedor que siempre devuelve {@code limiter}, para los decoradores con un limitador fijo.
+     */
+    static Supplier<RateLimiter> constant(RateLimiter limiter) {
+        Objects.requireNonNull(limiter, "limiter is required");
+        return () -> limiter;
+    }
+
+    /**
+     * Reserva {@code permits} peticiones al proveedor y una por destinatario.
+     *
+     * @param recipient destinatario de la petición; se ignora si no hay límite por destinatario
+     * @return nanosegundos que hay que esperar antes de hacer la petición
+     */
+    public long reserve(String recipient, int permits) {
+        long wait = providerBucket == null ? 0 : providerBucket.reserve(permits);
+        if (recipientLimit != null && recipient != null) {
+            wait = Math.max(wait, recipientBucket(recipient).reserve(1));
+        }
+        return wait;
+    }
+
+    /**
+     * Reserva permisos y aparca el hilo llamador hasta que llegue su turno. Para no bloquear, usar
+     * {@link #whenPermitted(String, int, Supplier)}.
+     */
+    public void acquire(String recipient, int permits) {
+        long wait = reserve(recipient, permits);
+        if (wait > 0) {
+            park(wait);
+        }
+    }
+
+    /**
+     * Reserva los permisos de un lote (uno por mensaje, también contra el proveedor) y espera
+     * hasta que el más tardío llegue a su turno.
+     */
+    public void acquireAll(List<String> recipients) {
+        long wait = reserveAll(recipients);
+        if (wait > 0) {
+            park(wait);
+        }
+    }
+
+    /**
+     * Reserva los permisos de un lote como {@link #acquireAll(List)}, sin esperar.
+     *
+     * @return nanosegundos que hay que esperar antes de hacer la petición
+     */
+    public long reserveAll(List<String> recipients) {
+        long wait = providerBucket == null ? 0 : providerBucket.reserve(recipients.size());
+        if (recipientLimit != null) {
+            for (String recipient : recipients) {
+                if (recipient != null) {
+                    wait = Math.max(wait, recipientBucket(recipient).reserve(1));
+                }
+            }
+        }
+        return wait;
+    }
+
+    /**
+     * Versión sin bloqueo de {@link #acquire(String, int)}: reserva los permisos y lanza {@code call} cuando
+     * llega su turno, desde un temporizador en lugar de aparcar el hilo.
+     */
+    public <T> CompletionStage<T> whenPermitted(String recipient, int permits,
+                                                Supplier<? extends CompletionStage<T>> call) {
+        return after(reserve(recipient, permits), call);
+    }
+
+    /**
+     * Versión sin bloqueo de {@link #acquireAll(List)}.
+     */
+    public <T> CompletionStage<T> whenPermittedAll(List<String> recipients,
+                                                   Supplier<? extends CompletionStage<T>> call) {
+        return after(reserveAll(recipients), call);
+    }
+
+    private static <T> CompletionStage<T> after(long nanos, Supplier<? extends CompletionStage<T>> call) {
+        if (nanos <= 0) {
+            return call.get();
+        }
+        // La llamada sale en un hilo virtual: si el gateway es síncrono, no bloquea el common pool.
+        Executor delayed = CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS, VIRTUAL_THREADS);
+        return CompletableFuture.supplyAsync(() -> null, delayed).thenCompose(ignored -> call.get());
+    }
+
+    /**
+     * Número de destinatarios con bucket propio en memoria.
+     */
+    public int trackedRecipients() {
+        return recipientBuckets.size();
+    }
+
+    private TokenBucket recipientBucket(String recipient) {
+        TokenBucket bucket = recipientBuckets.get(recipient);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (recipientBuckets.size() >= sweepAt.get() && sweeping.compareAndSet(false, true)) {
+            try {
+                // Un bucket lleno equivale a uno nuevo, así que se puede olvidar sin cambiar el comportamiento.
+                recipientBuckets.values().removeIf(TokenBucket::isIdle);
+                sweepAt.set(Math.max(maxTrackedRecipients,
+                        recipientBuckets.size() + Math.max(1, maxTrackedRecipients / 2)));
+            } finally {
+                sweeping.set(false);
+            }
+        }
+        return recipientBuckets.computeIfAbsent(recipient, key -> new TokenBucket(recipientLimit, clock));
+    }
+
+    private void park(long nanos) {
+        long deadline = clock.getAsLong() + nanos;
+        long remaining = nanos;
+        while (remaining > 0) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Interrumpido esperando turno del limitador de tasa");
+            }
+            remaining = deadline - clock.getAsLong();
+        }
+    }
+
+    /**
+     * Configuración de {@link RateLimiter}. Al menos uno de los dos límites es obligatorio.
+     */
+    public static final class Builder {
+
+        private RateLimit providerLimit;
+        private RateLimit recipientLimit;
+        private int maxTrackedRecipients = DEFAULT_MAX_TRACKED_RECIPIENTS;
+        private LongSupplier clock = System::nanoTime;
+
+        private Builder() {
+        }
+
+        /**
+         * Límite global de peticiones al proveedor.
+         */
+        public Builder perProvider(RateLimit limit) {
+            this.providerLimit = limit;
+            return this;
+        }
+
+        /**
+         * Límite por destinatario, para proveedores que además limitan por número o canal.
+         */
+        public Builder perRecipient(RateLimit limit) {
+            this.recipientLimit = limit;
+            return this;
+        }
+
+        /**
+         * Número de destinatarios a partir del cual se purgan los buckets inactivos. Es un límite blando: si
+         * los buckets siguen ocupados, se pueden superar hasta que se vacíen.
+         * Por defecto {@value #DEFAULT_MAX_TRACKED_RECIPIENTS}.
+         */
+        public Builder maxTrackedRecipients(int maxTrackedRecipients) {
+            if (maxTrackedRecipients <= 0) {
+                throw new IllegalArgumentException("maxTrackedRecipients must be greater than 0");
+            }
+            this.maxTrackedRecipients = maxTrackedRecipients;
+            return this;
+        }
+
+        Builder clock(LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public RateLimiter build() {
+            if (providerLimit == null && recipientLimit == null) {
+                throw new IllegalArgumentException("at least one rate limit is required");
+            }
+            return new RateLimiter(this);
+        }
+    }
+}
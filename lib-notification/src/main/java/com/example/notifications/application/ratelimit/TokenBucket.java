@@ -0,0 +1,81 @@
+package com.example.notifications.application.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket sin locks, implementado como GCRA (generic cell rate algorithm).
+ * <p>
+ * En lugar de contar tokens, guarda el instante teórico en que el bucket vuelve a estar vacío
+ * ({@code theoreticalArrival}) en un único {@link AtomicLong}. Reservar {@code n} permisos es un CAS
+ * que adelanta ese instante {@code n} intervalos; la espera necesaria es lo que sobresale de la
+ * ventana de ráfaga. No hay hilo de recarga ni estado adicional que sincronizar.
+ * </p>
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(RateLimit limit) {
+        this(limit, System::nanoTime);
+    }
+
+    TokenBucket(RateLimit limit, LongSupplier clock) {
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000d / limit.permitsPerSecond()));
+        this.burstNanos = intervalNanos * limit.burst();
+        this.clock = clock;
+        this.theoreticalArrival = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Reserva {@code permits} permisos y devuelve cuánto debe esperar el llamador antes de usarlos.
+     * La reserva es firme: las llamadas siguientes esperan detrás de esta.
+     *
+     * @return nanosegundos de espera, {@code 0} si puede continuar de inmediato
+     */
+    public long reserve(int permits) {
+        while (true) {
+            long now = clock.getAsLong();
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos * permits;
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return Math.max(0, next - now - burstNanos);
+            }
+        }
+    }
+
+    /**
+     * Consume un permiso solo si está disponible de inmediato.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long now = clock.getAsLong();
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Nanosegundos hasta que {@link #reserve(int) reserve(1)} pueda salir sin esperar; {@code 0} si ya puede.
+     * No reserva nada.
+     */
+    public long nanosUntilAvailable() {
+        return Math.max(0, theoreticalArrival.get() + intervalNanos - clock.getAsLong() - burstNanos);
+    }
+
+    /**
+     * Indica si el bucket está lleno, es decir, si no queda ninguna reserva pendiente de amortizar.
+     */
+    boolean isIdle() {
+        return theoreticalArrival.get() - clock.getAsLong() <= 0;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.notifications.application.registry;
+
+import com.example.notifications.domain.model.Notification;
+
+import java.io.Serial;
+
+/**
+ * Indica que no hay un {@link com.example.notifications.application.port.in.Notifier} registrado para el tipo
+ * concreto de una notificación.
+ */
+public class NotifierNotFoundException extends IllegalStateException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Class<? extends Notification> type;
+
+    public NotifierNotFoundException(Class<? extends Notification> type) {
+        super("No hay un Notifier registrado para " + type.getSimpleName());
+        this.type = type;
+    }
+
+    public Class<? extends Notification> getType() {
+        return type;
+    }
+}
@@ -3,7 +3,11 @@ package com.example.notifications.application.registry;
 import com.example.notifications.domain.model.Notification;
 import com.example.notifications.application.port.in.Notifier;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Registro (registry) de {@link Notifier} asociados a cada tipo concreto de {@link Notification}.
@@ -14,50 +18,95 @@ import java.util.Map;
  *
  * <h2>Cómo funciona</h2>
  * <ul>
- *   <li>Internamente mantiene un {@link Map} cuya clave es la clase concreta de la notificación
- *       (por ejemplo {@code PushNotification.class})</li>
- *   <li>El valor es el {@code Notifier} correspondiente a esa clase</li>
- *   <li>Al llamar a {@link #get(Notification)}, se busca el notifier por {@code notification.getClass()}</li>
+ *   <li>{@link Notification} es una interfaz sellada: cada tipo permitido tiene una posición fija en un array
+ *       de notifiers, calculada una única vez por clase con un {@link ClassValue}.</li>
+ *   <li>{@link #get(Notification)} lee el array actual y accede a esa posición: sin hash, sin
+ *       {@code equals} y sin bloqueos.</li>
+ *   <li>Los cambios en caliente ({@link #replace(Class, Notifier)}, {@link #replaceAll(Map)}) copian el
+ *       array y lo publican de forma atómica; quien esté resolviendo ve el array anterior o el nuevo, nunca
+ *       una mezcla.</li>
  * </ul>
  *
  * <h2>Consideraciones</h2>
  * <ul>
- *   <li><b>Coincidencia exacta por clase</b>: la búsqueda se hace con {@code notification.getClass()},
- *       por lo que requiere que exista una entrada para la clase exacta (no resuelve por interfaz,
- *       superclase o jerarquía).</li>
- *   <li><b>Posible {@code null}</b>: si la clase de la notificación no está registrada,
- *       {@link #get(Notification)} devolverá {@code null}. Se recomienda validar el resultado
- *       (o cambiar la implementación para lanzar una excepción si no existe).</li>
- *   <li><b>Genéricos y cast</b>: el mapa almacena {@code Notifier<?>}. Para devolver un
+ *   <li><b>Coincidencia exacta por clase</b>: cada entrada corresponde a un tipo permitido de
+ *       {@link Notification}.</li>
+ *   <li><b>Tipos sin notifier</b>: el constructor admite registros parciales y {@link #get(Notification)} lanza
+ *       {@link NotifierNotFoundException} para un tipo sin notifier. {@link #exhaustive(Map)} exige uno por
+ *       tipo permitido al construir, de modo que la resolución no puede fallar.</li>
+ *   <li><b>Genéricos y cast</b>: el array almacena {@code Notifier<?>}. Para devolver un
  *       {@code Notifier<T>} tipado, se realiza un cast no verificable en tiempo de compilación,
  *       por eso existe {@code @SuppressWarnings("unchecked")}.</li>
  * </ul>
  *
  * <h2>Uso típico</h2>
  * <pre>{@code
- * Map<Class<? extends Notification>, Notifier<?>> map = Map.of(
+ * NotifierRegistry registry = NotifierRegistry.exhaustive(Map.of(
+ *     EmailNotification.class, new EmailNotifier(...),
+ *     SmsNotification.class, new SmsNotifier(...),
  *     PushNotification.class, new PushNotifier(...),
- *     EmailNotification.class, new EmailNotifier(...)
- * );
- *
- * NotifierRegistry registry = new NotifierRegistry(map);
+ *     ChatNotification.class, new ChatNotifier(...)
+ * ));
  *
  * Notification n = new PushNotification(...);
  * Notifier<Notification> notifier = registry.get(n); // devuelve el notifier adecuado
+ *
+ * registry.replace(PushNotification.class, new PushNotifier(otroGateway, ...)); // cambio en caliente
  * }</pre>
  */
 public class NotifierRegistry {
 
-    private final Map<Class<? extends Notification>, Notifier<?>> registry;
+    private static final Class<?>[] TYPES = Notification.class.getPermittedSubclasses();
+
+    private static final ClassValue<Integer> SLOTS = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            for (int i = 0; i < TYPES.length; i++) {
+                if (TYPES[i] == type) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException(type.getName() + " no es un tipo permitido de Notification");
+        }
+    };
+
+    private final AtomicReference<Notifier<?>[]> notifiers;
 
     /**
-     * Crea un registro a partir de un mapa de notifiers por tipo de notificación.
+     * Crea un registro a partir de un mapa de notifiers por tipo de notificación. Los tipos que no estén en el
+     * mapa no tienen notifier y {@link #get(Notification)} lanza {@link NotifierNotFoundException} para ellos.
      *
      * @param registry mapa donde la clave es la clase concreta de la notificación y el valor
      *                 es el {@link Notifier} capaz de enviarla
      */
     public NotifierRegistry(Map<Class<? extends Notification>, Notifier<?>> registry) {
-        this.registry = registry;
+        this(registry, false);
+    }
+
+    private NotifierRegistry(Map<Class<? extends Notification>, Notifier<?>> registry, boolean exhaustive) {
+        Notifier<?>[] initial = new Notifier<?>[TYPES.length];
+        registry.forEach((type, notifier) -> initial[SLOTS.get(type)] = notifier);
+        if (exhaustive) {
+            List<String> missing = new ArrayList<>();
+            for (int i = 0; i < TYPES.length; i++) {
+                if (initial[i] == null) {
+                    missing.add(TYPES[i].getSimpleName());
+                }
+            }
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("Faltan notifiers para " + String.join(", ", missing));
+            }
+        }
+        this.notifiers = new AtomicReference<>(initial);
+    }
+
+    /**
+     * Crea un registro que exige un notifier por cada tipo permitido de {@link Notification}.
+     *
+     * @throws IllegalArgumentException si falta alguno, indicando cuáles
+     */
+    public static NotifierRegistry exhaustive(Map<Class<? extends Notification>, Notifier<?>> registry) {
+        return new NotifierRegistry(registry, true);
     }
 
     /**
@@ -65,10 +114,53 @@ public class NotifierRegistry {
      *
      * @param notification instancia de notificación a resolver
      * @param <T>          tipo concreto de notificación
-     * @return el notifier registrado para {@code notification.getClass()}, o {@code null} si no existe
+     * @return el notifier registrado para {@code notification.getClass()}
+     * @throws NotifierNotFoundException si el tipo no tiene notifier
      */
     @SuppressWarnings("unchecked")
     public <T extends Notification> Notifier<T> get(T notification) {
-        return (Notifier<T>) registry.get(notification.getClass());
+        Notifier<?> notifier = notifiers.get()[SLOTS.get(notification.getClass())];
+        if (notifier == null) {
+            throw new NotifierNotFoundException(notification.getClass());
+        }
+        return (Notifier<T>) notifier;
+    }
+
+    /**
+     * Sustituye en caliente el notifier de un tipo. Los envíos ya resueltos terminan con el anterior; los
+     * siguientes usan el nuevo.
+     *
+     * @return el notifier anterior, o {@code null} si el tipo no tenía
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Notification> Notifier<T> replace(Class<T> type, Notifier<T> notifier) {
+        Objects.requireNonNull(notifier, "notifier is required");
+        int slot = SLOTS.get(type);
+        Notifier<?>[] previous = notifiers.getAndUpdate(current -> {
+            Notifier<?>[] next = current.clone();
+            next[slot] = notifier;
+            return next;
+        });
+        return (Notifier<T>) previous[slot];
+    }
+
+    /**
+     * Sustituye en caliente varios notifiers a la vez: ningún envío ve una parte del cambio sin la otra.
+     */
+    public void replaceAll(Map<Class<? extends Notification>, Notifier<?>> replacements) {
+        int[] slots = new int[replacements.size()];
+        Notifier<?>[] values = new Notifier<?>[replacements.size()];
+        int i = 0;
+        for (Map.Entry<Class<? extends Notification>, Notifier<?>> entry : replacements.entrySet()) {
+            slots[i] = SLOTS.get(entry.getKey());
+            values[i++] = Objects.requireNonNull(entry.getValue(), "notifier is required");
+        }
+        notifiers.updateAndGet(current -> {
+            Notifier<?>[] next = current.clone();
+            for (int j = 0; j < slots.length; j++) {
+                next[slots[j]] = values[j];
+            }
+            return next;
+        });
     }
 }
@@ -0,0 +1,93 @@
+package com.example.notifications.application.retry;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Programa reintentos según una {@link RetryPolicy} y un {@link RetryBudget}.
+ * <p>
+ * El reintento no duerme en el hilo que envió: se programa en un {@link ScheduledExecutorService}
+ * y, al vencer la espera, se vuelve a encolar como un envío más. El hilo de trabajo queda libre
+ * durante todo el backoff.
+ * </p>
+ */
+@Slf4j
+public final class Retrier {
+
+    private final RetryPolicy policy;
+    private final RetryBudget budget;
+    private final ScheduledExecutorService timer;
+
+    public Retrier(RetryPolicy policy, RetryBudget budget, ScheduledExecutorService timer) {
+        this.policy = Objects.requireNonNull(policy, "policy is required");
+        this.budget = Objects.requireNonNull(budget, "budget is required");
+        this.timer = Objects.requireNonNull(timer, "timer is required");
+    }
+
+    /**
+     * Registra un envío original en el presupuesto de reintentos.
+     */
+    public void onRequest() {
+        budget.onRequest();
+    }
+
+    /**
+     * Registra {@code count} envíos originales, uno por elemento de un lote.
+     */
+    public void onRequest(int count) {
+        budget.onRequest(count);
+    }
+
+    /**
+     * Programa {@code retry} tras el backoff del intento {@code attempt}, si la política y el
+     * presupuesto lo permiten.
+     *
+     * @param attempt   intento que acaba de fallar, empezando en 1
+     * @param retry     acción que vuelve a encolar el envío
+     * @param onFailure recibe la excepción si {@code retry} falla al ejecutarse (p. ej. cola cerrada)
+     * @return {@code true} si el reintento quedó programado; {@code false} si el llamador debe dar
+     *         el resultado actual por definitivo
+     */
+    public boolean scheduleRetry(int attempt, Runnable retry, Consumer<Throwable> onFailure) {
+        return scheduleRetry(attempt, 1, retry, onFailure);
+    }
+
+    /**
+     * Como {@link #scheduleRetry(int, Runnable, Consumer)} para un reintento que reenvía {@code count}
+     * notificaciones: consume un crédito del presupuesto por cada una.
+     */
+    public boolean scheduleRetry(int attempt, int count, Runnable retry, Consumer<Throwable> onFailure) {
+        if (attempt >= policy.maxAttempts() || !budget.tryAcquire(count)) {
+            return false;
+        }
+
+        long delay = policy.backoffNanos(attempt, ThreadLocalRandom.current());
+        try {
+            timer.schedule(() -> {
+                try {
+                    retry.run();
+                } catch (RuntimeException e) {
+                    onFailure.accept(e);
+                }
+            }, delay, TimeUnit.NANOSECONDS);
+            log.debug("Reintento {} programado en {} ms", attempt + 1, TimeUnit.NANOSECONDS.toMillis(delay));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    public RetryPolicy policy() {
+        return policy;
+    }
+
+    public RetryBudget budget() {
+        return budget;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.notifications.application.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Presupuesto global de reintentos, para que un proveedor degradado no reciba una tormenta de reintentos.
+ * <p>
+ * Cada envío original deposita {@code retryRatio} créditos y cada reintento consume uno, con un saldo
+ * máximo de {@code maxBalance}. Con un ratio de 0.1, los reintentos nunca superan de forma sostenida el
+ * 10% del tráfico original, por muchos envíos que fallen a la vez. El saldo empieza lleno para que los
+ * fallos aislados se reintenten desde el arranque.
+ * </p>
+ * <p>
+ * Se cuenta por notificación: un lote de 100 deposita como 100 envíos y reintentar 40 de sus elementos
+ * consume 40 créditos.
+ * </p>
+ */
+public final class RetryBudget {
+
+    private static final long SCALE = 1_000;
+
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final AtomicLong balance;
+    private final AtomicLong granted = new AtomicLong();
+    private final AtomicLong denied = new AtomicLong();
+
+    /**
+     * @param retryRatio reintentos permitidos por envío original, entre 0 y 1
+     * @param maxBalance máximo de reintentos acumulables
+     */
+    public RetryBudget(double retryRatio, int maxBalance) {
+        if (retryRatio < 0 || retryRatio > 1) {
+            throw new IllegalArgumentException("retryRatio must be between 0 and 1");
+        }
+        if (maxBalance <= 0) {
+            throw new IllegalArgumentException("maxBalance must be greater than 0");
+        }
+        this.depositPerRequest = Math.round(retryRatio * SCALE);
+        this.maxBalance = maxBalance * SCALE;
+        this.balance = new AtomicLong(this.maxBalance);
+    }
+
+    /**
+     * Presupuesto por defecto: un 10% de reintentos, con un saldo máximo de 100.
+     */
+    public static RetryBudget defaultBudget() {
+        return new RetryBudget(0.1, 100);
+    }
+
+    /**
+     * Registra un envío original.
+     */
+    public void onRequest() {
+        onRequest(1);
+    }
+
+    /**
+     * Registra {@code count} envíos originales, por ejemplo los elementos de un lote.
+     */
+    public void onRequest(int count) {
+        long deposit = depositPerRequest * count;
+        balance.getAndUpdate(current -> Math.min(maxBalance, current + deposit));
+    }
+
+    /**
+     * Consume un crédito si hay saldo.
+     *
+     * @return {@code true} si el reintento está permitido
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Consume {@code count} créditos si hay saldo para todos; si no, no consume ninguno.
+     *
+     * @return {@code true} si el reintento de los {@code count} envíos está permitido
+     */
+    public boolean tryAcquire(int count) {
+        long cost = count * SCALE;
+        while (true) {
+            long current = balance.get();
+            if (current < cost) {
+                denied.addAndGet(count);
+                return false;
+            }
+            if (balance.compareAndSet(current, current - cost)) {
+                granted.addAndGet(count);
+                return true;
+            }
+        }
+    }
+
+    public long retriesGranted() {
+        return granted.get();
+    }
+
+    public long retriesDenied() {
+        return denied.get();
+    }
+}
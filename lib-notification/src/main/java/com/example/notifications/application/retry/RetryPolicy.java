@@ -0,0 +1,58 @@
+package com.example.notifications.application.retry;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+
+/**
+ * Política de reintentos con backoff exponencial y full jitter.
+ * <p>
+ * La espera antes del intento {@code n + 1} es un valor aleatorio uniforme entre 0 y
+ * {@code min(maxBackoff, initialBackoff * multiplier^(n - 1))}. El jitter completo reparte los
+ * reintentos de muchos envíos fallidos a la vez en lugar de lanzarlos todos en el mismo instante.
+ * </p>
+ *
+ * @param maxAttempts    número máximo de intentos, incluido el primero
+ * @param initialBackoff techo de la espera tras el primer intento
+ * @param maxBackoff     techo máximo de la espera
+ * @param multiplier     factor de crecimiento del techo en cada intento
+ */
+public record RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff, double multiplier) {
+
+    public RetryPolicy {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be greater than 0");
+        }
+        Objects.requireNonNull(initialBackoff, "initialBackoff is required");
+        Objects.requireNonNull(maxBackoff, "maxBackoff is required");
+        if (initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("backoff must satisfy 0 <= initialBackoff <= maxBackoff");
+        }
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("multiplier must be at least 1");
+        }
+    }
+
+    /**
+     * Backoff exponencial que duplica el techo de espera en cada intento.
+     */
+    public static RetryPolicy exponential(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff, 2.0);
+    }
+
+    /**
+     * Techo de espera tras el intento {@code attempt} (empezando en 1), sin jitter.
+     */
+    public long backoffCeilingNanos(int attempt) {
+        double ceiling = initialBackoff.toNanos() * Math.pow(multiplier, attempt - 1);
+        return (long) Math.min(ceiling, maxBackoff.toNanos());
+    }
+
+    /**
+     * Espera con full jitter tras el intento {@code attempt} (empezando en 1).
+     */
+    public long backoffNanos(int attempt, RandomGenerator random) {
+        long ceiling = backoffCeilingNanos(attempt);
+        return ceiling == 0 ? 0 : random.nextLong(ceiling + 1);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.notifications.application.routing;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker por proveedor, basado en la tasa de fallos y de llamadas lentas sobre una ventana
+ * deslizante de las últimas {@code windowSize} llamadas.
+ * <p>
+ * La ventana es un buffer circular con un byte por llamada y dos contadores, así que registrar una
+ * llamada es O(1). Las transiciones se serializan con el monitor del breaker: la sección crítica son
+ * unas pocas operaciones aritméticas, insignificantes frente a la llamada de red que se mide.
+ * </p>
+ */
+public final class CircuitBreaker {
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final CircuitBreakerConfig config;
+    private final LongSupplier clock;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final byte[] window;
+
+    private CircuitState state = CircuitState.CLOSED;
+    private int position;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+    private long openedAt;
+    private int probesIssued;
+    private int probesSucceeded;
+
+    public CircuitBreaker(CircuitBreakerConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    CircuitBreaker(CircuitBreakerConfig config, LongSupplier clock) {
+        this.config = config;
+        this.clock = clock;
+        this.slowCallNanos = config.slowCallDuration().toNanos();
+        this.openNanos = config.openDuration().toNanos();
+        this.window = new byte[config.windowSize()];
+    }
+
+    /**
+     * Indica si se puede llamar al proveedor ahora. En estado semiabierto solo concede
+     * {@code halfOpenProbes} permisos hasta conocer su resultado.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == CircuitState.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            state = CircuitState.HALF_OPEN;
+            probesIssued = 0;
+            probesSucceeded = 0;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> tryIssueProbe();
+        };
+    }
+
+    /**
+     * Registra una llamada que el proveedor atendió, aunque fuese lenta.
+     */
+    public synchronized void onSuccess(long durationNanos) {
+        boolean slow = durationNanos >= slowCallNanos;
+        if (state == CircuitState.HALF_OPEN) {
+            if (slow) {
+                open();
+            } else if (++probesSucceeded >= config.halfOpenProbes()) {
+                close();
+            }
+            return;
+        }
+        record(slow ? SLOW : 0);
+    }
+
+    /**
+     * Registra una llamada fallida por causa del proveedor (excepción o error transitorio).
+     */
+    public synchronized void onError(long durationNanos) {
+        if (state == CircuitState.HALF_OPEN) {
+            open();
+            return;
+        }
+        record((byte) (FAILED | (durationNanos >= slowCallNanos ? SLOW : 0)));
+    }
+
+    public synchronized CircuitState state() {
+        if (state == CircuitState.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            return CircuitState.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * Proporción de fallos en la ventana actual.
+     */
+    public synchronized double failureRate() {
+        return recorded == 0 ? 0 : (double) failures / recorded;
+    }
+
+    private void record(byte outcome) {
+        if (state != CircuitState.CLOSED) {
+            return;
+        }
+        if (recorded == window.length) {
+            byte evicted = window[position];
+            failures -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            recorded++;
+        }
+        window[position] = outcome;
+        position = (position + 1) % window.length;
+        failures += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+
+        if (recorded >= config.minimumCalls()
+                && ((double) failures / recorded >= config.failureRateThreshold()
+                || (double) slowCalls / recorded >= config.slowCallRateThreshold())) {
+            open();
+        }
+    }
+
+    private boolean tryIssueProbe() {
+        if (probesIssued < config.halfOpenProbes()) {
+            probesIssued++;
+            return true;
+        }
+        return false;
+    }
+
+    private void open() {
+        state = CircuitState.OPEN;
+        openedAt = clock.getAsLong();
+    }
+
+    private void close() {
+        state = CircuitState.CLOSED;
+        position = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.notifications.application.routing;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuración de un {@link CircuitBreaker}.
+ *
+ * @param failureRateThreshold  proporción de llamadas fallidas (0-1) que abre el circuito
+ * @param slowCallRateThreshold proporción de llamadas lentas (0-1) que abre el circuito
+ * @param slowCallDuration      duración a partir de la cual una llamada cuenta como lenta
+ * @param windowSize            número de llamadas recientes que se evalúan
+ * @param minimumCalls          llamadas mínimas en la ventana antes de poder abrir el circuito
+ * @param openDuration          tiempo que el circuito permanece abierto antes de probar de nuevo
+ * @param halfOpenProbes        peticiones de prueba en estado semiabierto
+ */
+public record CircuitBreakerConfig(
+        double failureRateThreshold,
+        double slowCallRateThreshold,
+        Duration slowCallDuration,
+        int windowSize,
+        int minimumCalls,
+        Duration openDuration,
+        int halfOpenProbes
+) {
+
+    public CircuitBreakerConfig {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]");
+        }
+        if (slowCallRateThreshold <= 0 || slowCallRateThreshold > 1) {
+            throw new IllegalArgumentException("slowCallRateThreshold must be in (0, 1]");
+        }
+        Objects.requireNonNull(slowCallDuration, "slowCallDuration is required");
+        Objects.requireNonNull(openDuration, "openDuration is required");
+        if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("windowSize and minimumCalls must satisfy 0 < minimumCalls <= windowSize");
+        }
+        if (halfOpenProbes <= 0) {
+            throw new IllegalArgumentException("halfOpenProbes must be greater than 0");
+        }
+    }
+
+    /**
+     * 50% de fallos o de llamadas de más de 2 s sobre las últimas 50 llamadas (mínimo 10),
+     * 30 s abierto y 3 peticiones de prueba.
+     */
+    public static CircuitBreakerConfig defaults() {
+        return new CircuitBreakerConfig(0.5, 0.5, Duration.ofSeconds(2), 50, 10, Duration.ofSeconds(30), 3);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.notifications.application.routing;
+
+/**
+ * Estado de un {@link CircuitBreaker}.
+ */
+public enum CircuitState {
+    /** El proveedor recibe tráfico con normalidad. */
+    CLOSED,
+    /** El proveedor se considera caído: no recibe tráfico hasta que pase {@code openDuration}. */
+    OPEN,
+    /** Se dejan pasar unas pocas peticiones de prueba para decidir si se cierra o se vuelve a abrir. */
+    HALF_OPEN
+}
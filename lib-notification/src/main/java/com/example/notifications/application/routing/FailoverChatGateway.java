@@ -0,0 +1,33 @@
+package com.example.notifications.application.routing;
+
+import com.example.notifications.application.port.out.chat.ChatGateway;
+import com.example.notifications.application.port.out.chat.ChatGatewayResponse;
+import com.example.notifications.application.port.out.chat.ChatMessage;
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
+
+import java.util.List;
+
+/**
+ * {@link ChatGateway} compuesto que envía por el primer proveedor sano de la lista y pasa al
+ * siguiente cuando uno falla o tiene el circuito abierto.
+ *
+ * <pre>{@code
+ * ChatGateway chat = new FailoverChatGateway(List.of(
+ *         RoutedProvider.of("slackBot", slackBotProvider, CircuitBreakerConfig.defaults()),
+ *         RoutedProvider.of("slackWebhook", slackWebhookProvider, CircuitBreakerConfig.defaults())));
+ * }</pre>
+ */
+public class FailoverChatGateway extends RoutedGateway<ChatGateway, ChatMessage, ChatGatewayResponse>
+        implements ChatGateway {
+
+    public FailoverChatGateway(List<RoutedProvider<ChatGateway>> providers) {
+        this(providers, NotificationMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics recibe el reparto de tráfico y el resultado de las llamadas de cada proveedor
+     */
+    public FailoverChatGateway(List<RoutedProvider<ChatGateway>> providers, NotificationMetrics metrics) {
+        super(RoutedChannel.CHAT, providers, ProviderSelector.inOrder(), metrics);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.notifications.application.routing;
+
+import com.example.notifications.application.port.out.email.EmailGateway;
+import com.example.notifications.application.port.out.email.EmailGatewayResponse;
+import com.example.notifications.application.port.out.email.EmailMessage;
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
+
+import java.util.List;
+
+/**
+ * {@link EmailGateway} compuesto que envía por el primer proveedor sano de la lista y pasa al
+ * siguiente cuando uno falla o tiene el circuito abierto.
+ *
+ * <pre>{@code
+ * EmailGateway email = new FailoverEmailGateway(List.of(
+ *         RoutedProvider.of("sendGrid", sendGridProvider, CircuitBreakerConfig.defaults()),
+ *         RoutedProvider.of("mailgun", mailgunProvider, CircuitBreakerConfig.defaults())));
+ * }</pre>
+ */
+public class FailoverEmailGateway extends RoutedGateway<EmailGateway, EmailMessage, EmailGatewayResponse>
+        implements EmailGateway {
+
+    public FailoverEmailGateway(List<RoutedProvider<EmailGateway>> providers) {
+        this(providers, NotificationMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics recibe el reparto de tráfico y el resultado de las llamadas de cada proveedor
+     */
+    public FailoverEmailGateway(List<RoutedProvider<EmailGateway>> providers, NotificationMetrics metrics) {
+        super(RoutedChannel.EMAIL, providers, ProviderSelector.inOrder(), metrics);
+    }
+}
@@ -0,0 +1,437 @@
+package com.example.notifications.application.routing;
+
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
+import com.example.notifications.domain.result.ErrorClassification;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Lógica de failover común a los gateways compuestos de todos los canales.
+ * <p>
+ * Prueba los proveedores en el orden que decide el {@link ProviderSelector} (el configurado, o el del
+ * balanceo de carga), saltando los que tienen el circuito abierto. Una excepción o una
+ * respuesta con error {@link ErrorClassification#TRANSIENT} cuenta como fallo del proveedor y el envío
+ * pasa al siguiente; un error {@link ErrorClassification#PERMANENT} (p. ej. destinatario inválido) se
+ * devuelve tal cual, porque otro proveedor fallaría igual. Si ninguno atiende el envío se devuelve una
+ * respuesta transitoria de "sin proveedor disponible", que la política de reintentos puede reintentar.
+ * Un {@link Error} también cuenta como fallo, pero se propaga en lugar de pasar al siguiente proveedor.
+ * </p>
+ * <p>
+ * Cada llamada a un proveedor se publica en las métricas con el nombre de ese proveedor
+ * ({@link NotificationMetrics#providerCall} y {@link NotificationMetrics#providerResult}), no con el del
+ * gateway compuesto; una excepción cuenta como resultado {@link ErrorClassification#TRANSIENT}.
+ * </p>
+ *
+ * @param <G> puerto de salida del canal
+ * @param <M> mensaje del canal
+ * @param <R> respuesta del canal
+ */
+@Slf4j
+public final class FailoverEngine<G, M, R> {
+
+    private final List<RoutedProvider<G>> providers;
+    private final Function<R, ErrorClassification> classifier;
+    private final Function<String, R> unavailable;
+    private final ProviderSelector<G> selector;
+    private final LongSupplier clock;
+    private final String channel;
+    private final NotificationMetrics metrics;
+
+    /**
+     * @param providers   proveedores en orden de preferencia
+     * @param classifier  extrae la clasificación de error de una respuesta
+     * @param unavailable construye la respuesta cuando ningún proveedor atiende el envío
+     */
+    public FailoverEngine(List<RoutedProvider<G>> providers,
+                          Function<R, ErrorClassification> classifier,
+                          Function<String, R> unavailable) {
+        this(providers, classifier, unavailable, ProviderSelector.inOrder());
+    }
+
+    /**
+     * @param selector orden en que se prueban los proveedores en cada envío
+     */
+    public FailoverEngine(List<RoutedProvider<G>> providers,
+                          Function<R, ErrorClassification> classifier,
+                          Function<String, R> unavailable,
+                          ProviderSelector<G> selector) {
+        this(providers, classifier, unavailable, selector, "unknown", NotificationMetrics.NOOP);
+    }
+
+    /**
+     * @param channel nombre del canal en las métricas
+     * @param metrics recibe la duración y el resultado de cada llamada a cada proveedor
+     */
+    public FailoverEngine(List<RoutedProvider<G>> providers,
+                          Function<R, ErrorClassification> classifier,
+                          Function<String, R> unavailable,
+                          ProviderSelector<G> selector,
+                          String channel,
+                          NotificationMetrics metrics) {
+        this(providers, classifier, unavailable, selector, channel, metrics, System::nanoTime);
+    }
+
+    FailoverEngine(List<RoutedProvider<G>> providers,
+                   Function<R, ErrorClassification> classifier,
+                   Function<String, R> unavailable,
+                   ProviderSelector<G> selector,
+                   String channel,
+                   NotificationMetrics metrics,
+                   LongSupplier clock) {
+        if (providers.isEmpty()) {
+            throw new IllegalArgumentException("at least one provider is required");
+        }
+        this.providers = List.copyOf(providers);
+        this.classifier = classifier;
+        this.unavailable = unavailable;
+        this.selector = selector;
+        this.channel = Objects.requireNonNull(channel, "channel is required");
+        this.metrics = Objects.requireNonNull(metrics, "metrics is required");
+        this.clock = clock;
+    }
+
+    /**
+     * Envía un mensaje por el primer proveedor sano que lo acepte.
+     */
+    public R execute(M message, BiFunction<G, M, R> call) {
+        R lastResponse = null;
+        String lastError = "sin proveedores disponibles";
+
+        for (RoutedProvider<G> provider : selector.order(providers)) {
+            if (!provider.breaker().tryAcquirePermission()) {
+                continue;
+            }
+            long start = clock.getAsLong();
+            provider.stats().onStart();
+            try {
+                R response = call.apply(provider.gateway(), message);
+                long duration = clock.getAsLong() - start;
+                ErrorClassification classification = classifier.apply(response);
+                record(provider, duration, classification, 1);
+                if (classification == ErrorClassification.TRANSIENT) {
+                    onError(provider, duration);
+                    lastResponse = response;
+                    log.warn("Fallo transitorio en {}, probando el siguiente proveedor", provider.name());
+                    continue;
+                }
+                onSuccess(provider, duration);
+                return response;
+            } catch (RuntimeException e) {
+                onFailure(provider, clock.getAsLong() - start, 1);
+                lastError = provider.name() + ": " + e.getMessage();
+                log.warn("Error en {}, probando el siguiente proveedor", provider.name(), e);
+            } catch (Error e) {
+                // Se registra antes de propagarlo: si era la prueba de un circuito semiabierto, lo vuelve a abrir.
+                onFailure(provider, clock.getAsLong() - start, 1);
+                throw e;
+            }
+        }
+        return lastResponse != null ? lastResponse : unavailable.apply(lastError);
+    }
+
+    /**
+     * Envía un lote con la llamada por lotes del primer proveedor sano; los elementos con fallo
+     * transitorio pasan, como un lote más pequeño, al siguiente proveedor.
+     */
+    public List<R> executeBatch(List<M> messages, BiFunction<G, List<M>, List<R>> call) {
+        List<R> results = new ArrayList<>(Collections.nCopies(messages.size(), null));
+        List<Integer> pending = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            pending.add(i);
+        }
+        String lastError = "sin proveedores disponibles";
+
+        for (RoutedProvider<G> provider : selector.order(providers)) {
+            if (pending.isEmpty()) {
+                break;
+            }
+            if (!provider.breaker().tryAcquirePermission()) {
+                continue;
+            }
+
+            List<M> attempt = pending.size() == messages.size()
+                    ? messages
+                    : pending.stream().map(messages::get).toList();
+            long start = clock.getAsLong();
+            provider.stats().onStart();
+            try {
+                List<R> responses = call.apply(provider.gateway(), attempt);
+                long duration = clock.getAsLong() - start;
+                metrics.providerCall(channel, provider.name(), duration);
+
+                List<Integer> stillPending = new ArrayList<>();
+                for (int i = 0; i < pending.size(); i++) {
+                    R response = responses.get(i);
+                    results.set(pending.get(i), response);
+                    ErrorClassification classification = classifier.apply(response);
+                    metrics.providerResult(channel, provider.name(), classification);
+                    if (classification == ErrorClassification.TRANSIENT) {
+                        stillPending.add(pending.get(i));
+                    }
+                }
+                if (stillPending.size() == pending.size()) {
+                    onError(provider, duration);
+                } else {
+                    onSuccess(provider, duration);
+                }
+                pending = stillPending;
+            } catch (RuntimeException e) {
+                onFailure(provider, clock.getAsLong() - start, attempt.size());
+                lastError = provider.name() + ": " + e.getMessage();
+                log.warn("Error en lote de {}, probando el siguiente proveedor", provider.name(), e);
+            } catch (Error e) {
+                onFailure(provider, clock.getAsLong() - start, attempt.size());
+                throw e;
+            }
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, unavailable.apply(lastError));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Como {@link #execute}, sin bloquear: cada proveedor se prueba cuando termina la etapa del anterior. Un
+     * {@link Error} completa el future con ese error en lugar de pasar al siguiente proveedor.
+     */
+    public CompletableFuture<R> executeAsync(M message, BiFunction<G, M, ? extends CompletionStage<R>> call) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        tryNextAsync(selector.order(providers).iterator(), message, call, null, "sin proveedores disponibles", result);
+        return result;
+    }
+
+    private void tryNextAsync(Iterator<RoutedProvider<G>> order, M message,
+                              BiFunction<G, M, ? extends CompletionStage<R>> call,
+                              R lastResponse, String lastError, CompletableFuture<R> result) {
+        while (order.hasNext()) {
+            RoutedProvider<G> provider = order.next();
+            if (!provider.breaker().tryAcquirePermission()) {
+                continue;
+            }
+            long start = clock.getAsLong();
+            provider.stats().onStart();
+            call(() -> call.apply(provider.gateway(), message)).whenComplete((response, error) -> {
+                long duration = clock.getAsLong() - start;
+                try {
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        onFailure(provider, duration, 1);
+                        if (cause instanceof Error) {
+                            result.completeExceptionally(cause);
+                            return;
+                        }
+                        log.warn("Error en {}, probando el siguiente proveedor", provider.name(), cause);
+                        tryNextAsync(order, message, call, lastResponse, provider.name() + ": " + cause.getMessage(),
+                                result);
+                        return;
+                    }
+                    ErrorClassification classification = classifier.apply(response);
+                    record(provider, duration, classification, 1);
+                    if (classification == ErrorClassification.TRANSIENT) {
+                        onError(provider, duration);
+                        log.warn("Fallo transitorio en {}, probando el siguiente proveedor", provider.name());
+                        tryNextAsync(order, message, call, response, lastError, result);
+                        return;
+                    }
+                    onSuccess(provider, duration);
+                    result.complete(response);
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            return;
+        }
+        result.complete(lastResponse != null ? lastResponse : unavailable.apply(lastError));
+    }
+
+    /**
+     * Como {@link #executeBatch}, sin bloquear: los elementos con fallo transitorio pasan al siguiente proveedor
+     * cuando termina la etapa del anterior.
+     */
+    public CompletableFuture<List<R>> executeBatchAsync(List<M> messages,
+                                                        BiFunction<G, List<M>, ? extends CompletionStage<List<R>>> call) {
+        List<R> results = new ArrayList<>(Collections.nCopies(messages.size(), null));
+        List<Integer> pending = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            pending.add(i);
+        }
+        CompletableFuture<List<R>> result = new CompletableFuture<>();
+        tryNextBatchAsync(selector.order(providers).iterator(), messages, call, results, pending,
+                "sin proveedores disponibles", result);
+        return result;
+    }
+
+    private void tryNextBatchAsync(Iterator<RoutedProvider<G>> order, List<M> messages,
+                                   BiFunction<G, List<M>, ? extends CompletionStage<List<R>>> call,
+                                   List<R> results, List<Integer> pending, String lastError,
+                                   CompletableFuture<List<R>> result) {
+        while (!pending.isEmpty() && order.hasNext()) {
+            RoutedProvider<G> provider = order.next();
+            if (!provider.breaker().tryAcquirePermission()) {
+                continue;
+            }
+            List<M> attempt = pending.size() == messages.size()
+                    ? messages
+                    : pending.stream().map(messages::get).toList();
+            long start = clock.getAsLong();
+            provider.stats().onStart();
+            call(() -> call.apply(provider.gateway(), attempt)).whenComplete((responses, error) -> {
+                long duration = clock.getAsLong() - start;
+                try {
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        onFailure(provider, duration, attempt.size());
+                        if (cause instanceof Error) {
+                            result.completeExceptionally(cause);
+                            return;
+                        }
+                        log.warn("Error en lote de {}, probando el siguiente proveedor", provider.name(), cause);
+                        tryNextBatchAsync(order, messages, call, results, pending,
+                                provider.name() + ": " + cause.getMessage(), result);
+                        return;
+                    }
+                    metrics.providerCall(channel, provider.name(), duration);
+                    List<Integer> stillPending = new ArrayList<>();
+                    for (int i = 0; i < pending.size(); i++) {
+                        R response = responses.get(i);
+                        results.set(pending.get(i), response);
+                        ErrorClassification classification = classifier.apply(response);
+                        metrics.providerResult(channel, provider.name(), classification);
+                        if (classification == ErrorClassification.TRANSIENT) {
+                            stillPending.add(pending.get(i));
+                        }
+                    }
+                    if (stillPending.size() == pending.size()) {
+                        onError(provider, duration);
+                    } else {
+                        onSuccess(provider, duration);
+                    }
+                    tryNextBatchAsync(order, messages, call, results, stillPending, lastError, result);
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            return;
+        }
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, unavailable.apply(lastError));
+            }
+        }
+        result.complete(results);
+    }
+
+    /**
+     * Indica si todos los proveedores cumplen {@code test}, por ejemplo si todos envían lotes de forma nativa.
+     */
+    public boolean allProviders(Predicate<? super G> test) {
+        return providers.stream().allMatch(provider -> test.test(provider.gateway()));
+    }
+
+    /**
+     * Proporción de llamadas que ha recibido cada proveedor desde el arranque, entre 0 y 1.
+     */
+    public Map<String, Double> routingShare() {
+        long total = 0;
+        for (RoutedProvider<G> provider : providers) {
+            total += provider.stats().routed();
+        }
+        Map<String, Double> share = new LinkedHashMap<>();
+        for (RoutedProvider<G> provider : providers) {
+            share.put(provider.name(), total == 0 ? 0 : (double) provider.stats().routed() / total);
+        }
+        return share;
+    }
+
+    /**
+     * Proporción de llamadas que ha recibido {@code provider}; 0 si no hay ninguna o no es de este gateway.
+     */
+    public double routingShare(String provider) {
+        long total = 0;
+        long routed = 0;
+        for (RoutedProvider<G> candidate : providers) {
+            total += candidate.stats().routed();
+            if (candidate.name().equals(provider)) {
+                routed += candidate.stats().routed();
+            }
+        }
+        return total == 0 ? 0 : (double) routed / total;
+    }
+
+    /**
+     * Estadísticas vivas de cada proveedor, en orden de preferencia.
+     */
+    public Map<String, ProviderStats> providerStats() {
+        Map<String, ProviderStats> stats = new LinkedHashMap<>();
+        providers.forEach(provider -> stats.put(provider.name(), provider.stats()));
+        return stats;
+    }
+
+    /**
+     * Estado del circuito de cada proveedor, en orden de preferencia.
+     */
+    public Map<String, CircuitState> circuitStates() {
+        Map<String, CircuitState> states = new LinkedHashMap<>();
+        providers.forEach(provider -> states.put(provider.name(), provider.breaker().state()));
+        return states;
+    }
+
+    /**
+     * Etapa de la llamada a un proveedor; si la llamada lanza al crearla, una etapa fallida con esa excepción.
+     */
+    private static <T> CompletionStage<T> call(Supplier<? extends CompletionStage<T>> call) {
+        try {
+            return call.get();
+        } catch (Throwable e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private void record(RoutedProvider<?> provider, long duration, ErrorClassification classification, int messages) {
+        metrics.providerCall(channel, provider.name(), duration);
+        for (int i = 0; i < messages; i++) {
+            metrics.providerResult(channel, provider.name(), classification);
+        }
+    }
+
+    /**
+     * La llamada lanzó una excepción: cuenta como fallo del proveedor y como resultado transitorio de cada
+     * mensaje que llevaba.
+     */
+    private void onFailure(RoutedProvider<?> provider, long duration, int messages) {
+        onError(provider, duration);
+        record(provider, duration, ErrorClassification.TRANSIENT, messages);
+    }
+
+    private static void onSuccess(RoutedProvider<?> provider, long duration) {
+        provider.breaker().onSuccess(duration);
+        provider.stats().onFinish(duration, false);
+    }
+
+    private static void onError(RoutedProvider<?> provider, long duration) {
+        provider.breaker().onError(duration);
+        provider.stats().onFinish(duration, true);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.notifications.application.routing;
+
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
+import com.example.notifications.application.port.out.push.PushGateway;
+import com.example.notifications.application.port.out.push.PushGatewayResponse;
+import com.example.notifications.application.port.out.push.PushMessage;
+
+import java.util.List;
+
+/**
+ * {@link PushGateway} compuesto que envía por el primer proveedor sano de la lista y pasa al
+ * siguiente cuando uno falla o tiene el circuito abierto.
+ *
+ * <pre>{@code
+ * PushGateway push = new FailoverPushGateway(List.of(
+ *         RoutedProvider.of("fcmPrimary", fcmPrimaryProvider, CircuitBreakerConfig.defaults()),
+ *         RoutedProvider.of("fcmSecondary", fcmSecondaryProvider, CircuitBreakerConfig.defaults())));
+ * }</pre>
+ */
+public class FailoverPushGateway extends RoutedGateway<PushGateway, PushMessage, PushGatewayResponse>
+        implements PushGateway {
+
+    public FailoverPushGateway(List<RoutedProvider<PushGateway>> providers) {
+        this(providers, NotificationMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics recibe el reparto de tráfico y el resultado de las llamadas de cada proveedor
+     */
+    public FailoverPushGateway(List<RoutedProvider<PushGateway>> providers, NotificationMetrics metrics) {
+        super(RoutedChannel.PUSH, providers, ProviderSelector.inOrder(), metrics);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.notifications.application.routing;
+
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
+import com.example.notifications.application.port.out.sms.SmsGateway;
+import com.example.notifications.application.port.out.sms.SmsGatewayResponse;
+import com.example.notifications.application.port.out.sms.SmsMessage;
+
+import java.util.List;
+
+/**
+ * {@link SmsGateway} compuesto que envía por el primer proveedor sano de la lista y pasa al
+ * siguiente cuando uno falla o tiene el circuito abierto.
+ *
+ * <pre>{@code
+ * SmsGateway sms = new FailoverSmsGateway(List.of(
+ *         RoutedProvider.of("twilioMain", twilioMainProvider, CircuitBreakerConfig.defaults()),
+ *         RoutedProvider.of("twilioBackup", twilioBackupProvider, CircuitBreakerConfig.defaults())));
+ * }</pre>
+ */
+public class FailoverSmsGateway extends RoutedGateway<SmsGateway, SmsMessage, SmsGatewayResponse>
+        implements SmsGateway {
+
+    public FailoverSmsGateway(List<RoutedProvider<SmsGateway>> providers) {
+        this(providers, NotificationMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics recibe el reparto de tráfico y el resultado de las llamadas de cada proveedor
+     */
+    public FailoverSmsGateway(List<RoutedProvider<SmsGateway>> providers, NotificationMetrics metrics) {
+        super(RoutedChannel.SMS, providers, ProviderSelector.inOrder(), metrics);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.notifications.application.routing;
+
+import com.example.notifications.application.port.out.chat.ChatGateway;
+import com.example.notifications.application.port.out.chat.ChatGatewayResponse;
+import com.example.notifications.application.port.out.chat.ChatMessage;
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
+
+import java.util.List;
+
+/**
+ * {@link ChatGateway} compuesto que reparte el volumen entre varios proveedores según su rendimiento
+ * en vivo (o sus pesos estáticos) y, si el elegido falla, pasa a los demás como en
+ * {@link FailoverChatGateway}.
+ *
+ * <pre>{@code
+ * ChatGateway chat = new LoadBalancedChatGateway(List.of(
+ *         RoutedProvider.of("slackBot", slackBotProvider, CircuitBreakerConfig.defaults(), 3),
+ *         RoutedProvider.of("slackWebhook", slackWebhookProvider, CircuitBreakerConfig.defaults(), 1)),
+ *         RoutingStrategy.POWER_OF_TWO_CHOICES);
+ * }</pre>
+ */
+public class LoadBalancedChatGateway extends RoutedGateway<ChatGateway, ChatMessage, ChatGatewayResponse>
+        implements ChatGateway {
+
+    public LoadBalancedChatGateway(List<RoutedProvider<ChatGateway>> providers, RoutingStrategy strategy) {
+        this(providers, strategy, NotificationMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics recibe el reparto de tráfico y el resultado de las llamadas de cada proveedor
+     */
+    public LoadBalancedChatGateway(List<RoutedProvider<ChatGateway>> providers,
+                                   RoutingStrategy strategy,
+                                   NotificationMetrics metrics) {
+        super(RoutedChannel.CHAT, providers, ProviderSelector.balanced(strategy), metrics);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.notifications.application.routing;
+
+import com.example.notifications.application.port.out.email.EmailGateway;
+import com.example.notifications.application.port.out.email.EmailGatewayResponse;
+import com.example.notifications.application.port.out.email.EmailMessage;
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
+
+import java.util.List;
+
+/**
+ * {@link EmailGateway} compuesto que reparte el volumen entre varios proveedores según su rendimiento
+ * en vivo (o sus pesos estáticos) y, si el elegido falla, pasa a los demás como en
+ * {@link FailoverEmailGateway}.
+ *
+ * <pre>{@code
+ * EmailGateway email = new LoadBalancedEmailGateway(List.of(
+ *         RoutedProvider.of("sendgrid", sendgridProvider, CircuitBreakerConfig.defaults(), 3),
+ *         RoutedProvider.of("mailgun", mailgunProvider, CircuitBreakerConfig.defaults(), 1)),
+ *         RoutingStrategy.POWER_OF_TWO_CHOICES);
+ * }</pre>
+ */
+public class LoadBalancedEmailGateway extends RoutedGateway<EmailGateway, EmailMessage, EmailGatewayResponse>
+        implements EmailGateway {
+
+    public LoadBalancedEmailGateway(List<RoutedProvider<EmailGateway>> providers, RoutingStrategy strategy) {
+        this(providers, strategy, NotificationMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics recibe el reparto de tráfico y el resultado de las llamadas de cada proveedor
+     */
+    public LoadBalancedEmailGateway(List<RoutedProvider<EmailGateway>> providers,
+                                    RoutingStrategy strategy,
+                                    NotificationMetrics metrics) {
+        super(RoutedChannel.EMAIL, providers, ProviderSelector.balanced(strategy), metrics);
+    }
+}
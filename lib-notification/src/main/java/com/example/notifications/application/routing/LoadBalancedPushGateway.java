@@ -0,0 +1,37 @@
+package com.example.notifications.application.routing;
+
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
+import com.example.notifications.application.port.out.push.PushGateway;
+import com.example.notifications.application.port.out.push.PushGatewayResponse;
+import com.example.notifications.application.port.out.push.PushMessage;
+
+import java.util.List;
+
+/**
+ * {@link PushGateway} compuesto que reparte el volumen entre varios proveedores según su rendimiento
+ * en vivo (o sus pesos estáticos) y, si el elegido falla, pasa a los demás como en
+ * {@link FailoverPushGateway}.
+ *
+ * <pre>{@code
+ * PushGateway push = new LoadBalancedPushGateway(List.of(
+ *         RoutedProvider.of("fcmPrimary", fcmPrimaryProvider, CircuitBreakerConfig.defaults(), 3),
+ *         RoutedProvider.of("fcmSecondary", fcmSecondaryProvider, CircuitBreakerConfig.defaults(), 1)),
+ *         RoutingStrategy.POWER_OF_TWO_CHOICES);
+ * }</pre>
+ */
+public class LoadBalancedPushGateway extends RoutedGateway<PushGateway, PushMessage, PushGatewayResponse>
+        implements PushGateway {
+
+    public LoadBalancedPushGateway(List<RoutedProvider<PushGateway>> providers, RoutingStrategy strategy) {
+        this(providers, strategy, NotificationMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics recibe el reparto de tráfico y el resultado de las llamadas de cada proveedor
+     */
+    public LoadBalancedPushGateway(List<RoutedProvider<PushGateway>> providers,
+                                   RoutingStrategy strategy,
+                                   NotificationMetrics metrics) {
+        super(RoutedChannel.PUSH, providers, ProviderSelector.balanced(strategy), metrics);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.notifications.application.routing;
+
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
+import com.example.notifications.application.port.out.sms.SmsGateway;
+import com.example.notifications.application.port.out.sms.SmsGatewayResponse;
+import com.example.notifications.application.port.out.sms.SmsMessage;
+
+import java.util.List;
+
+/**
+ * {@link SmsGateway} compuesto que reparte el volumen entre varios proveedores según su rendimiento
+ * en vivo (o sus pesos estáticos) y, si el elegido falla, pasa a los demás como en
+ * {@link FailoverSmsGateway}.
+ *
+ * <pre>{@code
+ * SmsGateway sms = new LoadBalancedSmsGateway(List.of(
+ *         RoutedProvider.of("twilioMain", twilioMainProvider, CircuitBreakerConfig.defaults(), 3),
+ *         RoutedProvider.of("twilioSecondary", twilioSecondaryProvider, CircuitBreakerConfig.defaults(), 1)),
+ *         RoutingStrategy.POWER_OF_TWO_CHOICES);
+ * }</pre>
+ */
+public class LoadBalancedSmsGateway extends RoutedGateway<SmsGateway, SmsMessage, SmsGatewayResponse>
+        implements SmsGateway {
+
+    public LoadBalancedSmsGateway(List<RoutedProvider<SmsGateway>> providers, RoutingStrategy strategy) {
+        this(providers, strategy, NotificationMetrics.NOOP);
+    }
+
+    /**
+     * @param metrics recibe el reparto de tráfico y el resultado de las llamadas de cada proveedor
+     */
+    public LoadBalancedSmsGateway(List<RoutedProvider<SmsGateway>> providers,
+                                  RoutingStrategy strategy,
+                                  NotificationMetrics metrics) {
+        super(RoutedChannel.SMS, providers, ProviderSelector.balanced(strategy), metrics);
+    }
+}
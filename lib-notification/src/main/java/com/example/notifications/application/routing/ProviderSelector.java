@@ -0,0 +1,113 @@
+package com.example.notifications.application.routing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decide en qué orden prueba un gateway compuesto sus proveedores para un envío.
+ *
+ * @param <G> puerto de salida del canal
+ */
+@FunctionalInterface
+public interface ProviderSelector<G> {
+
+    /**
+     * @param providers proveedores configurados, en orden de preferencia
+     * @return los mismos proveedores en el orden en que deben probarse
+     */
+    List<RoutedProvider<G>> order(List<RoutedProvider<G>> providers);
+
+    /**
+     * Siempre en el orden configurado: primario y respaldos.
+     */
+    static <G> ProviderSelector<G> inOrder() {
+        return providers -> providers;
+    }
+
+    /**
+     * Primero el proveedor elegido por {@code strategy} entre los que tienen el circuito cerrado y después
+     * el resto por coste esperado, como respaldo.
+     */
+    static <G> ProviderSelector<G> balanced(RoutingStrategy strategy) {
+        return providers -> {
+            List<RoutedProvider<G>> candidates = new ArrayList<>(providers.size());
+            for (RoutedProvider<G> provider : providers) {
+                if (provider.breaker().state() != CircuitState.OPEN) {
+                    candidates.add(provider);
+                }
+            }
+            if (candidates.size() <= 1) {
+                return providers;
+            }
+
+            RoutedProvider<G> chosen = switch (strategy) {
+                case WEIGHTED_LEAST_LATENCY -> byInverseCost(candidates);
+                case POWER_OF_TWO_CHOICES -> powerOfTwo(candidates);
+                case STATIC_WEIGHTS -> byWeight(candidates);
+            };
+
+            List<RoutedProvider<G>> ordered = new ArrayList<>(providers.size());
+            ordered.add(chosen);
+            providers.stream()
+                    .filter(provider -> provider != chosen)
+                    .sorted(byCost())
+                    .forEach(ordered::add);
+            return ordered;
+        };
+    }
+
+    private static <G> Comparator<RoutedProvider<G>> byCost() {
+        return Comparator.comparingDouble(provider -> provider.stats().cost(provider.weight()));
+    }
+
+    private static <G> RoutedProvider<G> powerOfTwo(List<RoutedProvider<G>> candidates) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        RoutedProvider<G> a = candidates.get(first);
+        RoutedProvider<G> b = candidates.get(second);
+        return a.stats().cost(a.weight()) <= b.stats().cost(b.weight()) ? a : b;
+    }
+
+    /**
+     * Sorteo con probabilidad proporcional a {@code 1 / coste}: el proveedor más rápido recibe más tráfico
+     * sin llevárselo todo, y los demás siguen recibiendo muestras con las que actualizar su latencia.
+     */
+    private static <G> RoutedProvider<G> byInverseCost(List<RoutedProvider<G>> candidates) {
+        double[] scores = new double[candidates.size()];
+        double total = 0;
+        for (int i = 0; i < scores.length; i++) {
+            RoutedProvider<G> candidate = candidates.get(i);
+            scores[i] = 1 / candidate.stats().cost(candidate.weight());
+            total += scores[i];
+        }
+        double point = ThreadLocalRandom.current().nextDouble(total);
+        for (int i = 0; i < scores.length; i++) {
+            point -= scores[i];
+            if (point < 0) {
+                return candidates.get(i);
+            }
+        }
+        return candidates.get(candidates.size() - 1);
+    }
+
+    private static <G> RoutedProvider<G> byWeight(List<RoutedProvider<G>> candidates) {
+        double total = 0;
+        for (RoutedProvider<G> candidate : candidates) {
+            total += candidate.weight();
+        }
+        double point = ThreadLocalRandom.current().nextDouble(total);
+        for (RoutedProvider<G> candidate : candidates) {
+            point -= candidate.weight();
+            if (point < 0) {
+                return candidate;
+            }
+        }
+        return candidates.get(candidates.size() - 1);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.notifications.application.routing;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estadísticas vivas de un proveedor: EWMA de latencia y de tasa de error, llamadas en curso y
+ * llamadas enrutadas.
+ * <p>
+ * Las medias se guardan como bits de {@code double} en {@link AtomicLong} y se actualizan con CAS,
+ * sin locks en el camino de envío.
+ * </p>
+ */
+public final class ProviderStats {
+
+    /** Peso de la última muestra en las medias móviles. */
+    static final double ALPHA = 0.2;
+
+    private final AtomicLong latencyNanos = new AtomicLong(Double.doubleToRawLongBits(0));
+    private final AtomicLong errorRate = new AtomicLong(Double.doubleToRawLongBits(0));
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong routed = new AtomicLong();
+
+    void onStart() {
+        inFlight.incrementAndGet();
+        routed.incrementAndGet();
+    }
+
+    void onFinish(long durationNanos, boolean error) {
+        inFlight.decrementAndGet();
+        update(latencyNanos, durationNanos);
+        update(errorRate, error ? 1 : 0);
+    }
+
+    /**
+     * Latencia media móvil, en nanosegundos.
+     */
+    public double latencyEwmaNanos() {
+        return Double.longBitsToDouble(latencyNanos.get());
+    }
+
+    /**
+     * Tasa de error media móvil, entre 0 y 1.
+     */
+    public double errorRateEwma() {
+        return Double.longBitsToDouble(errorRate.get());
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long routed() {
+        return routed.get();
+    }
+
+    /**
+     * Coste esperado de enviar por este proveedor: latencia media, penalizada por la carga en curso
+     * y por la probabilidad de fallo, y dividida por el peso estático.
+     */
+    double cost(double weight) {
+        double failure = Math.min(errorRateEwma(), 0.99);
+        return (latencyEwmaNanos() + 1_000) * (inFlight() + 1) / (1 - failure) / weight;
+    }
+
+    private static void update(AtomicLong average, double sample) {
+        while (true) {
+            long current = average.get();
+            double next = Double.longBitsToDouble(current) * (1 - ALPHA) + sample * ALPHA;
+            if (average.compareAndSet(current, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+}
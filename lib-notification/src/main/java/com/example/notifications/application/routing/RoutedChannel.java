@@ -0,0 +1,70 @@
+package com.example.notifications.application.routing;
+
+import com.example.notifications.application.port.out.chat.ChatGateway;
+import com.example.notifications.application.port.out.chat.ChatGatewayResponse;
+import com.example.notifications.application.port.out.chat.ChatMessage;
+import com.example.notifications.application.port.out.email.EmailGateway;
+import com.example.notifications.application.port.out.email.EmailGatewayResponse;
+import com.example.notifications.application.port.out.email.EmailMessage;
+import com.example.notifications.application.port.out.push.PushGateway;
+import com.example.notifications.application.port.out.push.PushGatewayResponse;
+import com.example.notifications.application.port.out.push.PushMessage;
+import com.example.notifications.application.port.out.sms.SmsGateway;
+import com.example.notifications.application.port.out.sms.SmsGatewayResponse;
+import com.example.notifications.application.port.out.sms.SmsMessage;
+import com.example.notifications.domain.result.ErrorClassification;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Lo que un {@link RoutedGateway} necesita saber de un canal: cómo llamar a un proveedor, cómo clasificar su
+ * respuesta y cómo construir la de "sin proveedor disponible".
+ *
+ * @param name            nombre del canal en las métricas
+ * @param send            envío de un mensaje por un proveedor
+ * @param sendBatch       envío de un lote por un proveedor
+ * @param sendAsync       envío asíncrono de un mensaje por un proveedor
+ * @param sendBatchAsync  envío asíncrono de un lote por un proveedor
+ * @param batchesNatively si un proveedor envía lotes de forma nativa
+ * @param classifier      clasificación de error de una respuesta
+ * @param unavailable     respuesta transitoria cuando ningún proveedor atiende el envío
+ */
+record RoutedChannel<G, M, R>(
+        String name,
+        BiFunction<G, M, R> send,
+        BiFunction<G, List<M>, List<R>> sendBatch,
+        BiFunction<G, M, CompletionStage<R>> sendAsync,
+        BiFunction<G, List<M>, CompletionStage<List<R>>> sendBatchAsync,
+        Predicate<G> batchesNatively,
+        Function<R, ErrorClassification> classifier,
+        Function<String, R> unavailable
+) {
+
+    static final RoutedChannel<EmailGateway, EmailMessage, EmailGatewayResponse> EMAIL = new RoutedChannel<>(
+            "email", EmailGateway::send, EmailGateway::sendBatch,
+            EmailGateway::sendAsync, EmailGateway::sendBatchAsync, EmailGateway::batchesNatively,
+            EmailGatewayResponse::classification,
+            error -> new EmailGatewayResponse(null, "UNAVAILABLE", error, ErrorClassification.TRANSIENT));
+
+    static final RoutedChannel<SmsGateway, SmsMessage, SmsGatewayResponse> SMS = new RoutedChannel<>(
+            "sms", SmsGateway::send, SmsGateway::sendBatch,
+            SmsGateway::sendAsync, SmsGateway::sendBatchAsync, SmsGateway::batchesNatively,
+            SmsGatewayResponse::classification,
+            error -> new SmsGatewayResponse(null, "UNAVAILABLE", error, ErrorClassification.TRANSIENT));
+
+    static final RoutedChannel<PushGateway, PushMessage, PushGatewayResponse> PUSH = new RoutedChannel<>(
+            "push", PushGateway::send, PushGateway::sendBatch,
+            PushGateway::sendAsync, PushGateway::sendBatchAsync, PushGateway::batchesNatively,
+            PushGatewayResponse::classification,
+            error -> new PushGatewayResponse(null, "UNAVAILABLE", error, ErrorClassification.TRANSIENT));
+
+    static final RoutedChannel<ChatGateway, ChatMessage, ChatGatewayResponse> CHAT = new RoutedChannel<>(
+            "chat", ChatGateway::send, ChatGateway::sendBatch,
+            ChatGateway::sendAsync, ChatGateway::sendBatchAsync, ChatGateway::batchesNatively,
+            ChatGatewayResponse::classification,
+            error -> new ChatGatewayResponse(null, "UNAVAILABLE", error, ErrorClassification.TRANSIENT));
+}
@@ -0,0 +1,104 @@
+package com.example.notifications.application.routing;
+
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Implementación común de los gateways compuestos de todos los canales ({@code Failover*Gateway} y
+ * {@code LoadBalanced*Gateway}): cada uno solo elige el {@link ProviderSelector} y delega en un
+ * {@link FailoverEngine}.
+ * <p>
+ * La proporción de tráfico de cada proveedor se publica como el gauge
+ * {@code notification_provider_routing_share{channel,provider}}, y la duración y el resultado de cada
+ * llamada, con el nombre del proveedor que la atendió (ver {@link FailoverEngine}).
+ * </p>
+ *
+ * @param <G> puerto de salida del canal
+ * @param <M> mensaje del canal
+ * @param <R> respuesta del canal
+ */
+public abstract class RoutedGateway<G, M, R> {
+
+    private final RoutedChannel<G, M, R> channel;
+    private final FailoverEngine<G, M, R> engine;
+
+    RoutedGateway(RoutedChannel<G, M, R> channel,
+                  List<RoutedProvider<G>> providers,
+                  ProviderSelector<G> selector,
+                  NotificationMetrics metrics) {
+        Objects.requireNonNull(metrics, "metrics is required");
+        this.channel = channel;
+        this.engine = new FailoverEngine<>(providers, channel.classifier(), channel.unavailable(), selector,
+                channel.name(), metrics);
+        registerGauges(engine, channel.name(), metrics);
+    }
+
+    public R send(M message) {
+        return engine.execute(message, channel.send());
+    }
+
+    public List<R> sendBatch(List<M> messages) {
+        return engine.executeBatch(messages, channel.sendBatch());
+    }
+
+    /**
+     * Failover sin bloquear sobre el {@code sendAsync} de cada proveedor.
+     */
+    public CompletionStage<R> sendAsync(M message) {
+        return engine.executeAsync(message, channel.sendAsync());
+    }
+
+    /**
+     * Failover sin bloquear sobre el {@code sendBatchAsync} de cada proveedor.
+     */
+    public CompletionStage<List<R>> sendBatchAsync(List<M> messages) {
+        return engine.executeBatchAsync(messages, channel.sendBatchAsync());
+    }
+
+    /**
+     * Solo si todos los proveedores lo hacen: un lote puede acabar en cualquiera de ellos.
+     */
+    public boolean batchesNatively() {
+        return engine.allProviders(channel.batchesNatively());
+    }
+
+    /**
+     * Siempre: {@link FailoverEngine} publica cada intento con el nombre del proveedor que lo atendió.
+     */
+    public boolean reportsProviderMetrics() {
+        return true;
+    }
+
+    /**
+     * Proporción del tráfico que ha recibido cada proveedor, entre 0 y 1.
+     */
+    public Map<String, Double> routingShare() {
+        return engine.routingShare();
+    }
+
+    /**
+     * Latencia y tasa de error medias de cada proveedor.
+     */
+    public Map<String, ProviderStats> providerStats() {
+        return engine.providerStats();
+    }
+
+    /**
+     * Estado del circuito de cada proveedor, en orden de preferencia.
+     */
+    public Map<String, CircuitState> circuitStates() {
+        return engine.circuitStates();
+    }
+
+    private static void registerGauges(FailoverEngine<?, ?, ?> engine, String channel, NotificationMetrics metrics) {
+        for (String provider : engine.providerStats().keySet()) {
+            metrics.providerGauge("notification_provider_routing_share",
+                    "Proporción de las llamadas de un gateway compuesto que recibió el proveedor",
+                    channel, provider, () -> engine.routingShare(provider));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.notifications.application.routing;
+
+import java.util.Objects;
+
+/**
+ * Un proveedor dentro de un gateway compuesto, con su nombre, su circuit breaker, su peso estático
+ * y sus estadísticas vivas.
+ *
+ * @param name    nombre del proveedor, para métricas y logs
+ * @param gateway gateway del proveedor
+ * @param breaker circuit breaker propio del proveedor
+ * @param weight  peso relativo para el balanceo de carga (mayor peso, más tráfico)
+ * @param stats   latencia, tasa de error y tráfico observados
+ * @param <G>     puerto de salida del canal
+ */
+public record RoutedProvider<G>(String name, G gateway, CircuitBreaker breaker, double weight, ProviderStats stats) {
+
+    public RoutedProvider {
+        Objects.requireNonNull(name, "name is required");
+        Objects.requireNonNull(gateway, "gateway is required");
+        Objects.requireNonNull(breaker, "breaker is required");
+        Objects.requireNonNull(stats, "stats is required");
+        if (!(weight > 0)) {
+            throw new IllegalArgumentException("weight must be greater than 0");
+        }
+    }
+
+    public RoutedProvider(String name, G gateway, CircuitBreaker breaker) {
+        this(name, gateway, breaker, 1, new ProviderStats());
+    }
+
+    /**
+     * Proveedor con un circuit breaker nuevo con la configuración indicada.
+     */
+    public static <G> RoutedProvider<G> of(String name, G gateway, CircuitBreakerConfig config) {
+        return of(name, gateway, config, 1);
+    }
+
+    /**
+     * Proveedor con peso estático, para repartir volumen por coste o por cuota contratada.
+     */
+    public static <G> RoutedProvider<G> of(String name, G gateway, CircuitBreakerConfig config, double weight) {
+        return new RoutedProvider<>(name, gateway, new CircuitBreaker(config), weight, new ProviderStats());
+    }
+}
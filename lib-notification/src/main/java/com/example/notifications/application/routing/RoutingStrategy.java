@@ -0,0 +1,24 @@
+package com.example.notifications.application.routing;
+
+/**
+ * Cómo elige un gateway balanceado el proveedor de cada envío entre los que tienen el circuito cerrado.
+ */
+public enum RoutingStrategy {
+    /**
+     * Sorteo ponderado por el inverso del coste esperado: latencia EWMA por carga en curso, penalizada por la
+     * tasa de error y dividida por el peso. Un proveedor el doble de rápido recibe el doble de tráfico, pero
+     * ninguno se queda sin envíos, así que su latencia no se queda congelada. Evalúa todos los proveedores en
+     * cada envío.
+     */
+    WEIGHTED_LEAST_LATENCY,
+    /**
+     * Power of two choices: elige dos proveedores al azar y se queda con el de menor coste. Casi tan bueno
+     * como evaluar todos y evita que todos los envíos se amontonen a la vez en el proveedor más rápido.
+     */
+    POWER_OF_TWO_CHOICES,
+    /**
+     * Reparto aleatorio proporcional al peso estático, sin tener en cuenta la latencia. Útil para
+     * control de costes o cuotas.
+     */
+    STATIC_WEIGHTS
+}
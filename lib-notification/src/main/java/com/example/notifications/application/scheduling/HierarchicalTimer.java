@@ -0,0 +1,238 @@
+package com.example.notifications.application.scheduling;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Temporizador para un gran número de tareas diferidas: rueda de tiempo jerárquica.
+ *
+ * <h2>Coste</h2>
+ * <ul>
+ *   <li>Programar y cancelar son O(1): enlazar o desenlazar el {@link Timeout} en su casilla.</li>
+ *   <li>Cada temporizador es un único objeto pequeño; no hay cola de prioridad con todos ellos.</li>
+ *   <li>El hilo del temporizador no se despierta en cada tick: una {@link DelayQueue} contiene solo las
+ *       casillas no vacías, así que duerme hasta la siguiente casilla que vence.</li>
+ * </ul>
+ *
+ * <h2>Ejecución</h2>
+ * <p>
+ * Las tareas vencidas se ejecutan siempre en el hilo del temporizador, nunca en el que programa, por lo que
+ * deben ser cortas y no bloquear (por ejemplo, encolar un envío sin esperar). La resolución es de un tick: una
+ * tarea puede ejecutarse hasta un tick más tarde de lo pedido, nunca antes.
+ * </p>
+ */
+@Slf4j
+public final class HierarchicalTimer implements AutoCloseable {
+
+    private final DelayQueue<TimerBucket> queue = new DelayQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long tickMs;
+    private final LongSupplier clockMs;
+    private final TimingWheel wheel;
+    private final Thread driver;
+    /** Tareas que ya vencían al programarlas; el hilo del temporizador las ejecuta en cuanto la saca de la cola. */
+    private final TimerBucket due;
+    private volatile boolean closed;
+    private int size;
+
+    /**
+     * @param name      nombre del hilo del temporizador
+     * @param tick      resolución del temporizador
+     * @param wheelSize casillas por nivel
+     */
+    public HierarchicalTimer(String name, Duration tick, int wheelSize) {
+        this(name, tick, wheelSize, () -> System.nanoTime() / 1_000_000);
+    }
+
+    HierarchicalTimer(String name, Duration tick, int wheelSize, LongSupplier clockMs) {
+        long tickMs = Objects.requireNonNull(tick, "tick is required").toMillis();
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tick must be at least 1 ms");
+        }
+        if (wheelSize < 2) {
+            throw new IllegalArgumentException("wheelSize must be at least 2");
+        }
+        this.tickMs = tickMs;
+        this.clockMs = clockMs;
+        this.wheel = new TimingWheel(tickMs, wheelSize, clockMs.getAsLong(), queue, clockMs);
+        this.due = new TimerBucket(clockMs);
+        this.driver = Thread.ofPlatform().name(name).daemon().start(this::run);
+    }
+
+    /**
+     * Programa {@code task} para dentro de {@code delay}. Si vence dentro del tick en curso o el retraso es nulo
+     * o negativo, el hilo del temporizador la ejecuta en cuanto puede.
+     *
+     * @throws IllegalStateException si el temporizador está cerrado
+     */
+    public Timeout schedule(Duration delay, Runnable task) {
+        Objects.requireNonNull(task, "task is required");
+        long delayMs = delay.toMillis();
+        if (delay.minusMillis(delayMs).isPositive()) {
+            delayMs++;
+        }
+        // Las casillas vencen al principio de su tick: redondear hacia arriba evita ejecutar antes de tiempo.
+        long deadline = saturatedAdd(clockMs.getAsLong(), Math.max(0, delayMs));
+        long expiration = deadline % tickMs == 0 ? deadline : saturatedAdd(deadline - deadline % tickMs, tickMs);
+        Timeout timeout = new Timeout(this, expiration, task);
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("El temporizador está cerrado");
+            }
+            size++;
+            if (delayMs <= 0 || !wheel.add(timeout)) {
+                // Vence dentro del tick en curso: pasa por la casilla de vencidas para no ejecutarse en el
+                // hilo que programa, que puede estar en medio de un envío o tener un lock.
+                due.add(timeout);
+                if (due.expiration() < 0) {
+                    due.setExpiration(clockMs.getAsLong());
+                    queue.offer(due);
+                }
+            }
+            return timeout;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Indica si el hilo actual es el del temporizador.
+     */
+    public boolean isTimerThread() {
+        return Thread.currentThread() == driver;
+    }
+
+    /**
+     * Temporizadores pendientes.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean cancel(Timeout timeout) {
+        lock.lock();
+        try {
+            if (timeout.state != Timeout.PENDING) {
+                return false;
+            }
+            timeout.state = Timeout.CANCELLED;
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+            size--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Para el hilo del temporizador y devuelve los temporizadores pendientes, que ya no se ejecutarán.
+     */
+    public List<Timeout> stop() {
+        List<Timeout> pending = new ArrayList<>();
+        lock.lock();
+        try {
+            if (closed) {
+                return pending;
+            }
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+        driver.interrupt();
+        if (Thread.currentThread() != driver) {
+            try {
+                driver.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        lock.lock();
+        try {
+            for (Object bucket : queue.toArray()) {
+                ((TimerBucket) bucket).flush(timeout -> {
+                    if (timeout.state == Timeout.PENDING) {
+                        timeout.state = Timeout.CANCELLED;
+                        pending.add(timeout);
+                    }
+                });
+            }
+            queue.clear();
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+        return pending;
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    private void run() {
+        while (!closed) {
+            TimerBucket bucket;
+            try {
+                bucket = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (bucket == null) {
+                continue;
+            }
+
+            List<Timeout> expired = new ArrayList<>();
+            lock.lock();
+            try {
+                if (closed) {
+                    // La devuelve a la cola para que stop() la encuentre con el resto de pendientes.
+                    queue.offer(bucket);
+                    return;
+                }
+                while (bucket != null) {
+                    wheel.advanceClock(bucket.expiration());
+                    bucket.flush(timeout -> {
+                        if (timeout.state == Timeout.PENDING && !wheel.add(timeout)) {
+                            timeout.state = Timeout.EXPIRED;
+                            size--;
+                            expired.add(timeout);
+                        }
+                    });
+                    bucket = queue.poll();
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            for (Timeout timeout : expired) {
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    log.error("Error ejecutando una tarea programada", e);
+                }
+            }
+        }
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < a ? Long.MAX_VALUE : sum;
+    }
+}
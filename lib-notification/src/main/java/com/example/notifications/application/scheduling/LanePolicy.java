@@ -0,0 +1,36 @@
+package com.example.notifications.application.scheduling;
+
+/**
+ * Reparto de la capacidad de envío entre las prioridades.
+ * <ul>
+ *   <li>{@code CRITICAL} se atiende siempre antes que el resto y dispone de {@code reservedCriticalSlots}
+ *       huecos, tanto en la cola como en ejecución, que las demás prioridades no pueden ocupar.</li>
+ *   <li>{@code TRANSACTIONAL} y {@code BULK} se reparten el resto por <i>weighted fair queuing</i>:
+ *       con ambas colas llenas, {@code BULK} recibe {@code bulkShare} de los despachos. Una prioridad sin
+ *       trabajo no acumula crédito: su parte se la queda la otra.</li>
+ * </ul>
+ *
+ * @param bulkShare             fracción de despachos para {@code BULK} cuando compite con {@code TRANSACTIONAL},
+ *                              entre 0 y 1 (exclusivos)
+ * @param reservedCriticalSlots huecos reservados para {@code CRITICAL}
+ */
+public record LanePolicy(double bulkShare, int reservedCriticalSlots) {
+
+    public static final double DEFAULT_BULK_SHARE = 0.1;
+
+    public LanePolicy {
+        if (!(bulkShare > 0 && bulkShare < 1)) {
+            throw new IllegalArgumentException("bulkShare must be between 0 and 1 (exclusive)");
+        }
+        if (reservedCriticalSlots < 0) {
+            throw new IllegalArgumentException("reservedCriticalSlots must not be negative");
+        }
+    }
+
+    /**
+     * {@value #DEFAULT_BULK_SHARE} de los despachos para {@code BULK} y sin huecos reservados.
+     */
+    public static LanePolicy defaults() {
+        return new LanePolicy(DEFAULT_BULK_SHARE, 0);
+    }
+}
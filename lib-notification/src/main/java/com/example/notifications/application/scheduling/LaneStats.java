@@ -0,0 +1,37 @@
+package com.example.notifications.application.scheduling;
+
+import com.example.notifications.domain.model.NotificationPriority;
+
+import java.time.Duration;
+
+/**
+ * Instantánea de una prioridad de la cola de envío.
+ *
+ * @param priority       prioridad
+ * @param depth          tareas de esta prioridad esperando en cola
+ * @param dequeued       tareas de esta prioridad despachadas
+ * @param totalWaitNanos suma del tiempo de espera en cola de las tareas despachadas
+ * @param maxWaitNanos   máximo tiempo de espera en cola observado
+ * @param lastWaitNanos  tiempo de espera de la última tarea despachada
+ */
+public record LaneStats(
+        NotificationPriority priority,
+        int depth,
+        long dequeued,
+        long totalWaitNanos,
+        long maxWaitNanos,
+        long lastWaitNanos
+) {
+
+    public Duration averageWait() {
+        return dequeued == 0 ? Duration.ZERO : Duration.ofNanos(totalWaitNanos / dequeued);
+    }
+
+    public Duration maxWait() {
+        return Duration.ofNanos(maxWaitNanos);
+    }
+
+    public Duration lastWait() {
+        return Duration.ofNanos(lastWaitNanos);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.notifications.application.scheduling;
+
+import java.io.Serial;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Indica que una notificación no fue aceptada, o fue descartada de la cola, antes de enviarse.
+ * <p>
+ * Extiende {@link RejectedExecutionException} para que el código que ya trata los rechazos de un
+ * {@code Executor} siga funcionando.
+ * </p>
+ */
+public class NotificationRejectedException extends RejectedExecutionException {
+
+    public enum Reason {
+        /** La cola estaba llena y la política es {@link OverflowPolicy#REJECT} o no había nada que descartar. */
+        QUEUE_FULL,
+        /** La tarea estaba encolada y se descartó para hacer hueco a otra de mayor prioridad. */
+        DROPPED,
+        /** El servicio ya no acepta envíos. */
+        SHUTDOWN
+    }
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Reason reason;
+
+    public NotificationRejectedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.notifications.application.scheduling;
+
+/**
+ * Qué hacer cuando la cola de envío de {@code NotificationService} está llena.
+ */
+public enum OverflowPolicy {
+    /** El llamador espera hasta que haya hueco en la cola. */
+    BLOCK,
+    /** Se rechaza de inmediato con {@link NotificationRejectedException}. */
+    REJECT,
+    /**
+     * Se descarta la tarea encolada de menor prioridad si es de prioridad estrictamente menor que la
+     * nueva; en caso contrario se rechaza la nueva. La tarea descartada se completa con
+     * {@link NotificationRejectedException}.
+     */
+    DROP_LOWEST_PRIORITY
+}
@@ -0,0 +1,42 @@
+package com.example.notifications.application.scheduling;
+
+import java.time.Duration;
+
+/**
+ * Instantánea de la cola de envío.
+ *
+ * @param depth          tareas esperando en cola
+ * @param capacity       capacidad máxima de la cola
+ * @param accepted       tareas aceptadas desde el arranque
+ * @param rejected       tareas rechazadas al intentar encolarlas
+ * @param dropped        tareas descartadas de la cola para hacer hueco a otras de mayor prioridad
+ * @param dequeued       tareas que salieron de la cola para ejecutarse
+ * @param totalWaitNanos suma del tiempo de espera en cola de las tareas despachadas
+ * @param maxWaitNanos   máximo tiempo de espera en cola observado
+ */
+public record QueueStats(
+        int depth,
+        int capacity,
+        long accepted,
+        long rejected,
+        long dropped,
+        long dequeued,
+        long totalWaitNanos,
+        long maxWaitNanos
+) {
+
+    public Duration averageWait() {
+        return dequeued == 0 ? Duration.ZERO : Duration.ofNanos(totalWaitNanos / dequeued);
+    }
+
+    public Duration maxWait() {
+        return Duration.ofNanos(maxWaitNanos);
+    }
+
+    /**
+     * Ocupación de la cola entre 0 y 1.
+     */
+    public double saturation() {
+        return capacity == 0 ? 0 : (double) depth / capacity;
+    }
+}
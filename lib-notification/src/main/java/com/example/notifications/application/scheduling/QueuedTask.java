@@ -0,0 +1,136 @@
+package com.example.notifications.application.scheduling;
+
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.model.NotificationPriority;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Unidad de trabajo encolada en una {@link SubmissionQueue}: un envío individual o un trozo de lote.
+ * <p>
+ * La tarea termina cuando termina el {@link CompletionStage} que devuelve {@link #run()}. Con una acción
+ * síncrona ({@link Runnable}) eso ocurre al volver de {@code run()}; con una asíncrona
+ * ({@link #async(NotificationPriority, String, List, Supplier, Consumer)}), cuando el proveedor responde, sin
+ * ocupar un hilo mientras tanto.
+ * </p>
+ */
+public final class QueuedTask {
+
+    private final NotificationPriority priority;
+    private final String tenant;
+    private final int cost;
+    private final List<? extends Notification> notifications;
+    private final Supplier<? extends CompletionStage<?>> action;
+    private final Consumer<Throwable> onReject;
+    long enqueuedAtNanos;
+
+    /**
+     * Tarea de una sola notificación del tenant por defecto.
+     *
+     * @param priority prioridad con la que compite en la cola
+     * @param action   trabajo a ejecutar cuando se despacha
+     * @param onReject callback si la tarea se rechaza o descarta sin llegar a ejecutarse
+     */
+    public QueuedTask(NotificationPriority priority, Runnable action, Consumer<Throwable> onReject) {
+        this(priority, null, 1, action, onReject);
+    }
+
+    /**
+     * @param priority prioridad con la que compite en la cola
+     * @param tenant   tenant al que se cargan el turno y la cuota; {@code null} para el tenant por defecto
+     * @param cost     número de notificaciones de la tarea
+     * @param action   trabajo a ejecutar cuando se despacha
+     * @param onReject callback si la tarea se rechaza o descarta sin llegar a ejecutarse
+     */
+    public QueuedTask(NotificationPriority priority,
+                      String tenant,
+                      int cost,
+                      Runnable action,
+                      Consumer<Throwable> onReject) {
+        this(priority, tenant, cost, List.of(), synchronous(action), onReject);
+    }
+
+    private QueuedTask(NotificationPriority priority,
+                       String tenant,
+                       int cost,
+                       List<? extends Notification> notifications,
+                       Supplier<? extends CompletionStage<?>> action,
+                       Consumer<Throwable> onReject) {
+        if (cost <= 0) {
+            throw new IllegalArgumentException("cost must be greater than 0");
+        }
+        this.priority = Objects.requireNonNull(priority, "priority is required");
+        this.tenant = tenant == null ? TenantPolicy.DEFAULT_TENANT : tenant;
+        this.cost = cost;
+        this.notifications = notifications;
+        this.action = Objects.requireNonNull(action, "action is required");
+        this.onReject = Objects.requireNonNull(onReject, "onReject is required");
+    }
+
+    /**
+     * Tarea asíncrona: ocupa su hueco de ejecución hasta que se completa el {@link CompletionStage} que
+     * devuelve {@code action}, no hasta que {@code action} vuelve.
+     *
+     * @param priority prioridad con la que compite en la cola
+     * @param tenant   tenant al que se cargan el turno y la cuota; {@code null} para el tenant por defecto
+     * @param notifications notificaciones que envía la tarea; su número es el coste de la tarea
+     * @param action   trabajo a lanzar cuando se despacha
+     * @param onReject callback si la tarea se rechaza o descarta sin llegar a ejecutarse
+     */
+    public static QueuedTask async(NotificationPriority priority,
+                                   String tenant,
+                                   List<? extends Notification> notifications,
+                                   Supplier<? extends CompletionStage<?>> action,
+                                   Consumer<Throwable> onReject) {
+        return new QueuedTask(priority, tenant, notifications.size(), notifications, action, onReject);
+    }
+
+    private static Supplier<CompletionStage<?>> synchronous(Runnable action) {
+        Objects.requireNonNull(action, "action is required");
+        return () -> {
+            action.run();
+            return CompletableFuture.completedFuture(null);
+        };
+    }
+
+    public NotificationPriority priority() {
+        return priority;
+    }
+
+    public String tenant() {
+        return tenant;
+    }
+
+    public int cost() {
+        return cost;
+    }
+
+    /**
+     * Notificaciones que envía la tarea; vacía para las tareas creadas con un {@link Runnable}.
+     */
+    public List<? extends Notification> notifications() {
+        return notifications;
+    }
+
+    public long enqueuedAtNanos() {
+        return enqueuedAtNanos;
+    }
+
+    /**
+     * Lanza la tarea.
+     *
+     * @return etapa que se completa cuando la tarea ha terminado
+     */
+    public CompletionStage<?> run() {
+        return action.get();
+    }
+
+    public void reject(Throwable cause) {
+        onReject.accept(cause);
+    }
+}
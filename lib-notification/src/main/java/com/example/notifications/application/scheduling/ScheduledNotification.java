@@ -0,0 +1,37 @@
+package com.example.notifications.application.scheduling;
+
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.result.NotificationResult;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Envío programado con {@code NotificationService.schedule}.
+ */
+public interface ScheduledNotification {
+
+    /**
+     * Identificador del envío; con outbox, es el id de su entrada.
+     */
+    long id();
+
+    Notification notification();
+
+    /**
+     * Momento a partir del cual se encola el envío.
+     */
+    Instant dueAt();
+
+    /**
+     * Futuro con el resultado del envío. Se cancela si se cancela el envío programado.
+     */
+    CompletableFuture<NotificationResult> result();
+
+    /**
+     * Cancela el envío si aún no ha vencido. Con outbox, la entrada se marca como completada.
+     *
+     * @return {@code true} si se canceló; {@code false} si ya se había encolado o cancelado
+     */
+    boolean cancel();
+}
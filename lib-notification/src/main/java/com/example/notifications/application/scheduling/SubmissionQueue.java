@@ -0,0 +1,420 @@
+package com.example.notifications.application.scheduling;
+
+import com.example.notifications.domain.model.NotificationPriority;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cola de envío acotada de {@code NotificationService}.
+ * <p>
+ * Sustituye a la cola sin límite del executor: todas las tareas asíncronas esperan aquí hasta que
+ * el servicio tiene capacidad para despacharlas, y al llegar a {@code capacity} se aplica la
+ * {@link OverflowPolicy} configurada.
+ * </p>
+ *
+ * <h2>Orden</h2>
+ * <ul>
+ *   <li>Una sub-cola FIFO por {@link NotificationPriority}.</li>
+ *   <li>{@code CRITICAL} se atiende siempre primero.</li>
+ *   <li>{@code TRANSACTIONAL} y {@code BULK} se alternan según la {@link LanePolicy}: cada tarea en cabeza
+ *       recibe una marca de fin virtual ({@code marca anterior + 1/peso}) y se despacha la menor. Una
+ *       sub-cola que estaba vacía arranca desde el tiempo virtual actual, así que no acumula crédito.</li>
+ *   <li>Dentro de cada prioridad, los tenants se turnan por <i>deficit round robin</i> según su peso, y un
+ *       tenant que está en su {@link TenantQuota} (concurrencia o tasa) cede el turno a los demás.</li>
+ * </ul>
+ *
+ * <h2>Capacidad reservada</h2>
+ * <p>
+ * Los últimos {@link LanePolicy#reservedCriticalSlots()} huecos de la cola solo los puede ocupar
+ * {@code CRITICAL}: una campaña masiva que llena la cola no bloquea ni rechaza un OTP.
+ * </p>
+ */
+public final class SubmissionQueue {
+
+    private static final NotificationPriority[] PRIORITIES = NotificationPriority.values();
+
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final int reservedCritical;
+    private final TenantPolicy tenantPolicy;
+    private final TenantLane[] lanes;
+    private final Map<String, Tenant> tenants = new LinkedHashMap<>();
+    /** Inverso del peso de cada prioridad; no se usa para {@code CRITICAL}. */
+    private final double[] strides;
+    /** Marca de fin virtual de la tarea en cabeza de cada sub-cola. */
+    private final double[] headFinish;
+    private final long[] laneDequeued;
+    private final long[] laneTotalWaitNanos;
+    private final long[] laneMaxWaitNanos;
+    private final long[] laneLastWaitNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition notFullCritical = lock.newCondition();
+    private double virtualTime;
+
+    private int size;
+    private boolean closed;
+    private long accepted;
+    private long rejected;
+    private long dropped;
+    private long dequeued;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    public SubmissionQueue(int capacity, OverflowPolicy policy) {
+        this(capacity, policy, LanePolicy.defaults());
+    }
+
+    public SubmissionQueue(int capacity, OverflowPolicy policy, LanePolicy lanePolicy) {
+        this(capacity, policy, lanePolicy, TenantPolicy.defaults());
+    }
+
+    public SubmissionQueue(int capacity, OverflowPolicy policy, LanePolicy lanePolicy, TenantPolicy tenantPolicy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        Objects.requireNonNull(lanePolicy, "lanePolicy is required");
+        if (lanePolicy.reservedCriticalSlots() >= capacity) {
+            throw new IllegalArgumentException("reservedCriticalSlots must be lower than capacity");
+        }
+        this.capacity = capacity;
+        this.policy = Objects.requireNonNull(policy, "policy is required");
+        this.reservedCritical = lanePolicy.reservedCriticalSlots();
+        this.tenantPolicy = Objects.requireNonNull(tenantPolicy, "tenantPolicy is required");
+        this.lanes = new TenantLane[PRIORITIES.length];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new TenantLane(tenantPolicy.quantum());
+        }
+        this.strides = new double[PRIORITIES.length];
+        strides[NotificationPriority.TRANSACTIONAL.ordinal()] = 1 / (1 - lanePolicy.bulkShare());
+        strides[NotificationPriority.BULK.ordinal()] = 1 / lanePolicy.bulkShare();
+        this.headFinish = new double[PRIORITIES.length];
+        this.laneDequeued = new long[PRIORITIES.length];
+        this.laneTotalWaitNanos = new long[PRIORITIES.length];
+        this.laneMaxWaitNanos = new long[PRIORITIES.length];
+        this.laneLastWaitNanos = new long[PRIORITIES.length];
+    }
+
+    /**
+     * Encola una tarea aplicando la política de desbordamiento.
+     *
+     * @param task tarea a encolar
+     * @throws NotificationRejectedException si la tarea no se acepta
+     */
+    public void offer(QueuedTask task) {
+        offer(task, true);
+    }
+
+    /**
+     * Como {@link #offer(QueuedTask)}, pero sin esperar nunca: con {@link OverflowPolicy#BLOCK} y la cola llena
+     * devuelve {@code false} en lugar de bloquear. Para los hilos de temporizador, que no pueden quedarse parados.
+     *
+     * @return {@code true} si la tarea quedó encolada
+     * @throws NotificationRejectedException si la tarea no se acepta por otro motivo
+     */
+    public boolean tryOffer(QueuedTask task) {
+        return offer(task, false);
+    }
+
+    private boolean offer(QueuedTask task, boolean mayWait) {
+        QueuedTask evicted = null;
+        lock.lock();
+        try {
+            if (closed) {
+                rejected++;
+                throw new NotificationRejectedException(
+                        NotificationRejectedException.Reason.SHUTDOWN, "El servicio de notificaciones está cerrado");
+            }
+
+            if (size >= limitFor(task.priority())) {
+                switch (policy) {
+                    case BLOCK -> {
+                        if (!mayWait) {
+                            return false;
+                        }
+                        awaitSpace(task.priority());
+                    }
+                    case REJECT -> throw queueFull();
+                    case DROP_LOWEST_PRIORITY -> evicted = evictLowerThan(task.priority());
+                }
+            }
+
+            task.enqueuedAtNanos = System.nanoTime();
+            int lane = task.priority().ordinal();
+            if (lanes[lane].isEmpty()) {
+                headFinish[lane] = virtualTime + strides[lane];
+            }
+            Tenant tenant = tenants.computeIfAbsent(task.tenant(), id -> new Tenant(id, tenantPolicy.quotaFor(id)));
+            lanes[lane].add(tenant, task);
+            tenant.backlog++;
+            size++;
+            accepted++;
+        } finally {
+            lock.unlock();
+        }
+
+        if (evicted != null) {
+            evicted.reject(new NotificationRejectedException(
+                    NotificationRejectedException.Reason.DROPPED,
+                    "Descartada de la cola para priorizar una notificación " + task.priority()));
+        }
+        return true;
+    }
+
+    /**
+     * Saca la siguiente tarea a despachar, o {@code null} si la cola está vacía.
+     */
+    public QueuedTask poll() {
+        return poll(false);
+    }
+
+    /**
+     * Saca la siguiente tarea a despachar.
+     *
+     * @param criticalOnly si es {@code true}, solo se considera {@code CRITICAL} (el llamador solo tiene
+     *                     libre capacidad reservada)
+     * @return la tarea, o {@code null} si no hay ninguna elegible
+     */
+    public QueuedTask poll(boolean criticalOnly) {
+        lock.lock();
+        try {
+            QueuedTask critical = lanes[NotificationPriority.CRITICAL.ordinal()].poll();
+            if (critical != null) {
+                onDequeued(critical);
+                return critical;
+            }
+            if (criticalOnly) {
+                return null;
+            }
+
+            int tried = 0;
+            while (true) {
+                int next = -1;
+                for (int lane = NotificationPriority.CRITICAL.ordinal() + 1; lane < lanes.length; lane++) {
+                    boolean candidate = !lanes[lane].isEmpty() && (tried & (1 << lane)) == 0;
+                    if (candidate && (next < 0 || headFinish[lane] < headFinish[next])) {
+                        next = lane;
+                    }
+                }
+                if (next < 0) {
+                    return null;
+                }
+                QueuedTask task = lanes[next].poll();
+                if (task == null) {
+                    // Todos sus tenants están en cuota: no acumula crédito mientras tanto.
+                    headFinish[next] = Math.max(headFinish[next], virtualTime);
+                    tried |= 1 << next;
+                    continue;
+                }
+                virtualTime = headFinish[next];
+                headFinish[next] += strides[next];
+                onDequeued(task);
+                return task;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Avisa de que una tarea devuelta por {@link #poll(boolean)} ha terminado, liberando su hueco en la
+     * cuota de concurrencia del tenant.
+     */
+    public void onFinished(QueuedTask task) {
+        lock.lock();
+        try {
+            Tenant tenant = tenants.get(task.tenant());
+            if (tenant != null) {
+                tenant.inFlight--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tiempo hasta que alguna tarea encolada pueda despacharse por cuota de tasa: {@code 0} si ya hay alguna
+     * elegible, {@link Long#MAX_VALUE} si la cola está vacía o solo esperan tenants en su límite de
+     * concurrencia (que se liberan al terminar una tarea, no con el tiempo).
+     */
+    public long nanosUntilEligible() {
+        lock.lock();
+        try {
+            long wait = Long.MAX_VALUE;
+            for (Tenant tenant : tenants.values()) {
+                if (tenant.backlog > 0) {
+                    wait = Math.min(wait, tenant.nanosUntilAvailable());
+                }
+            }
+            return wait;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deja de aceptar tareas; las ya encoladas se siguen pudiendo sacar con {@link #poll()}.
+     * Los llamadores bloqueados en {@link #offer(QueuedTask)} reciben un rechazo.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            closed = true;
+            notFull.signalAll();
+            notFullCritical.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deja de aceptar tareas y devuelve las que quedaban encoladas, sin ejecutarlas.
+     */
+    public List<QueuedTask> close() {
+        lock.lock();
+        try {
+            closed = true;
+            List<QueuedTask> remaining = new ArrayList<>(size);
+            for (TenantLane lane : lanes) {
+                lane.drainTo(remaining);
+            }
+            tenants.values().forEach(tenant -> tenant.backlog = 0);
+            size = 0;
+            notFull.signalAll();
+            notFullCritical.signalAll();
+            return remaining;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isAccepting() {
+        lock.lock();
+        try {
+            return !closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public QueueStats stats() {
+        lock.lock();
+        try {
+            return new QueueStats(size, capacity, accepted, rejected, dropped, dequeued, totalWaitNanos, maxWaitNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Instantánea por prioridad: profundidad y tiempos de espera en cola.
+     */
+    public Map<NotificationPriority, LaneStats> laneStats() {
+        lock.lock();
+        try {
+            Map<NotificationPriority, LaneStats> stats = new EnumMap<>(NotificationPriority.class);
+            for (NotificationPriority priority : PRIORITIES) {
+                int lane = priority.ordinal();
+                stats.put(priority, new LaneStats(priority, lanes[lane].size(), laneDequeued[lane],
+                        laneTotalWaitNanos[lane], laneMaxWaitNanos[lane], laneLastWaitNanos[lane]));
+            }
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Instantánea por tenant: trabajo encolado, en ejecución y despachado.
+     */
+    public Map<String, TenantStats> tenantStats() {
+        lock.lock();
+        try {
+            Map<String, TenantStats> stats = new LinkedHashMap<>();
+            tenants.forEach((id, tenant) -> stats.put(id, tenant.stats()));
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int limitFor(NotificationPriority priority) {
+        return priority == NotificationPriority.CRITICAL ? capacity : capacity - reservedCritical;
+    }
+
+    private void onDequeued(QueuedTask task) {
+        size--;
+        dequeued++;
+        long waited = System.nanoTime() - task.enqueuedAtNanos;
+        totalWaitNanos += waited;
+        maxWaitNanos = Math.max(maxWaitNanos, waited);
+
+        tenants.get(task.tenant()).onDispatched(task);
+        int lane = task.priority().ordinal();
+        laneDequeued[lane]++;
+        laneTotalWaitNanos[lane] += waited;
+        laneMaxWaitNanos[lane] = Math.max(laneMaxWaitNanos[lane], waited);
+        laneLastWaitNanos[lane] = waited;
+
+        notFullCritical.signal();
+        if (size < capacity - reservedCritical) {
+            notFull.signal();
+        }
+    }
+
+    private void awaitSpace(NotificationPriority priority) {
+        Condition condition = priority == NotificationPriority.CRITICAL ? notFullCritical : notFull;
+        int limit = limitFor(priority);
+        try {
+            while (size >= limit && !closed) {
+                condition.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected++;
+            throw new NotificationRejectedException(
+                    NotificationRejectedException.Reason.QUEUE_FULL, "Interrumpido esperando hueco en la cola");
+        }
+        if (closed) {
+            rejected++;
+            throw new NotificationRejectedException(
+                    NotificationRejectedException.Reason.SHUTDOWN, "El servicio de notificaciones está cerrado");
+        }
+    }
+
+    private QueuedTask evictLowerThan(NotificationPriority incoming) {
+        for (int i = lanes.length - 1; i > incoming.ordinal(); i--) {
+            QueuedTask victim = lanes[i].evictLast();
+            if (victim != null) {
+                tenants.get(victim.tenant()).backlog--;
+                size--;
+                dropped++;
+                return victim;
+            }
+        }
+        throw queueFull();
+    }
+
+    private NotificationRejectedException queueFull() {
+        rejected++;
+        return new NotificationRejectedException(
+                NotificationRejectedException.Reason.QUEUE_FULL,
+                "Cola de notificaciones llena (capacidad " + capacity + ")");
+    }
+}
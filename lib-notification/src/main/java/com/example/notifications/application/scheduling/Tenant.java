@@ -0,0 +1,54 @@
+package com.example.notifications.application.scheduling;
+
+import com.example.notifications.application.ratelimit.TokenBucket;
+
+/**
+ * Estado de un tenant en una {@link SubmissionQueue}. Se accede siempre con el lock de la cola.
+ */
+final class Tenant {
+
+    final String id;
+    final TenantQuota quota;
+    private final TokenBucket bucket;
+    int backlog;
+    int inFlight;
+    long dispatched;
+    long dispatchedNotifications;
+    long throttled;
+
+    Tenant(String id, TenantQuota quota) {
+        this.id = id;
+        this.quota = quota;
+        this.bucket = quota.rate() == null ? null : new TokenBucket(quota.rate());
+    }
+
+    boolean canDispatch() {
+        return inFlight < quota.maxConcurrency() && (bucket == null || bucket.nanosUntilAvailable() == 0);
+    }
+
+    /**
+     * Cuánto falta para que pueda despachar. {@link Long#MAX_VALUE} si está en su límite de concurrencia:
+     * entonces no depende del tiempo sino de que termine una de sus tareas.
+     */
+    long nanosUntilAvailable() {
+        if (inFlight >= quota.maxConcurrency()) {
+            return Long.MAX_VALUE;
+        }
+        return bucket == null ? 0 : bucket.nanosUntilAvailable();
+    }
+
+    void onDispatched(QueuedTask task) {
+        backlog--;
+        inFlight++;
+        dispatched++;
+        dispatchedNotifications += task.cost();
+        if (bucket != null) {
+            // Un trozo grande puede dejar el bucket en deuda: el tenant espera más a su siguiente turno.
+            bucket.reserve(task.cost());
+        }
+    }
+
+    TenantStats stats() {
+        return new TenantStats(id, backlog, inFlight, dispatched, dispatchedNotifications, throttled);
+    }
+}
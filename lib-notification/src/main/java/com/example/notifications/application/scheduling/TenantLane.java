@@ -0,0 +1,133 @@
+package com.example.notifications.application.scheduling;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sub-cola de una prioridad: una FIFO por tenant, atendidas por <i>deficit round robin</i>.
+ * <p>
+ * Los tenants con trabajo forman un anillo. Al tenant en cabeza se le suma, al empezar su turno,
+ * {@code quantum * peso} de crédito, y despacha tareas mientras el crédito cubra su coste (número de
+ * notificaciones); después pasa al final del anillo. Así, un tenant que encola trozos de 500 y otro que
+ * envía de uno en uno reciben el mismo número de notificaciones por vuelta. Un tenant en su cuota se salta
+ * sin sumarle crédito. Se accede siempre con el lock de la {@link SubmissionQueue}.
+ * </p>
+ */
+final class TenantLane {
+
+    private final int quantum;
+    private final Map<String, TenantQueue> queues = new HashMap<>();
+    private final ArrayDeque<TenantQueue> ring = new ArrayDeque<>();
+    private int size;
+
+    TenantLane(int quantum) {
+        this.quantum = quantum;
+    }
+
+    void add(Tenant tenant, QueuedTask task) {
+        TenantQueue queue = queues.computeIfAbsent(tenant.id, id -> new TenantQueue(tenant));
+        if (queue.tasks.isEmpty()) {
+            ring.addLast(queue);
+        }
+        queue.tasks.addLast(task);
+        size++;
+    }
+
+    /**
+     * Siguiente tarea según el turno, o {@code null} si la sub-cola está vacía o todos sus tenants están
+     * en su cuota.
+     */
+    QueuedTask poll() {
+        int skipped = 0;
+        while (skipped < ring.size()) {
+            TenantQueue queue = ring.peekFirst();
+            if (!queue.tenant.canDispatch()) {
+                queue.tenant.throttled++;
+                queue.turnStarted = false;
+                ring.addLast(ring.pollFirst());
+                skipped++;
+                continue;
+            }
+
+            QueuedTask head = queue.tasks.peekFirst();
+            if (!queue.turnStarted) {
+                queue.deficit += (long) quantum * queue.tenant.quota.weight();
+                queue.turnStarted = true;
+            }
+            if (queue.deficit < head.cost()) {
+                queue.turnStarted = false;
+                ring.addLast(ring.pollFirst());
+                skipped = 0;
+                continue;
+            }
+
+            queue.tasks.pollFirst();
+            queue.deficit -= head.cost();
+            size--;
+            if (queue.tasks.isEmpty()) {
+                ring.pollFirst();
+                queue.reset();
+            }
+            return head;
+        }
+        return null;
+    }
+
+    /**
+     * Saca la última tarea del tenant con más trabajo encolado, o {@code null} si está vacía.
+     */
+    QueuedTask evictLast() {
+        TenantQueue largest = null;
+        for (TenantQueue queue : ring) {
+            if (largest == null || queue.tasks.size() > largest.tasks.size()) {
+                largest = queue;
+            }
+        }
+        if (largest == null) {
+            return null;
+        }
+        QueuedTask victim = largest.tasks.pollLast();
+        size--;
+        if (largest.tasks.isEmpty()) {
+            ring.remove(largest);
+            largest.reset();
+        }
+        return victim;
+    }
+
+    void drainTo(List<QueuedTask> target) {
+        for (TenantQueue queue : ring) {
+            target.addAll(queue.tasks);
+            queue.tasks.clear();
+            queue.reset();
+        }
+        ring.clear();
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static final class TenantQueue {
+        private final Tenant tenant;
+        private final ArrayDeque<QueuedTask> tasks = new ArrayDeque<>();
+        private long deficit;
+        private boolean turnStarted;
+
+        private TenantQueue(Tenant tenant) {
+            this.tenant = tenant;
+        }
+
+        private void reset() {
+            deficit = 0;
+            turnStarted = false;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.notifications.application.scheduling;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reparto de la cola de envío entre tenants.
+ *
+ * @param defaultQuota cuota de los tenants sin cuota propia
+ * @param quotas       cuotas por tenant
+ * @param quantum      coste (en notificaciones) que recibe un tenant de peso 1 en cada vuelta del deficit round
+ *                     robin; conviene que sea del orden del tamaño de trozo de los lotes
+ */
+public record TenantPolicy(TenantQuota defaultQuota, Map<String, TenantQuota> quotas, int quantum) {
+
+    /** Tenant de las notificaciones que no indican ninguno. */
+    public static final String DEFAULT_TENANT = "default";
+    public static final int DEFAULT_QUANTUM = 500;
+
+    public TenantPolicy {
+        Objects.requireNonNull(defaultQuota, "defaultQuota is required");
+        quotas = Map.copyOf(quotas);
+        if (quantum <= 0) {
+            throw new IllegalArgumentException("quantum must be greater than 0");
+        }
+    }
+
+    /**
+     * Todos los tenants sin cuota, con el mismo peso y un quantum de {@value #DEFAULT_QUANTUM}.
+     */
+    public static TenantPolicy defaults() {
+        return new TenantPolicy(TenantQuota.unlimited(), Map.of(), DEFAULT_QUANTUM);
+    }
+
+    public TenantQuota quotaFor(String tenant) {
+        return quotas.getOrDefault(tenant, defaultQuota);
+    }
+}
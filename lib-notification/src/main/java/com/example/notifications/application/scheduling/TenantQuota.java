@@ -0,0 +1,42 @@
+package com.example.notifications.application.scheduling;
+
+import com.example.notifications.application.ratelimit.RateLimit;
+
+/**
+ * Cuota de un tenant en la cola de envío.
+ *
+ * @param maxConcurrency tareas del tenant en ejecución a la vez como máximo
+ * @param rate           notificaciones por segundo que puede despachar, o {@code null} sin límite. Un trozo de
+ *                       lote consume tantos permisos como notificaciones lleva.
+ * @param weight         peso en el reparto: un tenant con peso 2 recibe el doble de turno que uno con peso 1
+ */
+public record TenantQuota(int maxConcurrency, RateLimit rate, int weight) {
+
+    public TenantQuota {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be greater than 0");
+        }
+        if (weight <= 0) {
+            throw new IllegalArgumentException("weight must be greater than 0");
+        }
+    }
+
+    /**
+     * Sin límite de concurrencia ni de tasa y con peso 1: el tenant solo compite por turno.
+     */
+    public static TenantQuota unlimited() {
+        return new TenantQuota(Integer.MAX_VALUE, null, 1);
+    }
+
+    public TenantQuota withMaxConcurrency(int maxConcurrency) {
+        return new TenantQuota(maxConcurrency, rate, weight);
+    }
+
+    public TenantQuota withRate(RateLimit rate) {
+        return new TenantQuota(maxConcurrency, rate, weight);
+    }
+
+    public TenantQuota withWeight(int weight) {
+        return new TenantQuota(maxConcurrency, rate, weight);
+    }
+}
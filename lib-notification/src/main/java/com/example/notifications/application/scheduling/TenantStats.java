@@ -0,0 +1,21 @@
+package com.example.notifications.application.scheduling;
+
+/**
+ * Instantánea de un tenant en la cola de envío.
+ *
+ * @param tenant                  identificador del tenant
+ * @param backlog                 tareas del tenant esperando en cola
+ * @param inFlight                tareas del tenant en ejecución
+ * @param dispatched              tareas del tenant despachadas desde el arranque
+ * @param dispatchedNotifications notificaciones despachadas (un trozo de lote cuenta todas las suyas)
+ * @param throttled               veces que el tenant tenía trabajo pero se saltó su turno por cuota
+ */
+public record TenantStats(
+        String tenant,
+        int backlog,
+        int inFlight,
+        long dispatched,
+        long dispatchedNotifications,
+        long throttled
+) {
+}
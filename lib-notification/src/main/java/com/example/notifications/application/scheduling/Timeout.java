@@ -0,0 +1,53 @@
+package com.example.notifications.application.scheduling;
+
+/**
+ * Temporizador programado en un {@link HierarchicalTimer}.
+ * <p>
+ * Es a la vez el nodo de la lista doblemente enlazada de su casilla, de modo que cancelarlo es O(1) y no
+ * hay objetos adicionales por temporizador.
+ * </p>
+ */
+public final class Timeout {
+
+    static final int PENDING = 0;
+    static final int CANCELLED = 1;
+    static final int EXPIRED = 2;
+
+    final HierarchicalTimer timer;
+    final long expirationMs;
+    final Runnable task;
+    TimerBucket bucket;
+    Timeout prev;
+    Timeout next;
+    volatile int state;
+
+    Timeout(HierarchicalTimer timer, long expirationMs, Runnable task) {
+        this.timer = timer;
+        this.expirationMs = expirationMs;
+        this.task = task;
+    }
+
+    /**
+     * Cancela el temporizador si aún no ha vencido.
+     *
+     * @return {@code true} si se canceló; {@code false} si ya había vencido o estaba cancelado
+     */
+    public boolean cancel() {
+        return timer != null && timer.cancel(this);
+    }
+
+    /**
+     * Tarea que se ejecuta al vencer.
+     */
+    public Runnable task() {
+        return task;
+    }
+
+    public boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    public boolean isExpired() {
+        return state == EXPIRED;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.notifications.application.scheduling;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Casilla de una {@link TimingWheel}: lista circular de los temporizadores que vencen en el mismo tick.
+ * La lista se modifica siempre con el lock del {@link HierarchicalTimer}; la caducidad es volátil porque
+ * la lee la {@link java.util.concurrent.DelayQueue} del hilo del temporizador.
+ */
+final class TimerBucket implements Delayed {
+
+    private final LongSupplier clockMs;
+    private final Timeout root = new Timeout(null, -1, null);
+    private volatile long expirationMs = -1;
+
+    TimerBucket(LongSupplier clockMs) {
+        this.clockMs = clockMs;
+        root.next = root;
+        root.prev = root;
+    }
+
+    void add(Timeout timeout) {
+        timeout.bucket = this;
+        timeout.next = root;
+        timeout.prev = root.prev;
+        root.prev.next = timeout;
+        root.prev = timeout;
+    }
+
+    void remove(Timeout timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = null;
+    }
+
+    /**
+     * @return {@code true} si la caducidad ha cambiado y la casilla debe (re)encolarse
+     */
+    boolean setExpiration(long expirationMs) {
+        long previous = this.expirationMs;
+        this.expirationMs = expirationMs;
+        return previous != expirationMs;
+    }
+
+    long expiration() {
+        return expirationMs;
+    }
+
+    /**
+     * Vacía la casilla entregando cada temporizador a {@code sink}.
+     */
+    void flush(Consumer<Timeout> sink) {
+        Timeout timeout = root.next;
+        while (timeout != root) {
+            Timeout next = timeout.next;
+            remove(timeout);
+            sink.accept(timeout);
+            timeout = next;
+        }
+        expirationMs = -1;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(Math.max(0, expirationMs - clockMs.getAsLong()), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(expirationMs, ((TimerBucket) other).expirationMs);
+    }
+}
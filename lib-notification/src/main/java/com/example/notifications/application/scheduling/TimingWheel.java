@@ -0,0 +1,67 @@
+package com.example.notifications.application.scheduling;
+
+import java.util.concurrent.DelayQueue;
+import java.util.function.LongSupplier;
+
+/**
+ * Un nivel de la rueda jerárquica: {@code wheelSize} casillas de {@code tickMs}. Lo que no cabe en su
+ * intervalo va a una rueda de desbordamiento cuyo tick es el intervalo completo de esta, creada al
+ * necesitarla. Al avanzar el reloj, los temporizadores de una casilla de nivel superior se reinsertan y
+ * bajan de nivel hasta vencer.
+ */
+final class TimingWheel {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long intervalMs;
+    private final TimerBucket[] buckets;
+    private final DelayQueue<TimerBucket> queue;
+    private final LongSupplier clockMs;
+    private long currentTimeMs;
+    private TimingWheel overflow;
+
+    TimingWheel(long tickMs, int wheelSize, long startMs, DelayQueue<TimerBucket> queue, LongSupplier clockMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.intervalMs = tickMs > Long.MAX_VALUE / wheelSize ? Long.MAX_VALUE : tickMs * wheelSize;
+        this.buckets = new TimerBucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new TimerBucket(clockMs);
+        }
+        this.queue = queue;
+        this.clockMs = clockMs;
+        this.currentTimeMs = startMs - (startMs % tickMs);
+    }
+
+    /**
+     * @return {@code false} si el temporizador ya ha vencido y debe ejecutarse
+     */
+    boolean add(Timeout timeout) {
+        long untilExpiration = timeout.expirationMs - currentTimeMs;
+        if (untilExpiration < tickMs) {
+            return false;
+        }
+        if (untilExpiration < intervalMs) {
+            long virtualId = timeout.expirationMs / tickMs;
+            TimerBucket bucket = buckets[(int) (virtualId % wheelSize)];
+            bucket.add(timeout);
+            if (bucket.setExpiration(virtualId * tickMs)) {
+                queue.offer(bucket);
+            }
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel(intervalMs, wheelSize, currentTimeMs, queue, clockMs);
+        }
+        return overflow.add(timeout);
+    }
+
+    void advanceClock(long timeMs) {
+        if (timeMs - currentTimeMs >= tickMs) {
+            currentTimeMs = timeMs - (timeMs % tickMs);
+            if (overflow != null) {
+                overflow.advanceClock(currentTimeMs);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.notifications.application.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Límite de envíos simultáneos de un canal ({@link NotificationService.Builder#maxConcurrency(Class, int)}).
+ * <p>
+ * Cuenta notificaciones, no llamadas: un trozo de lote ocupa un permiso por elemento, hasta el límite completo,
+ * de modo que un trozo mayor que el límite puede salir igualmente pero ocupa todo el canal.
+ * </p>
+ * <p>
+ * Los permisos se piden sin bloquear ({@link #acquireAsync(int)}): si no hay suficientes, la petición espera
+ * en orden de llegada y su future se completa al liberarse. Así un envío asíncrono no retiene el hilo del
+ * executor mientras el canal está lleno.
+ * </p>
+ */
+final class ChannelLimit {
+
+    private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+    private final int limit;
+    private final Queue<Waiter> waiters = new ArrayDeque<>();
+    private int available;
+
+    ChannelLimit(int limit) {
+        this.limit = limit;
+        this.available = limit;
+    }
+
+    /**
+     * Permisos que ocupa un envío de {@code notifications} notificaciones.
+     */
+    int permitsFor(int notifications) {
+        return Math.min(notifications, limit);
+    }
+
+    /**
+     * Pide {@code count} permisos. El future devuelto ya está completo si había permisos libres y nadie
+     * esperando; si no, se completa (en el hilo que libera) cuando le llegan. Cancelarlo antes renuncia a ellos.
+     */
+    CompletableFuture<Void> acquireAsync(int count) {
+        synchronized (this) {
+            if (waiters.isEmpty() && available >= count) {
+                available -= count;
+                return GRANTED;
+            }
+            CompletableFuture<Void> granted = new CompletableFuture<>();
+            waiters.add(new Waiter(count, granted));
+            return granted;
+        }
+    }
+
+    /**
+     * Como {@link #acquireAsync(int)}, esperando a los permisos; solo para los envíos síncronos.
+     */
+    void acquire(int count) {
+        CompletableFuture<Void> granted = acquireAsync(count);
+        try {
+            granted.get();
+        } catch (InterruptedException e) {
+            if (!granted.cancel(false)) {
+                // Ya se habían concedido: se devuelven.
+                release(count);
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando capacidad del canal", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    void release(int count) {
+        List<Waiter> ready = new ArrayList<>();
+        synchronized (this) {
+            available += count;
+            for (Waiter next = waiters.peek(); next != null; next = waiters.peek()) {
+                if (next.granted().isCancelled()) {
+                    waiters.poll();
+                } else if (next.count() <= available) {
+                    available -= next.count();
+                    ready.add(waiters.poll());
+                } else {
+                    break;
+                }
+            }
+        }
+        // Fuera del cerrojo: completar ejecuta el envío que esperaba.
+        for (Waiter waiter : ready) {
+            if (!waiter.granted().complete(null)) {
+                // Se canceló entre medias: sus permisos pasan a los siguientes.
+                release(waiter.count());
+            }
+        }
+    }
+
+    private record Waiter(int count, CompletableFuture<Void> granted) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.notifications.application.service;
 
 import com.example.notifications.application.port.in.Notifier;
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
 import com.example.notifications.application.port.out.chat.ChatGateway;
 import com.example.notifications.application.port.out.chat.ChatGatewayResponse;
 import com.example.notifications.application.port.out.chat.ChatMessage;
@@ -9,34 +10,134 @@ import com.example.notifications.domain.model.ChatNotification;
 import com.example.notifications.domain.result.NotificationResult;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 @Slf4j
 public class ChatNotifier implements Notifier<ChatNotification> {
 
+    private static final String CHANNEL = "chat";
+
     private final TemplateEngine engine;
     private final ChatGateway gateway;
+    private final NotificationMetrics metrics;
 
     public ChatNotifier(ChatGateway chatGateway,
                         TemplateEngine engine) {
+        this(chatGateway, engine, NotificationMetrics.NOOP);
+    }
+
+    public ChatNotifier(ChatGateway chatGateway,
+                        TemplateEngine engine,
+                        NotificationMetrics metrics) {
         this.engine = engine;
         this.gateway = chatGateway;
+        this.metrics = metrics;
     }
 
     @Override
     public NotificationResult send(ChatNotification notification) {
+        ChatMessage message = toMessage(notification);
+        long start = System.nanoTime();
+        ChatGatewayResponse response;
+        try {
+            response = gateway.send(message);
+        } finally {
+            recordCall(start);
+        }
+        return toResult(notification, response);
+    }
+
+    @Override
+    public List<NotificationResult> sendBatch(List<ChatNotification> notifications) {
+        List<ChatMessage> messages = notifications.stream().map(this::toMessage).toList();
+        long start = System.nanoTime();
+        List<ChatGatewayResponse> responses;
+        try {
+            responses = gateway.sendBatch(messages);
+        } finally {
+            recordCall(start);
+        }
+        return toResults(notifications, responses);
+    }
+
+    /**
+     * Como {@link #send}, pero sin bloquear: compone el {@code sendAsync} del gateway.
+     */
+    @Override
+    public CompletionStage<NotificationResult> sendAsync(ChatNotification notification) {
+        ChatMessage message;
+        try {
+            message = toMessage(notification);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        return gateway.sendAsync(message)
+                .whenComplete((response, error) -> recordCall(start))
+                .thenApply(response -> toResult(notification, response));
+    }
+
+    @Override
+    public boolean batchesNatively() {
+        return gateway.batchesNatively();
+    }
+
+    @Override
+    public CompletionStage<List<NotificationResult>> sendBatchAsync(List<ChatNotification> notifications) {
+        List<ChatMessage> messages;
+        try {
+            messages = notifications.stream().map(this::toMessage).toList();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        return gateway.sendBatchAsync(messages)
+                .whenComplete((responses, error) -> recordCall(start))
+                .thenApply(responses -> toResults(notifications, responses));
+    }
+
+    private ChatMessage toMessage(ChatNotification notification) {
         String body = notification.messageTemplate();
 
         if(notification.variables()!=null && !notification.variables().isEmpty()) {
+            long start = System.nanoTime();
             body = engine.render(notification.messageTemplate(), notification.variables());
+            metrics.templateRendered(CHANNEL, System.nanoTime() - start);
         }
 
-        ChatMessage message = new ChatMessage(body,notification.recipient());
+        return new ChatMessage(body,notification.recipient());
+    }
 
-        ChatGatewayResponse response = gateway.send(message);
+    private List<NotificationResult> toResults(List<ChatNotification> notifications,
+                                               List<ChatGatewayResponse> responses) {
+        NotificationResult[] results = new NotificationResult[responses.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = toResult(notifications.get(i), responses.get(i));
+        }
+        return List.of(results);
+    }
+
+    private NotificationResult toResult(ChatNotification notification, ChatGatewayResponse response) {
+        if (!gateway.reportsProviderMetrics()) {
+            metrics.providerResult(CHANNEL, gateway.providerName(), response.classification());
+        }
         if (response.errorMessage() != null) {
-            return NotificationResult.failure(response.errorMessage());
+            return NotificationResult.failure(response.errorMessage(), response.classification());
         }
 
-        log.info("Chat enviado correctamente a: {}", notification.recipient());
+        log.debug("Chat enviado correctamente a: {}", notification.recipient());
         return NotificationResult.success();
     }
+
+    /**
+     * Duración de la llamada al gateway, salvo que el gateway publique la de cada proveedor
+     * ({@link ChatGateway#reportsProviderMetrics()}).
+     */
+    private void recordCall(long start) {
+        if (!gateway.reportsProviderMetrics()) {
+            metrics.providerCall(CHANNEL, gateway.providerName(), System.nanoTime() - start);
+        }
+    }
 }
@@ -0,0 +1,14 @@
+package com.example.notifications.application.service;
+
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.model.NotificationPriority;
+
+/**
+ * Clave de agrupación de un lote: los elementos de un mismo trozo comparten canal, prioridad y tenant.
+ */
+record ChunkKey(Class<?> type, NotificationPriority priority, String tenant) {
+
+    static ChunkKey of(Notification notification, NotificationPriority priority) {
+        return new ChunkKey(notification.getClass(), priority, notification.metadata().tenant());
+    }
+}
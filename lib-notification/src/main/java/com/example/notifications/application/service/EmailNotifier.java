@@ -1,6 +1,7 @@
 package com.example.notifications.application.service;
 
 import com.example.notifications.application.port.in.Notifier;
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
 import com.example.notifications.domain.result.NotificationResult;
 import com.example.notifications.domain.model.EmailNotification;
 import com.example.notifications.application.port.out.email.EmailGateway;
@@ -8,36 +9,126 @@ import com.example.notifications.application.port.out.email.EmailGatewayResponse
 import com.example.notifications.application.port.out.email.EmailMessage;
 import com.example.notifications.application.port.out.template.TemplateEngine;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 public class EmailNotifier implements Notifier<EmailNotification> {
 
+    private static final String CHANNEL = "email";
+
     private final TemplateEngine engine;
     private final EmailGateway gateway;
+    private final NotificationMetrics metrics;
 
     public EmailNotifier(EmailGateway emailGateway,
                          TemplateEngine engine) {
+        this(emailGateway, engine, NotificationMetrics.NOOP);
+    }
+
+    public EmailNotifier(EmailGateway emailGateway,
+                         TemplateEngine engine,
+                         NotificationMetrics metrics) {
         this.engine = engine;
         this.gateway = emailGateway;
+        this.metrics = metrics;
     }
 
     @Override
     public NotificationResult send(EmailNotification email) {
+        EmailMessage message = toMessage(email);
+        long start = System.nanoTime();
+        EmailGatewayResponse response;
+        try {
+            response = gateway.send(message);
+        } finally {
+            recordCall(start);
+        }
+        return toResult(response);
+    }
 
+    @Override
+    public List<NotificationResult> sendBatch(List<EmailNotification> emails) {
+        List<EmailMessage> messages = emails.stream().map(this::toMessage).toList();
+        long start = System.nanoTime();
+        List<EmailGatewayResponse> responses;
+        try {
+            responses = gateway.sendBatch(messages);
+        } finally {
+            recordCall(start);
+        }
+        return responses.stream().map(this::toResult).toList();
+    }
+
+    /**
+     * Como {@link #send}, pero sin bloquear: compone el {@code sendAsync} del gateway.
+     */
+    @Override
+    public CompletionStage<NotificationResult> sendAsync(EmailNotification email) {
+        EmailMessage message;
+        try {
+            message = toMessage(email);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        return gateway.sendAsync(message)
+                .whenComplete((response, error) -> recordCall(start))
+                .thenApply(this::toResult);
+    }
+
+    @Override
+    public boolean batchesNatively() {
+        return gateway.batchesNatively();
+    }
+
+    @Override
+    public CompletionStage<List<NotificationResult>> sendBatchAsync(List<EmailNotification> emails) {
+        List<EmailMessage> messages;
+        try {
+            messages = emails.stream().map(this::toMessage).toList();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        return gateway.sendBatchAsync(messages)
+                .whenComplete((responses, error) -> recordCall(start))
+                .thenApply(responses -> responses.stream().map(this::toResult).toList());
+    }
+
+    private EmailMessage toMessage(EmailNotification email) {
         String subject = email.subjectTemplate();
         String body = email.bodyTemplate();
 
         if(email.variables()!=null && !email.variables().isEmpty()) {
+            long start = System.nanoTime();
             subject = engine.render(email.subjectTemplate(), email.variables());
             body = engine.render(email.bodyTemplate(), email.variables());
+            metrics.templateRendered(CHANNEL, System.nanoTime() - start);
         }
 
-        EmailMessage message = new EmailMessage(email.sender(),
+        return new EmailMessage(email.sender(),
           email.recipient(), subject, body
         );
+    }
 
-        EmailGatewayResponse response = gateway.send(message);
+    private NotificationResult toResult(EmailGatewayResponse response) {
+        if (!gateway.reportsProviderMetrics()) {
+            metrics.providerResult(CHANNEL, gateway.providerName(), response.classification());
+        }
         if (response.errorMessage() != null) {
-            return NotificationResult.failure(response.errorMessage());
+            return NotificationResult.failure(response.errorMessage(), response.classification());
         }
         return NotificationResult.success();
     }
+
+    /**
+     * Duración de la llamada al gateway, salvo que el gateway publique la de cada proveedor
+     * ({@link EmailGateway#reportsProviderMetrics()}).
+     */
+    private void recordCall(long start) {
+        if (!gateway.reportsProviderMetrics()) {
+            metrics.providerCall(CHANNEL, gateway.providerName(), System.nanoTime() - start);
+        }
+    }
 }
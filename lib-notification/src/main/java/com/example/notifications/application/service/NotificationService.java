@@ -1,20 +1,257 @@
 package com.example.notifications.application.service;
 
+import com.example.notifications.application.coalescing.Coalescer;
+import com.example.notifications.application.coalescing.CoalescingPolicy;
+import com.example.notifications.application.idempotency.DeduplicationCache;
+import com.example.notifications.application.idempotency.Deduplicator;
+import com.example.notifications.application.idempotency.IdempotencyKeys;
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
+import com.example.notifications.application.port.out.outbox.NotificationOutbox;
+import com.example.notifications.application.port.out.outbox.OutboxEntry;
+import com.example.notifications.application.retry.Retrier;
+import com.example.notifications.application.retry.RetryBudget;
+import com.example.notifications.application.retry.RetryPolicy;
+import com.example.notifications.application.scheduling.HierarchicalTimer;
+import com.example.notifications.application.scheduling.LanePolicy;
+import com.example.notifications.application.scheduling.LaneStats;
+import com.example.notifications.application.scheduling.NotificationRejectedException;
+import com.example.notifications.application.scheduling.OverflowPolicy;
+import com.example.notifications.application.scheduling.QueueStats;
+import com.example.notifications.application.scheduling.QueuedTask;
+import com.example.notifications.application.scheduling.ScheduledNotification;
+import com.example.notifications.application.scheduling.SubmissionQueue;
+import com.example.notifications.application.scheduling.TenantPolicy;
+import com.example.notifications.application.scheduling.TenantQuota;
+import com.example.notifications.application.scheduling.TenantStats;
+import com.example.notifications.application.scheduling.Timeout;
 import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.model.NotificationPriority;
+import com.example.notifications.domain.result.BatchItemResult;
+import com.example.notifications.domain.result.BatchSummary;
 import com.example.notifications.domain.result.NotificationResult;
 import com.example.notifications.application.registry.NotifierRegistry;
 import com.example.notifications.application.port.in.Notifier;
 
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Slf4j
+public class NotificationService implements AutoCloseable {
 
-public class NotificationService {
+    static final int DEFAULT_POOL_SIZE = 4;
+    static final int DEFAULT_BATCH_CHUNK_SIZE = 500;
+    static final int DEFAULT_MAX_IN_FLIGHT_CHUNKS = 16;
+    static final int DEFAULT_STREAM_WINDOW = 8192;
+    static final Duration DEFAULT_STREAM_LINGER = Duration.ofMillis(50);
+    static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+    static final Duration DEFAULT_SCHEDULER_TICK = Duration.ofMillis(10);
+    static final int DEFAULT_SCHEDULER_WHEEL_SIZE = 512;
+    static final Duration DEFAULT_DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    private static final long MIN_WAKEUP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
 
     private final NotifierRegistry registry;
-    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Map<Class<? extends Notification>, ChannelLimit> channelLimits;
+    private final int batchChunkSize;
+    private final int maxInFlightChunks;
+    private final int streamWindow;
+    private final Duration streamLinger;
+    private final SubmissionQueue queue;
+    private final int maxInFlight;
+    private final int reservedCritical;
+    private final Function<? super Notification, NotificationPriority> priorityResolver;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger inFlightNotifications = new AtomicInteger();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private final AtomicBoolean terminated = new AtomicBoolean();
+    private final CompletableFuture<Void> termination = new CompletableFuture<>();
+    private final AtomicBoolean wakeupScheduled = new AtomicBoolean();
+    private final Retrier retrier;
+    private final ScheduledExecutorService timer;
+    private volatile Thread timerThread;
+    private final NotificationOutbox outbox;
+    private final Deduplicator deduplicator;
+    private final Duration schedulerTick;
+    private final AtomicLong scheduleIds = new AtomicLong();
+    private volatile HierarchicalTimer scheduler;
+    private final Map<Class<? extends Notification>, Coalescer<?>> coalescers;
+    private final NotificationMetrics metrics;
+    private final Duration drainTimeout;
+    /** Reintentos esperando su backoff: no están en la cola ni en vuelo, pero el cierre debe contarlos. */
+    private final Set<PendingRetry> pendingRetries = new HashSet<>();
+    private volatile boolean closing;
+    /** Notificaciones aceptadas que el cierre descartó sin enviar, para {@link ShutdownReport#unsent()}. */
+    private final Queue<Notification> unsentAtShutdown = new ConcurrentLinkedQueue<>();
 
+    /**
+     * Crea el servicio con el comportamiento por defecto: un pool fijo de {@value #DEFAULT_POOL_SIZE} hilos.
+     *
+     * @param registry registro de notifiers por tipo de notificación
+     */
     public NotificationService(NotifierRegistry registry) {
-        this.registry = registry;
+        this(builder(registry));
+    }
+
+    /**
+     * Crea el servicio usando un {@link Executor} proporcionado por el cliente.
+     * <p>
+     * El ciclo de vida del executor pertenece al cliente: {@link #shutdown()} no lo cierra.
+     * </p>
+     *
+     * @param registry registro de notifiers por tipo de notificación
+     * @param executor executor donde se ejecutan los envíos asíncronos
+     */
+    public NotificationService(NotifierRegistry registry, Executor executor) {
+        this(builder(registry).executor(executor));
+    }
+
+    private NotificationService(Builder builder) {
+        this.registry = Objects.requireNonNull(builder.registry, "registry is required");
+        if (builder.executor != null) {
+            this.executor = builder.executor;
+            this.ownedExecutor = null;
+        } else {
+            this.ownedExecutor = builder.virtualThreads
+                    ? Executors.newVirtualThreadPerTaskExecutor()
+                    : Executors.newFixedThreadPool(builder.poolSize);
+            this.executor = ownedExecutor;
+        }
+
+        Map<Class<? extends Notification>, ChannelLimit> limits = new HashMap<>();
+        builder.channelConcurrency.forEach((type, limit) -> limits.put(type, new ChannelLimit(limit)));
+        this.channelLimits = Map.copyOf(limits);
+        this.batchChunkSize = builder.batchChunkSize;
+        this.maxInFlightChunks = builder.maxInFlightChunks;
+        this.streamWindow = builder.streamWindow;
+        this.streamLinger = builder.streamLinger;
+        LanePolicy lanePolicy = new LanePolicy(builder.bulkShare, builder.reservedCriticalCapacity);
+        TenantPolicy tenantPolicy = new TenantPolicy(builder.defaultTenantQuota, builder.tenantQuotas, batchChunkSize);
+        this.queue = new SubmissionQueue(builder.queueCapacity, builder.overflowPolicy, lanePolicy, tenantPolicy);
+        Function<? super Notification, NotificationPriority> resolver = builder.priorityResolver;
+        this.priorityResolver = notification -> notification.metadata().priority() != null
+                ? notification.metadata().priority()
+                : resolver.apply(notification);
+        if (builder.maxInFlight > 0) {
+            this.maxInFlight = builder.maxInFlight;
+        } else {
+            this.maxInFlight = ownedExecutor != null && !builder.virtualThreads ? builder.poolSize : DEFAULT_MAX_IN_FLIGHT;
+        }
+        if (lanePolicy.reservedCriticalSlots() >= maxInFlight) {
+            throw new IllegalArgumentException("reservedCriticalCapacity must be lower than maxInFlight");
+        }
+        this.reservedCritical = lanePolicy.reservedCriticalSlots();
+
+        boolean tenantRates = builder.defaultTenantQuota.rate() != null
+                || builder.tenantQuotas.values().stream().anyMatch(quota -> quota.rate() != null);
+        this.timer = builder.retryPolicy != null || tenantRates
+                ? Executors.newSingleThreadScheduledExecutor(
+                        task -> timerThread = Thread.ofPlatform().name("notification-timer").unstarted(task))
+                : null;
+        this.retrier = builder.retryPolicy != null
+                ? new Retrier(builder.retryPolicy, builder.retryBudget, timer)
+                : null;
+
+        this.deduplicator = builder.deduplicationCache != null
+                ? new Deduplicator(builder.deduplicationCache, builder.contentHashKeys)
+                : null;
+        this.schedulerTick = builder.schedulerTick;
+        this.metrics = builder.metrics;
+        this.drainTimeout = builder.drainTimeout;
+        Map<Class<? extends Notification>, Coalescer<?>> coalescing = new HashMap<>();
+        builder.coalescing.forEach((type, policy) -> coalescing.put(type, coalescer(policy)));
+        this.coalescers = Map.copyOf(coalescing);
+        this.outbox = builder.outbox;
+    }
+
+    /**
+     * Arranque tras construir el servicio, para no publicar {@code this} a medias desde el constructor:
+     * registra los gauges (que leen el estado del servicio) y reenvía lo pendiente en el outbox. Los
+     * constructores públicos no lo necesitan: no tienen métricas ni outbox.
+     */
+    private NotificationService start() {
+        registerGauges();
+        if (outbox != null) {
+            replayOutbox();
+        }
+        return this;
+    }
+
+    private void registerGauges() {
+        metrics.gauge("notification_in_flight", "Tareas despachadas al executor y aún sin terminar", inFlight::get);
+        metrics.gauge("notification_in_flight_notifications",
+                "Notificaciones de las tareas despachadas y aún sin terminar", inFlightNotifications::get);
+        metrics.gauge("notification_executor_utilization",
+                "Fracción de maxInFlight ocupada por tareas en ejecución", () -> (double) inFlight.get() / maxInFlight);
+        metrics.gauge("notification_queue_depth", "Tareas en la cola de envío", queue::size);
+        metrics.gauge("notification_scheduled", "Envíos programados pendientes de vencer", this::scheduledCount);
+    }
+
+    /**
+     * Vuelve a encolar los envíos que quedaron pendientes en el outbox (aceptados pero sin resultado
+     * cuando se paró el proceso anterior). No se vuelven a escribir: conservan su id original. Los envíos
+     * programados cuya fecha aún no ha llegado se vuelven a programar.
+     */
+    private void replayOutbox() {
+        List<OutboxEntry> pending = outbox.pending();
+        if (pending.isEmpty()) {
+            return;
+        }
+        log.info("Reenviando {} notificaciones pendientes del outbox", pending.size());
+        Instant now = Instant.now();
+        for (OutboxEntry entry : pending) {
+            if (entry.dueAt() != null && entry.dueAt().isAfter(now)) {
+                ScheduledSend scheduled = new ScheduledSend(entry.id(), entry.notification(), entry.dueAt());
+                completeInOutbox(scheduled.future, entry.id());
+                arm(scheduled);
+                continue;
+            }
+            CompletableFuture<NotificationResult> future = new CompletableFuture<>();
+            completeInOutbox(future, entry.id());
+            try {
+                submitAttempt(entry.notification(), 1, future);
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Crea un {@link Builder} para configurar el modo de ejecución del servicio.
+     *
+     * <pre>{@code
+     * NotificationService service = NotificationService.builder(registry)
+     *         .virtualThreads()
+     *         .maxConcurrency(EmailNotification.class, 200)
+     *         .maxConcurrency(SmsNotification.class, 50)
+     *         .build();
+     * }</pre>
+     *
+     * @param registry registro de notifiers por tipo de notificación
+     * @return builder con la configuración por defecto (pool fijo de 4 hilos, sin límites por canal)
+     */
+    public static Builder builder(NotifierRegistry registry) {
+        return new Builder(registry);
     }
 
     /**
@@ -24,20 +261,100 @@ public class NotificationService {
      * el {@link NotifierRegistry}. Una vez obtenido, se delega el envío llamando a
      * {@link Notifier#send(Notification)}.
      * </p>
+     * <p>
+     * Si el canal tiene un límite de concurrencia configurado, la llamada espera hasta que haya
+     * capacidad disponible para ese canal.
+     * </p>
+     * <p>
+     * Con {@link Builder#deduplication(Duration, int)}, un envío con la misma clave de idempotencia que otro
+     * en curso o reciente no llama al proveedor y devuelve el resultado del original.
+     * </p>
      * @param notification notificación a enviar
      * @param <T>          tipo concreto de notificación
      * @return resultado del envío
+     * @throws NotificationRejectedException con {@code SHUTDOWN} si el servicio ya está cerrado
      */
     public <T extends Notification> NotificationResult send(T notification) {
+        if (!queue.isAccepting()) {
+            throw new NotificationRejectedException(
+                    NotificationRejectedException.Reason.SHUTDOWN, "El servicio de notificaciones está cerrado");
+        }
+        long key = deduplicationKey(notification);
+        if (key == IdempotencyKeys.NONE) {
+            return dispatch(notification);
+        }
+
+        CompletableFuture<NotificationResult> future = new CompletableFuture<>();
+        CompletableFuture<NotificationResult> original = deduplicator.claim(key, future);
+        if (original != null) {
+            return original.join();
+        }
+        try {
+            NotificationResult result = dispatch(notification);
+            future.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private <T extends Notification> NotificationResult dispatch(T notification) {
         Notifier<T> notifier = registry.get(notification);
-        return notifier.send(notification);
+        ChannelLimit limit = channelLimits.get(notification.getClass());
+        NotificationResult result;
+        if (limit == null) {
+            result = notifier.send(notification);
+        } else {
+            limit.acquire(1);
+            try {
+                result = notifier.send(notification);
+            } finally {
+                limit.release(1);
+            }
+        }
+        record(NotificationMetrics.channel(notification.getClass()), result);
+        return result;
+    }
+
+    /**
+     * Como {@link #dispatch(Notification)}, pero con {@link Notifier#sendAsync(Notification)}: el hilo vuelve en
+     * cuanto la petición sale. El permiso del canal se retiene hasta que llega la respuesta, así que
+     * {@link Builder#maxConcurrency(Class, int)} sigue limitando las peticiones en vuelo contra el proveedor; con
+     * el canal lleno el envío espera al permiso sin ocupar el hilo (ver {@link #withPermits}).
+     */
+    private <T extends Notification> CompletionStage<NotificationResult> dispatchAsync(T notification) {
+        Notifier<T> notifier = registry.get(notification);
+        ChannelLimit limit = channelLimits.get(notification.getClass());
+        CompletionStage<NotificationResult> sent = withPermits(limit, 1, () -> notifier.sendAsync(notification));
+        String channel = NotificationMetrics.channel(notification.getClass());
+        return sent.whenComplete((result, error) -> {
+            if (result != null) {
+                record(channel, result);
+            }
+        });
+    }
+
+    /**
+     * Lanza {@code call} con {@code permits} permisos del canal, retenidos hasta que su etapa termina. No
+     * bloquea: si el canal está lleno, la llamada sale desde el {@link #executor} cuando se liberan los permisos.
+     */
+    private <R> CompletionStage<R> withPermits(ChannelLimit limit, int permits, Supplier<CompletionStage<R>> call) {
+        if (limit == null) {
+            return call.get();
+        }
+        CompletableFuture<Void> granted = limit.acquireAsync(permits);
+        CompletableFuture<R> sent = granted.isDone()
+                ? granted.thenCompose(ignored -> call.get())
+                : granted.thenComposeAsync(ignored -> call.get(), executor);
+        return sent.whenComplete((result, error) -> limit.release(permits));
     }
 
     /**
      * Envía una notificación de forma asíncrona.
      * <p>
-     * Este método ejecuta {@link #send(Notification)} en un hilo del {@link #executor} y devuelve
-     * un {@link CompletableFuture} que se completará cuando finalice el envío.
+     * Este método lanza el envío desde un hilo del {@link #executor} con {@link Notifier#sendAsync(Notification)}
+     * y devuelve un {@link CompletableFuture} que se completará cuando finalice el envío.
      * </p>
      *
      * <h2>Comportamiento</h2>
@@ -51,56 +368,1388 @@ public class NotificationService {
      *
      * <h2>Concurrencia</h2>
      * <p>
-     * El trabajo se delega al {@link #executor}. El grado de paralelismo y el comportamiento bajo carga
-     * dependen de la configuración de dicho {@code Executor} (en este caso, un pool fijo de 4 hilos).
+     * El trabajo se delega al {@link #executor}. El grado de paralelismo depende de la configuración de
+     * dicho {@code Executor}: por defecto un pool fijo de 4 hilos, un hilo virtual por tarea con
+     * {@link Builder#virtualThreads()} o el executor del cliente.
+     * Los límites por canal ({@link Builder#maxConcurrency(Class, int)}) se aplican además del executor.
+     * </p>
+     * <p>
+     * Si el notifier es asíncrono, el hilo queda libre en cuanto sale la petición y el envío sigue contando en
+     * {@link Builder#maxInFlight(int)} hasta que llega la respuesta; con notifiers síncronos (la implementación
+     * por defecto de {@code sendAsync}) el hilo espera a la respuesta como antes.
+     * </p>
+     *
+     * <h2>Backpressure</h2>
+     * <p>
+     * Antes de llegar al executor, el envío pasa por una cola acotada ({@link Builder#queueCapacity(int)}).
+     * Con la cola llena se aplica la {@link OverflowPolicy}: el llamador espera ({@code BLOCK}), recibe
+     * una {@link NotificationRejectedException} de inmediato ({@code REJECT}), o se descarta el envío
+     * encolado de menor prioridad, cuyo futuro se completa excepcionalmente ({@code DROP_LOWEST_PRIORITY}).
+     * </p>
+     * <p>
+     * La cola tiene una sub-cola por prioridad: {@code CRITICAL} sale siempre primero y puede tener capacidad
+     * reservada ({@link Builder#reservedCriticalCapacity(int)}), y {@code BULK} solo recibe
+     * {@link Builder#bulkShare(double)} de los despachos mientras haya tráfico {@code TRANSACTIONAL}.
+     * Dentro de cada prioridad, los tenants se turnan y cada uno respeta su {@link TenantQuota}, de modo
+     * que un tenant con un lote enorme no acapara el servicio.
+     * </p>
+     *
+     * <h2>Reintentos</h2>
+     * <p>
+     * Con {@link Builder#retryPolicy(RetryPolicy)}, un resultado con fallo transitorio
+     * ({@link NotificationResult#isRetryable()}) se vuelve a encolar tras el backoff, sin ocupar un hilo
+     * durante la espera. El futuro se completa con el último resultado obtenido.
+     * </p>
+     *
+     * <h2>Idempotencia</h2>
+     * <p>
+     * Con {@link Builder#deduplication(Duration, int)}, si la notificación es un duplicado de otra en curso o
+     * reciente (misma clave de idempotencia), se devuelve un futuro con el resultado del original sin volver a
+     * encolarla.
+     * </p>
+     *
+     * <h2>Durabilidad</h2>
+     * <p>
+     * Con {@link Builder#outbox(NotificationOutbox)}, la notificación se escribe en el outbox antes de
+     * devolver el futuro y se marca como completada cuando el envío termina. Lo que quede pendiente al
+     * parar el proceso se reenvía al construir el siguiente servicio con el mismo outbox.
+     * </p>
+     *
+     * <h2>Agrupación</h2>
+     * <p>
+     * Si su canal tiene {@link Builder#coalesce(Class, CoalescingPolicy)}, la notificación espera en la
+     * ventana de su destinatario y el futuro se completa con el resultado del resumen en que se envió.
      * </p>
      *
      * @param notification notificación a enviar
      * @param <T>          tipo concreto de notificación
      * @return futuro que se completará con el resultado del envío
+     * @throws NotificationRejectedException si la cola no acepta el envío
      */
     public <T extends Notification> CompletableFuture<NotificationResult> sendAsync(T notification) {
-        return CompletableFuture.supplyAsync(() -> send(notification), executor);
+        CompletableFuture<NotificationResult> future = new CompletableFuture<>();
+        long key = deduplicationKey(notification);
+        if (key != IdempotencyKeys.NONE) {
+            CompletableFuture<NotificationResult> original = deduplicator.claim(key, future);
+            if (original != null) {
+                return original.copy();
+            }
+        }
+        if (outbox != null) {
+            completeInOutbox(future, outbox.append(notification));
+        }
+        if (retrier != null) {
+            retrier.onRequest();
+        }
+        try {
+            enqueue(notification, future);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * Programa el envío de una notificación para {@code dueAt}.
+     * <p>
+     * Hasta esa fecha la notificación espera en una rueda de tiempo jerárquica (programar y cancelar son
+     * O(1) y cada envío programado ocupa unas decenas de bytes), sin ocupar la cola ni el executor. Al
+     * vencer se encola como un {@link #sendAsync(Notification)}, con deduplicación, prioridad y cuotas de
+     * tenant. La resolución es la del tick ({@link Builder#schedulerTick(Duration)}): el envío puede
+     * encolarse hasta un tick más tarde, nunca antes. Una fecha pasada se encola en cuanto el hilo del
+     * temporizador la procesa, sin bloquear al que llama.
+     * </p>
+     *
+     * <h2>Durabilidad</h2>
+     * <p>
+     * Con {@link Builder#outbox(NotificationOutbox)}, el envío se escribe en el outbox con su fecha antes de
+     * devolver el handle; si el proceso se para antes de enviarlo, el siguiente servicio con el mismo outbox
+     * lo vuelve a programar (o lo envía ya si la fecha pasó). Sin outbox, {@link #shutdown()} rechaza los
+     * envíos programados pendientes con {@code SHUTDOWN}.
+     * </p>
+     *
+     * @param notification notificación a enviar
+     * @param dueAt        momento a partir del cual se envía
+     * @return handle para consultar el resultado o cancelar el envío
+     * @throws NotificationRejectedException si el servicio está cerrado
+     */
+    public ScheduledNotification schedule(Notification notification, Instant dueAt) {
+        Objects.requireNonNull(notification, "notification is required");
+        Objects.requireNonNull(dueAt, "dueAt is required");
+        if (!queue.isAccepting()) {
+            throw new NotificationRejectedException(
+                    NotificationRejectedException.Reason.SHUTDOWN, "El servicio de notificaciones está cerrado");
+        }
+        long id = outbox != null ? outbox.append(notification, dueAt) : scheduleIds.incrementAndGet();
+        ScheduledSend scheduled = new ScheduledSend(id, notification, dueAt);
+        if (outbox != null) {
+            completeInOutbox(scheduled.future, id);
+        }
+        arm(scheduled);
+        return scheduled;
+    }
+
+    /**
+     * Como {@link #schedule(Notification, Instant)}, con un retraso relativo a ahora.
+     */
+    public ScheduledNotification schedule(Notification notification, Duration delay) {
+        return schedule(notification, Instant.now().plus(delay));
+    }
+
+    /**
+     * Envíos programados que aún no han vencido.
+     */
+    public int scheduledCount() {
+        HierarchicalTimer current = scheduler;
+        return current == null ? 0 : current.size();
+    }
+
+    private void arm(ScheduledSend scheduled) {
+        scheduled.timeout = scheduler().schedule(Duration.between(Instant.now(), scheduled.dueAt), scheduled);
+    }
+
+    private HierarchicalTimer scheduler() {
+        HierarchicalTimer current = scheduler;
+        if (current == null) {
+            synchronized (scheduleIds) {
+                current = scheduler;
+                if (current == null) {
+                    current = new HierarchicalTimer(
+                            "notification-scheduler", schedulerTick, DEFAULT_SCHEDULER_WHEEL_SIZE);
+                    scheduler = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private void fire(ScheduledSend scheduled) {
+        CompletableFuture<NotificationResult> future = scheduled.future;
+        long key = deduplicationKey(scheduled.notification);
+        if (key != IdempotencyKeys.NONE) {
+            CompletableFuture<NotificationResult> original = deduplicator.claim(key, future);
+            if (original != null) {
+                original.whenComplete((result, error) -> {
+                    if (error != null) {
+                        future.completeExceptionally(error);
+                    } else {
+                        future.complete(result);
+                    }
+                });
+                return;
+            }
+        }
+        if (retrier != null) {
+            retrier.onRequest();
+        }
+        try {
+            enqueue(scheduled.notification, future);
+        } catch (RejectedExecutionException e) {
+            if (isShutdown(e)) {
+                unsentAtShutdown.add(scheduled.notification);
+            }
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Encola un envío, pasando antes por la ventana de agrupación de su canal si la tiene.
+     */
+    @SuppressWarnings("unchecked")
+    private void enqueue(Notification notification, CompletableFuture<NotificationResult> future) {
+        Coalescer<Notification> coalescer = (Coalescer<Notification>) coalescers.get(notification.getClass());
+        if (coalescer == null) {
+            submitAttempt(notification, 1, future);
+            return;
+        }
+        if (!queue.isAccepting()) {
+            throw new NotificationRejectedException(
+                    NotificationRejectedException.Reason.SHUTDOWN, "El servicio de notificaciones está cerrado");
+        }
+        coalescer.add(notification, future);
+    }
+
+    private <T extends Notification> Coalescer<T> coalescer(CoalescingPolicy<T> policy) {
+        return new Coalescer<>(policy, (delay, close) -> {
+            try {
+                scheduler().schedule(delay, close);
+            } catch (IllegalStateException e) {
+                // Temporizador ya parado por shutdown(): se cierra ya y el envío se rechaza con SHUTDOWN.
+                close.run();
+            }
+        }, (notification, future) -> submitAttempt(notification, 1, future));
+    }
+
+    private void submitAttempt(Notification notification, int attempt, CompletableFuture<NotificationResult> future) {
+        NotificationPriority priority = priorityResolver.apply(notification);
+        submit(QueuedTask.async(priority, notification.metadata().tenant(), List.of(notification), () -> {
+            CompletionStage<NotificationResult> sent;
+            try {
+                sent = dispatchAsync(notification);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+                return future;
+            }
+            return sent.whenComplete((result, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(unwrap(error));
+                    return;
+                }
+                try {
+                    if (!result.isRetryable() || !scheduleRetry(attempt, List.of(notification),
+                            () -> submitAttempt(notification, attempt + 1, future), future::completeExceptionally)) {
+                        future.complete(result);
+                    }
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        }, onReject(notification.getClass(), 1, future::completeExceptionally)));
     }
 
     /**
      * Envía un lote de notificaciones de forma asíncrona y devuelve un futuro con la lista de resultados.
      * <p>
-     * Para cada notificación se crea un {@link CompletableFuture} mediante {@link #sendAsync(Notification)}.
-     * Después, se espera a que todas las operaciones finalicen usando {@link CompletableFuture#allOf(CompletableFuture[])}
-     * y se recopilan los resultados en el mismo orden en que fueron generados los futuros.
+     * El lote se agrupa por tipo concreto de notificación (y por tanto por {@link Notifier} y proveedor)
+     * y cada grupo se parte en trozos de como máximo {@link Builder#batchChunkSize(int)} elementos.
+     * Cada trozo se ejecuta como una tarea del {@link #executor} llamando a {@link Notifier#sendBatchAsync(List)},
+     * de modo que los proveedores con envío nativo por lotes (SendGrid, Mailgun, FCM) hacen una llamada
+     * por trozo en lugar de una por notificación.
      * </p>
      *
      * <h2>Comportamiento y manejo de errores</h2>
      * <ul>
-     *   <li>Si <b>todas</b> las notificaciones se envían correctamente, el futuro resultante se completa
-     *       con una {@link List} de {@link NotificationResult}.</li>
-     *   <li>Si <b>alguna</b> operación falla, {@code allOf(...)} se completa excepcionalmente.
-     *       En ese caso, la etapa {@code thenApply(...)} no se ejecuta y el {@code CompletableFuture}
-     *       devuelto por este método también quedará completado excepcionalmente.</li>
-     *   <li>Al usar {@link CompletableFuture#join()}, si existiera una excepción al recopilar resultados,
-     *       se propagaría como {@link java.util.concurrent.CompletionException}.</li>
+     *   <li>Los resultados se devuelven en el mismo orden que {@code notifications}, independientemente
+     *       de cómo se hayan agrupado.</li>
+     *   <li>Si <b>alguna</b> tarea falla con una excepción, {@code allOf(...)} se completa excepcionalmente
+     *       y el {@code CompletableFuture} devuelto por este método también.</li>
+     *   <li>Al usar {@link CompletableFuture#join()}, la excepción se propaga como
+     *       {@link java.util.concurrent.CompletionException}.</li>
+     *   <li>Si la cola rechaza o descarta algún trozo, el futuro se completa excepcionalmente con
+     *       {@link NotificationRejectedException}.</li>
      * </ul>
+     * <p>
+     * Para obtener un resultado por elemento aunque parte del lote falle, usar
+     * {@link #sendBatchDetailedAsync(List)} o {@link #sendBatchStreaming(Iterable, Consumer)}.
+     * </p>
      *
      * <h2>Concurrencia</h2>
      * <p>
-     * El grado de paralelismo depende del {@link #executor}. Con un pool fijo, si el lote es mayor que el
-     * número de hilos, algunas tareas esperarán en cola.
+     * El grado de paralelismo depende del {@link #executor}. Los límites por canal cuentan notificaciones: un
+     * trozo ocupa un permiso por elemento (hasta el límite completo). Si el notifier no envía lotes de forma
+     * nativa ({@link Notifier#batchesNatively()}), cada notificación del trozo se despacha como un envío
+     * independiente, en paralelo, en lugar de recorrer el trozo en una sola tarea.
      * </p>
      *
      * @param notifications lista de notificaciones a enviar
      * @return futuro que se completará con la lista de resultados (o excepcionalmente si falla alguna)
      */
     public CompletableFuture<List<NotificationResult>> sendBatchAsync(List<? extends Notification> notifications) {
-        List<CompletableFuture<NotificationResult>> futures =
-                notifications.stream().map(this::sendAsync).toList();
+        NotificationResult[] results = new NotificationResult[notifications.size()];
+
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (Map.Entry<ChunkKey, List<Integer>> entry : chunkByChannel(notifications)) {
+            List<Integer> chunk = entry.getValue();
+            List<Notification> items = chunk.stream().<Notification>map(notifications::get).toList();
+            chunks.add(submitChunk(entry.getKey().priority(), items).thenAccept(chunkResults -> {
+                for (int i = 0; i < chunk.size(); i++) {
+                    results[chunk.get(i)] = chunkResults.get(i);
+                }
+            }));
+        }
 
         return CompletableFuture
-                .allOf(futures.toArray(new CompletableFuture[0]))
-                .thenApply(v -> futures.stream().map(CompletableFuture::join).toList());
+                .allOf(chunks.toArray(new CompletableFuture[0]))
+                .thenApply(v -> Arrays.asList(results));
+    }
+
+    /**
+     * Envía un lote tolerando fallos parciales: devuelve un resultado por elemento en lugar de fallar
+     * el lote completo cuando una parte lanza una excepción.
+     * <p>
+     * Cada {@link BatchItemResult} lleva la posición del elemento en {@code notifications} y su estado
+     * ({@code SUCCESS}, {@code FAILURE} o {@code EXCEPTION}). Si un trozo lanza una excepción, todos sus
+     * elementos se marcan como {@code EXCEPTION} con esa causa y el resto del lote continúa; no se reenvían
+     * uno a uno para no duplicar los que el proveedor ya hubiera aceptado.
+     * </p>
+     *
+     * @param notifications lista de notificaciones a enviar
+     * @return futuro con un resultado por elemento, en el orden de entrada; nunca se completa excepcionalmente
+     *         por fallos de envío
+     */
+    public CompletableFuture<List<BatchItemResult>> sendBatchDetailedAsync(List<? extends Notification> notifications) {
+        BatchItemResult[] results = new BatchItemResult[notifications.size()];
+        return sendBatchStreaming(notifications, item -> results[(int) item.index()] = item)
+                .thenApply(summary -> Arrays.asList(results));
+    }
+
+    /**
+     * Envía un lote en streaming, entregando cada {@link BatchItemResult} al {@code sink} en cuanto
+     * termina su trozo, sin esperar al resto del lote.
+     * <p>
+     * La entrada se recorre de forma perezosa desde un hilo virtual propio y solo se mantienen en vuelo
+     * {@link Builder#maxInFlightChunks(int)} trozos; cuando la ventana está llena se deja de leer la entrada.
+     * Así, un trabajo de millones de notificaciones usa memoria acotada y permite empezar a conciliar
+     * resultados de inmediato.
+     * </p>
+     *
+     * <h2>Sink</h2>
+     * <ul>
+     *   <li>Las llamadas al sink se serializan, por lo que no necesita ser thread-safe.</li>
+     *   <li>Los resultados llegan en orden de finalización, no de entrada; usar {@link BatchItemResult#index()}
+     *       para correlacionar.</li>
+     *   <li>Si el sink lanza una excepción, se registra y el lote continúa.</li>
+     * </ul>
+     *
+     * @param notifications origen de notificaciones (puede ser perezoso)
+     * @param sink          consumidor de resultados por elemento
+     * @return futuro con los totales, completado cuando se han entregado todos los resultados; se completa
+     *         excepcionalmente solo si falla la lectura del origen
+     */
+    public CompletableFuture<BatchSummary> sendBatchStreaming(Iterable<? extends Notification> notifications,
+                                                              Consumer<BatchItemResult> sink) {
+        StreamingBatch batch = new StreamingBatch(
+                this::submitChunk, priorityResolver, batchChunkSize, maxInFlightChunks, sink);
+        Thread.ofVirtual()
+                .name("notification-batch-pump")
+                .start(() -> batch.pump(notifications.iterator()));
+        return batch.completion();
+    }
+
+    /**
+     * Envía las notificaciones de un {@link Flow.Publisher} y publica un {@link BatchItemResult} por cada una,
+     * con la ventana de {@link Builder#streamWindow(int)}.
+     *
+     * @see #sendStream(Flow.Publisher, int)
+     */
+    public Flow.Publisher<BatchItemResult> sendStream(Flow.Publisher<? extends Notification> source) {
+        return sendStream(source, streamWindow);
+    }
+
+    /**
+     * Envía las notificaciones de un {@link Flow.Publisher} (un consumidor de Kafka, un cursor de base de datos)
+     * sin materializarlas en una lista, y publica un {@link BatchItemResult} por cada una.
+     * <p>
+     * La demanda va de abajo arriba: solo se piden notificaciones al origen mientras haya menos de {@code window}
+     * pedidas y sin entregar al suscriptor. Los elementos se agrupan en trozos por canal como en
+     * {@link #sendBatchAsync(List)} y pasan por la misma cola, reintentos y límites de canal, así que el origen
+     * avanza al ritmo al que los notifiers y los límites de tasa drenan, y un origen sin fin usa memoria constante.
+     * </p>
+     * <p>
+     * Un trozo sale cuando se llena, cuando llega toda la ronda pedida al origen o, si el origen se queda parado
+     * a mitad de ronda, tras el {@link Builder#streamLinger(Duration)}.
+     * </p>
+     * <p>
+     * Nada se pide al origen hasta que alguien se suscribe al publisher devuelto, que admite un único suscriptor.
+     * Los resultados llegan en orden de finalización y {@link BatchItemResult#index()} es la posición en el origen;
+     * un trozo que falla emite sus elementos como {@code EXCEPTION} sin cortar el flujo, y un error del origen
+     * llega como {@code onError} tras los resultados de lo ya recibido.
+     * </p>
+     *
+     * @param source origen de notificaciones
+     * @param window máximo de notificaciones pedidas al origen y aún no entregadas como resultado
+     * @return publisher de resultados
+     */
+    public Flow.Publisher<BatchItemResult> sendStream(Flow.Publisher<? extends Notification> source, int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("window must be greater than 0");
+        }
+        return new NotificationStream(source, this::submitChunk, (delay, task) -> scheduler().schedule(delay, task),
+                streamLinger, priorityResolver, batchChunkSize, window);
+    }
+
+    /**
+     * Encola un trozo del mismo canal y prioridad. Los elementos con fallo transitorio se reintentan
+     * juntos, como un trozo más pequeño, según la {@link RetryPolicy}.
+     *
+     * @return futuro con un resultado por elemento; se completa excepcionalmente si el trozo lanza una
+     *         excepción o la cola lo rechaza
+     */
+    private CompletableFuture<List<NotificationResult>> submitChunk(NotificationPriority priority,
+                                                                    List<Notification> items) {
+        CompletableFuture<List<NotificationResult>> future = new CompletableFuture<>();
+        boolean batchesNatively;
+        try {
+            batchesNatively = registry.get(items.get(0)).batchesNatively();
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        if (outbox != null) {
+            completeInOutbox(future, outbox.appendAll(items));
+        }
+        if (!batchesNatively) {
+            submitEach(items, future);
+            return future;
+        }
+        if (retrier != null) {
+            retrier.onRequest(items.size());
+        }
+        int[] all = new int[items.size()];
+        Arrays.setAll(all, i -> i);
+        try {
+            submitChunkAttempt(priority, items, all, new NotificationResult[items.size()], 1, future);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Despacha cada notificación de un trozo como un envío independiente, para notifiers sin envío por lotes
+     * nativo: salen en paralelo y cada una se reintenta por su cuenta.
+     */
+    private void submitEach(List<Notification> items, CompletableFuture<List<NotificationResult>> future) {
+        List<CompletableFuture<NotificationResult>> sends = new ArrayList<>(items.size());
+        for (Notification item : items) {
+            CompletableFuture<NotificationResult> send = new CompletableFuture<>();
+            sends.add(send);
+            if (retrier != null) {
+                retrier.onRequest();
+            }
+            try {
+                submitAttempt(item, 1, send);
+            } catch (RejectedExecutionException e) {
+                send.completeExceptionally(e);
+            }
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).whenComplete((done, error) -> {
+            if (error != null) {
+                future.completeExceptionally(unwrap(error));
+            } else {
+                future.complete(sends.stream().map(CompletableFuture::join).toList());
+            }
+        });
+    }
+
+    private void submitChunkAttempt(NotificationPriority priority,
+                                    List<Notification> items,
+                                    int[] pending,
+                                    NotificationResult[] results,
+                                    int attempt,
+                                    CompletableFuture<List<NotificationResult>> future) {
+        List<Notification> attemptItems = pending.length == items.size()
+                ? items
+                : Arrays.stream(pending).mapToObj(items::get).toList();
+
+        String tenant = items.get(0).metadata().tenant();
+        submit(QueuedTask.async(priority, tenant, attemptItems, () -> {
+            CompletionStage<List<NotificationResult>> sent;
+            try {
+                sent = sendChunkAsync(attemptItems);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+                return future;
+            }
+            return sent.whenComplete((attemptResults, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(unwrap(error));
+                    return;
+                }
+                try {
+                    onChunkAttempt(priority, items, pending, results, attempt, attemptResults, future);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        }, onReject(items.get(0).getClass(), attemptItems.size(), future::completeExceptionally)));
+    }
+
+    private void onChunkAttempt(NotificationPriority priority,
+                                List<Notification> items,
+                                int[] pending,
+                                NotificationResult[] results,
+                                int attempt,
+                                List<NotificationResult> attemptResults,
+                                CompletableFuture<List<NotificationResult>> future) {
+        int[] retryable = new int[pending.length];
+        int retryCount = 0;
+        for (int i = 0; i < pending.length; i++) {
+            NotificationResult result = attemptResults.get(i);
+            results[pending[i]] = result;
+            if (result.isRetryable()) {
+                retryable[retryCount++] = pending[i];
+            }
+        }
+
+        int[] retry = Arrays.copyOf(retryable, retryCount);
+        if (retryCount == 0 || !scheduleRetry(attempt, Arrays.stream(retry).mapToObj(items::get).toList(),
+                () -> submitChunkAttempt(priority, items, retry, results, attempt + 1, future),
+                future::completeExceptionally)) {
+            future.complete(Arrays.asList(results));
+        }
+    }
+
+    /**
+     * Marca los ids como completados en el outbox cuando termina el futuro. Un rechazo por cierre del
+     * servicio no cuenta como terminado: el envío sigue pendiente y se reenviará al arrancar de nuevo.
+     */
+    private void completeInOutbox(CompletableFuture<?> future, long... ids) {
+        future.whenComplete((result, error) -> {
+            if (isShutdown(error)) {
+                return;
+            }
+            for (long id : ids) {
+                outbox.complete(id);
+            }
+        });
+    }
+
+    private long deduplicationKey(Notification notification) {
+        return deduplicator == null ? IdempotencyKeys.NONE : deduplicator.keyOf(notification);
+    }
+
+    /**
+     * Programa el reintento de {@code notifications} y lo apunta en {@link #pendingRetries} hasta que vence su
+     * backoff. Si el servicio se cierra antes, el reintento ya no se encola: se rechaza con {@code SHUTDOWN} y
+     * sus notificaciones pasan a {@link ShutdownReport#unsent()}.
+     */
+    private boolean scheduleRetry(int attempt, List<? extends Notification> notifications,
+                                  Runnable retry, Consumer<Throwable> onFailure) {
+        if (retrier == null) {
+            return false;
+        }
+        PendingRetry pending = new PendingRetry(notifications, onFailure);
+        synchronized (pendingRetries) {
+            pendingRetries.add(pending);
+        }
+        if (!retrier.scheduleRetry(attempt, notifications.size(), () -> resume(pending, retry), onFailure)) {
+            synchronized (pendingRetries) {
+                pendingRetries.remove(pending);
+            }
+            return false;
+        }
+        if (closing) {
+            // Programado mientras se cerraba: ya no entrará en la cola.
+            boolean removed;
+            synchronized (pendingRetries) {
+                removed = pendingRetries.remove(pending);
+            }
+            if (removed) {
+                cut(pending);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Vence el backoff: encola el reintento si el servicio no ha empezado a cerrarse. Se encola con el cerrojo
+     * tomado para que {@link #shutdown()} no cierre la cola entre la comprobación y el encolado; desde el hilo
+     * del temporizador el encolado nunca espera (ver {@link #submit(QueuedTask)}).
+     */
+    private void resume(PendingRetry pending, Runnable retry) {
+        synchronized (pendingRetries) {
+            if (!pendingRetries.remove(pending)) {
+                return;
+            }
+            if (!closing) {
+                retry.run();
+                return;
+            }
+        }
+        cut(pending);
+    }
+
+    /**
+     * Reintento a la espera de su backoff. Identidad por instancia: dos reintentos de la misma notificación son
+     * entradas distintas.
+     */
+    private static final class PendingRetry {
+
+        private final List<? extends Notification> notifications;
+        private final Consumer<Throwable> onFailure;
+
+        private PendingRetry(List<? extends Notification> notifications, Consumer<Throwable> onFailure) {
+            this.notifications = notifications;
+            this.onFailure = onFailure;
+        }
+
+        List<? extends Notification> notifications() {
+            return notifications;
+        }
+
+        Consumer<Throwable> onFailure() {
+            return onFailure;
+        }
+    }
+
+    private void cut(PendingRetry pending) {
+        unsentAtShutdown.addAll(pending.notifications());
+        onReject(pending.notifications().get(0).getClass(), pending.notifications().size(), pending.onFailure())
+                .accept(new NotificationRejectedException(
+                        NotificationRejectedException.Reason.SHUTDOWN, "El servicio se cerró antes del reintento"));
+    }
+
+    /**
+     * Envía un grupo de notificaciones del mismo tipo concreto con {@link Notifier#sendBatchAsync(List)},
+     * reteniendo el permiso del canal hasta que llegan las respuestas.
+     */
+    private CompletionStage<List<NotificationResult>> sendChunkAsync(List<Notification> sameTypeNotifications) {
+        Notification first = sameTypeNotifications.get(0);
+        Notifier<Notification> notifier = registry.get(first);
+        ChannelLimit limit = channelLimits.get(first.getClass());
+        int permits = limit == null ? 0 : limit.permitsFor(sameTypeNotifications.size());
+        CompletionStage<List<NotificationResult>> sent =
+                withPermits(limit, permits, () -> notifier.sendBatchAsync(sameTypeNotifications));
+        String channel = NotificationMetrics.channel(first.getClass());
+        return sent.whenComplete((results, error) -> {
+            if (results != null) {
+                for (NotificationResult result : results) {
+                    record(channel, result);
+                }
+            }
+        });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private void record(String channel, NotificationResult result) {
+        if (result.isSuccess()) {
+            metrics.sent(channel);
+        } else {
+            metrics.failed(channel, result.getErrorClassification());
+        }
+    }
+
+    /**
+     * Callback de rechazo que además cuenta las notificaciones rechazadas del canal.
+     */
+    private Consumer<Throwable> onReject(Class<? extends Notification> type, int count, Consumer<Throwable> onReject) {
+        return error -> {
+            String reason = error instanceof NotificationRejectedException rejected
+                    ? rejected.getReason().name()
+                    : "EXECUTOR";
+            metrics.rejected(NotificationMetrics.channel(type), reason, count);
+            onReject.accept(error);
+        };
+    }
+
+    /**
+     * Agrupa las posiciones del lote por clase concreta y prioridad, y las parte en trozos de
+     * {@link #batchChunkSize}.
+     */
+    private List<Map.Entry<ChunkKey, List<Integer>>> chunkByChannel(List<? extends Notification> notifications) {
+        Map<ChunkKey, List<Integer>> open = new LinkedHashMap<>();
+        List<Map.Entry<ChunkKey, List<Integer>>> chunks = new ArrayList<>();
+
+        for (int i = 0; i < notifications.size(); i++) {
+            Notification notification = notifications.get(i);
+            ChunkKey key = ChunkKey.of(notification, priorityResolver.apply(notification));
+            List<Integer> chunk = open.get(key);
+            if (chunk == null || chunk.size() == batchChunkSize) {
+                chunk = new ArrayList<>();
+                open.put(key, chunk);
+                chunks.add(Map.entry(key, chunk));
+            }
+            chunk.add(i);
+        }
+        return chunks;
+    }
+
+    /**
+     * Encola una tarea y despacha lo que quepa en el executor.
+     * <p>
+     * Desde un hilo de temporizador (envíos programados, cierre de ventanas de agrupación, reintentos) nunca se
+     * espera por hueco: con {@link OverflowPolicy#BLOCK} y la cola llena, la tarea se reprograma para el
+     * siguiente tick en lugar de parar el temporizador y todo lo que tiene pendiente.
+     * </p>
+     *
+     * @throws NotificationRejectedException si la cola no acepta la tarea
+     */
+    private void submit(QueuedTask task) {
+        boolean onTimer = isTimerThread();
+        try {
+            if (onTimer) {
+                if (!queue.tryOffer(task)) {
+                    deferSubmit(task);
+                    return;
+                }
+            } else {
+                queue.offer(task);
+            }
+        } catch (RejectedExecutionException e) {
+            task.reject(e);
+            throw e;
+        }
+        drain();
+    }
+
+    private void deferSubmit(QueuedTask task) {
+        try {
+            scheduler().schedule(schedulerTick, new DeferredSubmit(task));
+        } catch (IllegalStateException e) {
+            unsentAtShutdown.addAll(task.notifications());
+            task.reject(new NotificationRejectedException(
+                    NotificationRejectedException.Reason.SHUTDOWN, "El servicio de notificaciones está cerrado"));
+        }
+    }
+
+    /**
+     * Tarea que no cupo en la cola desde el hilo del temporizador y espera al siguiente tick.
+     */
+    private final class DeferredSubmit implements Runnable {
+
+        private final QueuedTask task;
+
+        private DeferredSubmit(QueuedTask task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                submit(task);
+            } catch (RejectedExecutionException e) {
+                // submit() ya completó la tarea con el rechazo.
+                if (isShutdown(e)) {
+                    unsentAtShutdown.addAll(task.notifications());
+                }
+            }
+        }
+    }
+
+    private static boolean isShutdown(Throwable error) {
+        return error instanceof NotificationRejectedException rejected
+                && rejected.getReason() == NotificationRejectedException.Reason.SHUTDOWN;
+    }
+
+    private boolean isTimerThread() {
+        HierarchicalTimer current = scheduler;
+        return Thread.currentThread() == timerThread || current != null && current.isTimerThread();
+    }
+
+    /**
+     * Pasa tareas de la cola al executor mientras haya menos de {@link #maxInFlight} en ejecución.
+     * <p>
+     * Solo un hilo drena a la vez; el resto solo anota que hay trabajo pendiente, así que un executor
+     * que ejecuta en el propio hilo llamador no provoca recursión.
+     * </p>
+     */
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            int running;
+            while ((running = inFlight.get()) < maxInFlight) {
+                // Los últimos huecos de ejecución quedan para CRITICAL.
+                QueuedTask task = queue.poll(running >= maxInFlight - reservedCritical);
+                if (task == null) {
+                    scheduleQuotaWakeup(running);
+                    break;
+                }
+                inFlight.incrementAndGet();
+                inFlightNotifications.addAndGet(task.cost());
+                try {
+                    executor.execute(() -> run(task));
+                } catch (RejectedExecutionException e) {
+                    queue.onFinished(task);
+                    inFlightNotifications.addAndGet(-task.cost());
+                    inFlight.decrementAndGet();
+                    task.reject(e);
+                }
+            }
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Si queda trabajo encolado que solo espera a la cuota de tasa de su tenant, programa un nuevo
+     * {@link #drain()} para cuando haya permisos: nadie más lo despertaría si no hay tareas en ejecución.
+     */
+    private void scheduleQuotaWakeup(int running) {
+        if (timer == null || running >= maxInFlight - reservedCritical || queue.size() == 0) {
+            return;
+        }
+        long wait = queue.nanosUntilEligible();
+        if (wait == Long.MAX_VALUE || !wakeupScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            timer.schedule(() -> {
+                wakeupScheduled.set(false);
+                drain();
+            }, Math.max(wait, MIN_WAKEUP_NANOS), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            wakeupScheduled.set(false);
+        }
+    }
+
+    /**
+     * Lanza la tarea y libera su hueco cuando termina su {@link CompletionStage}: con notifiers asíncronos el
+     * hilo del executor queda libre mientras la petición está en vuelo, pero la tarea sigue contando en
+     * {@link #maxInFlight}.
+     */
+    private void run(QueuedTask task) {
+        metrics.queueWait(task.priority(), System.nanoTime() - task.enqueuedAtNanos());
+        CompletionStage<?> completion;
+        try {
+            completion = task.run();
+        } catch (Throwable e) {
+            finish(task);
+            throw e;
+        }
+        completion.whenComplete((result, error) -> finish(task));
+    }
+
+    private void finish(QueuedTask task) {
+        queue.onFinished(task);
+        inFlightNotifications.addAndGet(-task.cost());
+        inFlight.decrementAndGet();
+        drain();
+        terminateIfIdle();
+    }
+
+    /**
+     * Instantánea de la cola de envío: profundidad, rechazos, descartes y tiempos de espera.
+     */
+    public QueueStats queueStats() {
+        return queue.stats();
+    }
+
+    /**
+     * Instantánea por prioridad de la cola de envío, con el tiempo de espera de cada una.
+     */
+    public Map<NotificationPriority, LaneStats> laneStats() {
+        return queue.laneStats();
+    }
+
+    /**
+     * Instantánea por tenant: trabajo encolado, en ejecución y despachado desde el arranque.
+     */
+    public Map<String, TenantStats> tenantStats() {
+        return queue.tenantStats();
+    }
+
+    /**
+     * Número de tareas (envíos o trozos de lote) despachadas al executor y aún sin terminar.
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Número de notificaciones de las tareas en vuelo: un trozo de lote cuenta tantas como elementos tenga.
+     */
+    public int inFlightNotifications() {
+        return inFlightNotifications.get();
     }
 
+    /**
+     * Deja de aceptar envíos y cierra el executor interno en cuanto termina lo ya encolado.
+     * Si el executor fue proporcionado por el cliente, no se cierra. Las ventanas de agrupación abiertas se
+     * envían sin esperar a que terminen.
+     * <p>
+     * Lo que aún no había llegado a la cola no se envía: los reintentos que esperaban su backoff y los envíos
+     * programados pendientes se rechazan con {@code SHUTDOWN}.
+     * </p>
+     * <p>
+     * No espera: para esperar con un plazo y saber qué quedó sin enviar, usar {@link #shutdown(Duration)}.
+     * </p>
+     */
     public void shutdown() {
-        executor.shutdown();
+        coalescers.values().forEach(Coalescer::flush);
+        List<PendingRetry> retries;
+        synchronized (pendingRetries) {
+            closing = true;
+            retries = new ArrayList<>(pendingRetries);
+            pendingRetries.clear();
+            queue.shutdown();
+        }
+        // Los reintentos que esperaban su backoff ya no podrían encolarse.
+        retries.forEach(this::cut);
+        HierarchicalTimer current;
+        synchronized (scheduleIds) {
+            current = scheduler;
+        }
+        if (current != null) {
+            // Con outbox siguen pendientes en él y se volverán a programar al arrancar.
+            NotificationRejectedException rejection = new NotificationRejectedException(
+                    NotificationRejectedException.Reason.SHUTDOWN, "El servicio de notificaciones está cerrado");
+            for (Timeout timeout : current.stop()) {
+                if (timeout.task() instanceof ScheduledSend scheduled) {
+                    unsentAtShutdown.add(scheduled.notification);
+                    scheduled.future.completeExceptionally(rejection);
+                } else if (timeout.task() instanceof DeferredSubmit deferred) {
+                    unsentAtShutdown.addAll(deferred.task.notifications());
+                    deferred.task.reject(rejection);
+                } else {
+                    // Cierre de una ventana abierta después del flush o linger de un stream: su envío se
+                    // rechaza con SHUTDOWN.
+                    timeout.task().run();
+                }
+            }
+        }
+        terminateIfIdle();
+    }
+
+    /**
+     * Deja de aceptar envíos como {@link #shutdown()} y espera como mucho {@code drainTimeout} a que terminen
+     * los ya encolados y los que están en vuelo.
+     * <p>
+     * Si vence el plazo, lo que sigue en cola se saca sin enviarlo: sus futuros se completan con un rechazo
+     * {@code SHUTDOWN} y sus notificaciones se devuelven en {@link ShutdownReport#unsent()}. Con outbox esas
+     * notificaciones siguen pendientes en él y se reenvían al arrancar. Las tareas en vuelo no se interrumpen,
+     * porque el proveedor puede haber recibido ya la petición; terminan en segundo plano y el informe indica
+     * cuántas son.
+     * </p>
+     * <p>
+     * Los reintentos en backoff y los envíos programados que {@link #shutdown()} rechaza también se devuelven en
+     * {@link ShutdownReport#unsent()}, aunque lo encolado termine a tiempo; el informe solo indica
+     * {@code drained} si no quedó ninguno.
+     * </p>
+     *
+     * @param drainTimeout tiempo máximo de espera
+     * @return qué terminó y qué quedó pendiente
+     */
+    public ShutdownReport shutdown(Duration drainTimeout) {
+        Objects.requireNonNull(drainTimeout, "drainTimeout is required");
+        long start = System.nanoTime();
+        shutdown();
+        boolean finished = awaitTermination(drainTimeout);
+        List<Notification> unsent = new ArrayList<>();
+        if (!finished) {
+            NotificationRejectedException rejection = new NotificationRejectedException(
+                    NotificationRejectedException.Reason.SHUTDOWN, "El plazo de cierre venció antes del envío");
+            for (QueuedTask task : queue.close()) {
+                unsent.addAll(task.notifications());
+                task.reject(rejection);
+            }
+            terminateIfIdle();
+        }
+        // Reintentos en backoff y envíos programados que el cierre descartó: tampoco salieron.
+        for (Notification cut = unsentAtShutdown.poll(); cut != null; cut = unsentAtShutdown.poll()) {
+            unsent.add(cut);
+        }
+        boolean drained = finished && unsent.isEmpty();
+        ShutdownReport report = new ShutdownReport(drained, Duration.ofNanos(System.nanoTime() - start),
+                List.copyOf(unsent), inFlight.get(), inFlightNotifications.get());
+        if (!drained) {
+            log.warn("Cierre sin completar tras {}: {} notificaciones sin enviar, {} en vuelo",
+                    drainTimeout, unsent.size(), report.inFlightNotifications());
+        }
+        return report;
+    }
+
+    /**
+     * Cierra el servicio con {@link #shutdown(Duration)} y el plazo de {@link Builder#drainTimeout(Duration)}.
+     */
+    @Override
+    public void close() {
+        shutdown(drainTimeout);
+    }
+
+    private boolean awaitTermination(Duration timeout) {
+        try {
+            termination.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void terminateIfIdle() {
+        if (inFlight.get() == 0
+                && queue.size() == 0
+                && !queue.isAccepting()
+                && terminated.compareAndSet(false, true)) {
+            if (timer != null) {
+                // Los reintentos pendientes ya se cortaron en shutdown(); los que venzan ahora no se encolan.
+                timer.shutdown();
+            }
+            if (ownedExecutor != null) {
+                ownedExecutor.shutdown();
+            }
+            termination.complete(null);
+        }
+    }
+
+    private final class ScheduledSend implements ScheduledNotification, Runnable {
+
+        private final long id;
+        private final Notification notification;
+        private final Instant dueAt;
+        private final CompletableFuture<NotificationResult> future = new CompletableFuture<>();
+        private volatile Timeout timeout;
+
+        private ScheduledSend(long id, Notification notification, Instant dueAt) {
+            this.id = id;
+            this.notification = notification;
+            this.dueAt = dueAt;
+        }
+
+        @Override
+        public void run() {
+            fire(this);
+        }
+
+        @Override
+        public boolean cancel() {
+            Timeout current = timeout;
+            if (current == null || !current.cancel()) {
+                return false;
+            }
+            future.cancel(false);
+            return true;
+        }
+
+        @Override
+        public long id() {
+            return id;
+        }
+
+        @Override
+        public Notification notification() {
+            return notification;
+        }
+
+        @Override
+        public Instant dueAt() {
+            return dueAt;
+        }
+
+        @Override
+        public CompletableFuture<NotificationResult> result() {
+            return future;
+        }
+    }
+
+    /**
+     * Configuración del modo de ejecución de {@link NotificationService}.
+     */
+    public static class Builder {
+
+        private final NotifierRegistry registry;
+        private final Map<Class<? extends Notification>, Integer> channelConcurrency = new HashMap<>();
+        private Executor executor;
+        private boolean virtualThreads;
+        private int poolSize = DEFAULT_POOL_SIZE;
+        private int batchChunkSize = DEFAULT_BATCH_CHUNK_SIZE;
+        private int maxInFlightChunks = DEFAULT_MAX_IN_FLIGHT_CHUNKS;
+        private int streamWindow = DEFAULT_STREAM_WINDOW;
+        private Duration streamLinger = DEFAULT_STREAM_LINGER;
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+        private int maxInFlight;
+        private Function<? super Notification, NotificationPriority> priorityResolver =
+                notification -> NotificationPriority.TRANSACTIONAL;
+        private double bulkShare = LanePolicy.DEFAULT_BULK_SHARE;
+        private int reservedCriticalCapacity;
+        private TenantQuota defaultTenantQuota = TenantQuota.unlimited();
+        private final Map<String, TenantQuota> tenantQuotas = new HashMap<>();
+        private RetryPolicy retryPolicy;
+        private RetryBudget retryBudget;
+        private NotificationOutbox outbox;
+        private Duration schedulerTick = DEFAULT_SCHEDULER_TICK;
+        private Duration drainTimeout = DEFAULT_DRAIN_TIMEOUT;
+        private NotificationMetrics metrics = NotificationMetrics.NOOP;
+        private final Map<Class<? extends Notification>, CoalescingPolicy<?>> coalescing = new HashMap<>();
+        private DeduplicationCache deduplicationCache;
+        private boolean contentHashKeys;
+
+        private Builder(NotifierRegistry registry) {
+            this.registry = registry;
+        }
+
+        /**
+         * Usa un pool fijo de hilos de plataforma (modo por defecto, 4 hilos).
+         */
+        public Builder fixedThreadPool(int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("threads must be greater than 0");
+            }
+            this.poolSize = threads;
+            this.virtualThreads = false;
+            this.executor = null;
+            return this;
+        }
+
+        /**
+         * Ejecuta cada envío en un hilo virtual propio. Adecuado porque cada llamada al proveedor
+         * es I/O bloqueante: un hilo virtual bloqueado no ocupa un hilo de plataforma.
+         */
+        public Builder virtualThreads() {
+            this.virtualThreads = true;
+            this.executor = null;
+            return this;
+        }
+
+        /**
+         * Usa un {@link Executor} del cliente. El servicio no gestiona su ciclo de vida.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "executor is required");
+            this.virtualThreads = false;
+            return this;
+        }
+
+        /**
+         * Limita el número de envíos simultáneos para un tipo de notificación (canal), de modo que
+         * un executor sin límite (por ejemplo, hilos virtuales) no sature a un único proveedor.
+         *
+         * @param type          clase concreta de la notificación
+         * @param maxConcurrent número máximo de envíos simultáneos para ese canal
+         */
+        public Builder maxConcurrency(Class<? extends Notification> type, int maxConcurrent) {
+            Objects.requireNonNull(type, "type is required");
+            if (maxConcurrent <= 0) {
+                throw new IllegalArgumentException("maxConcurrent must be greater than 0");
+            }
+            channelConcurrency.put(type, maxConcurrent);
+            return this;
+        }
+
+        /**
+         * Tamaño máximo de cada trozo en que {@link #sendBatchAsync(List)} divide un lote por canal.
+         * Por defecto {@value #DEFAULT_BATCH_CHUNK_SIZE}.
+         */
+        public Builder batchChunkSize(int batchChunkSize) {
+            if (batchChunkSize <= 0) {
+                throw new IllegalArgumentException("batchChunkSize must be greater than 0");
+            }
+            this.batchChunkSize = batchChunkSize;
+            return this;
+        }
+
+        /**
+         * Número máximo de trozos en vuelo en {@link #sendBatchStreaming(Iterable, Consumer)}.
+         * Por defecto {@value #DEFAULT_MAX_IN_FLIGHT_CHUNKS}.
+         */
+        public Builder maxInFlightChunks(int maxInFlightChunks) {
+            if (maxInFlightChunks <= 0) {
+                throw new IllegalArgumentException("maxInFlightChunks must be greater than 0");
+            }
+            this.maxInFlightChunks = maxInFlightChunks;
+            return this;
+        }
+
+        /**
+         * Ventana por defecto de {@link #sendStream(Flow.Publisher)}: notificaciones pedidas al origen y aún no
+         * entregadas como resultado. Por defecto {@value #DEFAULT_STREAM_WINDOW}.
+         */
+        public Builder streamWindow(int streamWindow) {
+            if (streamWindow <= 0) {
+                throw new IllegalArgumentException("streamWindow must be greater than 0");
+            }
+            this.streamWindow = streamWindow;
+            return this;
+        }
+
+        /**
+         * Tiempo máximo que {@link #sendStream(Flow.Publisher)} retiene un trozo a medio llenar esperando al resto
+         * de la ronda pedida: con un origen que se queda parado (un consumidor sin mensajes nuevos), lo recibido
+         * sale igualmente al cumplirse. Se mide con la resolución de {@link #schedulerTick(Duration)}.
+         * Por defecto 50 ms.
+         */
+        public Builder streamLinger(Duration linger) {
+            Objects.requireNonNull(linger, "linger is required");
+            if (linger.isNegative() || linger.isZero()) {
+                throw new IllegalArgumentException("streamLinger must be greater than 0");
+            }
+            this.streamLinger = linger;
+            return this;
+        }
+
+        /**
+         * Capacidad de la cola de envío. Por defecto {@value #DEFAULT_QUEUE_CAPACITY}.
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException("queueCapacity must be greater than 0");
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Qué hacer cuando la cola de envío está llena. Por defecto {@link OverflowPolicy#BLOCK}.
+         */
+        public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "overflowPolicy is required");
+            return this;
+        }
+
+        /**
+         * Número máximo de tareas despachadas al executor a la vez; el resto espera en la cola de envío.
+         * Por defecto, el tamaño del pool fijo, o {@value #DEFAULT_MAX_IN_FLIGHT} con hilos virtuales
+         * o un executor del cliente.
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            if (maxInFlight <= 0) {
+                throw new IllegalArgumentException("maxInFlight must be greater than 0");
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Prioridad con la que compite en la cola de envío cada notificación que no la indica en sus
+         * metadatos ({@code NotificationMetadata.priority}). Por defecto {@link NotificationPriority#TRANSACTIONAL}.
+         */
+        public Builder priorityResolver(Function<? super Notification, NotificationPriority> priorityResolver) {
+            this.priorityResolver = Objects.requireNonNull(priorityResolver, "priorityResolver is required");
+            return this;
+        }
+
+        /**
+         * Fracción de los despachos que recibe {@link NotificationPriority#BULK} cuando compite con
+         * {@link NotificationPriority#TRANSACTIONAL}. Por defecto {@value LanePolicy#DEFAULT_BULK_SHARE}.
+         */
+        public Builder bulkShare(double bulkShare) {
+            if (!(bulkShare > 0 && bulkShare < 1)) {
+                throw new IllegalArgumentException("bulkShare must be between 0 and 1 (exclusive)");
+            }
+            this.bulkShare = bulkShare;
+            return this;
+        }
+
+        /**
+         * Huecos de la cola y de ejecución que solo puede usar {@link NotificationPriority#CRITICAL}, de modo
+         * que un OTP encuentra sitio aunque una campaña haya llenado el servicio. Debe ser menor que
+         * {@link #queueCapacity(int)} y que {@link #maxInFlight(int)}. Por defecto 0.
+         */
+        public Builder reservedCriticalCapacity(int slots) {
+            if (slots < 0) {
+                throw new IllegalArgumentException("slots must not be negative");
+            }
+            this.reservedCriticalCapacity = slots;
+            return this;
+        }
+
+        /**
+         * Cuota de un tenant ({@code NotificationMetadata.tenant}): concurrencia, tasa y peso en el reparto.
+         */
+        public Builder tenantQuota(String tenant, TenantQuota quota) {
+            Objects.requireNonNull(tenant, "tenant is required");
+            tenantQuotas.put(tenant, Objects.requireNonNull(quota, "quota is required"));
+            return this;
+        }
+
+        /**
+         * Cuota de los tenants sin cuota propia, incluido el tenant por defecto de las notificaciones que no
+         * indican ninguno. Por defecto {@link TenantQuota#unlimited()}.
+         */
+        public Builder defaultTenantQuota(TenantQuota quota) {
+            this.defaultTenantQuota = Objects.requireNonNull(quota, "quota is required");
+            return this;
+        }
+
+        /**
+         * Reintenta los envíos con fallo transitorio según la política indicada. Por defecto no hay reintentos.
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = Objects.requireNonNull(retryPolicy, "retryPolicy is required");
+            if (retryBudget == null) {
+                retryBudget = RetryBudget.defaultBudget();
+            }
+            return this;
+        }
+
+        /**
+         * Presupuesto global de reintentos. Por defecto {@link RetryBudget#defaultBudget()}.
+         */
+        public Builder retryBudget(RetryBudget retryBudget) {
+            this.retryBudget = Objects.requireNonNull(retryBudget, "retryBudget is required");
+            return this;
+        }
+
+        /**
+         * Outbox donde se registran los envíos asíncronos antes de aceptarlos, para reenviarlos si el
+         * proceso se para antes de terminarlos. Al construir el servicio se reenvían los pendientes.
+         * El servicio no cierra el outbox. Por defecto no hay outbox.
+         */
+        public Builder outbox(NotificationOutbox outbox) {
+            this.outbox = Objects.requireNonNull(outbox, "outbox is required");
+            return this;
+        }
+
+        /**
+         * Descarta los envíos duplicados por clave de idempotencia ({@code NotificationMetadata.idempotencyKey})
+         * durante {@code ttl}, recordando como máximo {@code maxKeys} claves. Se aplica a {@code send} y
+         * {@code sendAsync}; los lotes no se deduplican. Por defecto no hay deduplicación.
+         */
+        public Builder deduplication(Duration ttl, int maxKeys) {
+            return deduplication(new DeduplicationCache(maxKeys, ttl));
+        }
+
+        /**
+         * Como {@link #deduplication(Duration, int)}, con una caché proporcionada (por ejemplo, compartida
+         * entre varios servicios).
+         */
+        public Builder deduplication(DeduplicationCache cache) {
+            this.deduplicationCache = Objects.requireNonNull(cache, "cache is required");
+            return this;
+        }
+
+        /**
+         * Si es {@code true}, las notificaciones sin clave de idempotencia se deduplican por un hash de su
+         * contenido (canal, destinatario, plantillas y variables). Solo tiene efecto con deduplicación.
+         * Por defecto {@code false}: dos envíos idénticos sin clave pueden ser legítimos.
+         */
+        public Builder contentHashKeys(boolean contentHashKeys) {
+            this.contentHashKeys = contentHashKeys;
+            return this;
+        }
+
+        /**
+         * Resolución de los envíos programados con {@link NotificationService#schedule(Notification, Instant)}.
+         * Un tick mayor reduce los despertares del temporizador a costa de precisión. Por defecto 10 ms.
+         */
+        public Builder schedulerTick(Duration tick) {
+            Objects.requireNonNull(tick, "tick is required");
+            if (tick.toMillis() < 1) {
+                throw new IllegalArgumentException("schedulerTick must be at least 1 ms");
+            }
+            this.schedulerTick = tick;
+            return this;
+        }
+
+        /**
+         * Agrupa los envíos asíncronos de {@code type} al mismo destinatario que llegan dentro de la ventana de
+         * {@code policy} en un único resumen (ver {@code ChatDigester} y {@code PushDigester}), para no
+         * saturar al proveedor ni al destinatario durante una ráfaga. Se aplica a {@code sendAsync} y a los
+         * envíos programados; {@code send} y los lotes no se agrupan. Por defecto ningún canal agrupa.
+         */
+        public <T extends Notification> Builder coalesce(Class<T> type, CoalescingPolicy<T> policy) {
+            Objects.requireNonNull(type, "type is required");
+            this.coalescing.put(type, Objects.requireNonNull(policy, "policy is required"));
+            return this;
+        }
+
+        /**
+         * Plazo de espera de {@link NotificationService#close()} para terminar lo encolado y en vuelo.
+         * Por defecto 30 segundos.
+         */
+        public Builder drainTimeout(Duration drainTimeout) {
+            Objects.requireNonNull(drainTimeout, "drainTimeout is required");
+            if (drainTimeout.isNegative()) {
+                throw new IllegalArgumentException("drainTimeout must not be negative");
+            }
+            this.drainTimeout = drainTimeout;
+            return this;
+        }
+
+        /**
+         * Destino de las métricas del servicio: envíos, fallos y rechazos por canal, espera en cola y
+         * ocupación del executor. Para las métricas de plantillas y proveedores, pasar el mismo
+         * {@link NotificationMetrics} a los notifiers. Por defecto {@link NotificationMetrics#NOOP}.
+         */
+        public Builder metrics(NotificationMetrics metrics) {
+            this.metrics = Objects.requireNonNull(metrics, "metrics is required");
+            return this;
+        }
+
+        public NotificationService build() {
+            return new NotificationService(this).start();
+        }
     }
 }
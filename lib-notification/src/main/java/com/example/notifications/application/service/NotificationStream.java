@@ -0,0 +1,392 @@
+package com.example.notifications.application.service;
+
+import com.example.notifications.application.scheduling.Timeout;
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.model.NotificationPriority;
+import com.example.notifications.domain.result.BatchItemResult;
+import com.example.notifications.domain.result.NotificationResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Envío en streaming entre un {@link Flow.Publisher} de notificaciones y un {@link Flow.Publisher} de resultados,
+ * con backpressure por demanda en los dos extremos.
+ *
+ * <h2>Ventana</h2>
+ * <p>
+ * Como mucho hay {@code window} notificaciones pedidas al origen y aún no entregadas al suscriptor: en trozos
+ * abiertos, en vuelo contra el proveedor o con el resultado esperando demanda. Solo se pide más al origen cuando
+ * se entrega un resultado, así que el ritmo lo marcan los notifiers, los límites de tasa y el propio suscriptor,
+ * y un origen sin fin pasa con memoria constante.
+ * </p>
+ *
+ * <h2>Trozos</h2>
+ * <p>
+ * Las notificaciones se agrupan por canal, prioridad y tenant como en {@link StreamingBatch}. Al origen se le
+ * pide de trozo en trozo, y un trozo sale cuando se llena o cuando llega toda la ronda pedida, para no retener
+ * elementos esperando a otros que no se han pedido. Un origen que se queda parado a mitad de ronda (un
+ * consumidor de Kafka sin mensajes nuevos) no retiene lo recibido: los trozos abiertos salen también cuando
+ * pasa {@code linger} desde que llegó el primero de sus elementos.
+ * </p>
+ *
+ * <h2>Resultados</h2>
+ * <ul>
+ *   <li>Llegan en orden de finalización; {@link BatchItemResult#index()} es la posición en el origen.</li>
+ *   <li>Un trozo que termina con excepción emite sus elementos como {@code EXCEPTION} y el flujo continúa.</li>
+ *   <li>Un error del origen se propaga con {@code onError} después de entregar los resultados de lo ya recibido.</li>
+ *   <li>Cancelar deja de pedir al origen; los trozos ya encolados terminan pero sus resultados se descartan.</li>
+ * </ul>
+ * <p>
+ * El publisher admite un único suscriptor.
+ * </p>
+ */
+@Slf4j
+final class NotificationStream implements Flow.Publisher<BatchItemResult> {
+
+    private final Flow.Publisher<? extends Notification> source;
+    private final StreamingBatch.ChunkSender chunkSender;
+    private final LingerTimer timer;
+    private final Duration linger;
+    private final Function<? super Notification, NotificationPriority> priorityOf;
+    private final int chunkSize;
+    private final int window;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    private volatile Flow.Subscriber<? super BatchItemResult> downstream;
+    private volatile Flow.Subscription upstream;
+
+    /** Resultados a la espera de demanda. */
+    private final Queue<BatchItemResult> ready = new ConcurrentLinkedQueue<>();
+    /** Resultados pedidos por el suscriptor y aún no entregados. */
+    private final AtomicLong demand = new AtomicLong();
+    /** Notificaciones pedidas al origen y aún no entregadas como resultado. */
+    private final AtomicInteger outstanding = new AtomicInteger();
+    /** Notificaciones pedidas al origen que aún no han llegado. */
+    private final AtomicLong awaited = new AtomicLong();
+    private final AtomicInteger chunksInFlight = new AtomicInteger();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    /** Desde las señales del origen y desde el temporizador del linger, con el cerrojo de {@code open}. */
+    private final Map<ChunkKey, Chunk> open = new LinkedHashMap<>();
+    private long nextIndex;
+    /** Linger de los trozos abiertos; {@code lingerRound} invalida el que venza después de un envío. */
+    private Timeout lingerTimeout;
+    private long lingerRound;
+
+    private volatile boolean upstreamDone;
+    private volatile Throwable upstreamError;
+    private volatile boolean cancelled;
+    /** Petición no válida del suscriptor; {@link #drain()} la entrega como {@code onError}. */
+    private volatile Throwable requestError;
+    private boolean terminated;
+
+    NotificationStream(Flow.Publisher<? extends Notification> source,
+                       StreamingBatch.ChunkSender chunkSender,
+                       LingerTimer timer,
+                       Duration linger,
+                       Function<? super Notification, NotificationPriority> priorityOf,
+                       int chunkSize,
+                       int window) {
+        this.source = Objects.requireNonNull(source, "source is required");
+        this.chunkSender = chunkSender;
+        this.timer = timer;
+        this.linger = linger;
+        this.priorityOf = priorityOf;
+        this.chunkSize = Math.min(chunkSize, window);
+        this.window = window;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super BatchItemResult> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber is required");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("El flujo de notificaciones solo admite un suscriptor"));
+            return;
+        }
+        downstream = subscriber;
+        subscriber.onSubscribe(new Downstream());
+        source.subscribe(new Upstream());
+    }
+
+    /**
+     * Entrega resultados mientras haya demanda, pide al origen lo que quepa en la ventana y cierra el flujo
+     * cuando no queda nada pendiente. Solo un hilo drena a la vez, así que las señales al suscriptor van
+     * serializadas y una llamada a {@code request} desde {@code onNext} no provoca recursión.
+     */
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Throwable invalid = requestError;
+            if (invalid != null && !terminated) {
+                terminated = true;
+                ready.clear();
+                downstream.onError(invalid);
+            } else if (cancelled) {
+                ready.clear();
+            } else if (!terminated) {
+                emitReady();
+                requestUpstream();
+                terminateIfDone();
+            }
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void emitReady() {
+        while (demand.get() > 0 && !cancelled) {
+            BatchItemResult item = ready.poll();
+            if (item == null) {
+                return;
+            }
+            demand.decrementAndGet();
+            outstanding.decrementAndGet();
+            try {
+                downstream.onNext(item);
+            } catch (RuntimeException e) {
+                log.warn("El suscriptor del flujo lanzó una excepción en onNext; se cancela el flujo", e);
+                cancel();
+            }
+        }
+    }
+
+    /**
+     * Pide al origen una ronda de hasta un trozo, solo cuando ha llegado toda la anterior: así los trozos
+     * abiertos se envían al cerrar cada ronda y un origen lento no retiene elementos hasta llenar la ventana.
+     */
+    private void requestUpstream() {
+        Flow.Subscription subscription = upstream;
+        if (subscription == null || upstreamDone || cancelled || awaited.get() > 0) {
+            return;
+        }
+        int round = Math.min(window - outstanding.get(), chunkSize);
+        if (round > 0) {
+            outstanding.addAndGet(round);
+            awaited.addAndGet(round);
+            subscription.request(round);
+        }
+    }
+
+    private void terminateIfDone() {
+        if (!upstreamDone || chunksInFlight.get() != 0 || !ready.isEmpty()) {
+            return;
+        }
+        terminated = true;
+        Throwable error = upstreamError;
+        if (error != null) {
+            downstream.onError(error);
+        } else {
+            downstream.onComplete();
+        }
+    }
+
+    private void cancel() {
+        cancelled = true;
+        Flow.Subscription subscription = upstream;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    /**
+     * Saca los trozos abiertos. Se envían fuera del cerrojo: encolar puede esperar a que haya sitio en la cola.
+     */
+    private void flushOpen() {
+        List<Chunk> chunks;
+        synchronized (open) {
+            chunks = takeOpen();
+        }
+        chunks.forEach(this::submit);
+    }
+
+    private List<Chunk> takeOpen() {
+        List<Chunk> chunks = new ArrayList<>(open.values());
+        open.clear();
+        lingerRound++;
+        if (lingerTimeout != null) {
+            lingerTimeout.cancel();
+            lingerTimeout = null;
+        }
+        return chunks;
+    }
+
+    /**
+     * Programa el envío de los trozos abiertos si aún no hay uno pendiente. Con el cerrojo de {@code open}.
+     *
+     * @return {@code false} si el temporizador ya está cerrado y los trozos deben salir ya
+     */
+    private boolean scheduleLinger() {
+        if (lingerTimeout != null || open.isEmpty()) {
+            return true;
+        }
+        long round = lingerRound;
+        try {
+            lingerTimeout = timer.schedule(linger, () -> lingerExpired(round));
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private void lingerExpired(long round) {
+        List<Chunk> chunks;
+        synchronized (open) {
+            if (round != lingerRound || cancelled) {
+                return;
+            }
+            chunks = takeOpen();
+        }
+        chunks.forEach(this::submit);
+    }
+
+    private void submit(Chunk chunk) {
+        chunksInFlight.incrementAndGet();
+        try {
+            chunkSender.send(chunk.priority, chunk.notifications)
+                    .whenComplete((results, error) -> complete(chunk, results, error));
+        } catch (RejectedExecutionException e) {
+            complete(chunk, null, e);
+        }
+    }
+
+    private void complete(Chunk chunk, List<NotificationResult> results, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        for (int i = 0; i < chunk.size(); i++) {
+            ready.add(cause != null
+                    ? BatchItemResult.exception(chunk.indexes[i], chunk.notifications.get(i), cause)
+                    : BatchItemResult.of(chunk.indexes[i], chunk.notifications.get(i), results.get(i)));
+        }
+        chunksInFlight.decrementAndGet();
+        drain();
+    }
+
+    private final class Upstream implements Flow.Subscriber<Notification> {
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (upstream != null || cancelled) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            drain();
+        }
+
+        @Override
+        public void onNext(Notification notification) {
+            if (cancelled || upstreamDone) {
+                return;
+            }
+            ChunkKey key = ChunkKey.of(notification, priorityOf.apply(notification));
+            Chunk full = null;
+            boolean lingering;
+            synchronized (open) {
+                Chunk chunk = open.computeIfAbsent(key, k -> new Chunk(k.priority(), chunkSize));
+                chunk.add(nextIndex++, notification);
+                if (chunk.size() == chunkSize) {
+                    open.remove(key);
+                    full = chunk;
+                }
+                lingering = scheduleLinger();
+            }
+            if (full != null) {
+                submit(full);
+            }
+            if (awaited.decrementAndGet() <= 0 || !lingering) {
+                flushOpen();
+                drain();
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            upstreamError = error;
+            onComplete();
+        }
+
+        @Override
+        public void onComplete() {
+            flushOpen();
+            upstreamDone = true;
+            drain();
+        }
+    }
+
+    private final class Downstream implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // Regla 3.9: se entrega por drain() para no solaparse con un onNext en curso.
+                if (!cancelled) {
+                    requestError = new IllegalArgumentException("request must be greater than 0");
+                }
+                NotificationStream.this.cancel();
+                drain();
+                return;
+            }
+            demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            NotificationStream.this.cancel();
+            drain();
+        }
+    }
+
+    /**
+     * Temporizador con el que se programa el linger; el del servicio.
+     */
+    interface LingerTimer {
+        Timeout schedule(Duration delay, Runnable task);
+    }
+
+    private static final class Chunk {
+        private final NotificationPriority priority;
+        private final long[] indexes;
+        private final List<Notification> notifications;
+
+        private Chunk(NotificationPriority priority, int capacity) {
+            this.priority = priority;
+            this.indexes = new long[capacity];
+            this.notifications = new ArrayList<>(capacity);
+        }
+
+        private void add(long index, Notification notification) {
+            indexes[notifications.size()] = index;
+            notifications.add(notification);
+        }
+
+        private int size() {
+            return notifications.size();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.notifications.application.service;
 
 import com.example.notifications.application.port.in.Notifier;
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
 import com.example.notifications.domain.result.NotificationResult;
 import com.example.notifications.domain.model.PushNotification;
 import com.example.notifications.application.port.out.push.PushGateway;
@@ -8,33 +9,122 @@ import com.example.notifications.application.port.out.push.PushGatewayResponse;
 import com.example.notifications.application.port.out.push.PushMessage;
 import com.example.notifications.application.port.out.template.TemplateEngine;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 public class PushNotifier implements Notifier<PushNotification> {
 
+    private static final String CHANNEL = "push";
+
     private final PushGateway gateway;
     private final TemplateEngine templateEngine;
+    private final NotificationMetrics metrics;
 
     public PushNotifier(PushGateway gateway, TemplateEngine engine) {
+        this(gateway, engine, NotificationMetrics.NOOP);
+    }
+
+    public PushNotifier(PushGateway gateway, TemplateEngine engine, NotificationMetrics metrics) {
         this.gateway = gateway;
         this.templateEngine = engine;
+        this.metrics = metrics;
     }
 
     @Override
     public NotificationResult send(PushNotification notificationMessage) {
+        PushMessage message = toMessage(notificationMessage);
+        long start = System.nanoTime();
+        PushGatewayResponse response;
+        try {
+            response = gateway.send(message);
+        } finally {
+            recordCall(start);
+        }
+        return toResult(response);
+    }
+
+    @Override
+    public List<NotificationResult> sendBatch(List<PushNotification> notifications) {
+        List<PushMessage> messages = notifications.stream().map(this::toMessage).toList();
+        long start = System.nanoTime();
+        List<PushGatewayResponse> responses;
+        try {
+            responses = gateway.sendBatch(messages);
+        } finally {
+            recordCall(start);
+        }
+        return responses.stream().map(this::toResult).toList();
+    }
+
+    /**
+     * Como {@link #send}, pero sin bloquear: compone el {@code sendAsync} del gateway.
+     */
+    @Override
+    public CompletionStage<NotificationResult> sendAsync(PushNotification notificationMessage) {
+        PushMessage message;
+        try {
+            message = toMessage(notificationMessage);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        return gateway.sendAsync(message)
+                .whenComplete((response, error) -> recordCall(start))
+                .thenApply(this::toResult);
+    }
+
+    @Override
+    public boolean batchesNatively() {
+        return gateway.batchesNatively();
+    }
+
+    @Override
+    public CompletionStage<List<NotificationResult>> sendBatchAsync(List<PushNotification> notifications) {
+        List<PushMessage> messages;
+        try {
+            messages = notifications.stream().map(this::toMessage).toList();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        return gateway.sendBatchAsync(messages)
+                .whenComplete((responses, error) -> recordCall(start))
+                .thenApply(responses -> responses.stream().map(this::toResult).toList());
+    }
+
+    private PushMessage toMessage(PushNotification notificationMessage) {
+        long start = System.nanoTime();
         String title = templateEngine.render(notificationMessage.titleTemplate(), notificationMessage.variables());
         String body = templateEngine.render(notificationMessage.bodyTemplate(), notificationMessage.variables());
+        metrics.templateRendered(CHANNEL, System.nanoTime() - start);
 
-        PushMessage message = new PushMessage(
+        return new PushMessage(
                 notificationMessage.deviceToken(),
                 title,
                 body,
                 notificationMessage.data()
         );
-        PushGatewayResponse response = gateway.send(message);
+    }
 
+    private NotificationResult toResult(PushGatewayResponse response) {
+        if (!gateway.reportsProviderMetrics()) {
+            metrics.providerResult(CHANNEL, gateway.providerName(), response.classification());
+        }
         if (response.errors() != null && !response.errors().isEmpty()) {
-            return NotificationResult.failure(response.errors());
+            return NotificationResult.failure(response.errors(), response.classification());
         }
 
         return NotificationResult.success();
     }
-}
\ No newline at end of file
+
+    /**
+     * Duración de la llamada al gateway, salvo que el gateway publique la de cada proveedor
+     * ({@link PushGateway#reportsProviderMetrics()}).
+     */
+    private void recordCall(long start) {
+        if (!gateway.reportsProviderMetrics()) {
+            metrics.providerCall(CHANNEL, gateway.providerName(), System.nanoTime() - start);
+        }
+    }
+}
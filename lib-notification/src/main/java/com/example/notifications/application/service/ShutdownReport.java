@@ -0,0 +1,28 @@
+package com.example.notifications.application.service;
+
+import com.example.notifications.domain.model.Notification;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Resultado de un cierre con plazo ({@link NotificationService#shutdown(Duration)}).
+ *
+ * @param drained               {@code true} si todo lo encolado y en vuelo terminó dentro del plazo y no se
+ *                              descartó ningún reintento ni envío programado
+ * @param elapsed               tiempo que tardó el cierre
+ * @param unsent                notificaciones que no se llegaron a enviar: las que seguían en cola al vencer el
+ *                              plazo, los reintentos que esperaban su backoff y los envíos programados
+ *                              pendientes. Sus futuros se completaron con un rechazo {@code SHUTDOWN}. Con outbox
+ *                              siguen pendientes en él y se reenvían al arrancar de nuevo
+ * @param inFlightTasks         tareas ya despachadas al proveedor que no habían terminado; siguen en segundo plano
+ * @param inFlightNotifications notificaciones de esas tareas
+ */
+public record ShutdownReport(
+        boolean drained,
+        Duration elapsed,
+        List<Notification> unsent,
+        int inFlightTasks,
+        int inFlightNotifications
+) {
+}
@@ -1,39 +1,132 @@
 package com.example.notifications.application.service;
 
 import com.example.notifications.application.port.in.Notifier;
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
 import com.example.notifications.domain.result.NotificationResult;
 import com.example.notifications.domain.model.SmsNotification;
 import com.example.notifications.application.port.out.sms.SmsGateway;
 import com.example.notifications.application.port.out.sms.SmsGatewayResponse;
 import com.example.notifications.application.port.out.sms.SmsMessage;
 import com.example.notifications.application.port.out.template.TemplateEngine;
+import com.example.notifications.domain.result.ErrorClassification;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 public class SmsNotifier implements Notifier<SmsNotification> {
 
+    private static final String CHANNEL = "sms";
+
     private final SmsGateway gateway;
     private final TemplateEngine engine;
+    private final NotificationMetrics metrics;
 
     public SmsNotifier(SmsGateway gateway, TemplateEngine engine) {
+        this(gateway, engine, NotificationMetrics.NOOP);
+    }
+
+    public SmsNotifier(SmsGateway gateway, TemplateEngine engine, NotificationMetrics metrics) {
         this.gateway = gateway;
         this.engine = engine;
+        this.metrics = metrics;
     }
 
     @Override
     public NotificationResult send(SmsNotification notification) {
+        SmsMessage message = toMessage(notification);
+        long start = System.nanoTime();
+        SmsGatewayResponse response;
+        try {
+            response = gateway.send(message);
+        } finally {
+            recordCall(start);
+        }
+        return toResult(response);
+    }
+
+    @Override
+    public List<NotificationResult> sendBatch(List<SmsNotification> notifications) {
+        List<SmsMessage> messages = notifications.stream().map(this::toMessage).toList();
+        long start = System.nanoTime();
+        List<SmsGatewayResponse> responses;
+        try {
+            responses = gateway.sendBatch(messages);
+        } finally {
+            recordCall(start);
+        }
+        return responses.stream().map(this::toResult).toList();
+    }
+
+    /**
+     * Como {@link #send}, pero sin bloquear: compone el {@code sendAsync} del gateway.
+     */
+    @Override
+    public CompletionStage<NotificationResult> sendAsync(SmsNotification notification) {
+        SmsMessage message;
+        try {
+            message = toMessage(notification);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        return gateway.sendAsync(message)
+                .whenComplete((response, error) -> recordCall(start))
+                .thenApply(this::toResult);
+    }
+
+    @Override
+    public boolean batchesNatively() {
+        return gateway.batchesNatively();
+    }
+
+    @Override
+    public CompletionStage<List<NotificationResult>> sendBatchAsync(List<SmsNotification> notifications) {
+        List<SmsMessage> messages;
+        try {
+            messages = notifications.stream().map(this::toMessage).toList();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        return gateway.sendBatchAsync(messages)
+                .whenComplete((responses, error) -> recordCall(start))
+                .thenApply(responses -> responses.stream().map(this::toResult).toList());
+    }
+
+    private SmsMessage toMessage(SmsNotification notification) {
         String message = notification.messageTemplate();
 
         if(notification.variables()!=null && !notification.variables().isEmpty()) {
+            long start = System.nanoTime();
             message = engine.render(notification.messageTemplate(), notification.variables());
+            metrics.templateRendered(CHANNEL, System.nanoTime() - start);
         }
 
-        SmsMessage smsMessage  = new SmsMessage(
+        return new SmsMessage(
                 notification.sender(),notification.recipient(), message
         );
-        SmsGatewayResponse response = gateway.send(smsMessage);
+    }
+
+    private NotificationResult toResult(SmsGatewayResponse response) {
+        if (!gateway.reportsProviderMetrics()) {
+            metrics.providerResult(CHANNEL, gateway.providerName(),
+                    response == null ? ErrorClassification.NONE : response.classification());
+        }
         if (response!= null && response.error() != null)
         {
-            return NotificationResult.failure(response.error());
+            return NotificationResult.failure(response.error(), response.classification());
         }
         return NotificationResult.success();
     }
+
+    /**
+     * Duración de la llamada al gateway, salvo que el gateway publique la de cada proveedor
+     * ({@link SmsGateway#reportsProviderMetrics()}).
+     */
+    private void recordCall(long start) {
+        if (!gateway.reportsProviderMetrics()) {
+            metrics.providerCall(CHANNEL, gateway.providerName(), System.nanoTime() - start);
+        }
+    }
 }
@@ -0,0 +1,210 @@
+package com.example.notifications.application.service;
+
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.model.NotificationPriority;
+import com.example.notifications.domain.result.BatchItemResult;
+import com.example.notifications.domain.result.BatchSummary;
+import com.example.notifications.domain.result.NotificationResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Ejecución en streaming de un lote: lee la entrada de forma perezosa, la agrupa por tipo en trozos,
+ * mantiene como máximo {@code maxInFlightChunks} trozos en vuelo y entrega cada
+ * {@link BatchItemResult} al sink en cuanto su trozo termina. Cada trozo se encola con la prioridad
+ * de sus elementos.
+ * <p>
+ * La memoria queda acotada por {@code maxInFlightChunks * chunkSize} elementos, independientemente
+ * del tamaño total del lote.
+ * </p>
+ * <p>
+ * Un trozo incompleto se envía cuando se han leído {@value #FLUSH_AFTER_CHUNKS} trozos completos de entrada
+ * desde que se abrió, aunque no se haya llenado: así los tipos poco frecuentes de una entrada muy larga no
+ * esperan al final para tener resultado.
+ * </p>
+ */
+@Slf4j
+final class StreamingBatch {
+
+    /** Antigüedad máxima de un trozo abierto, en trozos completos de entrada leídos. */
+    static final int FLUSH_AFTER_CHUNKS = 2;
+
+    private final ChunkSender chunkSender;
+    private final Function<? super Notification, NotificationPriority> priorityOf;
+    private final int chunkSize;
+    private final Semaphore window;
+    private final Consumer<BatchItemResult> sink;
+    private final Object sinkLock = new Object();
+
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong exceptions = new AtomicLong();
+    /** Trozos pendientes más el propio bombeo de la entrada. */
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private final CompletableFuture<BatchSummary> completion = new CompletableFuture<>();
+    private volatile Throwable sourceError;
+
+    StreamingBatch(ChunkSender chunkSender,
+                   Function<? super Notification, NotificationPriority> priorityOf,
+                   int chunkSize,
+                   int maxInFlightChunks,
+                   Consumer<BatchItemResult> sink) {
+        this.chunkSender = chunkSender;
+        this.priorityOf = priorityOf;
+        this.chunkSize = chunkSize;
+        this.window = new Semaphore(maxInFlightChunks);
+        this.sink = sink;
+    }
+
+    CompletableFuture<BatchSummary> completion() {
+        return completion;
+    }
+
+    /**
+     * Recorre la entrada y envía los trozos. Bloquea mientras la ventana de trozos en vuelo esté llena,
+     * por lo que debe ejecutarse en un hilo propio.
+     */
+    void pump(Iterator<? extends Notification> source) {
+        Map<ChunkKey, Chunk> open = new LinkedHashMap<>();
+        long index = 0;
+        try {
+            while (source.hasNext()) {
+                if (index > 0 && index % chunkSize == 0) {
+                    flushStale(open, index);
+                }
+                Notification notification = source.next();
+                ChunkKey key = ChunkKey.of(notification, priorityOf.apply(notification));
+                long openedAt = index;
+                Chunk chunk = open.computeIfAbsent(key, k -> new Chunk(k.priority(), chunkSize, openedAt));
+                chunk.add(index++, notification);
+                if (chunk.size() == chunkSize) {
+                    open.remove(key);
+                    submit(chunk);
+                }
+            }
+            open.values().forEach(this::submit);
+        } catch (RuntimeException e) {
+            sourceError = e;
+        } finally {
+            finishOne();
+        }
+    }
+
+    private void flushStale(Map<ChunkKey, Chunk> open, long index) {
+        long maxAge = (long) FLUSH_AFTER_CHUNKS * chunkSize;
+        Iterator<Chunk> chunks = open.values().iterator();
+        while (chunks.hasNext()) {
+            Chunk chunk = chunks.next();
+            if (index - chunk.openedAt >= maxAge) {
+                chunks.remove();
+                submit(chunk);
+            }
+        }
+    }
+
+    private void submit(Chunk chunk) {
+        window.acquireUninterruptibly();
+        pending.incrementAndGet();
+        try {
+            chunkSender.send(chunk.priority, chunk.notifications)
+                    .whenComplete((results, error) -> complete(chunk, results, error));
+        } catch (RejectedExecutionException e) {
+            complete(chunk, null, e);
+        }
+    }
+
+    private void complete(Chunk chunk, List<NotificationResult> results, Throwable error) {
+        try {
+            if (error != null) {
+                emitExceptions(chunk, error instanceof CompletionException ? error.getCause() : error);
+            } else {
+                for (int i = 0; i < chunk.size(); i++) {
+                    emit(BatchItemResult.of(chunk.indexes[i], chunk.notifications.get(i), results.get(i)));
+                }
+            }
+        } finally {
+            window.release();
+            finishOne();
+        }
+    }
+
+    private void emitExceptions(Chunk chunk, Throwable error) {
+        for (int i = 0; i < chunk.size(); i++) {
+            emit(BatchItemResult.exception(chunk.indexes[i], chunk.notifications.get(i), error));
+        }
+    }
+
+    private void emit(BatchItemResult item) {
+        switch (item.status()) {
+            case SUCCESS -> succeeded.incrementAndGet();
+            case FAILURE -> failed.incrementAndGet();
+            case EXCEPTION -> exceptions.incrementAndGet();
+        }
+
+        synchronized (sinkLock) {
+            try {
+                sink.accept(item);
+            } catch (RuntimeException e) {
+                log.warn("El sink del lote lanzó una excepción para el elemento {}", item.index(), e);
+            }
+        }
+    }
+
+    private void finishOne() {
+        if (pending.decrementAndGet() != 0) {
+            return;
+        }
+        if (sourceError != null) {
+            completion.completeExceptionally(sourceError);
+            return;
+        }
+        long ok = succeeded.get();
+        long ko = failed.get();
+        long errors = exceptions.get();
+        completion.complete(new BatchSummary(ok + ko + errors, ok, ko, errors));
+    }
+
+    /**
+     * Encola un trozo y devuelve un futuro con un resultado por elemento.
+     */
+    @FunctionalInterface
+    interface ChunkSender {
+        CompletableFuture<List<NotificationResult>> send(NotificationPriority priority, List<Notification> chunk);
+    }
+
+    private static final class Chunk {
+        private final NotificationPriority priority;
+        private final long[] indexes;
+        private final List<Notification> notifications;
+        private final long openedAt;
+
+        private Chunk(NotificationPriority priority, int capacity, long openedAt) {
+            this.priority = priority;
+            this.indexes = new long[capacity];
+            this.notifications = new ArrayList<>(capacity);
+            this.openedAt = openedAt;
+        }
+
+        private void add(long index, Notification notification) {
+            indexes[notifications.size()] = index;
+            notifications.add(notification);
+        }
+
+        private int size() {
+            return notifications.size();
+        }
+    }
+}
@@ -5,8 +5,14 @@ import java.util.Map;
 public record ChatNotification(
         String recipient,       // channelId, chatId, roomId
         String messageTemplate,
-        Map<String, Object> variables
+        Map<String, Object> variables,
+        NotificationMetadata metadata
 ) implements Notification {
+
+    public ChatNotification(String recipient, String messageTemplate, Map<String, Object> variables) {
+        this(recipient, messageTemplate, variables, NotificationMetadata.NONE);
+    }
+
     public ChatNotification {
         if (recipient == null || recipient.isBlank()) {
             throw new IllegalArgumentException("recipient is required");
@@ -14,5 +20,8 @@ public record ChatNotification(
         if (messageTemplate == null || messageTemplate.isBlank()) {
             throw new IllegalArgumentException("messageTemplate is required");
         }
+        if (metadata == null) {
+            metadata = NotificationMetadata.NONE;
+        }
     }
 }
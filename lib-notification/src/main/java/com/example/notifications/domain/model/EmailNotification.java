@@ -1,5 +1,7 @@
 package com.example.notifications.domain.model;
 
+import com.example.notifications.domain.validation.Recipients;
+
 import java.util.Map;
 
 public record EmailNotification(
@@ -7,19 +9,29 @@ public record EmailNotification(
         String recipient,
         String subjectTemplate,
         String bodyTemplate,
-        Map<String, Object> variables
+        Map<String, Object> variables,
+        NotificationMetadata metadata
 ) implements Notification {
+
+    public EmailNotification(String sender,
+                             String recipient,
+                             String subjectTemplate,
+                             String bodyTemplate,
+                             Map<String, Object> variables) {
+        this(sender, recipient, subjectTemplate, bodyTemplate, variables, NotificationMetadata.NONE);
+    }
+
     public EmailNotification {
         if (sender == null || sender.isBlank()) {
             throw new IllegalArgumentException("Sender is required");
         }
 
-        if ( !sender.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
-            throw new IllegalArgumentException("Invalid recipient email");
+        if ( !Recipients.isEmail(sender)) {
+            throw new IllegalArgumentException(Recipients.INVALID_EMAIL);
         }
 
-        if (recipient == null || !recipient.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
-            throw new IllegalArgumentException("Invalid recipient email");
+        if (!Recipients.isEmail(recipient)) {
+            throw new IllegalArgumentException(Recipients.INVALID_EMAIL);
         }
 
         if (subjectTemplate == null || subjectTemplate.isBlank()) {
@@ -29,5 +41,9 @@ public record EmailNotification(
         if (bodyTemplate == null || bodyTemplate.isBlank()) {
             throw new IllegalArgumentException("Body is required");
         }
+
+        if (metadata == null) {
+            metadata = NotificationMetadata.NONE;
+        }
     }
 }
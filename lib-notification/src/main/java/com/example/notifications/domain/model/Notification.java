@@ -7,4 +7,9 @@ public sealed interface Notification
         ChatNotification {
 
     String recipient();
+
+    /**
+     * Metadatos del envío (clave de idempotencia, prioridad, tenant). Nunca es {@code null}.
+     */
+    NotificationMetadata metadata();
 }
@@ -0,0 +1,59 @@
+package com.example.notifications.domain.model;
+
+/**
+ * Datos de una notificación que no forman parte del mensaje y que el servicio usa para decidir cómo
+ * enviarla.
+ *
+ * @param idempotencyKey clave que identifica el envío en el sistema origen (por ejemplo, el id del pedido
+ *                       o de la solicitud de OTP); dos envíos del mismo canal con la misma clave se consideran
+ *                       el mismo. {@code null} si no hay clave.
+ * @param priority       prioridad con la que compite en la cola de envío; {@code null} para que la decida
+ *                       el {@code priorityResolver} del servicio
+ * @param tenant         cliente interno al que pertenece el envío, para el reparto justo y las cuotas del
+ *                       servicio; {@code null} para el tenant por defecto
+ */
+public record NotificationMetadata(String idempotencyKey, NotificationPriority priority, String tenant) {
+
+    public static final NotificationMetadata NONE = new NotificationMetadata(null, null, null);
+
+    public NotificationMetadata(String idempotencyKey) {
+        this(idempotencyKey, null, null);
+    }
+
+    public NotificationMetadata(String idempotencyKey, NotificationPriority priority) {
+        this(idempotencyKey, priority, null);
+    }
+
+    public NotificationMetadata {
+        if (idempotencyKey != null && idempotencyKey.isBlank()) {
+            throw new IllegalArgumentException("idempotencyKey must not be blank");
+        }
+        if (tenant != null && tenant.isBlank()) {
+            throw new IllegalArgumentException("tenant must not be blank");
+        }
+    }
+
+    public static NotificationMetadata idempotencyKey(String idempotencyKey) {
+        return new NotificationMetadata(idempotencyKey, null, null);
+    }
+
+    public static NotificationMetadata priority(NotificationPriority priority) {
+        return new NotificationMetadata(null, priority, null);
+    }
+
+    public static NotificationMetadata tenant(String tenant) {
+        return new NotificationMetadata(null, null, tenant);
+    }
+
+    public NotificationMetadata withIdempotencyKey(String idempotencyKey) {
+        return new NotificationMetadata(idempotencyKey, priority, tenant);
+    }
+
+    public NotificationMetadata withPriority(NotificationPriority priority) {
+        return new NotificationMetadata(idempotencyKey, priority, tenant);
+    }
+
+    public NotificationMetadata withTenant(String tenant) {
+        return new NotificationMetadata(idempotencyKey, priority, tenant);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.notifications.domain.model;
+
+/**
+ * Prioridad de una notificación, de mayor a menor.
+ */
+public enum NotificationPriority {
+    /** Tráfico que no puede esperar: OTP, restablecimiento de contraseña, alertas de seguridad. */
+    CRITICAL,
+    /** Notificaciones transaccionales disparadas por una acción del usuario. */
+    TRANSACTIONAL,
+    /** Campañas y envíos masivos. */
+    BULK
+}
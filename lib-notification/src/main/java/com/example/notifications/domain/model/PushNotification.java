@@ -8,5 +8,22 @@ public record PushNotification(
         String titleTemplate,
         String bodyTemplate,
         Map<String, Object> variables,
-        Map<String, String> data
-) implements Notification {}
+        Map<String, String> data,
+        NotificationMetadata metadata
+) implements Notification {
+
+    public PushNotification(String recipient,
+                            String deviceToken,
+                            String titleTemplate,
+                            String bodyTemplate,
+                            Map<String, Object> variables,
+                            Map<String, String> data) {
+        this(recipient, deviceToken, titleTemplate, bodyTemplate, variables, data, NotificationMetadata.NONE);
+    }
+
+    public PushNotification {
+        if (metadata == null) {
+            metadata = NotificationMetadata.NONE;
+        }
+    }
+}
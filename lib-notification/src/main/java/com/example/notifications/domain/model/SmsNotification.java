@@ -1,28 +1,40 @@
 package com.example.notifications.domain.model;
 
+import com.example.notifications.domain.validation.Recipients;
+
 import java.util.Map;
 
 public record SmsNotification(
         String sender,
         String recipient,
         String messageTemplate,
-        Map<String, Object> variables
+        Map<String, Object> variables,
+        NotificationMetadata metadata
 ) implements Notification {
+
+    public SmsNotification(String sender, String recipient, String messageTemplate, Map<String, Object> variables) {
+        this(sender, recipient, messageTemplate, variables, NotificationMetadata.NONE);
+    }
+
     public SmsNotification {
         if (sender == null || sender.isBlank()) {
             throw new IllegalArgumentException("Sender is required");
         }
 
-        if ( !sender.matches("^\\+?[1-9]\\d{7,14}$")) {
-            throw new IllegalArgumentException("Invalid recipient phone number");
+        if ( !Recipients.isPhone(sender)) {
+            throw new IllegalArgumentException(Recipients.INVALID_PHONE);
         }
 
-        if (recipient == null || !recipient.matches("^\\+?[1-9]\\d{7,14}$")) {
-            throw new IllegalArgumentException("Invalid recipient phone number");
+        if (!Recipients.isPhone(recipient)) {
+            throw new IllegalArgumentException(Recipients.INVALID_PHONE);
         }
 
         if (messageTemplate == null || messageTemplate.isBlank()) {
             throw new IllegalArgumentException("messageTemplate is required");
         }
+
+        if (metadata == null) {
+            metadata = NotificationMetadata.NONE;
+        }
     }
 }
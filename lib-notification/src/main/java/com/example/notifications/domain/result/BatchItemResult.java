@@ -0,0 +1,34 @@
+package com.example.notifications.domain.result;
+
+import com.example.notifications.domain.model.Notification;
+
+/**
+ * Resultado de un elemento de un lote, correlacionado con su posición en la entrada.
+ *
+ * @param index        posición de la notificación en el lote de entrada
+ * @param notification notificación enviada
+ * @param result       resultado del envío, o {@code null} si terminó con excepción
+ * @param error        excepción producida, o {@code null} si se obtuvo un resultado
+ */
+public record BatchItemResult(
+        long index,
+        Notification notification,
+        NotificationResult result,
+        Throwable error
+) {
+
+    public static BatchItemResult of(long index, Notification notification, NotificationResult result) {
+        return new BatchItemResult(index, notification, result, null);
+    }
+
+    public static BatchItemResult exception(long index, Notification notification, Throwable error) {
+        return new BatchItemResult(index, notification, null, error);
+    }
+
+    public BatchItemStatus status() {
+        if (error != null || result == null) {
+            return BatchItemStatus.EXCEPTION;
+        }
+        return result.isSuccess() ? BatchItemStatus.SUCCESS : BatchItemStatus.FAILURE;
+    }
+}
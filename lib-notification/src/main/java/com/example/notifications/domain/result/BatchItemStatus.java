@@ -0,0 +1,10 @@
+package com.example.notifications.domain.result;
+
+public enum BatchItemStatus {
+    /** El proveedor aceptó la notificación. */
+    SUCCESS,
+    /** El envío terminó con un {@link NotificationResult} fallido (por ejemplo, rechazo del proveedor). */
+    FAILURE,
+    /** El envío lanzó una excepción y no se obtuvo un {@link NotificationResult}. */
+    EXCEPTION
+}
@@ -0,0 +1,12 @@
+package com.example.notifications.domain.result;
+
+/**
+ * Totales de un envío por lotes en streaming.
+ */
+public record BatchSummary(
+        long total,
+        long succeeded,
+        long failed,
+        long exceptions
+) {
+}
@@ -0,0 +1,21 @@
+package com.example.notifications.domain.result;
+
+/**
+ * Tipo de error de un envío, para decidir si tiene sentido reintentarlo.
+ */
+public enum ErrorClassification {
+    /** El envío no falló. */
+    NONE,
+    /** Fallo temporal del proveedor (rate limit, timeout, 5xx): puede funcionar si se reintenta. */
+    TRANSIENT,
+    /** Fallo definitivo (destinatario inválido, credenciales, contenido rechazado): no se reintenta. */
+    PERMANENT;
+
+    /**
+     * Clasificación por defecto cuando el proveedor no aporta más información: sin error es
+     * {@link #NONE} y cualquier error se considera {@link #PERMANENT} para no reintentar a ciegas.
+     */
+    public static ErrorClassification defaultFor(String error) {
+        return error == null ? NONE : PERMANENT;
+    }
+}
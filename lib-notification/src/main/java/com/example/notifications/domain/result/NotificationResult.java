@@ -2,20 +2,40 @@ package com.example.notifications.domain.result;
 
 public class NotificationResult {
 
+    private static final NotificationResult SUCCESS = new NotificationResult(true, null, ErrorClassification.NONE);
+
     private final boolean success;
     private final String errorMessage;
+    private final ErrorClassification errorClassification;
 
-    private NotificationResult(boolean success, String errorMessage) {
+    private NotificationResult(boolean success, String errorMessage, ErrorClassification errorClassification) {
         this.success = success;
         this.errorMessage = errorMessage;
+        this.errorClassification = errorClassification;
     }
 
+    /**
+     * Resultado de éxito. Es inmutable, así que siempre se devuelve la misma instancia.
+     */
     public static NotificationResult success() {
-        return new NotificationResult(true, null);
+        return SUCCESS;
     }
 
+    /**
+     * Fallo definitivo: no se reintenta.
+     */
     public static NotificationResult failure(String error) {
-        return new NotificationResult(false, error);
+        return failure(error, ErrorClassification.PERMANENT);
+    }
+
+    /**
+     * Fallo con la clasificación indicada por el proveedor.
+     */
+    public static NotificationResult failure(String error, ErrorClassification classification) {
+        return new NotificationResult(false, error,
+                classification == null || classification == ErrorClassification.NONE
+                        ? ErrorClassification.PERMANENT
+                        : classification);
     }
 
     public boolean isSuccess() {
@@ -25,4 +45,15 @@ public class NotificationResult {
     public String getErrorMessage() {
         return errorMessage;
     }
+
+    public ErrorClassification getErrorClassification() {
+        return errorClassification;
+    }
+
+    /**
+     * Indica si el fallo es transitorio y, por tanto, merece la pena reintentar el envío.
+     */
+    public boolean isRetryable() {
+        return errorClassification == ErrorClassification.TRANSIENT;
+    }
 }
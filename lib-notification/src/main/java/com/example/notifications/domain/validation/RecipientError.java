@@ -0,0 +1,11 @@
+package com.example.notifications.domain.validation;
+
+/**
+ * Destinatario inválido dentro de una validación por lotes.
+ *
+ * @param index     posición del destinatario en la lista de entrada
+ * @param recipient valor rechazado
+ * @param message   motivo, el mismo que lanzaría el constructor de la notificación
+ */
+public record RecipientError(int index, String recipient, String message) {
+}
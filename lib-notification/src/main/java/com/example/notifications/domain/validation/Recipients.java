@@ -0,0 +1,121 @@
+package com.example.notifications.domain.validation;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Validación de emails y teléfonos sin expresiones regulares.
+ * <p>
+ * Los constructores de {@code EmailNotification} y {@code SmsNotification} validan con estos métodos en lugar
+ * de {@code String.matches}, que compila el patrón en cada llamada. Son recorridos de un solo paso sobre la
+ * cadena que no crean objetos y aceptan exactamente lo mismo que las expresiones originales:
+ * </p>
+ * <ul>
+ *   <li>email: {@code ^[A-Za-z0-9+_.-]+@(.+)$}</li>
+ *   <li>teléfono E.164: {@code ^\+?[1-9]\d{7,14}$}</li>
+ * </ul>
+ * <p>
+ * {@link #validateEmails(List)} y {@link #validatePhones(List)} comprueban una lista entera y devuelven un
+ * error por destinatario inválido en lugar de fallar en el primero; a partir de
+ * {@value #PARALLEL_THRESHOLD} elementos lo hacen en paralelo.
+ * </p>
+ */
+public final class Recipients {
+
+    public static final String INVALID_EMAIL = "Invalid recipient email";
+    public static final String INVALID_PHONE = "Invalid recipient phone number";
+
+    /** Tamaño a partir del cual la validación por lotes usa un stream paralelo. */
+    static final int PARALLEL_THRESHOLD = 8192;
+
+    private static final int MIN_PHONE_DIGITS = 8;
+    private static final int MAX_PHONE_DIGITS = 15;
+
+    private Recipients() {
+    }
+
+    /**
+     * Equivale a {@code value.matches("^[A-Za-z0-9+_.-]+@(.+)$")}: una parte local no vacía de letras ASCII,
+     * dígitos y {@code + _ . -}, una arroba y al menos un carácter más que no sea un fin de línea.
+     */
+    public static boolean isEmail(String value) {
+        if (value == null) {
+            return false;
+        }
+        int length = value.length();
+        int at = 0;
+        while (at < length && isLocalPartChar(value.charAt(at))) {
+            at++;
+        }
+        if (at == 0 || at >= length - 1 || value.charAt(at) != '@') {
+            return false;
+        }
+        for (int i = at + 1; i < length; i++) {
+            if (isLineTerminator(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Equivale a {@code value.matches("^\\+?[1-9]\\d{7,14}$")}: un {@code +} opcional y de 8 a 15 dígitos
+     * ASCII, el primero distinto de cero.
+     */
+    public static boolean isPhone(String value) {
+        if (value == null) {
+            return false;
+        }
+        int start = !value.isEmpty() && value.charAt(0) == '+' ? 1 : 0;
+        int digits = value.length() - start;
+        if (digits < MIN_PHONE_DIGITS || digits > MAX_PHONE_DIGITS || value.charAt(start) == '0') {
+            return false;
+        }
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Errores de los emails inválidos de {@code recipients}, ordenados por posición. Lista vacía si todos son
+     * válidos.
+     */
+    public static List<RecipientError> validateEmails(List<String> recipients) {
+        return validate(recipients, Recipients::isEmail, INVALID_EMAIL);
+    }
+
+    /**
+     * Errores de los teléfonos inválidos de {@code recipients}, ordenados por posición. Lista vacía si todos son
+     * válidos.
+     */
+    public static List<RecipientError> validatePhones(List<String> recipients) {
+        return validate(recipients, Recipients::isPhone, INVALID_PHONE);
+    }
+
+    private static List<RecipientError> validate(List<String> recipients, Predicate<String> valid, String message) {
+        IntStream indexes = IntStream.range(0, recipients.size());
+        if (recipients.size() >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        // toList() conserva el orden de encuentro también en paralelo.
+        return indexes
+                .filter(i -> !valid.test(recipients.get(i)))
+                .mapToObj(i -> new RecipientError(i, recipients.get(i), message))
+                .toList();
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    /** Los caracteres que {@code .} no acepta sin {@code DOTALL} ni {@code UNIX_LINES}. */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
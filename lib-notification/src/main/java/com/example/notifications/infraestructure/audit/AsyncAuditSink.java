@@ -0,0 +1,301 @@
+package com.example.notifications.infraestructure.audit;
+
+import com.example.notifications.application.port.out.audit.AuditOutcome;
+import com.example.notifications.application.port.out.audit.AuditSink;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link AuditSink} asíncrono: los hilos de envío dejan el evento en un buffer circular y un hilo de fondo lo
+ * escribe como una línea JSON.
+ *
+ * <h2>Camino caliente</h2>
+ * <ul>
+ *   <li>Las casillas del buffer se crean al construirlo y se reutilizan: registrar un evento copia los campos
+ *       a la casilla y no crea objetos.</li>
+ *   <li>Nunca bloquea: si el buffer está lleno el evento se descarta y se cuenta en {@link #dropped()}.</li>
+ *   <li>Muestreo: con {@code sampleEvery(n)} solo se registra uno de cada {@code n} envíos correctos. Los fallos
+ *       se registran siempre.</li>
+ * </ul>
+ *
+ * <h2>Escritura</h2>
+ * <p>
+ * El hilo de fondo vacía hasta {@code batchSize} eventos seguidos, los escribe de una vez y hace un único
+ * {@code flush} por lote. Con el buffer vacío duerme {@code idle} entre comprobaciones. {@link #close()} escribe
+ * lo pendiente; el {@link Writer} no se cierra, pertenece a quien lo pasó.
+ * </p>
+ */
+@Slf4j
+public final class AsyncAuditSink implements AuditSink, AutoCloseable {
+
+    private final Slot[] ring;
+    private final int mask;
+    private final int batchSize;
+    private final int sampleEvery;
+    private final long idleNanos;
+    private final Writer writer;
+    private final Thread drainer;
+
+    /** Siguiente secuencia a reservar por los productores. */
+    private final AtomicLong claimed = new AtomicLong();
+    /** Siguiente secuencia a escribir; solo la avanza el hilo de fondo. */
+    private volatile long consumed;
+    private final AtomicLong sampled = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long written;
+    private volatile boolean closed;
+
+    private AsyncAuditSink(Builder builder) {
+        this.ring = new Slot[builder.capacity];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new Slot(i - ring.length);
+        }
+        this.mask = ring.length - 1;
+        this.batchSize = builder.batchSize;
+        this.sampleEvery = builder.sampleEvery;
+        this.idleNanos = builder.idle.toNanos();
+        this.writer = builder.writer;
+        this.drainer = Thread.ofPlatform().name(builder.threadName).daemon().start(this::drain);
+    }
+
+    public static Builder builder(Writer writer) {
+        return new Builder(writer);
+    }
+
+    @Override
+    public void record(AuditOutcome outcome, String provider, String recipient, String messageId, int count) {
+        if (closed) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (outcome != AuditOutcome.FAILED && sampleEvery > 1 && sampled.getAndIncrement() % sampleEvery != 0) {
+            return;
+        }
+
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= ring.length) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        Slot slot = ring[(int) sequence & mask];
+        slot.timestampMs = System.currentTimeMillis();
+        slot.outcome = outcome;
+        slot.provider = provider;
+        slot.recipient = recipient;
+        slot.messageId = messageId;
+        slot.count = count;
+        // Escritura volátil: publica los campos anteriores al hilo de fondo.
+        slot.sequence = sequence;
+    }
+
+    /**
+     * Eventos descartados por buffer lleno o por llegar después de {@link #close()}.
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Eventos ya escritos en el {@link Writer}.
+     */
+    public long written() {
+        return written;
+    }
+
+    /**
+     * Deja de aceptar eventos, espera a que el hilo de fondo escriba los pendientes y hace {@code flush}.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        StringBuilder batch = new StringBuilder(batchSize * 160);
+        while (true) {
+            long next = consumed;
+            int drained = 0;
+            while (drained < batchSize) {
+                Slot slot = ring[(int) (next + drained) & mask];
+                if (slot.sequence != next + drained) {
+                    break;
+                }
+                slot.appendTo(batch);
+                drained++;
+            }
+
+            if (drained > 0) {
+                write(batch);
+                batch.setLength(0);
+                written += drained;
+                consumed = next + drained;
+                continue;
+            }
+            // Cerrado y sin reservas a medio publicar: no queda nada que escribir.
+            if (closed && claimed.get() == next) {
+                return;
+            }
+            LockSupport.parkNanos(this, idleNanos);
+        }
+    }
+
+    private void write(StringBuilder batch) {
+        try {
+            writer.append(batch);
+            writer.flush();
+        } catch (IOException e) {
+            log.warn("No se pudo escribir un lote de auditoría: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Casilla reutilizable del buffer. {@code sequence} indica la vuelta a la que pertenecen los campos.
+     */
+    private static final class Slot {
+
+        volatile long sequence;
+        long timestampMs;
+        AuditOutcome outcome;
+        String provider;
+        String recipient;
+        String messageId;
+        int count;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+
+        void appendTo(StringBuilder out) {
+            out.append("{\"ts\":\"").append(Instant.ofEpochMilli(timestampMs))
+                    .append("\",\"outcome\":\"").append(outcome)
+                    .append("\",\"provider\":");
+            appendString(out, provider);
+            out.append(",\"recipient\":");
+            appendString(out, recipient);
+            out.append(",\"messageId\":");
+            appendString(out, messageId);
+            out.append(",\"count\":").append(count).append("}\n");
+
+            // Suelta las referencias para no retener las cadenas hasta la siguiente vuelta.
+            provider = null;
+            recipient = null;
+            messageId = null;
+        }
+
+        private static void appendString(StringBuilder out, String value) {
+            if (value == null) {
+                out.append("null");
+                return;
+            }
+            out.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> out.append("\\\"");
+                    case '\\' -> out.append("\\\\");
+                    case '\n' -> out.append("\\n");
+                    case '\r' -> out.append("\\r");
+                    case '\t' -> out.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            out.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.append(c);
+                        }
+                    }
+                }
+            }
+            out.append('"');
+        }
+    }
+
+    public static final class Builder {
+
+        private final Writer writer;
+        private int capacity = 8192;
+        private int batchSize = 256;
+        private int sampleEvery = 1;
+        private Duration idle = Duration.ofMillis(1);
+        private String threadName = "notification-audit";
+
+        private Builder(Writer writer) {
+            this.writer = Objects.requireNonNull(writer, "writer is required");
+        }
+
+        /**
+         * Eventos que caben en el buffer; se redondea a la siguiente potencia de dos.
+         */
+        public Builder capacity(int capacity) {
+            if (capacity < 1 || capacity > 1 << 30) {
+                throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+            }
+            this.capacity = Integer.highestOneBit(capacity) == capacity
+                    ? capacity
+                    : Integer.highestOneBit(capacity) << 1;
+            return this;
+        }
+
+        /**
+         * Máximo de eventos por escritura.
+         */
+        public Builder batchSize(int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("batchSize must be positive");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Registra uno de cada {@code n} envíos correctos; los fallos se registran siempre.
+         */
+        public Builder sampleEvery(int n) {
+            if (n < 1) {
+                throw new IllegalArgumentException("sampleEvery must be positive");
+            }
+            this.sampleEvery = n;
+            return this;
+        }
+
+        /**
+         * Espera del hilo de fondo cuando no hay eventos.
+         */
+        public Builder idle(Duration idle) {
+            if (idle.isNegative() || idle.isZero() || idle.toNanos() > TimeUnit.SECONDS.toNanos(1)) {
+                throw new IllegalArgumentException("idle must be between 1 ns and 1 s");
+            }
+            this.idle = idle;
+            return this;
+        }
+
+        public Builder threadName(String threadName) {
+            this.threadName = Objects.requireNonNull(threadName, "threadName is required");
+            return this;
+        }
+
+        public AsyncAuditSink build() {
+            return new AsyncAuditSink(this);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.notifications.infraestructure.chat.slack;
 
+import java.util.Properties;
+
 public record SlackConfig(
         // === Autenticación ===
         String webhookUrl,     // para Incoming Webhooks
@@ -14,4 +16,22 @@ public record SlackConfig(
         // === Config técnica ===
         String baseUrl        // default https://slack.com/api
 ) {
+
+    /**
+     * Lee {@code webhookUrl}, {@code botToken}, {@code defaultChannel}, {@code username}, {@code iconEmoji},
+     * {@code iconUrl} y {@code baseUrl}, todos opcionales salvo que hace falta el webhook o el token.
+     */
+    public static SlackConfig fromProperties(Properties properties) {
+        String webhookUrl = properties.getProperty("webhookUrl");
+        String botToken = properties.getProperty("botToken");
+        if (webhookUrl == null && botToken == null) {
+            throw new IllegalArgumentException("webhookUrl or botToken is required");
+        }
+        return new SlackConfig(webhookUrl, botToken,
+                properties.getProperty("defaultChannel"),
+                properties.getProperty("username"),
+                properties.getProperty("iconEmoji"),
+                properties.getProperty("iconUrl"),
+                properties.getProperty("baseUrl"));
+    }
 }
@@ -1,28 +1,160 @@
 package com.example.notifications.infraestructure.chat.slack;
 
+import com.example.notifications.application.port.out.audit.AuditOutcome;
+import com.example.notifications.application.port.out.audit.AuditSink;
 import com.example.notifications.application.port.out.chat.ChatGateway;
 import com.example.notifications.application.port.out.chat.ChatGatewayResponse;
 import com.example.notifications.application.port.out.chat.ChatMessage;
-import lombok.extern.slf4j.Slf4j;
+import com.example.notifications.infraestructure.common.ProviderErrors;
+import com.example.notifications.infraestructure.config.ConfigHolder;
+import com.example.notifications.infraestructure.http.HttpFailure;
+import com.example.notifications.infraestructure.http.HttpResult;
+import com.example.notifications.infraestructure.http.HttpTransport;
+import com.example.notifications.infraestructure.http.Json;
 
-@Slf4j
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Gateway de chat sobre Slack.
+ * <p>
+ * Con un {@link HttpTransport} y {@link SlackConfig#botToken()} usa la Web API ({@code chat.postMessage} bajo
+ * {@link SlackConfig#baseUrl()}, por defecto {@value #DEFAULT_BASE_URL}); sin token, el Incoming Webhook de
+ * {@link SlackConfig#webhookUrl()}. Sin transporte, simula las respuestas ({@link #callApi}).
+ * </p>
+ */
 public class SlackProvider implements ChatGateway {
 
-    private final SlackConfig config;
+    static final String DEFAULT_BASE_URL = "https://slack.com/api";
+
+    /** Valores de {@code error} de la Web API que indican un fallo temporal. */
+    private static final Set<String> TRANSIENT_ERRORS = Set.of(
+            "RATELIMITED", "RATE_LIMITED", "SERVICE_UNAVAILABLE", "INTERNAL_ERROR", "FATAL_ERROR", "REQUEST_TIMEOUT");
+
+    private final ConfigHolder<SlackConfig> config;
+    private final HttpTransport transport;
+    private final AuditSink audit;
 
     public SlackProvider(SlackConfig config) {
+        this(config, null, AuditSink.NOOP);
+    }
+
+    public SlackProvider(SlackConfig config, AuditSink audit) {
+        this(config, null, audit);
+    }
+
+    public SlackProvider(SlackConfig config, HttpTransport transport) {
+        this(config, transport, AuditSink.NOOP);
+    }
+
+    public SlackProvider(SlackConfig config, HttpTransport transport, AuditSink audit) {
+        this(ConfigHolder.of(config), transport, audit);
+    }
+
+    /**
+     * Lee la configuración de {@code config} en cada envío: un token o webhook rotado se usa desde el
+     * siguiente envío, sin reconstruir el provider.
+     */
+    public SlackProvider(ConfigHolder<SlackConfig> config, HttpTransport transport, AuditSink audit) {
         this.config = config;
+        this.transport = transport;
+        this.audit = audit;
     }
+
+    @Override
+    public String providerName() {
+        return "slack";
+    }
+
     @Override
     public ChatGatewayResponse send(ChatMessage message) {
+        return sendAsync(message).join();
+    }
+
+    @Override
+    public CompletableFuture<ChatGatewayResponse> sendAsync(ChatMessage message) {
         SlackRequest requestMessage = new SlackRequest(message.message(), message.destination());
-        SlackResponse slackResponse = callApi(requestMessage);
-        log.info("Slack response: {}", slackResponse);
-        if(!slackResponse.success())
+        return call(requestMessage).thenApply(response -> toGatewayResponse(message, response));
+    }
+
+    /**
+     * Slack no tiene envío por lotes: lanza un {@link #sendAsync} por mensaje, todos a la vez.
+     */
+    @Override
+    public CompletableFuture<List<ChatGatewayResponse>> sendBatchAsync(List<ChatMessage> messages) {
+        List<CompletableFuture<ChatGatewayResponse>> sends = messages.stream().map(this::sendAsync).toList();
+        return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .thenApply(done -> sends.stream().map(CompletableFuture::join).toList());
+    }
+
+    private ChatGatewayResponse toGatewayResponse(ChatMessage message, SlackResponse slackResponse) {
+        if(!slackResponse.success()) {
+            audit.record(AuditOutcome.FAILED, providerName(), message.destination(), slackResponse.errorMessage(), 1);
             return new ChatGatewayResponse(
-                    null, "ERROR", "ocurrio un error al enviar el mensaje"
+                    null, "ERROR", "ocurrio un error al enviar el mensaje",
+                    slackResponse.classification()
             );
-        return new ChatGatewayResponse("MSG-"+System.currentTimeMillis(), "SENT", null);
+        }
+        // La Web API devuelve el ts del mensaje; el webhook y la simulación, solo "ok".
+        String ts = Json.field(slackResponse.rawResponse(), "ts");
+        String messageId = ts != null ? ts : "MSG-" + System.currentTimeMillis();
+        audit.record(AuditOutcome.SENT, providerName(), message.destination(), messageId, 1);
+        return new ChatGatewayResponse(messageId, "SENT", null);
+    }
+
+    private CompletableFuture<SlackResponse> call(SlackRequest request) {
+        if (transport == null) {
+            return CompletableFuture.completedFuture(callApi(request));
+        }
+        // Una sola lectura: la petición usa el mismo token y destino de principio a fin aunque cambien a mitad.
+        SlackConfig account = config.get();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("channel", request.channel() != null ? request.channel() : account.defaultChannel());
+        payload.put("text", request.text());
+        if (account.username() != null) {
+            payload.put("username", account.username());
+        }
+        if (account.iconEmoji() != null) {
+            payload.put("icon_emoji", account.iconEmoji());
+        } else if (account.iconUrl() != null) {
+            payload.put("icon_url", account.iconUrl());
+        }
+
+        CompletableFuture<HttpResult> post;
+        if (account.botToken() != null) {
+            String baseUrl = account.baseUrl() != null ? account.baseUrl() : DEFAULT_BASE_URL;
+            post = transport.postJson(providerName(), URI.create(baseUrl + "/chat.postMessage"),
+                    Map.of("Authorization", "Bearer " + account.botToken()), payload);
+        } else {
+            post = transport.postJson(providerName(), URI.create(account.webhookUrl()), Map.of(), payload);
+        }
+        return post.handle((result, error) -> error == null ? toResponse(result) : unreachable(error));
+    }
+
+    private static SlackResponse unreachable(Throwable error) {
+        HttpFailure failure = HttpFailure.of(error);
+        return new SlackResponse(false, null, failure.message(), ProviderErrors.classify(failure));
+    }
+
+    /**
+     * La Web API responde siempre {@code 200} con {@code {"ok": false, "error": "channel_not_found"}} si falla;
+     * el webhook responde {@code ok} o un código de error con el motivo en texto.
+     */
+    private static SlackResponse toResponse(HttpResult result) {
+        if (!result.isSuccess()) {
+            return new SlackResponse(false, "HTTP " + result.status(), result.body(),
+                    ProviderErrors.classify(result.status()));
+        }
+        String ok = Json.field(result.body(), "ok");
+        if ("false".equals(ok)) {
+            String error = Json.field(result.body(), "error");
+            return new SlackResponse(false, result.body(), error, ProviderErrors.classify(error, TRANSIENT_ERRORS));
+        }
+        return new SlackResponse(true, result.body(), null);
     }
 
     protected SlackResponse callApi(SlackRequest request) {
@@ -1,8 +1,19 @@
 package com.example.notifications.infraestructure.chat.slack;
 
+import com.example.notifications.domain.result.ErrorClassification;
+
+/**
+ * @param classification clasificación del error, obtenida del código HTTP o del {@code error} de la Web API
+ */
 public record SlackResponse(
         boolean success,
         String rawResponse,
-        String errorMessage
-){
+        String errorMessage,
+        ErrorClassification classification
+) {
+
+    public SlackResponse(boolean success, String rawResponse, String errorMessage) {
+        this(success, rawResponse, errorMessage,
+                success ? ErrorClassification.NONE : ErrorClassification.PERMANENT);
+    }
 }
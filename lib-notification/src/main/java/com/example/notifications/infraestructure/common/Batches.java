@@ -0,0 +1,77 @@
+package com.example.notifications.infraestructure.common;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Utilidades para agrupar los mensajes de un lote en peticiones multi-destinatario.
+ */
+public final class Batches {
+
+    private Batches() {
+    }
+
+    /**
+     * Agrupa las posiciones de {@code messages} por la clave de contenido indicada, partiendo cada
+     * grupo en trozos de como máximo {@code maxGroupSize} elementos.
+     * <p>
+     * Los grupos se devuelven en orden de primera aparición y cada uno conserva el orden original
+     * de sus posiciones, de forma que el llamador puede reconstruir las respuestas por índice.
+     * </p>
+     *
+     * @param messages     mensajes del lote
+     * @param contentKey   función que extrae lo que debe ser idéntico para compartir petición
+     * @param maxGroupSize máximo de destinatarios por petición que admite el proveedor
+     * @return listas de índices, una por petición a realizar
+     */
+    public static <M, K> List<List<Integer>> groupIndexes(List<M> messages,
+                                                          Function<M, K> contentKey,
+                                                          int maxGroupSize) {
+        return groupIndexes(messages, contentKey, null, maxGroupSize);
+    }
+
+    /**
+     * Como {@link #groupIndexes(List, Function, int)}, pero sin repetir {@code memberKey} dentro de un grupo:
+     * un mensaje cuyo destinatario ya está en el grupo abierto empieza otro, porque los proveedores indexan
+     * los datos de cada destinatario por su dirección.
+     *
+     * @param memberKey función que extrae lo que debe ser único dentro de una petición; {@code null} si no hay
+     *                  restricción
+     */
+    public static <M, K> List<List<Integer>> groupIndexes(List<M> messages,
+                                                          Function<M, K> groupKey,
+                                                          Function<M, ?> memberKey,
+                                                          int maxGroupSize) {
+        Map<K, Group> open = new LinkedHashMap<>();
+        List<List<Integer>> groups = new ArrayList<>();
+
+        for (int i = 0; i < messages.size(); i++) {
+            M message = messages.get(i);
+            K key = groupKey.apply(message);
+            Object member = memberKey == null ? null : memberKey.apply(message);
+            Group group = open.get(key);
+            if (group == null
+                    || group.indexes.size() == maxGroupSize
+                    || (member != null && group.members.contains(member))) {
+                group = new Group();
+                open.put(key, group);
+                groups.add(group.indexes);
+            }
+            group.indexes.add(i);
+            if (member != null) {
+                group.members.add(member);
+            }
+        }
+        return groups;
+    }
+
+    private static final class Group {
+        private final List<Integer> indexes = new ArrayList<>();
+        private final Set<Object> members = new HashSet<>();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.notifications.infraestructure.common;
+
+import com.example.notifications.domain.result.ErrorClassification;
+import com.example.notifications.infraestructure.http.HttpFailure;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Clasificación de los errores devueltos por los proveedores en transitorios o definitivos.
+ * <p>
+ * Se clasifica con datos estructurados (el código HTTP, el código de error del proveedor o el tipo de la
+ * fallo de red), nunca buscando fragmentos en el mensaje: un {@code 400} con un número de teléfono en el texto
+ * sigue siendo definitivo.
+ * </p>
+ */
+public final class ProviderErrors {
+
+    private ProviderErrors() {
+    }
+
+    /**
+     * @param httpStatus código HTTP de la respuesta
+     * @return {@link ErrorClassification#TRANSIENT} para {@code 408}, {@code 425}, {@code 429} y {@code 5xx};
+     *         {@link ErrorClassification#PERMANENT} para el resto de errores; {@link ErrorClassification#NONE}
+     *         para {@code 2xx}
+     */
+    public static ErrorClassification classify(int httpStatus) {
+        if (httpStatus >= 200 && httpStatus < 300) {
+            return ErrorClassification.NONE;
+        }
+        if (httpStatus == 408 || httpStatus == 425 || httpStatus == 429 || httpStatus >= 500) {
+            return ErrorClassification.TRANSIENT;
+        }
+        return ErrorClassification.PERMANENT;
+    }
+
+    /**
+     * Clasifica una respuesta HTTP con error que además trae un código propio del proveedor: es transitoria si
+     * lo es el código HTTP o si el código del proveedor está en {@code transientCodes}.
+     *
+     * @param code           código de error del proveedor (puede ser {@code null})
+     * @param transientCodes códigos del proveedor que indican un fallo temporal, en mayúsculas
+     */
+    public static ErrorClassification classify(int httpStatus, String code, Set<String> transientCodes) {
+        ErrorClassification byStatus = classify(httpStatus);
+        if (byStatus == ErrorClassification.PERMANENT && isTransientCode(code, transientCodes)) {
+            return ErrorClassification.TRANSIENT;
+        }
+        return byStatus;
+    }
+
+    /**
+     * Clasifica un error indicado solo por el código del proveedor, como el {@code error} de Slack, que llega
+     * con {@code 200}.
+     */
+    public static ErrorClassification classify(String code, Set<String> transientCodes) {
+        return isTransientCode(code, transientCodes) ? ErrorClassification.TRANSIENT : ErrorClassification.PERMANENT;
+    }
+
+    /**
+     * Clasifica un fallo sin respuesta por su tipo: los timeouts y los errores de conexión son transitorios;
+     * cualquier otro fallo es definitivo.
+     */
+    public static ErrorClassification classify(HttpFailure failure) {
+        return switch (failure.kind()) {
+            case TIMEOUT, CONNECTION -> ErrorClassification.TRANSIENT;
+            case OTHER -> ErrorClassification.PERMANENT;
+        };
+    }
+
+    private static boolean isTransientCode(String code, Set<String> transientCodes) {
+        return code != null && transientCodes.contains(code.toUpperCase(Locale.ROOT));
+    }
+}
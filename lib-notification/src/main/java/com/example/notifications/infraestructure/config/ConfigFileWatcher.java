@@ -0,0 +1,203 @@
+package com.example.notifications.infraestructure.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Recarga {@link ConfigHolder}s desde un fichero {@code .properties} cuando cambia.
+ * <p>
+ * Cada holder se enlaza a un prefijo: con {@code bind("twilio", holder, TwilioConfig::fromProperties)} la
+ * función recibe las claves {@code twilio.*} sin el prefijo ({@code accountSid}, {@code authToken}, ...).
+ * </p>
+ *
+ * <h2>Recarga</h2>
+ * <ul>
+ *   <li>Un hilo de fondo vigila el directorio del fichero con un {@link WatchService} y recarga cuando el
+ *       fichero lleva un rato sin cambiar ({@link #DEFAULT_DEBOUNCE} por defecto): un editor o un despliegue
+ *       lo escriben en varios pasos y no se debe leer a medias.</li>
+ *   <li>Antes de publicar nada se validan todas las configuraciones. Si el fichero no se puede leer o alguna
+ *       no es válida, se registra un aviso y todos los holders conservan la configuración anterior.</li>
+ *   <li>Una configuración igual a la actual no se vuelve a publicar, así que guardar el fichero sin cambios no
+ *       reconstruye limitadores ni clientes derivados.</li>
+ * </ul>
+ */
+@Slf4j
+public final class ConfigFileWatcher implements AutoCloseable {
+
+    /** Tiempo sin cambios en el fichero antes de recargarlo. */
+    public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(250);
+
+    private final Path file;
+    private final Duration debounce;
+    private final List<Binding<?>> bindings = new CopyOnWriteArrayList<>();
+    private final WatchService watchService;
+    private final Thread watcher;
+
+    private ConfigFileWatcher(Path file, Duration debounce) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.debounce = debounce;
+        this.watchService = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.watcher = Thread.ofPlatform().name("config-watcher").daemon().start(this::watch);
+    }
+
+    /**
+     * Empieza a vigilar {@code file}. Los holders se enlazan después con {@link #bind}.
+     *
+     * @throws IOException si no se puede vigilar el directorio del fichero
+     */
+    public static ConfigFileWatcher watch(Path file) throws IOException {
+        return watch(file, DEFAULT_DEBOUNCE);
+    }
+
+    /**
+     * Como {@link #watch(Path)}, recargando cuando el fichero lleva {@code debounce} sin cambiar.
+     */
+    public static ConfigFileWatcher watch(Path file, Duration debounce) throws IOException {
+        Objects.requireNonNull(file, "file is required");
+        if (debounce == null || debounce.isNegative()) {
+            throw new IllegalArgumentException("debounce must not be negative");
+        }
+        return new ConfigFileWatcher(file, debounce);
+    }
+
+    /**
+     * Enlaza un holder a las claves con el prefijo dado y lo carga ya desde el fichero.
+     *
+     * @param prefix prefijo de las claves, sin el punto
+     * @param holder holder a actualizar
+     * @param parser construye la configuración a partir de las claves sin prefijo; puede lanzar
+     *               {@link IllegalArgumentException} si faltan valores
+     */
+    public <T> ConfigFileWatcher bind(String prefix, ConfigHolder<T> holder, Function<Properties, T> parser) {
+        Binding<T> binding = new Binding<>(prefix + ".", holder, parser);
+        bindings.add(binding);
+        Properties properties = read();
+        if (properties != null) {
+            Runnable update = binding.parse(properties);
+            if (update != null) {
+                update.run();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Vuelve a leer el fichero y, si todas las configuraciones son válidas, publica las que hayan cambiado.
+     */
+    public void reload() {
+        Properties properties = read();
+        if (properties == null) {
+            return;
+        }
+        List<Runnable> updates = new ArrayList<>(bindings.size());
+        for (Binding<?> binding : bindings) {
+            Runnable update = binding.parse(properties);
+            if (update == null) {
+                return;
+            }
+            updates.add(update);
+        }
+        updates.forEach(Runnable::run);
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.warn("No se pudo cerrar el WatchService: {}", e.getMessage());
+        }
+        try {
+            watcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                if (!concernsFile(watchService.take())) {
+                    continue;
+                }
+                // Cada cambio nuevo reinicia la espera: se recarga cuando el fichero lleva `debounce` quieto.
+                long quietUntil = System.nanoTime() + debounce.toNanos();
+                for (long wait = debounce.toNanos(); wait > 0; wait = quietUntil - System.nanoTime()) {
+                    WatchKey next = watchService.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next != null && concernsFile(next)) {
+                        quietUntil = System.nanoTime() + debounce.toNanos();
+                    }
+                }
+                reload();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // close(): fin del hilo.
+        }
+    }
+
+    private boolean concernsFile(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path name && file.getFileName().equals(name)) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private Properties read() {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+            return properties;
+        } catch (IOException e) {
+            log.warn("No se pudo leer la configuración {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private record Binding<T>(String prefix, ConfigHolder<T> holder, Function<Properties, T> parser) {
+
+        /**
+         * Construye la configuración sin publicarla.
+         *
+         * @return la publicación pendiente, o {@code null} si la configuración no es válida
+         */
+        Runnable parse(Properties all) {
+            Properties scoped = new Properties();
+            for (String name : all.stringPropertyNames()) {
+                if (name.startsWith(prefix)) {
+                    scoped.setProperty(name.substring(prefix.length()), all.getProperty(name));
+                }
+            }
+            try {
+                T config = Objects.requireNonNull(parser.apply(scoped), "parser returned null");
+                return () -> holder.set(config);
+            } catch (RuntimeException e) {
+                log.warn("Configuración '{}' no válida, se mantiene la anterior: {}",
+                        prefix.substring(0, prefix.length() - 1), e.getMessage());
+                return null;
+            }
+        }
+    }
+}
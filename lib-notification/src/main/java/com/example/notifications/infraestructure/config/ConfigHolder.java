@@ -0,0 +1,104 @@
+package com.example.notifications.infraestructure.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Configuración que se puede cambiar en caliente.
+ * <p>
+ * Los proveedores leen el valor actual con {@link #get()} una vez por envío, así que un envío en curso termina
+ * con la configuración con la que empezó y los siguientes usan la nueva. Leer es una lectura volátil, sin
+ * bloqueos.
+ * </p>
+ *
+ * <h2>Recursos derivados</h2>
+ * <p>
+ * {@link #derive(Function)} crea otro holder cuyo valor se reconstruye cuando cambia este, por ejemplo el
+ * {@code RateLimiter} de una cuenta de Twilio. Si el valor anterior es {@link AutoCloseable}, se cierra en un
+ * hilo aparte después del cambio, para no bloquear a quien publica la nueva configuración.
+ * </p>
+ *
+ * @param <T> tipo de la configuración, normalmente un record inmutable
+ */
+@Slf4j
+public final class ConfigHolder<T> implements Supplier<T> {
+
+    private final AtomicReference<T> current;
+    private final List<Consumer<? super T>> listeners = new CopyOnWriteArrayList<>();
+
+    private ConfigHolder(T initial) {
+        this.current = new AtomicReference<>(Objects.requireNonNull(initial, "initial is required"));
+    }
+
+    public static <T> ConfigHolder<T> of(T initial) {
+        return new ConfigHolder<>(initial);
+    }
+
+    @Override
+    public T get() {
+        return current.get();
+    }
+
+    /**
+     * Publica una nueva configuración y avisa a los listeners. Si es igual a la actual no hace nada.
+     *
+     * @return la configuración anterior
+     */
+    public T set(T next) {
+        Objects.requireNonNull(next, "config is required");
+        T previous = current.getAndSet(next);
+        if (!previous.equals(next)) {
+            notifyListeners(next);
+        }
+        return previous;
+    }
+
+    /**
+     * Registra un callback que recibe cada nueva configuración, en el hilo que la publica.
+     */
+    public void onChange(Consumer<? super T> listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener is required"));
+    }
+
+    /**
+     * Holder con un valor construido a partir de esta configuración y reconstruido cada vez que cambia.
+     * El valor anterior, si es {@link AutoCloseable}, se cierra en un hilo virtual.
+     */
+    public <R> ConfigHolder<R> derive(Function<? super T, ? extends R> factory) {
+        ConfigHolder<R> derived = new ConfigHolder<>(factory.apply(get()));
+        onChange(config -> {
+            R next = factory.apply(config);
+            R previous = derived.current.getAndSet(next);
+            derived.notifyListeners(next);
+            if (previous instanceof AutoCloseable closeable) {
+                Thread.ofVirtual().name("config-close").start(() -> close(closeable));
+            }
+        });
+        return derived;
+    }
+
+    private void notifyListeners(T value) {
+        for (Consumer<? super T> listener : listeners) {
+            try {
+                listener.accept(value);
+            } catch (RuntimeException e) {
+                log.warn("Un listener de configuración lanzó una excepción", e);
+            }
+        }
+    }
+
+    private static void close(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            log.warn("No se pudo cerrar el recurso de la configuración anterior: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.notifications.infraestructure.email.mailgun;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envío por lotes de Mailgun. Las {@code recipientVariables} son obligatorias para que cada
+ * destinatario reciba un correo individual y no vea al resto en el campo {@code to}.
+ */
+public record MailgunBatchRequest(
+        String from,
+        List<String> to,
+        String subject,
+        String text,
+        String domain,
+        Map<String, Map<String, String>> recipientVariables
+) {}
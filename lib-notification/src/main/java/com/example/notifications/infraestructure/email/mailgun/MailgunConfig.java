@@ -1,5 +1,7 @@
 package com.example.notifications.infraestructure.email.mailgun;
 
+import java.util.Properties;
+
 public record MailgunConfig(
         String apiKey,
         String domain,
@@ -17,4 +19,14 @@ public record MailgunConfig(
             throw new IllegalArgumentException("Mailgun baseUrl is required");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Lee {@code apiKey}, {@code domain} y {@code baseUrl}, por ejemplo desde un {@code ConfigFileWatcher}.
+     */
+    public static MailgunConfig fromProperties(Properties properties) {
+        return new MailgunConfig(
+                properties.getProperty("apiKey"),
+                properties.getProperty("domain"),
+                properties.getProperty("baseUrl"));
+    }
+}
@@ -1,21 +1,90 @@
 package com.example.notifications.infraestructure.email.mailgun;
 
+import com.example.notifications.application.port.out.audit.AuditOutcome;
+import com.example.notifications.application.port.out.audit.AuditSink;
 import com.example.notifications.application.port.out.email.EmailGateway;
 import com.example.notifications.application.port.out.email.EmailGatewayResponse;
 import com.example.notifications.application.port.out.email.EmailMessage;
-import lombok.extern.slf4j.Slf4j;
+import com.example.notifications.infraestructure.common.Batches;
+import com.example.notifications.infraestructure.common.ProviderErrors;
+import com.example.notifications.infraestructure.config.ConfigHolder;
+import com.example.notifications.infraestructure.http.HttpFailure;
+import com.example.notifications.infraestructure.http.HttpResult;
+import com.example.notifications.infraestructure.http.HttpTransport;
+import com.example.notifications.infraestructure.http.Json;
 
-@Slf4j
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Gateway de email sobre la API de Mailgun ({@code POST /v3/{domain}/messages}, formulario con autenticación
+ * básica).
+ * <p>
+ * Con un {@link HttpTransport} envía a {@link MailgunConfig#baseUrl()} (por ejemplo
+ * {@code https://api.mailgun.net}); sin él, simula las respuestas ({@link #simulatedSend},
+ * {@link #simulatedBatchSend}).
+ * </p>
+ */
 public class MailgunEmailProvider implements EmailGateway {
 
-    private final MailgunConfig config;
+    /** Máximo de destinatarios por llamada en el batch sending de Mailgun. */
+    static final int MAX_RECIPIENTS = 1000;
+
+    private final ConfigHolder<MailgunConfig> config;
+    private final HttpTransport transport;
+    private final AuditSink audit;
 
     public MailgunEmailProvider(MailgunConfig config) {
+        this(config, null, AuditSink.NOOP);
+    }
+
+    public MailgunEmailProvider(MailgunConfig config, AuditSink audit) {
+        this(config, null, audit);
+    }
+
+    public MailgunEmailProvider(MailgunConfig config, HttpTransport transport) {
+        this(config, transport, AuditSink.NOOP);
+    }
+
+    public MailgunEmailProvider(MailgunConfig config, HttpTransport transport, AuditSink audit) {
+        this(ConfigHolder.of(config), transport, audit);
+    }
+
+    /**
+     * Lee la configuración de {@code config} en cada envío: una API key rotada o un cambio de dominio se usan
+     * desde el siguiente envío, sin reconstruir el provider.
+     */
+    public MailgunEmailProvider(ConfigHolder<MailgunConfig> config, HttpTransport transport, AuditSink audit) {
         this.config = config;
+        this.transport = transport;
+        this.audit = audit;
+    }
+
+    @Override
+    public String providerName() {
+        return "mailgun";
+    }
+
+    @Override
+    public boolean batchesNatively() {
+        return true;
     }
 
     @Override
     public EmailGatewayResponse send(EmailMessage message) {
+        return sendAsync(message).join();
+    }
+
+    @Override
+    public CompletableFuture<EmailGatewayResponse> sendAsync(EmailMessage message) {
+        // Una sola lectura: la petición usa la misma cuenta de principio a fin aunque cambie a mitad.
+        MailgunConfig account = config.get();
 
         // Mapear modelo interno → modelo Mailgun
         MailgunRequest request = new MailgunRequest(
@@ -23,15 +92,16 @@ public class MailgunEmailProvider implements EmailGateway {
                 message.to(),
                 message.subject(),
                 message.body(),
-                config.domain()
+                account.domain()
         );
 
-        // Simular envío
-        MailgunResponse response = simulatedSend(request);
-
         // Traducir respuesta proveedor → modelo unificado
+        return callApi(account, request).thenApply(response -> toGatewayResponse(message, response));
+    }
+
+    private EmailGatewayResponse toGatewayResponse(EmailMessage message, MailgunResponse response) {
         if (response.errors() == null || response.errors().isEmpty()) {
-            log.info("Correo enviado a: {}, messageId: {}", message.to(), response.id());
+            audit.record(AuditOutcome.SENT, providerName(), message.to(), response.id(), 1);
             return new EmailGatewayResponse(
                     response.id(),
                     "SENT",
@@ -39,11 +109,134 @@ public class MailgunEmailProvider implements EmailGateway {
             );
         }
 
-        return new EmailGatewayResponse(
-                null,
-                "FAILED",
-                response.errors()
-        );
+        audit.record(AuditOutcome.FAILED, providerName(), message.to(), response.errors(), 1);
+        return failed(response);
+    }
+
+    /**
+     * Agrupa los mensajes del mismo remitente en una única llamada de batch sending, usando
+     * {@code recipient-variables} para que cada destinatario reciba su propio correo. Si los asuntos o textos
+     * difieren, van en las variables de cada destinatario ({@code %recipient.subject%},
+     * {@code %recipient.text%}).
+     */
+    @Override
+    public List<EmailGatewayResponse> sendBatch(List<EmailMessage> messages) {
+        return sendBatchAsync(messages).join();
+    }
+
+    @Override
+    public CompletableFuture<List<EmailGatewayResponse>> sendBatchAsync(List<EmailMessage> messages) {
+        EmailGatewayResponse[] responses = new EmailGatewayResponse[messages.size()];
+        MailgunConfig account = config.get();
+
+        // Las variables se indexan por dirección, así que un destinatario repetido va en otra llamada.
+        List<List<Integer>> groups = Batches.groupIndexes(
+                messages, EmailMessage::from, EmailMessage::to, MAX_RECIPIENTS);
+
+        // Todas las peticiones del lote salen a la vez; el transporte las multiplexa.
+        List<CompletableFuture<MailgunResponse>> calls = new ArrayList<>(groups.size());
+        for (List<Integer> group : groups) {
+            calls.add(callBatchApi(account, toBatchRequest(account, messages, group)));
+        }
+
+        return CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            for (int g = 0; g < groups.size(); g++) {
+                List<Integer> group = groups.get(g);
+                MailgunResponse response = calls.get(g).join();
+
+                boolean accepted = response.errors() == null || response.errors().isEmpty();
+                EmailGatewayResponse translated = accepted
+                        ? new EmailGatewayResponse(response.id(), "SENT", null)
+                        : failed(response);
+                group.forEach(i -> responses[i] = translated);
+
+                audit.record(accepted ? AuditOutcome.SENT : AuditOutcome.FAILED, providerName(), null,
+                        accepted ? response.id() : response.errors(), group.size());
+            }
+            return Arrays.asList(responses);
+        });
+    }
+
+    private MailgunBatchRequest toBatchRequest(MailgunConfig account, List<EmailMessage> messages,
+                                               List<Integer> group) {
+        EmailMessage first = messages.get(group.get(0));
+        boolean sharedSubject = group.stream()
+                .allMatch(i -> Objects.equals(messages.get(i).subject(), first.subject()));
+        boolean sharedText = group.stream()
+                .allMatch(i -> Objects.equals(messages.get(i).body(), first.body()));
+
+        List<String> recipients = new ArrayList<>(group.size());
+        Map<String, Map<String, String>> recipientVariables = new LinkedHashMap<>();
+        for (int i : group) {
+            EmailMessage message = messages.get(i);
+            Map<String, String> variables = new LinkedHashMap<>();
+            variables.put("id", String.valueOf(i));
+            if (!sharedSubject) {
+                variables.put("subject", message.subject());
+            }
+            if (!sharedText) {
+                variables.put("text", message.body());
+            }
+            recipients.add(message.to());
+            recipientVariables.put(message.to(), variables);
+        }
+        return new MailgunBatchRequest(first.from(), recipients,
+                sharedSubject ? first.subject() : "%recipient.subject%",
+                sharedText ? first.body() : "%recipient.text%",
+                account.domain(), recipientVariables);
+    }
+
+    private CompletableFuture<MailgunResponse> callApi(MailgunConfig account, MailgunRequest request) {
+        if (transport == null) {
+            return CompletableFuture.completedFuture(simulatedSend(request));
+        }
+        Map<String, List<String>> form = new LinkedHashMap<>();
+        form.put("from", List.of(request.from()));
+        form.put("to", List.of(request.to()));
+        form.put("subject", List.of(request.subject()));
+        form.put("text", List.of(request.text()));
+        return post(account, request.domain(), form);
+    }
+
+    private CompletableFuture<MailgunResponse> callBatchApi(MailgunConfig account, MailgunBatchRequest request) {
+        if (transport == null) {
+            return CompletableFuture.completedFuture(simulatedBatchSend(request));
+        }
+        Map<String, List<String>> form = new LinkedHashMap<>();
+        form.put("from", List.of(request.from()));
+        form.put("to", request.to());
+        form.put("subject", List.of(request.subject()));
+        form.put("text", List.of(request.text()));
+        form.put("recipient-variables", List.of(Json.write(request.recipientVariables())));
+        return post(account, request.domain(), form);
+    }
+
+    private CompletableFuture<MailgunResponse> post(MailgunConfig account, String domain,
+                                                    Map<String, List<String>> form) {
+        URI uri = URI.create(account.baseUrl() + "/v3/" + domain + "/messages");
+        return transport.postForm(providerName(), uri,
+                        Map.of("Authorization", HttpTransport.basicAuth("api", account.apiKey())), form)
+                .handle((result, error) -> error == null ? toResponse(result) : unreachable(error));
+    }
+
+    /**
+     * Mailgun responde {@code {"id": "<...>", "message": "Queued. Thank you."}}; los errores traen solo
+     * {@code message}.
+     */
+    private static MailgunResponse toResponse(HttpResult result) {
+        if (result.isSuccess()) {
+            return new MailgunResponse(Json.field(result.body(), "id"), Json.field(result.body(), "message"), null);
+        }
+        String error = Json.field(result.body(), "message");
+        if (error == null || error.isBlank()) {
+            error = result.body().isBlank() ? "HTTP " + result.status() : result.body();
+        }
+        return new MailgunResponse(null, "HTTP " + result.status(), error, ProviderErrors.classify(result.status()));
+    }
+
+    private static MailgunResponse unreachable(Throwable error) {
+        HttpFailure failure = HttpFailure.of(error);
+        return new MailgunResponse(null, failure.message(), failure.message(), ProviderErrors.classify(failure));
     }
 
     protected MailgunResponse simulatedSend(MailgunRequest request) {
@@ -55,4 +248,17 @@ public class MailgunEmailProvider implements EmailGateway {
                 null
         );
     }
+
+    protected MailgunResponse simulatedBatchSend(MailgunBatchRequest request) {
+        return new MailgunResponse(
+                "mailgun-" + System.currentTimeMillis(),
+                "Queued. Thank you.",
+                null
+        );
+    }
+
+    private static EmailGatewayResponse failed(MailgunResponse response) {
+        return new EmailGatewayResponse(null, "FAILED", response.errors(),
+                response.classification());
+    }
 }
@@ -1,9 +1,18 @@
 package com.example.notifications.infraestructure.email.mailgun;
 
-import java.util.List;
+import com.example.notifications.domain.result.ErrorClassification;
 
+/**
+ * @param classification clasificación del error, obtenida del código HTTP o del fallo de red
+ */
 public record MailgunResponse(
         String id,
         String message,
-        String errors
-) {}
\ No newline at end of file
+        String errors,
+        ErrorClassification classification
+) {
+
+    public MailgunResponse(String id, String message, String errors) {
+        this(id, message, errors, ErrorClassification.defaultFor(errors));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.notifications.infraestructure.email.sendgrid;
+
+import java.util.List;
+
+/**
+ * Petición multi-destinatario de SendGrid: un contenido con una {@code personalization} por destinatario,
+ * de modo que cada uno recibe un correo individual. Si los destinatarios tienen asuntos o cuerpos distintos,
+ * cada personalization lleva el suyo: el asunto directamente y el cuerpo como sustitución de
+ * {@code body}.
+ */
+public record SendGridBatchRequest(
+        String from,
+        String subject,
+        String body,
+        List<SendGridPersonalization> personalizations
+) {
+}
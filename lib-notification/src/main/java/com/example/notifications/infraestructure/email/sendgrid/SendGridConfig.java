@@ -1,5 +1,7 @@
 package com.example.notifications.infraestructure.email.sendgrid;
 
+import java.util.Properties;
+
 public record SendGridConfig  (String apiKey, String baseUrl) {
     public SendGridConfig {
         if (apiKey == null || baseUrl == null) {
@@ -7,4 +9,10 @@ public record SendGridConfig  (String apiKey, String baseUrl) {
         }
     }
 
+    /**
+     * Lee {@code apiKey} y {@code baseUrl}, por ejemplo desde un {@code ConfigFileWatcher}.
+     */
+    public static SendGridConfig fromProperties(Properties properties) {
+        return new SendGridConfig(properties.getProperty("apiKey"), properties.getProperty("baseUrl"));
+    }
 }
@@ -1,21 +1,92 @@
 package com.example.notifications.infraestructure.email.sendgrid;
 
+import com.example.notifications.application.port.out.audit.AuditOutcome;
+import com.example.notifications.application.port.out.audit.AuditSink;
 import com.example.notifications.application.port.out.email.EmailGateway;
 import com.example.notifications.application.port.out.email.EmailGatewayResponse;
 import com.example.notifications.application.port.out.email.EmailMessage;
-import lombok.extern.slf4j.Slf4j;
+import com.example.notifications.infraestructure.common.Batches;
+import com.example.notifications.infraestructure.common.ProviderErrors;
+import com.example.notifications.infraestructure.config.ConfigHolder;
+import com.example.notifications.infraestructure.http.HttpFailure;
+import com.example.notifications.infraestructure.http.HttpResult;
+import com.example.notifications.infraestructure.http.HttpTransport;
 
-@Slf4j
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Gateway de email sobre la API v3 de SendGrid ({@code POST /v3/mail/send}).
+ * <p>
+ * Con un {@link HttpTransport} envía a {@link SendGridConfig#baseUrl()}, que es la URL completa del endpoint;
+ * sin él, simula las respuestas ({@link #simulatedSend}, {@link #simulatedBatchSend}).
+ * </p>
+ */
 public class SendGridEmailProvider implements EmailGateway {
 
-    private final SendGridConfig apiConfig;
+    /** Límite de personalizations por petición de la API v3 de SendGrid. */
+    static final int MAX_PERSONALIZATIONS = 1000;
+
+    /** Límite de tamaño de las sustituciones de una personalization, en bytes. */
+    static final int MAX_SUBSTITUTION_BYTES = 10_000;
+
+    /** Marcador del cuerpo en el contenido cuando cada destinatario tiene el suyo. */
+    static final String BODY_TAG = "-notificationBody-";
+
+    private final ConfigHolder<SendGridConfig> apiConfig;
+    private final HttpTransport transport;
+    private final AuditSink audit;
 
     public SendGridEmailProvider(SendGridConfig config) {
+        this(config, null, AuditSink.NOOP);
+    }
+
+    public SendGridEmailProvider(SendGridConfig config, AuditSink audit) {
+        this(config, null, audit);
+    }
+
+    public SendGridEmailProvider(SendGridConfig config, HttpTransport transport) {
+        this(config, transport, AuditSink.NOOP);
+    }
+
+    public SendGridEmailProvider(SendGridConfig config, HttpTransport transport, AuditSink audit) {
+        this(ConfigHolder.of(config), transport, audit);
+    }
+
+    /**
+     * Lee la configuración de {@code config} en cada envío: una API key rotada se usa desde el siguiente envío,
+     * sin reconstruir el provider.
+     */
+    public SendGridEmailProvider(ConfigHolder<SendGridConfig> config, HttpTransport transport, AuditSink audit) {
         apiConfig = config;
+        this.transport = transport;
+        this.audit = audit;
+    }
+
+    @Override
+    public String providerName() {
+        return "sendgrid";
+    }
+
+    @Override
+    public boolean batchesNatively() {
+        return true;
     }
 
     @Override
     public EmailGatewayResponse send(EmailMessage message) {
+        return sendAsync(message).join();
+    }
+
+    @Override
+    public CompletableFuture<EmailGatewayResponse> sendAsync(EmailMessage message) {
         //Mapea Modelo Interno
         SendGridRequest request = new SendGridRequest(
                 message.from(),
@@ -24,25 +95,171 @@ public class SendGridEmailProvider implements EmailGateway {
                 message.body()
         );
 
-        //Simulacion llamada a Sendgrid
-        SendGridResponse response = simulatedSend(request);
+        //Llamada a Sendgrid y traducción de la respuesta
+        return callApi(request).thenApply(response -> toGatewayResponse(message, response));
+    }
 
-        //Traduciendo respuesta
+    private EmailGatewayResponse toGatewayResponse(EmailMessage message, SendGridResponse response) {
         if ("accepted".equalsIgnoreCase(response.status())) {
-            log.info("Correo enviado a: {}, messageId: {}", message.to(), response.messageId());
+            audit.record(AuditOutcome.SENT, providerName(), message.to(), response.messageId(), 1);
             return new EmailGatewayResponse(
                     response.messageId(), response.status(), null
             );
         }
 
-        return new EmailGatewayResponse(null, response.status(), response.errors());
+        audit.record(AuditOutcome.FAILED, providerName(), message.to(), response.errors(), 1);
+        return failed(response);
+    }
+
+    /**
+     * Agrupa los mensajes del mismo remitente en una única petición con una personalization por destinatario
+     * (hasta {@value #MAX_PERSONALIZATIONS} por petición), aunque cada uno tenga su propio asunto y cuerpo.
+     * Un cuerpo que no cabe en una sustitución ({@value #MAX_SUBSTITUTION_BYTES} bytes) solo comparte petición
+     * con mensajes de cuerpo idéntico.
+     */
+    @Override
+    public List<EmailGatewayResponse> sendBatch(List<EmailMessage> messages) {
+        return sendBatchAsync(messages).join();
+    }
+
+    @Override
+    public CompletableFuture<List<EmailGatewayResponse>> sendBatchAsync(List<EmailMessage> messages) {
+        EmailGatewayResponse[] responses = new EmailGatewayResponse[messages.size()];
+
+        List<List<Integer>> groups = Batches.groupIndexes(messages,
+                m -> new GroupKey(m.from(), fitsInSubstitution(m.body()) ? null : m.body()),
+                EmailMessage::to, MAX_PERSONALIZATIONS);
+
+        // Todas las peticiones del lote salen a la vez; el transporte las multiplexa.
+        List<CompletableFuture<SendGridResponse>> calls = new ArrayList<>(groups.size());
+        for (List<Integer> group : groups) {
+            calls.add(callBatchApi(toBatchRequest(group.stream().map(messages::get).toList())));
+        }
+
+        return CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            for (int g = 0; g < groups.size(); g++) {
+                List<Integer> group = groups.get(g);
+                SendGridResponse response = calls.get(g).join();
+
+                boolean accepted = "accepted".equalsIgnoreCase(response.status());
+                EmailGatewayResponse translated = accepted
+                        ? new EmailGatewayResponse(response.messageId(), response.status(), null)
+                        : failed(response);
+                group.forEach(i -> responses[i] = translated);
+
+                audit.record(accepted ? AuditOutcome.SENT : AuditOutcome.FAILED, providerName(), null,
+                        accepted ? response.messageId() : response.errors(), group.size());
+            }
+            return Arrays.asList(responses);
+        });
+    }
+
+    private static SendGridBatchRequest toBatchRequest(List<EmailMessage> group) {
+        EmailMessage first = group.get(0);
+        boolean sharedSubject = group.stream().allMatch(m -> Objects.equals(m.subject(), first.subject()));
+        boolean sharedBody = group.stream().allMatch(m -> Objects.equals(m.body(), first.body()));
+        List<SendGridPersonalization> personalizations = group.stream()
+                .map(m -> new SendGridPersonalization(m.to(),
+                        sharedSubject ? null : m.subject(),
+                        sharedBody ? Map.of() : Map.of(BODY_TAG, m.body())))
+                .toList();
+        return new SendGridBatchRequest(first.from(),
+                sharedSubject ? first.subject() : null,
+                sharedBody ? first.body() : BODY_TAG,
+                personalizations);
+    }
+
+    private static boolean fitsInSubstitution(String body) {
+        // Un char UTF-16 ocupa como mucho 3 bytes en UTF-8; solo se codifica si puede no caber.
+        return body.length() * 3 <= MAX_SUBSTITUTION_BYTES
+                || body.getBytes(StandardCharsets.UTF_8).length <= MAX_SUBSTITUTION_BYTES;
+    }
+
+    private CompletableFuture<SendGridResponse> callApi(SendGridRequest request) {
+        if (transport == null) {
+            return CompletableFuture.completedFuture(simulatedSend(request));
+        }
+        return post(request.from(), request.subject(), request.body(),
+                List.of(new SendGridPersonalization(request.to())));
+    }
+
+    private CompletableFuture<SendGridResponse> callBatchApi(SendGridBatchRequest request) {
+        if (transport == null) {
+            return CompletableFuture.completedFuture(simulatedBatchSend(request));
+        }
+        return post(request.from(), request.subject(), request.body(), request.personalizations());
+    }
+
+    private CompletableFuture<SendGridResponse> post(String from,
+                                                     String subject,
+                                                     String body,
+                                                     List<SendGridPersonalization> personalizations) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("personalizations", personalizations.stream().map(SendGridEmailProvider::toJson).toList());
+        payload.put("from", Map.of("email", from));
+        if (subject != null) {
+            payload.put("subject", subject);
+        }
+        payload.put("content", List.of(Map.of("type", "text/plain", "value", body)));
+
+        SendGridConfig config = apiConfig.get();
+        return transport.postJson(providerName(), URI.create(config.baseUrl()),
+                        Map.of("Authorization", "Bearer " + config.apiKey()), payload)
+                .handle((result, error) -> error == null ? toResponse(result) : unreachable(error));
+    }
+
+    private static Map<String, Object> toJson(SendGridPersonalization personalization) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("to", List.of(Map.of("email", personalization.to())));
+        if (personalization.subject() != null) {
+            json.put("subject", personalization.subject());
+        }
+        if (!personalization.substitutions().isEmpty()) {
+            json.put("substitutions", personalization.substitutions());
+        }
+        return json;
+    }
+
+    /**
+     * SendGrid responde {@code 202 Accepted} sin cuerpo y el identificador en {@code X-Message-Id}; los errores
+     * llegan como {@code {"errors":[{"message":...}]}}.
+     */
+    private static SendGridResponse toResponse(HttpResult result) {
+        if (result.isSuccess()) {
+            return new SendGridResponse(result.header("X-Message-Id"), "HTTP " + result.status(), "accepted", null);
+        }
+        return new SendGridResponse(null, "HTTP " + result.status(), "error", result.body(),
+                ProviderErrors.classify(result.status()));
+    }
+
+    private static SendGridResponse unreachable(Throwable error) {
+        HttpFailure failure = HttpFailure.of(error);
+        return new SendGridResponse(null, failure.message(), "error", failure.message(),
+                ProviderErrors.classify(failure));
     }
 
     protected SendGridResponse simulatedSend(SendGridRequest request) {
-        log.info("Enviando correo a: {}", request.to());
         return new SendGridResponse(
                 "msg-"+System.currentTimeMillis(),
                 "CREATED", "accepted", null
         );
     }
+
+    protected SendGridResponse simulatedBatchSend(SendGridBatchRequest request) {
+        return new SendGridResponse(
+                "msg-"+System.currentTimeMillis(),
+                "CREATED", "accepted", null
+        );
+    }
+
+    private static EmailGatewayResponse failed(SendGridResponse response) {
+        return new EmailGatewayResponse(null, response.status(), response.errors(),
+                response.classification());
+    }
+
+    /**
+     * Clave de agrupación: el remitente y, si no cabe en una sustitución, el cuerpo.
+     */
+    private record GroupKey(String from, String body) {
+    }
 }
@@ -0,0 +1,17 @@
+package com.example.notifications.infraestructure.email.sendgrid;
+
+import java.util.Map;
+
+/**
+ * Destinatario de una petición multi-destinatario de SendGrid.
+ *
+ * @param to            email del destinatario
+ * @param subject       asunto propio; {@code null} para usar el de la petición
+ * @param substitutions sustituciones aplicadas al contenido de la petición para este destinatario
+ */
+public record SendGridPersonalization(String to, String subject, Map<String, String> substitutions) {
+
+    public SendGridPersonalization(String to) {
+        this(to, null, Map.of());
+    }
+}
@@ -1,4 +1,14 @@
 package com.example.notifications.infraestructure.email.sendgrid;
 
-public record SendGridResponse(String messageId, String message, String status,  String errors) {
+import com.example.notifications.domain.result.ErrorClassification;
+
+/**
+ * @param classification clasificación del error, obtenida del código HTTP o del fallo de red
+ */
+public record SendGridResponse(String messageId, String message, String status, String errors,
+                               ErrorClassification classification) {
+
+    public SendGridResponse(String messageId, String message, String status, String errors) {
+        this(messageId, message, status, errors, ErrorClassification.defaultFor(errors));
+    }
 }
@@ -0,0 +1,41 @@
+package com.example.notifications.infraestructure.http;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Fallo de una petición que no llegó a tener respuesta HTTP, con su tipo ya resuelto para que el proveedor
+ * lo clasifique sin interpretar el mensaje.
+ *
+ * @param kind    qué falló
+ * @param message descripción para logs y para la respuesta del proveedor
+ * @param cause   excepción original
+ */
+public record HttpFailure(Kind kind, String message, Throwable cause) {
+
+    public enum Kind {
+        /** Venció el timeout de conexión o de petición. */
+        TIMEOUT,
+        /** Error de E/S: conexión rechazada, cortada o sin ruta al servidor. */
+        CONNECTION,
+        /** Cualquier otra excepción (petición mal formada, cliente cerrado...). */
+        OTHER
+    }
+
+    /**
+     * Fallo con que se completó un future de {@link HttpTransport}, sin el {@link CompletionException} que lo
+     * envuelve.
+     */
+    public static HttpFailure of(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String message = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        if (cause instanceof HttpTimeoutException) {
+            return new HttpFailure(Kind.TIMEOUT, message, cause);
+        }
+        if (cause instanceof IOException) {
+            return new HttpFailure(Kind.CONNECTION, message, cause);
+        }
+        return new HttpFailure(Kind.OTHER, message, cause);
+    }
+}
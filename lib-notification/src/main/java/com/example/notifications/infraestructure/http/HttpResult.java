@@ -0,0 +1,20 @@
+package com.example.notifications.infraestructure.http;
+
+import java.net.http.HttpHeaders;
+
+/**
+ * Respuesta HTTP de un proveedor con el cuerpo ya leído como texto.
+ */
+public record HttpResult(int status, String body, HttpHeaders headers) {
+
+    public boolean isSuccess() {
+        return status >= 200 && status < 300;
+    }
+
+    /**
+     * Primer valor de la cabecera, o {@code null} si no viene.
+     */
+    public String header(String name) {
+        return headers.firstValue(name).orElse(null);
+    }
+}
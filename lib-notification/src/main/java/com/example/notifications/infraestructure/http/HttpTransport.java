@@ -0,0 +1,184 @@
+package com.example.notifications.infraestructure.http;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Transporte HTTP asíncrono compartido por los proveedores, sobre {@link HttpClient}.
+ *
+ * <h2>Conexiones</h2>
+ * <p>
+ * Un único {@link HttpClient} para todos los proveedores: negocia HTTP/2 cuando el servidor lo admite
+ * (multiplexando las peticiones concurrentes sobre una conexión) y en HTTP/1.1 reutiliza las conexiones
+ * keep-alive de su pool. Las peticiones no bloquean al hilo que llama: {@code post*} devuelve un
+ * {@link CompletableFuture} que se completa en el executor del cliente.
+ * </p>
+ *
+ * <h2>Timeouts</h2>
+ * <p>
+ * El timeout de conexión es común; el de petición es por proveedor ({@link Builder#timeout(String, Duration)},
+ * con {@link Builder#requestTimeout(Duration)} por defecto) y se busca por el {@code providerName()} que pasa
+ * cada proveedor.
+ * </p>
+ *
+ * <h2>Errores</h2>
+ * <p>
+ * Una respuesta HTTP con error no es una excepción: llega como {@link HttpResult} con su código. Los fallos de
+ * red sí completan el future con excepción; {@link HttpFailure#of(Throwable)} dice de qué tipo son (timeout,
+ * conexión u otro) y el proveedor los clasifica a partir de ese tipo.
+ * </p>
+ */
+public final class HttpTransport implements AutoCloseable {
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final Map<String, Duration> timeouts;
+
+    private HttpTransport(Builder builder) {
+        HttpClient.Builder client = HttpClient.newBuilder()
+                .version(builder.version)
+                .connectTimeout(builder.connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER);
+        if (builder.executor != null) {
+            client.executor(builder.executor);
+        }
+        this.client = client.build();
+        this.requestTimeout = builder.requestTimeout;
+        this.timeouts = Map.copyOf(builder.timeouts);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Timeout de petición del proveedor.
+     */
+    public Duration timeout(String provider) {
+        return timeouts.getOrDefault(provider, requestTimeout);
+    }
+
+    /**
+     * {@code POST} con {@code value} serializado por {@link Json#write(Object)}.
+     */
+    public CompletableFuture<HttpResult> postJson(String provider, URI uri, Map<String, String> headers, Object value) {
+        return post(provider, uri, headers, "application/json", Json.write(value));
+    }
+
+    /**
+     * {@code POST} como {@code application/x-www-form-urlencoded}; cada valor de la lista es un campo repetido.
+     */
+    public CompletableFuture<HttpResult> postForm(String provider, URI uri, Map<String, String> headers,
+                                                  Map<String, List<String>> fields) {
+        StringBuilder form = new StringBuilder();
+        fields.forEach((name, values) -> values.forEach(value -> {
+            if (!form.isEmpty()) {
+                form.append('&');
+            }
+            form.append(URLEncoder.encode(name, StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+        }));
+        return post(provider, uri, headers, "application/x-www-form-urlencoded", form.toString());
+    }
+
+    public CompletableFuture<HttpResult> post(String provider, URI uri, Map<String, String> headers,
+                                              String contentType, String body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(timeout(provider))
+                .header("Content-Type", contentType)
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+        headers.forEach(request::header);
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                .thenApply(response -> new HttpResult(response.statusCode(), response.body(), response.headers()));
+    }
+
+    /**
+     * Cierra el cliente: las peticiones en curso terminan, las nuevas fallan.
+     */
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    /**
+     * Valor de la cabecera {@code Authorization} para autenticación básica.
+     */
+    public static String basicAuth(String user, String password) {
+        return "Basic " + Base64.getEncoder()
+                .encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static final class Builder {
+
+        private HttpClient.Version version = HttpClient.Version.HTTP_2;
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration requestTimeout = Duration.ofSeconds(10);
+        private final Map<String, Duration> timeouts = new HashMap<>();
+        private Executor executor;
+
+        private Builder() {
+        }
+
+        /**
+         * Versión preferida; con {@code HTTP_2} se cae a HTTP/1.1 si el servidor no lo admite.
+         */
+        public Builder version(HttpClient.Version version) {
+            this.version = Objects.requireNonNull(version, "version is required");
+            return this;
+        }
+
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = positive(connectTimeout, "connectTimeout");
+            return this;
+        }
+
+        /**
+         * Timeout de petición de los proveedores sin uno propio.
+         */
+        public Builder requestTimeout(Duration requestTimeout) {
+            this.requestTimeout = positive(requestTimeout, "requestTimeout");
+            return this;
+        }
+
+        /**
+         * Timeout de petición de un proveedor, por su {@code providerName()}.
+         */
+        public Builder timeout(String provider, Duration timeout) {
+            timeouts.put(Objects.requireNonNull(provider, "provider is required"), positive(timeout, "timeout"));
+            return this;
+        }
+
+        /**
+         * Executor en el que se completan las respuestas; por defecto, el del {@link HttpClient}.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "executor is required");
+            return this;
+        }
+
+        public HttpTransport build() {
+            return new HttpTransport(this);
+        }
+
+        private static Duration positive(Duration value, String name) {
+            if (value == null || value.isNegative() || value.isZero()) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return value;
+        }
+    }
+}
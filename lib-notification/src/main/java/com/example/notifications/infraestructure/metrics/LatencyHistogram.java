@@ -0,0 +1,102 @@
+package com.example.notifications.infraestructure.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias en nanosegundos con cubetas log-lineales, al estilo de HdrHistogram.
+ * <p>
+ * Cada potencia de dos se divide en {@value #BUCKETS_PER_OCTAVE} cubetas iguales, así que el error relativo
+ * de cualquier percentil es como mucho {@code 1/}{@value #BUCKETS_PER_OCTAVE} (~3%) en todo el rango, de
+ * nanosegundos a {@link #MAX_TRACKABLE_NANOS} (los valores mayores se acumulan en la última cubeta). Las
+ * cubetas se reservan al crear el histograma: {@link #record(long)} es un cálculo de bits y un incremento
+ * atómico, sin reservar memoria ni bloquear.
+ * </p>
+ */
+public final class LatencyHistogram {
+
+    /** Valor máximo con precisión completa: una hora. */
+    public static final long MAX_TRACKABLE_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    static final int BUCKETS_PER_OCTAVE = 32;
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final int BUCKET_COUNT = indexOf(MAX_TRACKABLE_NANOS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_TRACKABLE_NANOS);
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long sumNanos() {
+        return sum.sum();
+    }
+
+    /**
+     * Valor por debajo del cual queda el {@code percentile} de las muestras (límite superior de su cubeta).
+     *
+     * @param percentile entre 0 y 100
+     * @return nanosegundos, o 0 si no hay muestras
+     */
+    public long valueAtPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return MAX_TRACKABLE_NANOS;
+    }
+
+    /**
+     * Número acumulado de muestras con valor menor o igual a {@code nanos}, para las cubetas {@code le} de
+     * Prometheus. Como los límites no coinciden con los de las cubetas internas, el error es el de una cubeta.
+     */
+    public long countAtOrBelow(long nanos) {
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT && upperBound(i) - 1 <= nanos; i++) {
+            cumulative += counts.get(i);
+        }
+        return cumulative;
+    }
+
+    static int indexOf(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1));
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    /**
+     * Límite superior (exclusivo) de la cubeta {@code index}.
+     */
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index + 1L;
+        }
+        int shift = index / HALF - 1;
+        long lower = (long) (index - shift * HALF) << shift;
+        return lower + (1L << shift);
+    }
+}
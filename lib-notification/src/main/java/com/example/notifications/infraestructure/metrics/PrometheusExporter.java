@@ -0,0 +1,80 @@
+package com.example.notifications.infraestructure.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Endpoint HTTP {@code GET /metrics} con el texto de {@link PrometheusMetrics#scrape()}, para que Prometheus
+ * lo recoja. Usa el servidor HTTP del JDK ({@code com.sun.net.httpserver}) con un único hilo: un scrape cada
+ * pocos segundos no necesita más.
+ *
+ * <pre>{@code
+ * PrometheusMetrics metrics = new PrometheusMetrics();
+ * try (PrometheusExporter exporter = PrometheusExporter.start(metrics, new InetSocketAddress(9464))) {
+ *     ...
+ * }
+ * }</pre>
+ */
+@Slf4j
+public final class PrometheusExporter implements AutoCloseable {
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+
+    private PrometheusExporter(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Arranca el endpoint en {@code address} (puerto 0 para uno libre).
+     */
+    public static PrometheusExporter start(PrometheusMetrics metrics, InetSocketAddress address) {
+        Objects.requireNonNull(metrics, "metrics is required");
+        try {
+            HttpServer server = HttpServer.create(address, 0);
+            server.createContext("/metrics", exchange -> handle(metrics, exchange));
+            server.start();
+            log.info("Métricas disponibles en http://{}:{}/metrics",
+                    server.getAddress().getHostString(), server.getAddress().getPort());
+            return new PrometheusExporter(server);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Dirección en la que escucha (útil con el puerto 0).
+     */
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static void handle(PrometheusMetrics metrics, HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = metrics.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.notifications.infraestructure.metrics;
+
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
+import com.example.notifications.domain.model.NotificationPriority;
+import com.example.notifications.domain.result.ErrorClassification;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * {@link NotificationMetrics} en memoria que se exporta en el formato de texto de Prometheus.
+ * <p>
+ * Los contadores son {@link LongAdder} y las latencias {@link LatencyHistogram}; se crean la primera vez
+ * que aparece cada combinación de etiquetas y a partir de ahí registrar una muestra no reserva memoria.
+ * {@link #scrape()} genera el texto; {@link PrometheusExporter} lo sirve por HTTP.
+ * </p>
+ *
+ * <h2>Métricas</h2>
+ * <ul>
+ *   <li>{@code notification_sent_total{channel}}, {@code notification_failed_total{channel,classification}} y
+ *       {@code notification_rejected_total{channel,reason}}</li>
+ *   <li>{@code notification_provider_results_total{channel,provider,classification}}</li>
+ *   <li>{@code notification_provider_call_seconds}, {@code notification_template_render_seconds} y
+ *       {@code notification_queue_wait_seconds}: histogramas</li>
+ *   <li>los gauges registrados por el servicio (ocupación del executor, profundidad de la cola...) y por los
+ *       gateways compuestos ({@code notification_provider_routing_share{channel,provider}})</li>
+ * </ul>
+ */
+public class PrometheusMetrics implements NotificationMetrics {
+
+    /** Límites {@code le} de los histogramas exportados, en segundos. */
+    static final double[] BUCKETS_SECONDS = {
+            0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60
+    };
+
+    private static final ErrorClassification[] CLASSIFICATIONS = ErrorClassification.values();
+
+    private final Map<String, LongAdder> sent = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder[]> failed = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, LongAdder>> rejected = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, LongAdder[]>> providerResults = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, LatencyHistogram>> providerCalls = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> templateRenders = new ConcurrentHashMap<>();
+    private final LatencyHistogram[] queueWaits = new LatencyHistogram[NotificationPriority.values().length];
+    private final Map<String, Gauge> gauges = new ConcurrentSkipListMap<>();
+
+    public PrometheusMetrics() {
+        for (int i = 0; i < queueWaits.length; i++) {
+            queueWaits[i] = new LatencyHistogram();
+        }
+    }
+
+    @Override
+    public void sent(String channel) {
+        sent.computeIfAbsent(channel, k -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void failed(String channel, ErrorClassification classification) {
+        failed.computeIfAbsent(channel, k -> newCounters())[ordinal(classification)].increment();
+    }
+
+    @Override
+    public void rejected(String channel, String reason, int count) {
+        rejected.computeIfAbsent(channel, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(reason, k -> new LongAdder())
+                .add(count);
+    }
+
+    @Override
+    public void queueWait(NotificationPriority priority, long nanos) {
+        queueWaits[priority.ordinal()].record(nanos);
+    }
+
+    @Override
+    public void templateRendered(String channel, long nanos) {
+        templateRenders.computeIfAbsent(channel, k -> new LatencyHistogram()).record(nanos);
+    }
+
+    @Override
+    public void providerCall(String channel, String provider, long nanos) {
+        providerCalls.computeIfAbsent(channel, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(providerName(provider), k -> new LatencyHistogram())
+                .record(nanos);
+    }
+
+    @Override
+    public void providerResult(String channel, String provider, ErrorClassification classification) {
+        providerResults.computeIfAbsent(channel, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(providerName(provider), k -> newCounters())[ordinal(classification)]
+                .increment();
+    }
+
+    @Override
+    public void gauge(String name, String help, DoubleSupplier value) {
+        // Un nombre registrado de nuevo (por ejemplo, al recrear el servicio) sustituye al anterior.
+        gauges.put(Objects.requireNonNull(name, "name is required"), new Gauge(name, "", help, value));
+    }
+
+    @Override
+    public void providerGauge(String name, String help, String channel, String provider, DoubleSupplier value) {
+        Objects.requireNonNull(name, "name is required");
+        String labels = "{channel=\"" + escape(channel) + "\",provider=\"" + escape(providerName(provider)) + "\"}";
+        // Con el separador \0 las series de una métrica quedan juntas en el orden de las claves.
+        gauges.put(name + '\0' + labels, new Gauge(name, labels, help, value));
+    }
+
+    /**
+     * Estado actual en el formato de texto de Prometheus (versión 0.0.4).
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+
+        header(out, "notification_sent_total", "Notificaciones enviadas con éxito", "counter");
+        sent.forEach((channel, counter) ->
+                sample(out, "notification_sent_total", "channel", channel, counter.sum()));
+
+        header(out, "notification_failed_total", "Intentos de envío fallidos", "counter");
+        failed.forEach((channel, counters) -> {
+            for (ErrorClassification classification : CLASSIFICATIONS) {
+                long value = counters[classification.ordinal()].sum();
+                if (value > 0) {
+                    sample(out, "notification_failed_total",
+                            "channel", channel, "classification", label(classification), value);
+                }
+            }
+        });
+
+        header(out, "notification_rejected_total", "Notificaciones rechazadas o descartadas por la cola", "counter");
+        rejected.forEach((channel, reasons) -> reasons.forEach((reason, counter) ->
+                sample(out, "notification_rejected_total", "channel", channel, "reason", reason, counter.sum())));
+
+        header(out, "notification_provider_results_total", "Mensajes por proveedor y resultado", "counter");
+        providerResults.forEach((channel, providers) -> providers.forEach((provider, counters) -> {
+            for (ErrorClassification classification : CLASSIFICATIONS) {
+                long value = counters[classification.ordinal()].sum();
+                if (value > 0) {
+                    out.append("notification_provider_results_total{channel=\"").append(escape(channel))
+                            .append("\",provider=\"").append(escape(provider))
+                            .append("\",classification=\"").append(label(classification)).append("\"} ")
+                            .append(value).append('\n');
+                }
+            }
+        }));
+
+        header(out, "notification_provider_call_seconds", "Duración de las llamadas al proveedor", "histogram");
+        providerCalls.forEach((channel, providers) -> providers.forEach((provider, histogram) ->
+                histogram(out, "notification_provider_call_seconds",
+                        "channel=\"" + escape(channel) + "\",provider=\"" + escape(provider) + "\"", histogram)));
+
+        header(out, "notification_template_render_seconds", "Duración del renderizado de plantillas", "histogram");
+        templateRenders.forEach((channel, histogram) -> histogram(out, "notification_template_render_seconds",
+                "channel=\"" + escape(channel) + "\"", histogram));
+
+        header(out, "notification_queue_wait_seconds", "Espera en la cola de envío por prioridad", "histogram");
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            histogram(out, "notification_queue_wait_seconds",
+                    "priority=\"" + label(priority) + "\"", queueWaits[priority.ordinal()]);
+        }
+
+        String previous = null;
+        for (Gauge gauge : gauges.values()) {
+            if (!gauge.name.equals(previous)) {
+                header(out, gauge.name, gauge.help, "gauge");
+                previous = gauge.name;
+            }
+            out.append(gauge.name).append(gauge.labels).append(' ')
+                    .append(format(gauge.value.getAsDouble())).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help == null ? "" : help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String label, String value, long sample) {
+        out.append(name).append('{').append(label).append("=\"").append(escape(value)).append("\"} ")
+                .append(sample).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name,
+                               String label1, String value1, String label2, String value2, long sample) {
+        out.append(name).append('{')
+                .append(label1).append("=\"").append(escape(value1)).append("\",")
+                .append(label2).append("=\"").append(escape(value2)).append("\"} ")
+                .append(sample).append('\n');
+    }
+
+    private static void histogram(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        for (double bound : BUCKETS_SECONDS) {
+            out.append(name).append("_bucket{").append(labels).append(",le=\"").append(format(bound)).append("\"} ")
+                    .append(histogram.countAtOrBelow((long) (bound * 1e9))).append('\n');
+        }
+        long count = histogram.count();
+        out.append(name).append("_bucket{").append(labels).append(",le=\"+Inf\"} ").append(count).append('\n');
+        out.append(name).append("_sum{").append(labels).append("} ")
+                .append(format(histogram.sumNanos() / 1e9)).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ").append(count).append('\n');
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String label(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static String providerName(String provider) {
+        return provider == null ? "unknown" : provider;
+    }
+
+    private static int ordinal(ErrorClassification classification) {
+        return (classification == null ? ErrorClassification.NONE : classification).ordinal();
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[CLASSIFICATIONS.length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    private record Gauge(String name, String labels, String help, DoubleSupplier value) {
+    }
+}
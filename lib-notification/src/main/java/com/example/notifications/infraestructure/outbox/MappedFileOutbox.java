@@ -0,0 +1,528 @@
+package com.example.notifications.infraestructure.outbox;
+
+import com.example.notifications.application.port.out.outbox.NotificationOutbox;
+import com.example.notifications.application.port.out.outbox.OutboxEntry;
+import com.example.notifications.domain.model.Notification;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Outbox en disco como log append-only de segmentos mapeados en memoria.
+ *
+ * <h2>Formato</h2>
+ * <p>
+ * Cada segmento es un fichero {@code segment-<n>.log} de tamaño fijo. Cada registro ocupa
+ * {@code [longitud:int][tipo:byte][id:long][payload][crc32c:int]}: un {@code APPEND} lleva la fecha de
+ * envío programada (epoch millis, o {@code Long.MIN_VALUE} si no la hay) seguida de la notificación
+ * codificada con {@link OutboxCodec}, y un {@code COMPLETE} solo el id. La longitud se
+ * escribe la última y una longitud 0 marca el final de lo escrito, así que un registro a medias tras
+ * un crash se descarta al arrancar (falla el CRC o la longitud).
+ * </p>
+ *
+ * <h2>Durabilidad</h2>
+ * <p>
+ * Escribir es copiar bytes al mapeo bajo un lock corto. La sincronización a disco se hace por
+ * <i>group commit</i>: el primer hilo que necesita durabilidad fuerza el segmento y, mientras tanto, los
+ * que llegan detrás esperan y ven su registro ya cubierto por ese mismo {@code force()}. Así, con muchos
+ * envíos concurrentes, el coste de un fsync se reparte entre todos ellos. Los {@code COMPLETE} no esperan:
+ * perder uno solo provoca un reenvío (at-least-once).
+ * </p>
+ *
+ * <h2>Rotación y compactación</h2>
+ * <p>
+ * Cuando un registro no cabe en el segmento activo se abre uno nuevo. Los segmentos se eliminan siempre
+ * del más antiguo al más nuevo: en cuanto el más antiguo no tiene entradas vivas se borra, y si le quedan
+ * menos de {@code compactionThreshold} se copian sus entradas vivas al segmento activo y se borra igualmente.
+ * </p>
+ */
+@Slf4j
+public final class MappedFileOutbox implements NotificationOutbox {
+
+    static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    static final double DEFAULT_COMPACTION_THRESHOLD = 0.25;
+
+    private static final long NOT_SCHEDULED = Long.MIN_VALUE;
+    private static final byte APPEND = 1;
+    private static final byte COMPLETE = 2;
+    /** Tipo + id. */
+    private static final int RECORD_HEADER = 1 + Long.BYTES;
+    /** Longitud + CRC. */
+    private static final int FRAME_OVERHEAD = Integer.BYTES * 2;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final double compactionThreshold;
+    private final boolean syncOnAppend;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Object flushLock = new Object();
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private final Map<Long, Location> live = new HashMap<>();
+    private final CRC32C crc = new CRC32C();
+
+    private volatile Segment active;
+    private volatile long writtenBytes;
+    private long durableBytes;
+    private long nextId = 1;
+    private boolean compacting;
+    private boolean closed;
+
+    private MappedFileOutbox(Builder builder) {
+        this.directory = builder.directory;
+        this.segmentSize = builder.segmentSize;
+        this.compactionThreshold = builder.compactionThreshold;
+        this.syncOnAppend = builder.syncOnAppend;
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el outbox en " + directory, e);
+        }
+    }
+
+    /**
+     * Abre (o crea) un outbox en {@code directory} con la configuración por defecto.
+     */
+    public static MappedFileOutbox open(Path directory) {
+        return builder(directory).build();
+    }
+
+    public static Builder builder(Path directory) {
+        return new Builder(directory);
+    }
+
+    @Override
+    public long append(Notification notification, Instant dueAt) {
+        byte[] payload = encode(notification, dueAt);
+        long id;
+        long written;
+        lock.lock();
+        try {
+            ensureOpen();
+            id = nextId++;
+            Location location = write(APPEND, id, payload);
+            live.put(id, location);
+            location.segment.live++;
+            location.segment.appended++;
+            written = writtenBytes;
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(written);
+        return id;
+    }
+
+    @Override
+    public long[] appendAll(List<? extends Notification> notifications) {
+        List<byte[]> payloads = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            payloads.add(encode(notification, null));
+        }
+
+        long[] ids = new long[notifications.size()];
+        long written;
+        lock.lock();
+        try {
+            ensureOpen();
+            for (int i = 0; i < payloads.size(); i++) {
+                long id = nextId++;
+                Location location = write(APPEND, id, payloads.get(i));
+                live.put(id, location);
+                location.segment.live++;
+                location.segment.appended++;
+                ids[i] = id;
+            }
+            written = writtenBytes;
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(written);
+        return ids;
+    }
+
+    @Override
+    public void complete(long id) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            Location location = live.remove(id);
+            if (location == null) {
+                return;
+            }
+            write(COMPLETE, id, new byte[0]);
+            location.segment.live--;
+            if (location.segment == segments.peekFirst()) {
+                compact();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<OutboxEntry> pending() {
+        lock.lock();
+        try {
+            List<Map.Entry<Long, Location>> entries = new ArrayList<>(live.entrySet());
+            entries.sort(Map.Entry.comparingByKey());
+            List<OutboxEntry> pending = new ArrayList<>(entries.size());
+            for (Map.Entry<Long, Location> entry : entries) {
+                pending.add(decode(entry.getKey(), readPayload(entry.getValue())));
+            }
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Número de segmentos en disco, incluido el activo.
+     */
+    public int segmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Segment segment : segments) {
+                segment.buffer.force();
+                segment.channel.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Carga útil de un registro {@code APPEND}: el vencimiento en epoch millis y la notificación codificada.
+     */
+    private static byte[] encode(Notification notification, Instant dueAt) {
+        byte[] notificationBytes = OutboxCodec.encode(notification);
+        return ByteBuffer.allocate(Long.BYTES + notificationBytes.length)
+                .putLong(dueAt == null ? NOT_SCHEDULED : dueAt.toEpochMilli())
+                .put(notificationBytes)
+                .array();
+    }
+
+    private static OutboxEntry decode(long id, byte[] payload) {
+        long dueAt = ByteBuffer.wrap(payload).getLong();
+        Notification notification = OutboxCodec.decode(Arrays.copyOfRange(payload, Long.BYTES, payload.length));
+        return new OutboxEntry(id, notification, dueAt == NOT_SCHEDULED ? null : Instant.ofEpochMilli(dueAt));
+    }
+
+    /**
+     * Escribe un registro en el segmento activo, rotando si no cabe. Debe llamarse con el lock.
+     */
+    private Location write(byte type, long id, byte[] payload) {
+        int recordLength = RECORD_HEADER + payload.length;
+        int frameLength = recordLength + FRAME_OVERHEAD;
+        if (frameLength > segmentSize) {
+            throw new IllegalArgumentException(
+                    "La notificación ocupa " + frameLength + " bytes y el segmento " + segmentSize);
+        }
+        if (active.position + frameLength > segmentSize) {
+            roll();
+        }
+
+        Segment segment = active;
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = segment.position;
+        int recordStart = offset + Integer.BYTES;
+        buffer.put(recordStart, type);
+        buffer.putLong(recordStart + 1, id);
+        buffer.put(recordStart + RECORD_HEADER, payload);
+
+        crc.reset();
+        crc.update(buffer.slice(recordStart, recordLength));
+        buffer.putInt(recordStart + recordLength, (int) crc.getValue());
+        buffer.putInt(offset, recordLength);
+
+        segment.position += frameLength;
+        writtenBytes += frameLength;
+        return new Location(segment, offset);
+    }
+
+    /**
+     * Espera a que los bytes escritos hasta {@code written} estén en disco, forzando el segmento activo
+     * si nadie lo ha hecho ya (group commit).
+     */
+    private void awaitDurable(long written) {
+        if (!syncOnAppend) {
+            return;
+        }
+        synchronized (flushLock) {
+            if (durableBytes >= written) {
+                return;
+            }
+            long target = writtenBytes;
+            // Los segmentos anteriores se fuerzan al rotar, así que basta con el activo.
+            active.buffer.force();
+            durableBytes = target;
+        }
+    }
+
+    private void roll() {
+        active.buffer.force();
+        try {
+            active = openSegment(active.sequence + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear un segmento nuevo del outbox", e);
+        }
+        segments.addLast(active);
+        compact();
+    }
+
+    /**
+     * Elimina segmentos desde el más antiguo mientras estén vacíos o por debajo del umbral, copiando al
+     * segmento activo las entradas que sigan vivas. Debe llamarse con el lock.
+     */
+    private void compact() {
+        if (compacting) {
+            return;
+        }
+        compacting = true;
+        try {
+            while (segments.size() > 1) {
+                Segment oldest = segments.peekFirst();
+                if (oldest.live > 0 && (double) oldest.live / oldest.appended >= compactionThreshold) {
+                    return;
+                }
+                if (oldest.live > 0) {
+                    copyForward(oldest);
+                    // Las copias tienen que estar en disco antes de borrar el original: si el proceso se cae
+                    // entre el borrado y el siguiente force, se perderían.
+                    active.buffer.force();
+                }
+                segments.pollFirst();
+                delete(oldest);
+            }
+        } finally {
+            compacting = false;
+        }
+    }
+
+    private void copyForward(Segment oldest) {
+        List<Map.Entry<Long, Location>> toCopy = new ArrayList<>();
+        for (Map.Entry<Long, Location> entry : live.entrySet()) {
+            if (entry.getValue().segment == oldest) {
+                toCopy.add(entry);
+            }
+        }
+        toCopy.sort(Map.Entry.comparingByKey());
+        for (Map.Entry<Long, Location> entry : toCopy) {
+            Location copied = write(APPEND, entry.getKey(), readPayload(entry.getValue()));
+            copied.segment.live++;
+            copied.segment.appended++;
+            live.put(entry.getKey(), copied);
+        }
+        log.debug("Compactado el segmento {} del outbox: {} entradas vivas copiadas", oldest.sequence, toCopy.size());
+    }
+
+    private void delete(Segment segment) {
+        try {
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el segmento {} del outbox", segment.path, e);
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+        }
+
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long sequence = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            Segment segment = openSegment(sequence);
+            scan(segment);
+            segments.addLast(segment);
+        }
+
+        if (segments.isEmpty()) {
+            segments.addLast(openSegment(0));
+        }
+        active = segments.peekLast();
+        compact();
+
+        if (!live.isEmpty()) {
+            log.info("Outbox recuperado de {}: {} notificaciones pendientes en {} segmentos",
+                    directory, live.size(), segments.size());
+        }
+    }
+
+    private void scan(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = 0;
+        while (offset + FRAME_OVERHEAD + RECORD_HEADER <= segmentSize) {
+            int recordLength = buffer.getInt(offset);
+            int recordStart = offset + Integer.BYTES;
+            if (recordLength < RECORD_HEADER || recordStart + recordLength + Integer.BYTES > segmentSize) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(recordStart, recordLength));
+            if ((int) crc.getValue() != buffer.getInt(recordStart + recordLength)) {
+                log.warn("Registro incompleto en {} (offset {}), se descarta el resto del segmento", segment.path, offset);
+                break;
+            }
+
+            byte type = buffer.get(recordStart);
+            long id = buffer.getLong(recordStart + 1);
+            if (type == APPEND) {
+                Location previous = live.put(id, new Location(segment, offset));
+                if (previous != null) {
+                    previous.segment.live--;
+                }
+                segment.live++;
+                segment.appended++;
+            } else if (type == COMPLETE) {
+                Location location = live.remove(id);
+                if (location != null) {
+                    location.segment.live--;
+                }
+            }
+            nextId = Math.max(nextId, id + 1);
+            offset = recordStart + recordLength + Integer.BYTES;
+        }
+        segment.position = offset;
+    }
+
+    private byte[] readPayload(Location location) {
+        MappedByteBuffer buffer = location.segment.buffer;
+        int recordLength = buffer.getInt(location.offset);
+        byte[] payload = new byte[recordLength - RECORD_HEADER];
+        buffer.get(location.offset + Integer.BYTES + RECORD_HEADER, payload);
+        return payload;
+    }
+
+    private Segment openSegment(long sequence) throws IOException {
+        Path path = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        return new Segment(sequence, path, channel, buffer);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("El outbox está cerrado");
+        }
+    }
+
+    private static final class Segment {
+        private final long sequence;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private int live;
+        private int appended;
+
+        private Segment(long sequence, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.sequence = sequence;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    private record Location(Segment segment, int offset) {
+    }
+
+    /**
+     * Configuración de {@link MappedFileOutbox}.
+     */
+    public static final class Builder {
+
+        private final Path directory;
+        private int segmentSize = DEFAULT_SEGMENT_SIZE;
+        private double compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+        private boolean syncOnAppend = true;
+
+        private Builder(Path directory) {
+            this.directory = Objects.requireNonNull(directory, "directory is required");
+        }
+
+        /**
+         * Tamaño de cada segmento en bytes. Por defecto 64 MiB.
+         */
+        public Builder segmentSize(int segmentSize) {
+            if (segmentSize < 1024) {
+                throw new IllegalArgumentException("segmentSize must be at least 1024 bytes");
+            }
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * Proporción de entradas vivas por debajo de la cual el segmento más antiguo se compacta.
+         * Por defecto {@value #DEFAULT_COMPACTION_THRESHOLD}.
+         */
+        public Builder compactionThreshold(double compactionThreshold) {
+            if (compactionThreshold < 0 || compactionThreshold > 1) {
+                throw new IllegalArgumentException("compactionThreshold must be between 0 and 1");
+            }
+            this.compactionThreshold = compactionThreshold;
+            return this;
+        }
+
+        /**
+         * Si es {@code false}, {@code append} no espera al fsync y la durabilidad queda en manos del
+         * sistema operativo: sobrevive a un crash de la JVM pero no a uno de la máquina. Por defecto {@code true}.
+         */
+        public Builder syncOnAppend(boolean syncOnAppend) {
+            this.syncOnAppend = syncOnAppend;
+            return this;
+        }
+
+        public MappedFileOutbox build() {
+            return new MappedFileOutbox(this);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.notifications.infraestructure.outbox;
+
+import com.example.notifications.domain.model.ChatNotification;
+import com.example.notifications.domain.model.EmailNotification;
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.model.NotificationMetadata;
+import com.example.notifications.domain.model.NotificationPriority;
+import com.example.notifications.domain.model.PushNotification;
+import com.example.notifications.domain.model.SmsNotification;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Formato binario de las notificaciones en el outbox.
+ * <p>
+ * Un byte de tipo seguido de los campos del record en orden, incluidos los metadatos. Las cadenas van
+ * como longitud + UTF-8 ({@code -1} para {@code null}) y los mapas como tamaño + pares clave/valor.
+ * Los valores de las variables conservan su tipo si son {@code String}, {@code Integer}, {@code Long},
+ * {@code Double} o {@code Boolean}; cualquier otro tipo se guarda como su {@code toString()}.
+ * </p>
+ */
+final class OutboxCodec {
+
+    private static final byte EMAIL = 1;
+    private static final byte SMS = 2;
+    private static final byte PUSH = 3;
+    private static final byte CHAT = 4;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN = 5;
+
+    private OutboxCodec() {
+    }
+
+    static byte[] encode(Notification notification) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            switch (notification) {
+                case EmailNotification email -> {
+                    out.writeByte(EMAIL);
+                    writeString(out, email.sender());
+                    writeString(out, email.recipient());
+                    writeString(out, email.subjectTemplate());
+                    writeString(out, email.bodyTemplate());
+                    writeVariables(out, email.variables());
+                    writeMetadata(out, email.metadata());
+                }
+                case SmsNotification sms -> {
+                    out.writeByte(SMS);
+                    writeString(out, sms.sender());
+                    writeString(out, sms.recipient());
+                    writeString(out, sms.messageTemplate());
+                    writeVariables(out, sms.variables());
+                    writeMetadata(out, sms.metadata());
+                }
+                case PushNotification push -> {
+                    out.writeByte(PUSH);
+                    writeString(out, push.recipient());
+                    writeString(out, push.deviceToken());
+                    writeString(out, push.titleTemplate());
+                    writeString(out, push.bodyTemplate());
+                    writeVariables(out, push.variables());
+                    writeData(out, push.data());
+                    writeMetadata(out, push.metadata());
+                }
+                case ChatNotification chat -> {
+                    out.writeByte(CHAT);
+                    writeString(out, chat.recipient());
+                    writeString(out, chat.messageTemplate());
+                    writeVariables(out, chat.variables());
+                    writeMetadata(out, chat.metadata());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Notification decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte type = in.readByte();
+            return switch (type) {
+                case EMAIL -> new EmailNotification(
+                        readString(in), readString(in), readString(in), readString(in), readVariables(in),
+                        readMetadata(in));
+                case SMS -> new SmsNotification(
+                        readString(in), readString(in), readString(in), readVariables(in), readMetadata(in));
+                case PUSH -> new PushNotification(
+                        readString(in), readString(in), readString(in), readString(in), readVariables(in), readData(in),
+                        readMetadata(in));
+                case CHAT -> new ChatNotification(readString(in), readString(in), readVariables(in), readMetadata(in));
+                default -> throw new IllegalStateException("Tipo de notificación desconocido en el outbox: " + type);
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static void writeVariables(DataOutputStream out, Map<String, Object> variables) throws IOException {
+        if (variables == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(variables.size());
+        for (Map.Entry<String, Object> entry : variables.entrySet()) {
+            writeString(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, Object> readVariables(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, Object> variables = new LinkedHashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            variables.put(readString(in), readValue(in));
+        }
+        return variables;
+    }
+
+    private static void writeMetadata(DataOutputStream out, NotificationMetadata metadata) throws IOException {
+        writeString(out, metadata.idempotencyKey());
+        out.writeByte(metadata.priority() == null ? -1 : metadata.priority().ordinal());
+        writeString(out, metadata.tenant());
+    }
+
+    private static NotificationMetadata readMetadata(DataInputStream in) throws IOException {
+        String idempotencyKey = readString(in);
+        byte priority = in.readByte();
+        String tenant = readString(in);
+        if (idempotencyKey == null && priority < 0 && tenant == null) {
+            return NotificationMetadata.NONE;
+        }
+        return new NotificationMetadata(
+                idempotencyKey, priority < 0 ? null : NotificationPriority.values()[priority], tenant);
+    }
+
+    private static void writeData(DataOutputStream out, Map<String, String> data) throws IOException {
+        if (data == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(data.size());
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readData(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, String> data = new LinkedHashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            data.put(readString(in), readString(in));
+        }
+        return data;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case null -> out.writeByte(NULL);
+            case Integer i -> {
+                out.writeByte(INT);
+                out.writeInt(i);
+            }
+            case Long l -> {
+                out.writeByte(LONG);
+                out.writeLong(l);
+            }
+            case Double d -> {
+                out.writeByte(DOUBLE);
+                out.writeDouble(d);
+            }
+            case Boolean b -> {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(b);
+            }
+            default -> {
+                out.writeByte(STRING);
+                writeString(out, value.toString());
+            }
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case NULL -> null;
+            case INT -> in.readInt();
+            case LONG -> in.readLong();
+            case DOUBLE -> in.readDouble();
+            case BOOLEAN -> in.readBoolean();
+            case STRING -> readString(in);
+            default -> throw new IllegalStateException("Tipo de valor desconocido en el outbox: " + tag);
+        };
+    }
+}
@@ -1,10 +1,24 @@
 package com.example.notifications.infraestructure.push.firebase;
 
+import java.util.Properties;
+
+/**
+ * @param serviceAccountKey credencial de la cuenta de servicio; con transporte HTTP se envía como token
+ *                          {@code Bearer}, así que debe ser un access token OAuth2 ya emitido para ella
+ * @param baseUrl           raíz de la API de FCM, por defecto {@value #DEFAULT_BASE_URL}
+ */
 public record FirebaseConfig(
         String projectId,
-        String serviceAccountKey
+        String serviceAccountKey,
+        String baseUrl
 ) {
 
+    public static final String DEFAULT_BASE_URL = "https://fcm.googleapis.com";
+
+    public FirebaseConfig(String projectId, String serviceAccountKey) {
+        this(projectId, serviceAccountKey, DEFAULT_BASE_URL);
+    }
+
     public FirebaseConfig {
         if (projectId == null || projectId.isBlank()) {
             throw new IllegalArgumentException("ProjectId is required");
@@ -12,5 +26,18 @@ public record FirebaseConfig(
         if (serviceAccountKey == null || serviceAccountKey.isBlank()) {
             throw new IllegalArgumentException("Service account key is required");
         }
+        if (baseUrl == null || baseUrl.isBlank()) {
+            baseUrl = DEFAULT_BASE_URL;
+        }
+    }
+
+    /**
+     * Lee {@code projectId}, {@code serviceAccountKey} y, opcionalmente, {@code baseUrl}.
+     */
+    public static FirebaseConfig fromProperties(Properties properties) {
+        return new FirebaseConfig(
+                properties.getProperty("projectId"),
+                properties.getProperty("serviceAccountKey"),
+                properties.getProperty("baseUrl"));
     }
 }
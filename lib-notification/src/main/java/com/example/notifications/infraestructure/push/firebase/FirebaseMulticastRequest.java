@@ -0,0 +1,11 @@
+package com.example.notifications.infraestructure.push.firebase;
+
+import java.util.List;
+import java.util.Map;
+
+public record FirebaseMulticastRequest(
+        List<String> tokens,
+        String title,
+        String body,
+        Map<String, String> data
+) {}
@@ -0,0 +1,13 @@
+package com.example.notifications.infraestructure.push.firebase;
+
+import java.util.List;
+
+/**
+ * Respuesta de un envío multicast: una {@link FirebaseResponse} por token, en el mismo orden
+ * que {@link FirebaseMulticastRequest#tokens()}.
+ */
+public record FirebaseMulticastResponse(
+        int successCount,
+        int failureCount,
+        List<FirebaseResponse> responses
+) {}
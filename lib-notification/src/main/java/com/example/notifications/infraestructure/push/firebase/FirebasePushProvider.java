@@ -1,21 +1,91 @@
 package com.example.notifications.infraestructure.push.firebase;
 
+import com.example.notifications.application.port.out.audit.AuditOutcome;
+import com.example.notifications.application.port.out.audit.AuditSink;
 import com.example.notifications.application.port.out.push.PushGateway;
 import com.example.notifications.application.port.out.push.PushGatewayResponse;
 import com.example.notifications.application.port.out.push.PushMessage;
-import lombok.extern.slf4j.Slf4j;
+import com.example.notifications.infraestructure.common.Batches;
+import com.example.notifications.infraestructure.common.ProviderErrors;
+import com.example.notifications.infraestructure.config.ConfigHolder;
+import com.example.notifications.infraestructure.http.HttpFailure;
+import com.example.notifications.infraestructure.http.HttpResult;
+import com.example.notifications.infraestructure.http.HttpTransport;
+import com.example.notifications.infraestructure.http.Json;
 
-@Slf4j
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Gateway de push sobre la API HTTP v1 de Firebase Cloud Messaging
+ * ({@code POST /v1/projects/{projectId}/messages:send}).
+ * <p>
+ * Con un {@link HttpTransport} envía a {@link FirebaseConfig#baseUrl()}. La API v1 no tiene envío multicast:
+ * {@link #sendBatch} lanza una petición por token a la vez, que el transporte multiplexa sobre HTTP/2. Sin
+ * transporte, simula las respuestas ({@link #simulatedSend}, {@link #simulatedMulticastSend}).
+ * </p>
+ */
 public class FirebasePushProvider implements PushGateway {
 
-    private final FirebaseConfig config;
+    /** Máximo de tokens por envío multicast en FCM. */
+    static final int MAX_MULTICAST_TOKENS = 500;
+
+    /** Valores de {@code error.status} de FCM que indican un fallo temporal. */
+    private static final Set<String> TRANSIENT_CODES = Set.of("UNAVAILABLE", "INTERNAL", "QUOTA_EXCEEDED");
+
+    private final ConfigHolder<FirebaseConfig> config;
+    private final HttpTransport transport;
+    private final AuditSink audit;
 
     public FirebasePushProvider(FirebaseConfig config) {
+        this(config, null, AuditSink.NOOP);
+    }
+
+    public FirebasePushProvider(FirebaseConfig config, AuditSink audit) {
+        this(config, null, audit);
+    }
+
+    public FirebasePushProvider(FirebaseConfig config, HttpTransport transport) {
+        this(config, transport, AuditSink.NOOP);
+    }
+
+    public FirebasePushProvider(FirebaseConfig config, HttpTransport transport, AuditSink audit) {
+        this(ConfigHolder.of(config), transport, audit);
+    }
+
+    /**
+     * Lee la configuración de {@code config} en cada envío: un token de la cuenta de servicio renovado se usa
+     * desde el siguiente envío, sin reconstruir el provider.
+     */
+    public FirebasePushProvider(ConfigHolder<FirebaseConfig> config, HttpTransport transport, AuditSink audit) {
         this.config = config;
+        this.transport = transport;
+        this.audit = audit;
+    }
+
+    @Override
+    public String providerName() {
+        return "firebase";
+    }
+
+    @Override
+    public boolean batchesNatively() {
+        return true;
     }
 
     @Override
     public PushGatewayResponse send(PushMessage message) {
+        return sendAsync(message).join();
+    }
+
+    @Override
+    public CompletableFuture<PushGatewayResponse> sendAsync(PushMessage message) {
 
         FirebaseRequest request = new FirebaseRequest(
                 message.token(),
@@ -24,10 +94,146 @@ public class FirebasePushProvider implements PushGateway {
                 message.data()
         );
 
-        FirebaseResponse response = simulatedSend(request);
+        return callApi(config.get(), request).thenApply(response -> {
+            if ("success".equalsIgnoreCase(response.status())) {
+                audit.record(AuditOutcome.SENT, providerName(), message.token(), response.messageId(), 1);
+            } else {
+                audit.record(AuditOutcome.FAILED, providerName(), message.token(), response.errors(), 1);
+            }
+            return toGatewayResponse(response);
+        });
+    }
+
+    /**
+     * Agrupa los mensajes con el mismo título, cuerpo y datos en envíos multicast de hasta
+     * {@value #MAX_MULTICAST_TOKENS} tokens.
+     */
+    @Override
+    public List<PushGatewayResponse> sendBatch(List<PushMessage> messages) {
+        return sendBatchAsync(messages).join();
+    }
+
+    @Override
+    public CompletableFuture<List<PushGatewayResponse>> sendBatchAsync(List<PushMessage> messages) {
+        PushGatewayResponse[] responses = new PushGatewayResponse[messages.size()];
+        FirebaseConfig account = config.get();
+
+        List<List<Integer>> groups = Batches.groupIndexes(
+                messages, m -> new ContentKey(m.title(), m.body(), m.data()), MAX_MULTICAST_TOKENS);
+
+        List<CompletableFuture<FirebaseMulticastResponse>> calls = new ArrayList<>(groups.size());
+        for (List<Integer> group : groups) {
+            PushMessage first = messages.get(group.get(0));
+            List<String> tokens = group.stream().map(i -> messages.get(i).token()).toList();
+            calls.add(callMulticastApi(account, new FirebaseMulticastRequest(
+                    tokens, first.title(), first.body(), first.data())));
+        }
+
+        return CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            for (int g = 0; g < groups.size(); g++) {
+                List<Integer> group = groups.get(g);
+                FirebaseMulticastResponse response = calls.get(g).join();
+
+                for (int i = 0; i < group.size(); i++) {
+                    responses[group.get(i)] = toGatewayResponse(response.responses().get(i));
+                }
+                if (response.successCount() > 0) {
+                    audit.record(AuditOutcome.SENT, providerName(), null, null, response.successCount());
+                }
+                if (response.failureCount() > 0) {
+                    audit.record(AuditOutcome.FAILED, providerName(), null, null, response.failureCount());
+                }
+            }
+            return Arrays.asList(responses);
+        });
+    }
+
+    private CompletableFuture<FirebaseResponse> callApi(FirebaseConfig account, FirebaseRequest request) {
+        if (transport == null) {
+            return CompletableFuture.completedFuture(simulatedSend(request));
+        }
+        return post(account, request.token(), request.title(), request.body(), request.data());
+    }
+
+    private CompletableFuture<FirebaseMulticastResponse> callMulticastApi(FirebaseConfig account,
+                                                                          FirebaseMulticastRequest request) {
+        if (transport == null) {
+            return CompletableFuture.completedFuture(simulatedMulticastSend(request));
+        }
+        List<CompletableFuture<FirebaseResponse>> sends = request.tokens().stream()
+                .map(token -> post(account, token, request.title(), request.body(), request.data()))
+                .toList();
+        return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            List<FirebaseResponse> responses = sends.stream().map(CompletableFuture::join).toList();
+            int success = (int) responses.stream().filter(r -> "success".equalsIgnoreCase(r.status())).count();
+            return new FirebaseMulticastResponse(success, responses.size() - success, responses);
+        });
+    }
+
+    private CompletableFuture<FirebaseResponse> post(FirebaseConfig account, String token, String title,
+                                                     String body, Map<String, String> data) {
+        Map<String, String> notification = new LinkedHashMap<>();
+        notification.put("title", title);
+        notification.put("body", body);
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("token", token);
+        message.put("notification", notification);
+        if (data != null && !data.isEmpty()) {
+            message.put("data", data);
+        }
+        URI uri = URI.create(account.baseUrl() + "/v1/projects/" + account.projectId() + "/messages:send");
+        return transport.postJson(providerName(), uri,
+                        Map.of("Authorization", "Bearer " + account.serviceAccountKey()), Map.of("message", message))
+                .handle((result, error) -> error == null ? toResponse(result) : unreachable(error));
+    }
+
+    private static FirebaseResponse unreachable(Throwable error) {
+        HttpFailure failure = HttpFailure.of(error);
+        return new FirebaseResponse(null, "error", failure.message(), ProviderErrors.classify(failure));
+    }
+
+    /**
+     * FCM responde {@code {"name": "projects/.../messages/..."}}; los errores llegan como
+     * {@code {"error": {"status": "UNREGISTERED", "message": ...}}} y se combinan como {@code "STATUS: mensaje"}.
+     */
+    private static FirebaseResponse toResponse(HttpResult result) {
+        if (result.isSuccess()) {
+            return new FirebaseResponse(Json.field(result.body(), "name"), "success", null);
+        }
+        String errors = result.body();
+        String code = null;
+        try {
+            if (Json.parse(result.body()) instanceof Map<?, ?> body && body.get("error") instanceof Map<?, ?> error) {
+                code = String.valueOf(error.get("status"));
+                errors = code + ": " + error.get("message");
+            }
+        } catch (IllegalArgumentException e) {
+            // Cuerpo no JSON: se conserva tal cual.
+        }
+        return new FirebaseResponse(null, "HTTP " + result.status(), errors,
+                ProviderErrors.classify(result.status(), code, TRANSIENT_CODES));
+    }
+
+    protected FirebaseResponse simulatedSend(FirebaseRequest request) {
+
+        return new FirebaseResponse(
+                "firebase-" + System.currentTimeMillis(),
+                "success",
+                null
+        );
+    }
+
+    protected FirebaseMulticastResponse simulatedMulticastSend(FirebaseMulticastRequest request) {
+        List<FirebaseResponse> responses = new ArrayList<>(request.tokens().size());
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < request.tokens().size(); i++) {
+            responses.add(new FirebaseResponse("firebase-" + now + "-" + i, "success", null));
+        }
+        return new FirebaseMulticastResponse(responses.size(), 0, responses);
+    }
 
+    private PushGatewayResponse toGatewayResponse(FirebaseResponse response) {
         if ("success".equalsIgnoreCase(response.status())) {
-            log.info("Mensaje enviado via Push Provider, messageId: {}", response.messageId());
             return new PushGatewayResponse(
                     response.messageId(),
                     response.status(),
@@ -38,16 +244,11 @@ public class FirebasePushProvider implements PushGateway {
         return new PushGatewayResponse(
                 null,
                 response.status(),
-                response.errors()
+                response.errors(),
+                response.classification()
         );
     }
 
-    private FirebaseResponse simulatedSend(FirebaseRequest request) {
-
-        return new FirebaseResponse(
-                "firebase-" + System.currentTimeMillis(),
-                "success",
-                null
-        );
+    private record ContentKey(String title, String body, Map<String, String> data) {
     }
 }
@@ -1,7 +1,18 @@
 package com.example.notifications.infraestructure.push.firebase;
 
+import com.example.notifications.domain.result.ErrorClassification;
+
+/**
+ * @param classification clasificación del error, obtenida del código HTTP y del {@code status} de FCM
+ */
 public record FirebaseResponse(
         String messageId,
         String status,
-        String errors
-) {}
+        String errors,
+        ErrorClassification classification
+) {
+
+    public FirebaseResponse(String messageId, String status, String errors) {
+        this(messageId, status, errors, ErrorClassification.defaultFor(errors));
+    }
+}
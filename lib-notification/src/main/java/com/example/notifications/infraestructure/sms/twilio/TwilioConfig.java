@@ -1,11 +1,20 @@
 package com.example.notifications.infraestructure.sms.twilio;
 
+import java.util.Properties;
+
 public record TwilioConfig(
         String accountSid,
         String authToken,
-        String fromNumber
+        String fromNumber,
+        String baseUrl
 ) {
 
+    public static final String DEFAULT_BASE_URL = "https://api.twilio.com";
+
+    public TwilioConfig(String accountSid, String authToken, String fromNumber) {
+        this(accountSid, authToken, fromNumber, DEFAULT_BASE_URL);
+    }
+
     public TwilioConfig {
         if (accountSid == null || accountSid.isBlank()) {
             throw new IllegalArgumentException("Account SID is required");
@@ -16,5 +25,19 @@ public record TwilioConfig(
         if (fromNumber == null || fromNumber.isBlank()) {
             throw new IllegalArgumentException("From number is required");
         }
+        if (baseUrl == null || baseUrl.isBlank()) {
+            baseUrl = DEFAULT_BASE_URL;
+        }
+    }
+
+    /**
+     * Lee {@code accountSid}, {@code authToken}, {@code fromNumber} y, opcionalmente, {@code baseUrl}.
+     */
+    public static TwilioConfig fromProperties(Properties properties) {
+        return new TwilioConfig(
+                properties.getProperty("accountSid"),
+                properties.getProperty("authToken"),
+                properties.getProperty("fromNumber"),
+                properties.getProperty("baseUrl"));
     }
 }
@@ -1,7 +1,18 @@
 package com.example.notifications.infraestructure.sms.twilio;
 
+import com.example.notifications.domain.result.ErrorClassification;
+
+/**
+ * @param classification clasificación del error, obtenida del código HTTP y del {@code code} de Twilio
+ */
 public record TwilioResponse(
         String sid,
         String status,
-        String errors
-) {}
\ No newline at end of file
+        String errors,
+        ErrorClassification classification
+) {
+
+    public TwilioResponse(String sid, String status, String errors) {
+        this(sid, status, errors, ErrorClassification.defaultFor(errors));
+    }
+}
@@ -1,31 +1,104 @@
 package com.example.notifications.infraestructure.sms.twilio;
 
+import com.example.notifications.application.port.out.audit.AuditOutcome;
+import com.example.notifications.application.port.out.audit.AuditSink;
 import com.example.notifications.application.port.out.sms.SmsGateway;
 import com.example.notifications.application.port.out.sms.SmsGatewayResponse;
 import com.example.notifications.application.port.out.sms.SmsMessage;
-import lombok.extern.slf4j.Slf4j;
+import com.example.notifications.infraestructure.common.ProviderErrors;
+import com.example.notifications.infraestructure.config.ConfigHolder;
+import com.example.notifications.infraestructure.http.HttpFailure;
+import com.example.notifications.infraestructure.http.HttpResult;
+import com.example.notifications.infraestructure.http.HttpTransport;
+import com.example.notifications.infraestructure.http.Json;
 
-@Slf4j
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Gateway de SMS sobre la API REST de Twilio ({@code POST /2010-04-01/Accounts/{sid}/Messages.json},
+ * formulario con autenticación básica).
+ * <p>
+ * Con un {@link HttpTransport} envía a {@link TwilioConfig#baseUrl()}; sin él, simula las respuestas
+ * ({@link #simulatedSend}).
+ * </p>
+ */
 public class TwilioSmsProvider implements SmsGateway {
 
-    private final TwilioConfig config;
+    /** Códigos de error de Twilio que indican un fallo temporal: rate limit y errores internos. */
+    private static final Set<String> TRANSIENT_CODES = Set.of("20429", "20500", "20503");
+
+    private final ConfigHolder<TwilioConfig> config;
+    private final HttpTransport transport;
+    private final AuditSink audit;
 
     public TwilioSmsProvider(TwilioConfig config) {
+        this(config, null, AuditSink.NOOP);
+    }
+
+    public TwilioSmsProvider(TwilioConfig config, AuditSink audit) {
+        this(config, null, audit);
+    }
+
+    public TwilioSmsProvider(TwilioConfig config, HttpTransport transport) {
+        this(config, transport, AuditSink.NOOP);
+    }
+
+    public TwilioSmsProvider(TwilioConfig config, HttpTransport transport, AuditSink audit) {
+        this(ConfigHolder.of(config), transport, audit);
+    }
+
+    /**
+     * Lee la configuración de {@code config} en cada envío: un cambio de cuenta o de número de origen se usa
+     * desde el siguiente envío, sin reconstruir el provider.
+     */
+    public TwilioSmsProvider(ConfigHolder<TwilioConfig> config, HttpTransport transport, AuditSink audit) {
         this.config = config;
+        this.transport = transport;
+        this.audit = audit;
+    }
+
+    @Override
+    public String providerName() {
+        return "twilio";
     }
 
     @Override
     public SmsGatewayResponse send(SmsMessage message) {
+        return sendAsync(message).join();
+    }
+
+    @Override
+    public CompletableFuture<SmsGatewayResponse> sendAsync(SmsMessage message) {
+        // Una sola lectura: la petición usa la misma cuenta de principio a fin aunque cambie a mitad.
+        TwilioConfig account = config.get();
 
         TwilioRequest request = new TwilioRequest(
-                config.fromNumber(),
+                account.fromNumber(),
                 message.to(),
                 message.body()
         );
 
-        TwilioResponse response = simulatedSend(request);
+        return callApi(account, request).thenApply(response -> toGatewayResponse(message, response));
+    }
+
+    /**
+     * Twilio no tiene envío por lotes: lanza un {@link #sendAsync} por mensaje, todos a la vez.
+     */
+    @Override
+    public CompletableFuture<List<SmsGatewayResponse>> sendBatchAsync(List<SmsMessage> messages) {
+        List<CompletableFuture<SmsGatewayResponse>> sends = messages.stream().map(this::sendAsync).toList();
+        return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .thenApply(done -> sends.stream().map(CompletableFuture::join).toList());
+    }
+
+    private SmsGatewayResponse toGatewayResponse(SmsMessage message, TwilioResponse response) {
         if ("queued".equalsIgnoreCase(response.status())) {
-            log.info("Mensaje enviado via SMS Provider a: {}", message.to());
+            audit.record(AuditOutcome.SENT, providerName(), message.to(), response.sid(), 1);
             return new SmsGatewayResponse(
                     response.sid(),
                     response.status(),
@@ -33,13 +106,49 @@ public class TwilioSmsProvider implements SmsGateway {
             );
         }
 
+        audit.record(AuditOutcome.FAILED, providerName(), message.to(), response.errors(), 1);
         return new SmsGatewayResponse(
                 null,
                 response.status(),
-                response.errors()
+                response.errors(),
+                response.classification()
         );
     }
 
+    private CompletableFuture<TwilioResponse> callApi(TwilioConfig account, TwilioRequest request) {
+        if (transport == null) {
+            return CompletableFuture.completedFuture(simulatedSend(request));
+        }
+        URI uri = URI.create(account.baseUrl() + "/2010-04-01/Accounts/" + account.accountSid() + "/Messages.json");
+        Map<String, List<String>> form = new LinkedHashMap<>();
+        form.put("From", List.of(request.from()));
+        form.put("To", List.of(request.to()));
+        form.put("Body", List.of(request.body()));
+        return transport.postForm(providerName(), uri,
+                        Map.of("Authorization", HttpTransport.basicAuth(account.accountSid(), account.authToken())), form)
+                .handle((result, error) -> error == null ? toResponse(result) : unreachable(error));
+    }
+
+    /**
+     * Twilio responde {@code 201} con {@code {"sid": "SM...", "status": "queued"}}; los errores traen
+     * {@code code} y {@code message}, que se combinan como {@code "21211: ..."}.
+     */
+    private static TwilioResponse toResponse(HttpResult result) {
+        if (result.isSuccess()) {
+            return new TwilioResponse(Json.field(result.body(), "sid"), Json.field(result.body(), "status"), null);
+        }
+        String code = Json.field(result.body(), "code");
+        String message = Json.field(result.body(), "message");
+        String errors = message == null ? result.body() : code == null ? message : code + ": " + message;
+        return new TwilioResponse(null, "HTTP " + result.status(), errors,
+                ProviderErrors.classify(result.status(), code, TRANSIENT_CODES));
+    }
+
+    private static TwilioResponse unreachable(Throwable error) {
+        HttpFailure failure = HttpFailure.of(error);
+        return new TwilioResponse(null, "failed", failure.message(), ProviderErrors.classify(failure));
+    }
+
     protected TwilioResponse simulatedSend(TwilioRequest request) {
         return new TwilioResponse(
                 "SM" + System.currentTimeMillis(),
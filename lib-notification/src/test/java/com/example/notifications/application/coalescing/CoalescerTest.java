@@ -0,0 +1,108 @@
+package com.example.notifications.application.coalescing;
+
+import com.example.notifications.application.port.out.template.SimpleTemplateEngine;
+import com.example.notifications.domain.model.ChatNotification;
+import com.example.notifications.domain.model.NotificationMetadata;
+import com.example.notifications.domain.model.NotificationPriority;
+import com.example.notifications.domain.model.PushNotification;
+import com.example.notifications.domain.result.NotificationResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescerTest {
+
+    private final List<Runnable> timers = new ArrayList<>();
+    private final List<ChatNotification> sent = new ArrayList<>();
+
+    @Test
+    void shouldCollapseABurstPerRecipientIntoOneDigest() {
+        // Arrange
+        Coalescer<ChatNotification> coalescer = chatCoalescer(100);
+        List<CompletableFuture<NotificationResult>> futures = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            futures.add(add(coalescer, new ChatNotification("#alertas", "CPU al {{pct}}%", Map.of("pct", 95))));
+        }
+        futures.add(add(coalescer, new ChatNotification("#alertas", "Disco lleno", null,
+                NotificationMetadata.priority(NotificationPriority.CRITICAL))));
+        CompletableFuture<NotificationResult> other = add(coalescer, new ChatNotification("#otros", "Hola", null));
+        int openBeforeClose = coalescer.openWindows();
+        timers.forEach(Runnable::run);
+
+        // Assert
+        assertEquals(2, openBeforeClose);
+        assertEquals(2, timers.size());
+        assertEquals(2, sent.size());
+        ChatNotification digest = sent.get(0);
+        assertEquals("#alertas", digest.recipient());
+        assertEquals(4, digest.variables().get("count"));
+        assertEquals("CPU al 95% (x3)\nDisco lleno", digest.variables().get("messages"));
+        assertEquals(NotificationPriority.CRITICAL, digest.metadata().priority());
+        assertEquals(new ChatNotification("#otros", "Hola", null), sent.get(1));
+        assertTrue(futures.stream().allMatch(future -> future.join().isSuccess()));
+        assertTrue(other.join().isSuccess());
+        assertEquals(0, coalescer.openWindows());
+    }
+
+    @Test
+    void shouldSendWithoutWaitingOnceTheWindowIsFull() {
+        // Arrange
+        Coalescer<ChatNotification> coalescer = chatCoalescer(2);
+
+        // Act
+        add(coalescer, new ChatNotification("#alertas", "uno", null));
+        add(coalescer, new ChatNotification("#alertas", "dos", null));
+        add(coalescer, new ChatNotification("#alertas", "tres", null));
+        timers.get(0).run(); // temporizador de la ventana ya enviada: no hace nada
+
+        // Assert
+        assertEquals(1, sent.size());
+        assertEquals("uno\ndos", sent.get(0).variables().get("messages"));
+        assertEquals(2, timers.size());
+        assertEquals(1, coalescer.openWindows());
+    }
+
+    @Test
+    void shouldKeepTheLatestDataInPushDigests() {
+        // Arrange
+        PushDigester digester = new PushDigester(new SimpleTemplateEngine());
+        PushNotification first = new PushNotification("user-1", "token-1", "Pedido", "Pedido {{id}} enviado",
+                Map.of("id", 1), Map.of("screen", "orders"));
+        PushNotification second = new PushNotification("user-1", "token-1", "Pedido", "Pedido {{id}} entregado",
+                Map.of("id", 2), Map.of("screen", "order-2"));
+
+        // Act
+        PushNotification digest = digester.digest(List.of(first, second));
+
+        // Assert
+        assertEquals(digester.key(first), digester.key(second));
+        assertEquals("token-1", digest.deviceToken());
+        assertEquals(Map.of("screen", "order-2"), digest.data());
+        assertEquals("Pedido 1 enviado\nPedido 2 entregado", digest.variables().get("messages"));
+        assertEquals(PushDigester.DEFAULT_TITLE_TEMPLATE, digest.titleTemplate());
+    }
+
+    private Coalescer<ChatNotification> chatCoalescer(int maxMessages) {
+        CoalescingPolicy<ChatNotification> policy = new CoalescingPolicy<>(
+                new ChatDigester(new SimpleTemplateEngine()), Duration.ofSeconds(5), maxMessages);
+        return new Coalescer<>(policy, (delay, close) -> timers.add(close), (notification, future) -> {
+            sent.add(notification);
+            future.complete(NotificationResult.success());
+        });
+    }
+
+    private static CompletableFuture<NotificationResult> add(Coalescer<ChatNotification> coalescer,
+                                                             ChatNotification notification) {
+        CompletableFuture<NotificationResult> future = new CompletableFuture<>();
+        coalescer.add(notification, future);
+        return future;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.notifications.application.idempotency;
+
+import com.example.notifications.domain.model.ChatNotification;
+import com.example.notifications.domain.model.NotificationMetadata;
+import com.example.notifications.domain.model.SmsNotification;
+import com.example.notifications.domain.result.NotificationResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeduplicationCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void shouldForgetKeysOnceTheTtlExpires() {
+        // Arrange
+        DeduplicationCache cache = new DeduplicationCache(1024, Duration.ofSeconds(10), nanos::get);
+        NotificationResult failure = NotificationResult.failure("Número inválido");
+        cache.put(42L, failure);
+
+        // Act
+        NotificationResult beforeExpiry = cache.get(42L);
+        nanos.addAndGet(Duration.ofSeconds(11).toNanos());
+        NotificationResult afterExpiry = cache.get(42L);
+
+        // Assert
+        assertSame(failure, beforeExpiry);
+        assertNull(afterExpiry);
+    }
+
+    @Test
+    void shouldNeverHoldMoreKeysThanItsCapacity() {
+        // Arrange
+        DeduplicationCache cache = new DeduplicationCache(64, Duration.ofMinutes(5), nanos::get);
+
+        // Act
+        for (long key = 1; key <= 10_000; key++) {
+            cache.put(key, NotificationResult.success());
+        }
+        long remembered = 0;
+        for (long key = 1; key <= 10_000; key++) {
+            if (cache.get(key) != null) {
+                remembered++;
+            }
+        }
+
+        // Assert
+        assertEquals(64, cache.capacity());
+        assertTrue(remembered <= cache.capacity());
+        assertNotNull(cache.get(10_000L));
+    }
+
+    @Test
+    void shouldDeriveStableKeysPerChannel() {
+        // Arrange
+        Map<String, Object> ab = new LinkedHashMap<>();
+        ab.put("a", 1);
+        ab.put("b", "dos");
+        Map<String, Object> ba = new LinkedHashMap<>();
+        ba.put("b", "dos");
+        ba.put("a", 1);
+        NotificationMetadata otp = NotificationMetadata.idempotencyKey("otp-123");
+
+        // Act
+        long sms = IdempotencyKeys.explicitKey(new SmsNotification("+15550000000", "+15550001111", "Código", null, otp));
+        long chat = IdempotencyKeys.explicitKey(new ChatNotification("#general", "Código", null, otp));
+        long contentAb = IdempotencyKeys.contentKey(new ChatNotification("#general", "Hola", ab));
+        long contentBa = IdempotencyKeys.contentKey(new ChatNotification("#general", "Hola", ba));
+        long otherRecipient = IdempotencyKeys.contentKey(new ChatNotification("#random", "Hola", ab));
+
+        // Assert
+        assertNotEquals(IdempotencyKeys.NONE, sms);
+        assertNotEquals(sms, chat);
+        assertEquals(contentAb, contentBa);
+        assertNotEquals(contentAb, otherRecipient);
+        assertEquals(IdempotencyKeys.NONE, IdempotencyKeys.explicitKey(new ChatNotification("#general", "Hola", null)));
+    }
+}
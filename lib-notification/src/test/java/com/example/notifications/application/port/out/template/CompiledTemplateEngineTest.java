@@ -0,0 +1,126 @@
+package com.example.notifications.application.port.out.template;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledTemplateEngineTest {
+
+    private CompiledTemplateEngine engine;
+    private SimpleTemplateEngine simpleEngine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new CompiledTemplateEngine();
+        simpleEngine = new SimpleTemplateEngine();
+    }
+
+    @Test
+    void shouldRenderSameOutputAsSimpleEngine() {
+        Map<String, Object> variables = Map.of("name", "Javier", "app", "Notifications Lib", "count", 5);
+
+        String[] templates = {
+                "Hola {{name}}",
+                "Bienvenido {{name}} a {{app}}",
+                "{{count}} nuevos mensajes para {{name}}{{name}}",
+                "Sin variables",
+                "Falta {{missing}} pero {{name}} existe",
+                "Llaves {{{name}}} y {{ name }} y {{",
+                "Cierre suelto }} y {{app"
+        };
+
+        for (String template : templates) {
+            assertEquals(simpleEngine.render(template, variables), engine.render(template, variables), template);
+        }
+    }
+
+    @Test
+    void shouldRenderNullValuesAsNullText() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("name", null);
+
+        assertEquals("Hola null", engine.render("Hola {{name}}", variables));
+    }
+
+    @Test
+    void shouldReturnTemplateWhenVariablesAreMissing() {
+        assertEquals("Hola {{name}}", engine.render("Hola {{name}}", null));
+        assertEquals("Hola {{name}}", engine.render("Hola {{name}}", Map.of()));
+    }
+
+    @Test
+    void shouldReuseCompiledTemplate() {
+        CompiledTemplate first = engine.compile("Hola {{name}}");
+        CompiledTemplate second = engine.compile("Hola {{name}}");
+
+        assertSame(first, second);
+        assertEquals(1, first.slotCount());
+    }
+
+    @Test
+    void shouldNotExpandPlaceholdersInsideValues() {
+        Map<String, Object> variables = Map.of("name", "{{code}}", "code", "9999");
+
+        assertEquals("Hola {{code}}, tu código es 9999", engine.render("Hola {{name}}, tu código es {{code}}", variables));
+    }
+
+    @Test
+    void shouldEvictTheLeastRecentlyUsedTemplate() {
+        CompiledTemplateEngine boundedEngine = new CompiledTemplateEngine(2);
+        CompiledTemplate frequent = boundedEngine.compile("Frecuente {{name}}");
+        boundedEngine.compile("Otra {{name}}");
+
+        boundedEngine.compile("Frecuente {{name}}");
+        CompiledTemplate last = boundedEngine.compile("Nueva {{name}}");
+
+        assertSame(frequent, boundedEngine.compile("Frecuente {{name}}"));
+        assertSame(last, boundedEngine.compile("Nueva {{name}}"));
+        assertEquals(2, boundedEngine.cachedTemplates());
+    }
+
+    @Test
+    void shouldBoundCacheSize() {
+        CompiledTemplateEngine boundedEngine = new CompiledTemplateEngine(8);
+
+        for (int i = 0; i < 100; i++) {
+            boundedEngine.render("Plantilla " + i + " {{name}}", Map.of("name", "x"));
+        }
+
+        assertTrue(boundedEngine.cachedTemplates() <= 8);
+    }
+
+    @Test
+    void shouldRenderConcurrentlyWhileEvicting() throws Exception {
+        CompiledTemplateEngine boundedEngine = new CompiledTemplateEngine(16);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> renders = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                renders.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        int id = i % 40;
+                        assertEquals("Plantilla " + id + " para x",
+                                boundedEngine.render("Plantilla " + id + " para {{name}}", Map.of("name", "x")));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> render : renders) {
+                render.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(boundedEngine.cachedTemplates() <= 16);
+    }
+}
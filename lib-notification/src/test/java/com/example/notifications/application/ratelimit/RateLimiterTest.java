@@ -0,0 +1,131 @@
+package com.example.notifications.application.ratelimit;
+
+import com.example.notifications.application.port.out.sms.SmsGatewayResponse;
+import com.example.notifications.application.port.out.sms.SmsMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void shouldLimitEachRecipientIndependently() {
+        // Arrange
+        AtomicLong now = new AtomicLong();
+        RateLimiter limiter = RateLimiter.builder()
+                .perProvider(new RateLimit(1000, 100))
+                .perRecipient(RateLimit.perSecond(1))
+                .clock(now::get)
+                .build();
+
+        // Act
+        long first = limiter.reserve("+15550001111", 1);
+        long other = limiter.reserve("+15550002222", 1);
+        long again = limiter.reserve("+15550001111", 1);
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(0, other);
+        assertEquals(1000 * MILLI, again);
+        assertEquals(2, limiter.trackedRecipients());
+    }
+
+    @Test
+    void shouldForgetIdleRecipientsWhenTrackingLimitIsReached() {
+        // Arrange
+        AtomicLong now = new AtomicLong();
+        RateLimiter limiter = RateLimiter.builder()
+                .perRecipient(RateLimit.perSecond(10))
+                .maxTrackedRecipients(2)
+                .clock(now::get)
+                .build();
+        limiter.reserve("#a", 1);
+        limiter.reserve("#b", 1);
+        now.addAndGet(200 * MILLI);
+
+        // Act
+        limiter.reserve("#c", 1);
+
+        // Assert
+        assertEquals(1, limiter.trackedRecipients());
+    }
+
+    @Test
+    void shouldNotSweepAgainUntilEnoughNewRecipientsArrive() {
+        // Arrange
+        AtomicLong now = new AtomicLong();
+        RateLimiter limiter = RateLimiter.builder()
+                .perRecipient(RateLimit.perSecond(10))
+                .maxTrackedRecipients(4)
+                .clock(now::get)
+                .build();
+        for (String recipient : List.of("#a", "#b", "#c", "#d", "#e")) {
+            limiter.reserve(recipient, 1);
+        }
+        now.addAndGet(200 * MILLI);
+
+        // Act
+        limiter.reserve("#f", 1);
+        int beforeNextSweep = limiter.trackedRecipients();
+        limiter.reserve("#g", 1);
+
+        // Assert
+        assertEquals(6, beforeNextSweep);
+        assertEquals(2, limiter.trackedRecipients());
+    }
+
+    @Test
+    void shouldDelaySendsThatExceedTheProviderRate() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        RateLimitedSmsGateway gateway = new RateLimitedSmsGateway(
+                message -> {
+                    calls.incrementAndGet();
+                    return new SmsGatewayResponse("SM-1", "queued", null);
+                },
+                RateLimiter.builder().perProvider(RateLimit.perSecond(100)).build());
+        List<SmsMessage> messages = List.of(
+                new SmsMessage("+15550000000", "+15550001111", "a"),
+                new SmsMessage("+15550000000", "+15550002222", "b"),
+                new SmsMessage("+15550000000", "+15550003333", "c"));
+
+        // Act
+        long start = System.nanoTime();
+        messages.forEach(gateway::send);
+        gateway.sendBatch(messages);
+        long elapsed = System.nanoTime() - start;
+
+        // Assert
+        assertEquals(6, calls.get());
+        assertTrue(elapsed >= 45 * MILLI, "elapsed ms: " + elapsed / MILLI);
+    }
+
+    @Test
+    void shouldDeferAsyncCallsWithoutBlockingTheCaller() {
+        // Arrange
+        RateLimiter limiter = RateLimiter.builder().perProvider(RateLimit.perSecond(20)).build();
+        limiter.acquire("+15550001111", 1);
+
+        // Act
+        long start = System.nanoTime();
+        CompletableFuture<Long> call = limiter.whenPermitted("+15550001111", 1,
+                () -> CompletableFuture.completedFuture(System.nanoTime())).toCompletableFuture();
+        long returned = System.nanoTime() - start;
+
+        // Assert
+        assertTrue(returned < 20 * MILLI, "returned after ms: " + returned / MILLI);
+        assertTrue(call.join() - start >= 40 * MILLI, "ran after ms: " + (call.join() - start) / MILLI);
+    }
+
+    @Test
+    void shouldRequireAtLeastOneLimit() {
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.builder().build());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.notifications.application.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void shouldAllowBurstThenSpaceRequestsAtTheConfiguredRate() {
+        // Arrange
+        AtomicLong now = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(new RateLimit(100, 3), now::get);
+
+        // Act & Assert
+        assertEquals(0, bucket.reserve(1));
+        assertEquals(0, bucket.reserve(1));
+        assertEquals(0, bucket.reserve(1));
+        assertEquals(10 * MILLI, bucket.reserve(1));
+        assertEquals(20 * MILLI, bucket.reserve(1));
+    }
+
+    @Test
+    void shouldRefillWhileIdle() {
+        // Arrange
+        AtomicLong now = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(new RateLimit(100, 2), now::get);
+        bucket.reserve(2);
+        assertFalse(bucket.tryAcquire());
+
+        // Act
+        now.addAndGet(10 * MILLI);
+
+        // Assert
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+        now.addAndGet(100 * MILLI);
+        assertTrue(bucket.isIdle());
+    }
+
+    @Test
+    void shouldReserveSeveralPermitsAtOnce() {
+        // Arrange
+        AtomicLong now = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(RateLimit.perSecond(10), now::get);
+
+        // Act
+        long wait = bucket.reserve(5);
+
+        // Assert
+        assertEquals(400 * MILLI, wait);
+    }
+
+    @Test
+    void shouldRejectInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimit(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimit(10, 0));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.notifications.application.registry;
+
+import com.example.notifications.application.port.in.Notifier;
+import com.example.notifications.domain.model.ChatNotification;
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.model.SmsNotification;
+import com.example.notifications.domain.result.NotificationResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotifierRegistryTest {
+
+    @Test
+    void shouldRejectAnExhaustiveRegistryWithMissingTypes() {
+        // Arrange
+        Map<Class<? extends Notification>, Notifier<?>> notifiers = Map.of(ChatNotification.class, chatNotifier());
+
+        // Act
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> NotifierRegistry.exhaustive(notifiers));
+
+        // Assert
+        assertTrue(error.getMessage().contains("EmailNotification"));
+        assertTrue(error.getMessage().contains("SmsNotification"));
+        assertTrue(error.getMessage().contains("PushNotification"));
+        assertFalse(error.getMessage().contains("ChatNotification"));
+    }
+
+    @Test
+    void shouldThrowAClearExceptionForTypesWithoutNotifier() {
+        // Arrange
+        NotifierRegistry registry = new NotifierRegistry(Map.of(ChatNotification.class, chatNotifier()));
+        SmsNotification sms = new SmsNotification("+15550000000", "+15550001111", "Hola", Map.of());
+
+        // Act
+        NotifierNotFoundException error = assertThrows(NotifierNotFoundException.class, () -> registry.get(sms));
+
+        // Assert
+        assertEquals(SmsNotification.class, error.getType());
+    }
+
+    @Test
+    void shouldSwapNotifiersAtRuntime() {
+        // Arrange
+        Notifier<ChatNotification> original = chatNotifier();
+        Notifier<ChatNotification> replacement = chatNotifier();
+        NotifierRegistry registry = new NotifierRegistry(Map.of(ChatNotification.class, original));
+        ChatNotification chat = new ChatNotification("#general", "Mensaje", null);
+
+        // Act
+        Notifier<ChatNotification> previous = registry.replace(ChatNotification.class, replacement);
+
+        // Assert
+        assertSame(original, previous);
+        assertSame(replacement, registry.get(chat));
+    }
+
+    private static Notifier<ChatNotification> chatNotifier() {
+        return notification -> NotificationResult.success();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.notifications.application.retry;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+
+    @Test
+    void shouldGrowBackoffCeilingExponentiallyUpToMax() {
+        // Arrange
+        RetryPolicy policy = RetryPolicy.exponential(10, Duration.ofMillis(100), Duration.ofSeconds(1));
+
+        // Act & Assert
+        assertEquals(Duration.ofMillis(100).toNanos(), policy.backoffCeilingNanos(1));
+        assertEquals(Duration.ofMillis(200).toNanos(), policy.backoffCeilingNanos(2));
+        assertEquals(Duration.ofMillis(800).toNanos(), policy.backoffCeilingNanos(4));
+        assertEquals(Duration.ofSeconds(1).toNanos(), policy.backoffCeilingNanos(5));
+        assertEquals(Duration.ofSeconds(1).toNanos(), policy.backoffCeilingNanos(60));
+    }
+
+    @Test
+    void shouldApplyFullJitterWithinCeiling() {
+        // Arrange
+        RetryPolicy policy = RetryPolicy.exponential(5, Duration.ofMillis(100), Duration.ofSeconds(1));
+        SplittableRandom random = new SplittableRandom(42);
+        long ceiling = policy.backoffCeilingNanos(3);
+        long min = Long.MAX_VALUE;
+        long max = 0;
+
+        // Act
+        for (int i = 0; i < 1_000; i++) {
+            long backoff = policy.backoffNanos(3, random);
+            min = Math.min(min, backoff);
+            max = Math.max(max, backoff);
+        }
+
+        // Assert
+        assertTrue(min >= 0);
+        assertTrue(max <= ceiling);
+        assertTrue(min < ceiling / 10, "jitter should spread down to near zero");
+        assertTrue(max > ceiling * 9 / 10, "jitter should spread up to the ceiling");
+    }
+
+    @Test
+    void shouldLimitRetriesWithBudget() {
+        // Arrange
+        RetryBudget budget = new RetryBudget(0.5, 2);
+
+        // Act & Assert
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+        budget.onRequest();
+        assertFalse(budget.tryAcquire());
+        budget.onRequest();
+        assertTrue(budget.tryAcquire());
+        assertEquals(3, budget.retriesGranted());
+        assertEquals(2, budget.retriesDenied());
+    }
+
+    @Test
+    void shouldCountBatchItemsIndividuallyInTheBudget() {
+        // Arrange
+        RetryBudget budget = new RetryBudget(0.1, 100);
+        while (budget.tryAcquire()) {
+            // Vacía el saldo inicial.
+        }
+
+        // Act
+        budget.onRequest(50);
+        boolean tooMany = budget.tryAcquire(6);
+        boolean allowed = budget.tryAcquire(5);
+
+        // Assert
+        assertFalse(tooMany);
+        assertTrue(allowed);
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    void shouldRejectInvalidPolicies() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RetryPolicy.exponential(0, Duration.ofMillis(1), Duration.ofMillis(2)));
+        assertThrows(IllegalArgumentException.class,
+                () -> RetryPolicy.exponential(3, Duration.ofMillis(10), Duration.ofMillis(1)));
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(1.5, 10));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.notifications.application.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(
+            new CircuitBreakerConfig(0.5, 0.8, Duration.ofMillis(100), 10, 4, Duration.ofSeconds(1), 2),
+            now::get);
+
+    @Test
+    void shouldOpenWhenFailureRateExceedsThreshold() {
+        // Arrange
+        breaker.onSuccess(MILLI);
+        breaker.onError(MILLI);
+        breaker.onSuccess(MILLI);
+
+        // Act
+        breaker.onError(MILLI);
+
+        // Assert
+        assertEquals(CircuitState.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void shouldOpenWhenTooManyCallsAreSlow() {
+        // Act
+        for (int i = 0; i < 4; i++) {
+            breaker.onSuccess(200 * MILLI);
+        }
+
+        // Assert
+        assertEquals(CircuitState.OPEN, breaker.state());
+    }
+
+    @Test
+    void shouldNotOpenBeforeMinimumCalls() {
+        // Act
+        breaker.onError(MILLI);
+        breaker.onError(MILLI);
+        breaker.onError(MILLI);
+
+        // Assert
+        assertEquals(CircuitState.CLOSED, breaker.state());
+    }
+
+    @Test
+    void shouldCloseAfterSuccessfulHalfOpenProbes() {
+        // Arrange
+        openBreaker();
+        now.addAndGet(1_000 * MILLI);
+
+        // Act
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+        breaker.onSuccess(MILLI);
+        breaker.onSuccess(MILLI);
+
+        // Assert
+        assertEquals(CircuitState.CLOSED, breaker.state());
+        assertEquals(0, breaker.failureRate());
+    }
+
+    @Test
+    void shouldReopenWhenHalfOpenProbeFails() {
+        // Arrange
+        openBreaker();
+        now.addAndGet(1_000 * MILLI);
+        assertTrue(breaker.tryAcquirePermission());
+
+        // Act
+        breaker.onError(MILLI);
+
+        // Assert
+        assertEquals(CircuitState.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onError(MILLI);
+        }
+        assertEquals(CircuitState.OPEN, breaker.state());
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.notifications.application.routing;
+
+import com.example.notifications.application.port.out.email.EmailGateway;
+import com.example.notifications.application.port.out.email.EmailGatewayResponse;
+import com.example.notifications.application.port.out.email.EmailMessage;
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
+import com.example.notifications.domain.result.ErrorClassification;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FailoverEmailGatewayTest {
+
+    private static final CircuitBreakerConfig BREAKER =
+            new CircuitBreakerConfig(0.5, 1.0, Duration.ofSeconds(5), 10, 2, Duration.ofMinutes(1), 1);
+
+    private static final EmailMessage MESSAGE =
+            new EmailMessage("from@mail.com", "to@mail.com", "Asunto", "Cuerpo");
+
+    @Test
+    void shouldFailOverToNextProviderAndStopCallingOpenCircuit() {
+        // Arrange
+        AtomicInteger primaryCalls = new AtomicInteger();
+        EmailGateway primary = message -> {
+            primaryCalls.incrementAndGet();
+            throw new IllegalStateException("timeout");
+        };
+        EmailGateway secondary = message -> new EmailGatewayResponse("mg-1", "SENT", null);
+        FailoverEmailGateway gateway = new FailoverEmailGateway(List.of(
+                RoutedProvider.of("sendgrid", primary, BREAKER),
+                RoutedProvider.of("mailgun", secondary, BREAKER)));
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertEquals("mg-1", gateway.send(MESSAGE).messageId());
+        }
+
+        // Assert
+        assertEquals(2, primaryCalls.get());
+        assertEquals(CircuitState.OPEN, gateway.circuitStates().get("sendgrid"));
+        assertEquals(CircuitState.CLOSED, gateway.circuitStates().get("mailgun"));
+    }
+
+    @Test
+    void shouldNotFailOverPermanentErrors() {
+        // Arrange
+        AtomicInteger secondaryCalls = new AtomicInteger();
+        EmailGateway primary = message -> new EmailGatewayResponse(null, "FAILED", "invalid recipient");
+        EmailGateway secondary = message -> {
+            secondaryCalls.incrementAndGet();
+            return new EmailGatewayResponse("mg-1", "SENT", null);
+        };
+        FailoverEmailGateway gateway = new FailoverEmailGateway(List.of(
+                RoutedProvider.of("sendgrid", primary, BREAKER),
+                RoutedProvider.of("mailgun", secondary, BREAKER)));
+
+        // Act
+        EmailGatewayResponse response = gateway.send(MESSAGE);
+
+        // Assert
+        assertEquals("invalid recipient", response.errorMessage());
+        assertEquals(0, secondaryCalls.get());
+    }
+
+    @Test
+    void shouldResendOnlyTransientItemsOfABatchToNextProvider() {
+        // Arrange
+        EmailGateway primary = message -> message.to().startsWith("b")
+                ? new EmailGatewayResponse(null, "429", "rate limited", ErrorClassification.TRANSIENT)
+                : new EmailGatewayResponse("sg-" + message.to(), "accepted", null);
+        AtomicInteger secondaryBatchSize = new AtomicInteger();
+        EmailGateway secondary = new EmailGateway() {
+            @Override
+            public EmailGatewayResponse send(EmailMessage message) {
+                return new EmailGatewayResponse("mg-" + message.to(), "SENT", null);
+            }
+
+            @Override
+            public List<EmailGatewayResponse> sendBatch(List<EmailMessage> messages) {
+                secondaryBatchSize.set(messages.size());
+                return EmailGateway.super.sendBatch(messages);
+            }
+        };
+        FailoverEmailGateway gateway = new FailoverEmailGateway(List.of(
+                RoutedProvider.of("sendgrid", primary, BREAKER),
+                RoutedProvider.of("mailgun", secondary, BREAKER)));
+
+        // Act
+        List<EmailGatewayResponse> responses = gateway.sendBatch(List.of(
+                new EmailMessage("f", "a@mail.com", "s", "b"),
+                new EmailMessage("f", "b@mail.com", "s", "b")));
+
+        // Assert
+        assertEquals("sg-a@mail.com", responses.get(0).messageId());
+        assertEquals("mg-b@mail.com", responses.get(1).messageId());
+        assertEquals(1, secondaryBatchSize.get());
+    }
+
+    @Test
+    void shouldReopenTheCircuitWhenAHalfOpenProbeThrowsAnError() {
+        // Arrange
+        AtomicLong now = new AtomicLong();
+        AtomicBoolean fatal = new AtomicBoolean();
+        EmailGateway primary = message -> {
+            if (fatal.get()) {
+                throw new Error("fallo grave");
+            }
+            throw new IllegalStateException("timeout");
+        };
+        EmailGateway secondary = message -> new EmailGatewayResponse("mg-1", "SENT", null);
+        FailoverEmailGateway gateway = new FailoverEmailGateway(List.of(
+                new RoutedProvider<>("sendgrid", primary, new CircuitBreaker(BREAKER, now::get)),
+                RoutedProvider.of("mailgun", secondary, BREAKER)));
+        gateway.send(MESSAGE);
+        gateway.send(MESSAGE);
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        fatal.set(true);
+
+        // Act
+        assertThrows(Error.class, () -> gateway.send(MESSAGE));
+
+        // Assert
+        assertEquals(CircuitState.OPEN, gateway.circuitStates().get("sendgrid"));
+    }
+
+    @Test
+    void shouldReturnTransientUnavailableWhenAllProvidersFail() {
+        // Arrange
+        EmailGateway broken = message -> {
+            throw new IllegalStateException("connection refused");
+        };
+        FailoverEmailGateway gateway = new FailoverEmailGateway(List.of(RoutedProvider.of("sendgrid", broken, BREAKER)));
+
+        // Act
+        EmailGatewayResponse response = gateway.send(MESSAGE);
+
+        // Assert
+        assertEquals("UNAVAILABLE", response.status());
+        assertEquals(ErrorClassification.TRANSIENT, response.classification());
+        assertTrue(response.errorMessage().contains("connection refused"));
+    }
+
+    @Test
+    void shouldRecordEachCallUnderTheProviderThatHandledIt() {
+        // Arrange
+        List<String> events = new CopyOnWriteArrayList<>();
+        NotificationMetrics metrics = new NotificationMetrics() {
+            @Override
+            public void providerCall(String channel, String provider, long nanos) {
+                events.add("call:" + channel + ":" + provider);
+            }
+
+            @Override
+            public void providerResult(String channel, String provider, ErrorClassification classification) {
+                events.add("result:" + provider + ":" + classification);
+            }
+        };
+        EmailGateway primary = message -> {
+            throw new IllegalStateException("timeout");
+        };
+        EmailGateway secondary = message -> new EmailGatewayResponse("mg-1", "SENT", null);
+        FailoverEmailGateway gateway = new FailoverEmailGateway(List.of(
+                RoutedProvider.of("sendgrid", primary, BREAKER),
+                RoutedProvider.of("mailgun", secondary, BREAKER)), metrics);
+
+        // Act
+        gateway.send(MESSAGE);
+
+        // Assert
+        assertEquals(List.of(
+                "call:email:sendgrid", "result:sendgrid:TRANSIENT",
+                "call:email:mailgun", "result:mailgun:NONE"), events);
+    }
+
+    @Test
+    void shouldFailOverAsyncSendsWithoutBlocking() {
+        // Arrange
+        CompletableFuture<EmailGatewayResponse> primaryResponse = new CompletableFuture<>();
+        AtomicInteger secondaryCalls = new AtomicInteger();
+        EmailGateway primary = new EmailGateway() {
+            @Override
+            public EmailGatewayResponse send(EmailMessage message) {
+                throw new AssertionError("El gateway compuesto debe usar sendAsync");
+            }
+
+            @Override
+            public CompletionStage<EmailGatewayResponse> sendAsync(EmailMessage message) {
+                return primaryResponse;
+            }
+        };
+        EmailGateway secondary = message -> {
+            secondaryCalls.incrementAndGet();
+            return new EmailGatewayResponse("mg-1", "SENT", null);
+        };
+        FailoverEmailGateway gateway = new FailoverEmailGateway(List.of(
+                RoutedProvider.of("sendgrid", primary, BREAKER),
+                RoutedProvider.of("mailgun", secondary, BREAKER)));
+
+        // Act
+        CompletableFuture<EmailGatewayResponse> response = gateway.sendAsync(MESSAGE).toCompletableFuture();
+        boolean doneBeforePrimaryAnswered = response.isDone();
+        primaryResponse.completeExceptionally(new ConnectException("connection refused"));
+
+        // Assert
+        assertFalse(doneBeforePrimaryAnswered);
+        assertEquals("mg-1", response.join().messageId());
+        assertEquals(1, secondaryCalls.get());
+    }
+
+    @Test
+    void shouldRetryOnlyTheTransientItemsOfAnAsyncBatch() {
+        // Arrange
+        List<List<EmailMessage>> secondaryBatches = new CopyOnWriteArrayList<>();
+        EmailMessage other = new EmailMessage("from@mail.com", "other@mail.com", "Asunto", "Cuerpo");
+        EmailGateway primary = new EmailGateway() {
+            @Override
+            public EmailGatewayResponse send(EmailMessage message) {
+                return message == MESSAGE
+                        ? new EmailGatewayResponse("sg-1", "SENT", null)
+                        : new EmailGatewayResponse(null, "FAILED", "rate limited", ErrorClassification.TRANSIENT);
+            }
+
+            @Override
+            public boolean batchesNatively() {
+                return true;
+            }
+        };
+        EmailGateway secondary = new EmailGateway() {
+            @Override
+            public EmailGatewayResponse send(EmailMessage message) {
+                return new EmailGatewayResponse("mg-1", "SENT", null);
+            }
+
+            @Override
+            public CompletionStage<List<EmailGatewayResponse>> sendBatchAsync(List<EmailMessage> messages) {
+                secondaryBatches.add(messages);
+                return EmailGateway.super.sendBatchAsync(messages);
+            }
+        };
+        FailoverEmailGateway gateway = new FailoverEmailGateway(List.of(
+                RoutedProvider.of("sendgrid", primary, BREAKER),
+                RoutedProvider.of("mailgun", secondary, BREAKER)));
+
+        // Act
+        List<EmailGatewayResponse> responses = gateway.sendBatchAsync(List.of(MESSAGE, other))
+                .toCompletableFuture().join();
+
+        // Assert
+        assertEquals(List.of("sg-1", "mg-1"), responses.stream().map(EmailGatewayResponse::messageId).toList());
+        assertEquals(List.of(List.of(other)), secondaryBatches);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.notifications.application.routing;
+
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
+import com.example.notifications.application.port.out.sms.SmsGateway;
+import com.example.notifications.application.port.out.sms.SmsGatewayResponse;
+import com.example.notifications.application.port.out.sms.SmsMessage;
+import com.example.notifications.domain.result.ErrorClassification;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadBalancedSmsGatewayTest {
+
+    private static final SmsMessage MESSAGE = new SmsMessage("+15550000000", "+15550001111", "Hola");
+
+    @Test
+    void shouldRouteMostTrafficToTheFasterProvider() {
+        // Arrange
+        LoadBalancedSmsGateway gateway = new LoadBalancedSmsGateway(List.of(
+                RoutedProvider.of("slow", provider(2_000, null), CircuitBreakerConfig.defaults()),
+                RoutedProvider.of("fast", provider(0, null), CircuitBreakerConfig.defaults())),
+                RoutingStrategy.WEIGHTED_LEAST_LATENCY);
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            gateway.send(MESSAGE);
+        }
+
+        // Assert
+        Map<String, Double> share = gateway.routingShare();
+        assertTrue(share.get("fast") > 0.8, "share: " + share);
+        assertTrue(gateway.providerStats().get("slow").latencyEwmaNanos()
+                > gateway.providerStats().get("fast").latencyEwmaNanos());
+    }
+
+    @Test
+    void shouldAvoidProviderWithTransientErrors() {
+        // Arrange
+        LoadBalancedSmsGateway gateway = new LoadBalancedSmsGateway(List.of(
+                RoutedProvider.of("failing", provider(0, "503 unavailable"), CircuitBreakerConfig.defaults()),
+                RoutedProvider.of("healthy", provider(0, null), CircuitBreakerConfig.defaults())),
+                RoutingStrategy.POWER_OF_TWO_CHOICES);
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            assertNull(gateway.send(MESSAGE).error());
+        }
+
+        // Assert
+        assertTrue(gateway.routingShare().get("healthy") > gateway.routingShare().get("failing"));
+    }
+
+    @Test
+    void shouldSplitTrafficByStaticWeights() {
+        // Arrange
+        LoadBalancedSmsGateway gateway = new LoadBalancedSmsGateway(List.of(
+                RoutedProvider.of("primary", provider(0, null), CircuitBreakerConfig.defaults(), 3),
+                RoutedProvider.of("secondary", provider(0, null), CircuitBreakerConfig.defaults(), 1)),
+                RoutingStrategy.STATIC_WEIGHTS);
+
+        // Act
+        for (int i = 0; i < 4_000; i++) {
+            gateway.send(MESSAGE);
+        }
+
+        // Assert
+        double primaryShare = gateway.routingShare().get("primary");
+        assertEquals(0.75, primaryShare, 0.05);
+    }
+
+    @Test
+    void shouldPublishTheRoutingShareOfEachProviderAsAGauge() {
+        // Arrange
+        Map<String, DoubleSupplier> gauges = new HashMap<>();
+        NotificationMetrics metrics = new NotificationMetrics() {
+            @Override
+            public void providerGauge(String name, String help, String channel, String provider,
+                                      DoubleSupplier value) {
+                gauges.put(name + " " + channel + " " + provider, value);
+            }
+        };
+        LoadBalancedSmsGateway gateway = new LoadBalancedSmsGateway(List.of(
+                RoutedProvider.of("primary", provider(0, null), CircuitBreakerConfig.defaults(), 3),
+                RoutedProvider.of("secondary", provider(0, null), CircuitBreakerConfig.defaults(), 1)),
+                RoutingStrategy.STATIC_WEIGHTS, metrics);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            gateway.send(MESSAGE);
+        }
+
+        // Assert
+        assertEquals(2, gauges.size());
+        DoubleSupplier primary = gauges.get("notification_provider_routing_share sms primary");
+        DoubleSupplier secondary = gauges.get("notification_provider_routing_share sms secondary");
+        assertEquals(gateway.routingShare().get("primary"), primary.getAsDouble(), 1e-9);
+        assertEquals(1.0, primary.getAsDouble() + secondary.getAsDouble(), 1e-9);
+    }
+
+    private static SmsGateway provider(long latencyMicros, String error) {
+        return message -> {
+            if (latencyMicros > 0) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros));
+            }
+            return error == null
+                    ? new SmsGatewayResponse("SM-1", "queued", null)
+                    : new SmsGatewayResponse(null, "failed", error, ErrorClassification.TRANSIENT);
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.notifications.application.routing;
+
+import com.example.notifications.application.port.out.sms.SmsGateway;
+import com.example.notifications.application.port.out.sms.SmsGatewayResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderSelectorTest {
+
+    private static final SmsGateway GATEWAY = message -> new SmsGatewayResponse("SM-1", "queued", null);
+
+    @Test
+    void shouldSplitTrafficInProportionToTheInverseOfTheCost() {
+        // Arrange
+        RoutedProvider<SmsGateway> fast = provider("fast", 1);
+        RoutedProvider<SmsGateway> slow = provider("slow", 3);
+        List<RoutedProvider<SmsGateway>> providers = List.of(slow, fast);
+        ProviderSelector<SmsGateway> selector = ProviderSelector.balanced(RoutingStrategy.WEIGHTED_LEAST_LATENCY);
+
+        // Act
+        int fastFirst = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (selector.order(providers).get(0) == fast) {
+                fastFirst++;
+            }
+        }
+
+        // Assert
+        assertEquals(0.75, fastFirst / 10_000.0, 0.03);
+    }
+
+    private static RoutedProvider<SmsGateway> provider(String name, long latencyMillis) {
+        RoutedProvider<SmsGateway> provider = RoutedProvider.of(name, GATEWAY, CircuitBreakerConfig.defaults());
+        for (int i = 0; i < 100; i++) {
+            provider.stats().onStart();
+            provider.stats().onFinish(TimeUnit.MILLISECONDS.toNanos(latencyMillis), false);
+        }
+        return provider;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.notifications.application.scheduling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimerTest {
+
+    private HierarchicalTimer timer;
+
+    @AfterEach
+    void tearDown() {
+        if (timer != null) {
+            timer.close();
+        }
+    }
+
+    @Test
+    void shouldFireInDeadlineOrderAcrossWheelLevels() throws InterruptedException {
+        // Arrange: ticks de 1 ms y 4 casillas, así que 40 ms y 120 ms caen en ruedas de desbordamiento
+        timer = new HierarchicalTimer("test-timer", Duration.ofMillis(1), 4);
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        long start = System.nanoTime();
+
+        // Act
+        timer.schedule(Duration.ofMillis(120), () -> {
+            fired.add("120ms:" + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            done.countDown();
+        });
+        timer.schedule(Duration.ofMillis(2), () -> {
+            fired.add("2ms");
+            done.countDown();
+        });
+        timer.schedule(Duration.ofMillis(40), () -> {
+            fired.add("40ms");
+            done.countDown();
+        });
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("2ms", fired.get(0));
+        assertEquals("40ms", fired.get(1));
+        assertTrue(Long.parseLong(fired.get(2).substring("120ms:".length())) >= 120);
+        assertEquals(0, timer.size());
+    }
+
+    @Test
+    void shouldNotFireCancelledTimeoutsAndReturnPendingOnStop() throws InterruptedException {
+        // Arrange
+        timer = new HierarchicalTimer("test-timer", Duration.ofMillis(1), 8);
+        CountDownLatch fired = new CountDownLatch(1);
+        Timeout cancelled = timer.schedule(Duration.ofMillis(20), fired::countDown);
+        Timeout pending = timer.schedule(Duration.ofHours(1), () -> { });
+
+        // Act
+        boolean wasCancelled = cancelled.cancel();
+        boolean firedAnyway = fired.await(100, TimeUnit.MILLISECONDS);
+        List<Timeout> remaining = timer.stop();
+
+        // Assert
+        assertTrue(wasCancelled);
+        assertTrue(cancelled.isCancelled());
+        assertFalse(cancelled.cancel());
+        assertFalse(firedAnyway);
+        assertEquals(List.of(pending), remaining);
+        assertThrows(IllegalStateException.class, () -> timer.schedule(Duration.ZERO, () -> { }));
+    }
+
+    @Test
+    void shouldRunAlreadyDueTasksOnTheTimerThread() throws InterruptedException {
+        // Arrange
+        timer = new HierarchicalTimer("test-timer", Duration.ofMillis(10), 8);
+        Thread caller = Thread.currentThread();
+        Thread[] ranOn = new Thread[1];
+        CountDownLatch fired = new CountDownLatch(1);
+
+        // Act
+        Timeout timeout = timer.schedule(Duration.ofMillis(-5), () -> {
+            ranOn[0] = Thread.currentThread();
+            fired.countDown();
+        });
+
+        // Assert
+        assertTrue(fired.await(1, TimeUnit.SECONDS));
+        assertNotSame(caller, ranOn[0]);
+        assertEquals("test-timer", ranOn[0].getName());
+        assertTrue(timeout.isExpired());
+        assertEquals(0, timer.size());
+    }
+}
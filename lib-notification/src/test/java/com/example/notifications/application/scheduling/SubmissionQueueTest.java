@@ -0,0 +1,244 @@
+package com.example.notifications.application.scheduling;
+
+import com.example.notifications.application.ratelimit.RateLimit;
+import com.example.notifications.domain.model.NotificationPriority;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubmissionQueueTest {
+
+    @Test
+    void shouldPollHighestPriorityFirstAndFifoWithinPriority() {
+        // Arrange
+        SubmissionQueue queue = new SubmissionQueue(10, OverflowPolicy.REJECT);
+        QueuedTask bulk = task(NotificationPriority.BULK);
+        QueuedTask first = task(NotificationPriority.TRANSACTIONAL);
+        QueuedTask second = task(NotificationPriority.TRANSACTIONAL);
+        QueuedTask critical = task(NotificationPriority.CRITICAL);
+
+        // Act
+        queue.offer(bulk);
+        queue.offer(first);
+        queue.offer(second);
+        queue.offer(critical);
+
+        // Assert
+        assertSame(critical, queue.poll());
+        assertSame(first, queue.poll());
+        assertSame(second, queue.poll());
+        assertSame(bulk, queue.poll());
+        assertNull(queue.poll());
+        assertEquals(4, queue.stats().dequeued());
+    }
+
+    @Test
+    void shouldRejectWhenFullWithRejectPolicy() {
+        // Arrange
+        SubmissionQueue queue = new SubmissionQueue(1, OverflowPolicy.REJECT);
+        queue.offer(task(NotificationPriority.BULK));
+
+        // Act
+        NotificationRejectedException ex = assertThrows(NotificationRejectedException.class,
+                () -> queue.offer(task(NotificationPriority.CRITICAL)));
+
+        // Assert
+        assertEquals(NotificationRejectedException.Reason.QUEUE_FULL, ex.getReason());
+        assertEquals(new QueueStats(1, 1, 1, 1, 0, 0, 0, 0), queue.stats());
+    }
+
+    @Test
+    void shouldDropLowestPriorityToMakeRoom() {
+        // Arrange
+        SubmissionQueue queue = new SubmissionQueue(2, OverflowPolicy.DROP_LOWEST_PRIORITY);
+        AtomicReference<Throwable> dropped = new AtomicReference<>();
+        queue.offer(new QueuedTask(NotificationPriority.BULK, () -> { }, dropped::set));
+        queue.offer(task(NotificationPriority.TRANSACTIONAL));
+        QueuedTask critical = task(NotificationPriority.CRITICAL);
+
+        // Act
+        queue.offer(critical);
+
+        // Assert
+        NotificationRejectedException ex = assertInstanceOf(NotificationRejectedException.class, dropped.get());
+        assertEquals(NotificationRejectedException.Reason.DROPPED, ex.getReason());
+        assertSame(critical, queue.poll());
+        assertEquals(1, queue.stats().dropped());
+    }
+
+    @Test
+    void shouldRejectIncomingWhenNothingLowerToDrop() {
+        // Arrange
+        SubmissionQueue queue = new SubmissionQueue(1, OverflowPolicy.DROP_LOWEST_PRIORITY);
+        queue.offer(task(NotificationPriority.CRITICAL));
+
+        // Act & Assert
+        assertThrows(NotificationRejectedException.class, () -> queue.offer(task(NotificationPriority.BULK)));
+        assertEquals(0, queue.stats().dropped());
+    }
+
+    @Test
+    void shouldBlockUntilThereIsRoom() throws InterruptedException {
+        // Arrange
+        SubmissionQueue queue = new SubmissionQueue(1, OverflowPolicy.BLOCK);
+        queue.offer(task(NotificationPriority.TRANSACTIONAL));
+        CountDownLatch offered = new CountDownLatch(1);
+        Thread producer = Thread.ofVirtual().start(() -> {
+            queue.offer(task(NotificationPriority.TRANSACTIONAL));
+            offered.countDown();
+        });
+
+        // Act
+        boolean offeredWhileFull = offered.await(50, TimeUnit.MILLISECONDS);
+        queue.poll();
+
+        // Assert
+        assertFalse(offeredWhileFull);
+        assertTrue(offered.await(5, TimeUnit.SECONDS));
+        producer.join();
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    void shouldReturnPendingTasksOnClose() {
+        // Arrange
+        SubmissionQueue queue = new SubmissionQueue(10, OverflowPolicy.BLOCK);
+        List<QueuedTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            QueuedTask task = task(NotificationPriority.BULK);
+            tasks.add(task);
+            queue.offer(task);
+        }
+
+        // Act
+        List<QueuedTask> remaining = queue.close();
+
+        // Assert
+        assertEquals(tasks, remaining);
+        NotificationRejectedException ex = assertThrows(NotificationRejectedException.class,
+                () -> queue.offer(task(NotificationPriority.CRITICAL)));
+        assertEquals(NotificationRejectedException.Reason.SHUTDOWN, ex.getReason());
+    }
+
+    @Test
+    void shouldShareDispatchesBetweenTransactionalAndBulkByWeight() {
+        // Arrange
+        SubmissionQueue queue = new SubmissionQueue(1000, OverflowPolicy.REJECT, new LanePolicy(0.2, 0));
+        for (int i = 0; i < 100; i++) {
+            queue.offer(task(NotificationPriority.BULK));
+            queue.offer(task(NotificationPriority.TRANSACTIONAL));
+        }
+
+        // Act
+        int bulk = 0;
+        for (int i = 0; i < 50; i++) {
+            if (queue.poll().priority() == NotificationPriority.BULK) {
+                bulk++;
+            }
+        }
+        for (int i = 0; i < 40; i++) {
+            queue.poll();
+        }
+        queue.offer(task(NotificationPriority.CRITICAL));
+
+        // Assert
+        assertEquals(10, bulk);
+        assertEquals(NotificationPriority.CRITICAL, queue.poll().priority());
+        assertEquals(28, queue.laneStats().get(NotificationPriority.TRANSACTIONAL).depth());
+        assertEquals(82, queue.laneStats().get(NotificationPriority.BULK).depth());
+        assertEquals(1, queue.laneStats().get(NotificationPriority.CRITICAL).dequeued());
+    }
+
+    @Test
+    void shouldKeepReservedSlotsForCriticalOnly() {
+        // Arrange
+        SubmissionQueue queue = new SubmissionQueue(3, OverflowPolicy.REJECT, new LanePolicy(0.1, 1));
+        queue.offer(task(NotificationPriority.BULK));
+        queue.offer(task(NotificationPriority.TRANSACTIONAL));
+
+        // Act
+        NotificationRejectedException rejected = assertThrows(NotificationRejectedException.class,
+                () -> queue.offer(task(NotificationPriority.TRANSACTIONAL)));
+        queue.offer(task(NotificationPriority.CRITICAL));
+
+        // Assert
+        assertEquals(NotificationRejectedException.Reason.QUEUE_FULL, rejected.getReason());
+        assertEquals(3, queue.size());
+        assertEquals(NotificationPriority.CRITICAL, queue.poll(true).priority());
+        assertNull(queue.poll(true));
+    }
+
+    @Test
+    void shouldShareTurnsBetweenTenantsByNotificationCount() {
+        // Arrange
+        TenantPolicy tenants = new TenantPolicy(TenantQuota.unlimited(), Map.of(), 10);
+        SubmissionQueue queue = new SubmissionQueue(100, OverflowPolicy.REJECT, LanePolicy.defaults(), tenants);
+        for (int i = 0; i < 5; i++) {
+            queue.offer(tenantTask("campañas", 10));
+        }
+        for (int i = 0; i < 20; i++) {
+            queue.offer(tenantTask("pagos", 1));
+        }
+
+        // Act
+        List<String> order = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            order.add(queue.poll().tenant());
+        }
+
+        // Assert
+        List<String> expected = new ArrayList<>();
+        expected.add("campañas");
+        expected.addAll(Collections.nCopies(10, "pagos"));
+        expected.add("campañas");
+        assertEquals(expected, order);
+        TenantStats campaigns = queue.tenantStats().get("campañas");
+        assertEquals(3, campaigns.backlog());
+        assertEquals(20, campaigns.dispatchedNotifications());
+    }
+
+    @Test
+    void shouldSkipTenantsAtTheirQuota() {
+        // Arrange
+        TenantPolicy tenants = new TenantPolicy(TenantQuota.unlimited(), Map.of(
+                "ruidoso", TenantQuota.unlimited().withMaxConcurrency(1),
+                "lento", TenantQuota.unlimited().withRate(RateLimit.perSecond(1))), 10);
+        SubmissionQueue queue = new SubmissionQueue(100, OverflowPolicy.REJECT, LanePolicy.defaults(), tenants);
+        queue.offer(tenantTask("ruidoso", 1));
+        queue.offer(tenantTask("ruidoso", 1));
+        queue.offer(tenantTask("lento", 1));
+        queue.offer(tenantTask("lento", 1));
+
+        // Act
+        QueuedTask first = queue.poll();
+        QueuedTask second = queue.poll();
+        QueuedTask blocked = queue.poll();
+        long wait = queue.nanosUntilEligible();
+        queue.onFinished(first);
+        QueuedTask afterFinish = queue.poll();
+
+        // Assert
+        assertEquals("ruidoso", first.tenant());
+        assertEquals("lento", second.tenant());
+        assertNull(blocked);
+        assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1));
+        assertEquals("ruidoso", afterFinish.tenant());
+        assertTrue(queue.tenantStats().get("lento").throttled() > 0);
+    }
+
+    private static QueuedTask tenantTask(String tenant, int cost) {
+        return new QueuedTask(NotificationPriority.TRANSACTIONAL, tenant, cost, () -> { }, error -> { });
+    }
+
+    private static QueuedTask task(NotificationPriority priority) {
+        return new QueuedTask(priority, () -> { }, error -> { });
+    }
+}
@@ -3,8 +3,13 @@ package com.example.notifications.application.service;
 import com.example.notifications.application.port.out.email.EmailGateway;
 import com.example.notifications.application.port.out.email.EmailGatewayResponse;
 import com.example.notifications.application.port.out.email.EmailMessage;
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
 import com.example.notifications.application.port.out.template.TemplateEngine;
+import com.example.notifications.application.routing.CircuitBreakerConfig;
+import com.example.notifications.application.routing.FailoverEmailGateway;
+import com.example.notifications.application.routing.RoutedProvider;
 import com.example.notifications.domain.model.EmailNotification;
+import com.example.notifications.domain.result.ErrorClassification;
 import com.example.notifications.domain.result.NotificationResult;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,7 +18,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -140,4 +148,139 @@ class EmailNotifierTest {
         verify(templateEngine).render("Your code: {{code}}", variables);
         verify(templateEngine).render("Hello {{user}}, your verification code is {{code}}", variables);
     }
+
+    @Test
+    void shouldReportRenderTimeAndProviderOutcome() {
+        // Arrange
+        List<String> events = new ArrayList<>();
+        NotificationMetrics metrics = new NotificationMetrics() {
+            @Override
+            public void templateRendered(String channel, long nanos) {
+                events.add("render:" + channel);
+            }
+
+            @Override
+            public void providerCall(String channel, String provider, long nanos) {
+                events.add("call:" + channel + ":" + provider);
+            }
+
+            @Override
+            public void providerResult(String channel, String provider, ErrorClassification classification) {
+                events.add("result:" + provider + ":" + classification);
+            }
+        };
+        Map<String, Object> variables = Map.of("name", "John");
+        when(templateEngine.render(any(), eq(variables))).thenReturn("rendered");
+        when(emailGateway.providerName()).thenReturn("sendgrid");
+        when(emailGateway.send(any(EmailMessage.class)))
+                .thenReturn(new EmailGatewayResponse(null, "failed", "rate limited", ErrorClassification.TRANSIENT));
+        EmailNotifier instrumented = new EmailNotifier(emailGateway, templateEngine, metrics);
+
+        // Act
+        instrumented.send(new EmailNotification(
+                "sender@example.com", "recipient@example.com", "Hello {{name}}", "Hi {{name}}", variables));
+
+        // Assert
+        assertEquals(List.of("render:email", "call:email:sendgrid", "result:sendgrid:TRANSIENT"), events);
+    }
+
+    @Test
+    void shouldComposeTheAsyncGatewayWithoutBlocking() {
+        // Arrange
+        EmailNotification notification = new EmailNotification(
+                "sender@example.com", "recipient@example.com", "Hola", "Cuerpo", Map.of());
+        when(templateEngine.render(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        CompletableFuture<EmailGatewayResponse> response = new CompletableFuture<>();
+        when(emailGateway.sendAsync(any(EmailMessage.class))).thenReturn(response);
+
+        // Act
+        CompletableFuture<NotificationResult> result = notifier.sendAsync(notification).toCompletableFuture();
+
+        // Assert
+        assertFalse(result.isDone());
+        response.complete(new EmailGatewayResponse("msg-123", "accepted", null));
+        assertTrue(result.join().isSuccess());
+        verify(emailGateway, never()).send(any(EmailMessage.class));
+    }
+
+    @Test
+    void shouldRecordTheProviderCallWhenTheAsyncGatewayFails() {
+        // Arrange
+        List<String> calls = new ArrayList<>();
+        NotificationMetrics metrics = new NotificationMetrics() {
+            @Override
+            public void providerCall(String channel, String provider, long nanos) {
+                calls.add(channel + ":" + provider);
+            }
+        };
+        when(emailGateway.providerName()).thenReturn("sendgrid");
+        when(emailGateway.sendAsync(any(EmailMessage.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("connection reset")));
+        EmailNotifier instrumented = new EmailNotifier(emailGateway, templateEngine, metrics);
+
+        // Act
+        CompletableFuture<NotificationResult> result = instrumented.sendAsync(new EmailNotification(
+                "sender@example.com", "recipient@example.com", "Hola", "Cuerpo", Map.of())).toCompletableFuture();
+
+        // Assert
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(List.of("email:sendgrid"), calls);
+    }
+
+    @Test
+    void shouldRecordTheProviderCallWhenTheGatewayThrows() {
+        // Arrange
+        List<String> calls = new ArrayList<>();
+        NotificationMetrics metrics = new NotificationMetrics() {
+            @Override
+            public void providerCall(String channel, String provider, long nanos) {
+                calls.add(channel + ":" + provider);
+            }
+        };
+        when(emailGateway.providerName()).thenReturn("sendgrid");
+        when(emailGateway.send(any(EmailMessage.class))).thenThrow(new IllegalStateException("connection reset"));
+        EmailNotifier instrumented = new EmailNotifier(emailGateway, templateEngine, metrics);
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> instrumented.send(new EmailNotification(
+                "sender@example.com", "recipient@example.com", "Hola", "Cuerpo", Map.of())));
+
+        // Assert
+        assertEquals(List.of("email:sendgrid"), calls);
+    }
+
+    @Test
+    void shouldLeaveProviderMetricsToARoutedGateway() {
+        // Arrange
+        List<String> events = new ArrayList<>();
+        NotificationMetrics metrics = new NotificationMetrics() {
+            @Override
+            public void providerCall(String channel, String provider, long nanos) {
+                events.add("call:" + provider);
+            }
+
+            @Override
+            public void providerResult(String channel, String provider, ErrorClassification classification) {
+                events.add("result:" + provider + ":" + classification);
+            }
+        };
+        EmailGateway primary = message -> {
+            throw new IllegalStateException("timeout");
+        };
+        EmailGateway secondary = message -> new EmailGatewayResponse("mg-1", "SENT", null);
+        FailoverEmailGateway routed = new FailoverEmailGateway(List.of(
+                RoutedProvider.of("sendgrid", primary, CircuitBreakerConfig.defaults()),
+                RoutedProvider.of("mailgun", secondary, CircuitBreakerConfig.defaults())), metrics);
+        EmailNotifier instrumented = new EmailNotifier(routed, templateEngine, metrics);
+
+        // Act
+        NotificationResult result = instrumented.send(new EmailNotification(
+                "sender@example.com", "recipient@example.com", "Hola", "Cuerpo", Map.of()));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(List.of(
+                "call:sendgrid", "result:sendgrid:TRANSIENT",
+                "call:mailgun", "result:mailgun:NONE"), events);
+    }
 }
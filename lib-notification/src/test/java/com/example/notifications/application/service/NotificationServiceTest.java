@@ -0,0 +1,1226 @@
+package com.example.notifications.application.service;
+
+import com.example.notifications.application.coalescing.ChatDigester;
+import com.example.notifications.application.coalescing.CoalescingPolicy;
+import com.example.notifications.application.port.in.Notifier;
+import com.example.notifications.application.port.out.metrics.NotificationMetrics;
+import com.example.notifications.application.port.out.outbox.NotificationOutbox;
+import com.example.notifications.application.port.out.outbox.OutboxEntry;
+import com.example.notifications.application.port.out.template.SimpleTemplateEngine;
+import com.example.notifications.application.registry.NotifierRegistry;
+import com.example.notifications.application.retry.RetryBudget;
+import com.example.notifications.application.retry.RetryPolicy;
+import com.example.notifications.application.scheduling.NotificationRejectedException;
+import com.example.notifications.application.scheduling.OverflowPolicy;
+import com.example.notifications.application.scheduling.QueueStats;
+import com.example.notifications.application.scheduling.ScheduledNotification;
+import com.example.notifications.application.scheduling.TenantQuota;
+import com.example.notifications.application.scheduling.TenantStats;
+import com.example.notifications.domain.model.ChatNotification;
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.model.NotificationMetadata;
+import com.example.notifications.domain.model.NotificationPriority;
+import com.example.notifications.domain.model.SmsNotification;
+import com.example.notifications.domain.result.BatchItemResult;
+import com.example.notifications.domain.result.BatchItemStatus;
+import com.example.notifications.domain.result.BatchSummary;
+import com.example.notifications.domain.result.ErrorClassification;
+import com.example.notifications.domain.result.NotificationResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationServiceTest {
+
+    private NotificationService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void shouldSendOnVirtualThreads() {
+        // Arrange
+        AtomicBoolean virtual = new AtomicBoolean();
+        Notifier<ChatNotification> notifier = notification -> {
+            virtual.set(Thread.currentThread().isVirtual());
+            return NotificationResult.success();
+        };
+        service = NotificationService.builder(registryWith(notifier))
+                .virtualThreads()
+                .build();
+
+        // Act
+        NotificationResult result = service.sendAsync(chat("#general")).join();
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertTrue(virtual.get());
+    }
+
+    @Test
+    void shouldUseProvidedExecutor() {
+        // Arrange
+        AtomicInteger submitted = new AtomicInteger();
+        Executor executor = task -> {
+            submitted.incrementAndGet();
+            task.run();
+        };
+        service = new NotificationService(registryWith(notification -> NotificationResult.success()), executor);
+
+        // Act
+        service.sendAsync(chat("#a")).join();
+        service.sendAsync(chat("#b")).join();
+
+        // Assert
+        assertEquals(2, submitted.get());
+    }
+
+    @Test
+    void shouldCapConcurrencyPerChannel() {
+        // Arrange
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        Notifier<ChatNotification> slowNotifier = notification -> {
+            int current = active.incrementAndGet();
+            maxActive.accumulateAndGet(current, Math::max);
+            sleep(5);
+            active.decrementAndGet();
+            return NotificationResult.success();
+        };
+        service = NotificationService.builder(registryWith(slowNotifier))
+                .virtualThreads()
+                .maxConcurrency(ChatNotification.class, 3)
+                .build();
+
+        List<CompletableFuture<NotificationResult>> futures = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            futures.add(service.sendAsync(chat("#channel-" + i)));
+        }
+        futures.forEach(CompletableFuture::join);
+
+        // Assert
+        assertTrue(maxActive.get() <= 3, "max concurrent sends: " + maxActive.get());
+    }
+
+    @Test
+    void shouldSendBatchInChunksPerChannelPreservingOrder() {
+        // Arrange
+        AtomicInteger chatBatches = new AtomicInteger();
+        AtomicInteger smsBatches = new AtomicInteger();
+        Notifier<ChatNotification> chatNotifier = new Notifier<>() {
+            @Override
+            public NotificationResult send(ChatNotification notification) {
+                return NotificationResult.failure(notification.recipient());
+            }
+
+            @Override
+            public boolean batchesNatively() {
+                return true;
+            }
+
+            @Override
+            public List<NotificationResult> sendBatch(List<ChatNotification> notifications) {
+                chatBatches.incrementAndGet();
+                return Notifier.super.sendBatch(notifications);
+            }
+        };
+        Notifier<SmsNotification> smsNotifier = new Notifier<>() {
+            @Override
+            public NotificationResult send(SmsNotification notification) {
+                return NotificationResult.failure(notification.recipient());
+            }
+
+            @Override
+            public boolean batchesNatively() {
+                return true;
+            }
+
+            @Override
+            public List<NotificationResult> sendBatch(List<SmsNotification> notifications) {
+                smsBatches.incrementAndGet();
+                return Notifier.super.sendBatch(notifications);
+            }
+        };
+        Map<Class<? extends Notification>, Notifier<?>> notifiers = Map.of(
+                ChatNotification.class, chatNotifier,
+                SmsNotification.class, smsNotifier);
+        service = NotificationService.builder(new NotifierRegistry(notifiers))
+                .batchChunkSize(10)
+                .build();
+
+        List<Notification> batch = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            batch.add(chat("#channel-" + i));
+            batch.add(new SmsNotification("+15550000000", "+1555000" + (1000 + i), "Hola", null));
+        }
+
+        // Act
+        List<NotificationResult> results = service.sendBatchAsync(batch).join();
+
+        // Assert
+        assertEquals(3, chatBatches.get());
+        assertEquals(3, smsBatches.get());
+        for (int i = 0; i < batch.size(); i++) {
+            assertEquals(batch.get(i).recipient(), results.get(i).getErrorMessage());
+        }
+    }
+
+    @Test
+    void shouldSendItemsOfANonBatchingNotifierInParallel() {
+        // Arrange
+        CountDownLatch allStarted = new CountDownLatch(4);
+        Notifier<ChatNotification> notifier = notification -> {
+            allStarted.countDown();
+            try {
+                return allStarted.await(5, TimeUnit.SECONDS)
+                        ? NotificationResult.success()
+                        : NotificationResult.failure("enviadas en serie");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return NotificationResult.failure("interrumpido");
+            }
+        };
+        service = NotificationService.builder(registryWith(notifier))
+                .fixedThreadPool(4)
+                .batchChunkSize(10)
+                .build();
+
+        // Act
+        List<NotificationResult> results = service
+                .sendBatchAsync(List.of(chat("#a"), chat("#b"), chat("#c"), chat("#d")))
+                .join();
+
+        // Assert
+        assertTrue(results.stream().allMatch(NotificationResult::isSuccess));
+        assertEquals(0, allStarted.getCount());
+    }
+
+    @Test
+    void shouldReportPerItemOutcomesWhenPartOfTheBatchFails() {
+        // Arrange
+        Notifier<ChatNotification> chatNotifier = notification -> {
+            throw new IllegalStateException("proveedor caído");
+        };
+        Notifier<SmsNotification> smsNotifier = notification -> notification.recipient().endsWith("0")
+                ? NotificationResult.failure("número bloqueado")
+                : NotificationResult.success();
+        Map<Class<? extends Notification>, Notifier<?>> notifiers = Map.of(
+                ChatNotification.class, chatNotifier,
+                SmsNotification.class, smsNotifier);
+        service = new NotificationService(new NotifierRegistry(notifiers));
+
+        List<Notification> batch = List.of(
+                new SmsNotification("+15550000000", "+15550001111", "Hola", null),
+                chat("#alerts"),
+                new SmsNotification("+15550000000", "+15550001110", "Hola", null));
+
+        // Act
+        List<BatchItemResult> results = service.sendBatchDetailedAsync(batch).join();
+
+        // Assert
+        assertEquals(BatchItemStatus.SUCCESS, results.get(0).status());
+        assertEquals(BatchItemStatus.EXCEPTION, results.get(1).status());
+        assertInstanceOf(IllegalStateException.class, results.get(1).error());
+        assertEquals(BatchItemStatus.FAILURE, results.get(2).status());
+        assertEquals("número bloqueado", results.get(2).result().getErrorMessage());
+        for (int i = 0; i < batch.size(); i++) {
+            assertEquals(i, results.get(i).index());
+            assertSame(batch.get(i), results.get(i).notification());
+        }
+    }
+
+    @Test
+    void shouldStreamResultsWithBoundedChunksInFlight() {
+        // Arrange
+        AtomicInteger activeChunks = new AtomicInteger();
+        AtomicInteger maxActiveChunks = new AtomicInteger();
+        Notifier<ChatNotification> notifier = new Notifier<>() {
+            @Override
+            public NotificationResult send(ChatNotification notification) {
+                return NotificationResult.success();
+            }
+
+            @Override
+            public boolean batchesNatively() {
+                return true;
+            }
+
+            @Override
+            public List<NotificationResult> sendBatch(List<ChatNotification> notifications) {
+                maxActiveChunks.accumulateAndGet(activeChunks.incrementAndGet(), Math::max);
+                sleep(1);
+                activeChunks.decrementAndGet();
+                return Notifier.super.sendBatch(notifications);
+            }
+        };
+        service = NotificationService.builder(registryWith(notifier))
+                .virtualThreads()
+                .batchChunkSize(100)
+                .maxInFlightChunks(4)
+                .build();
+
+        Iterable<ChatNotification> source = () -> IntStream.range(0, 10_000)
+                .mapToObj(i -> chat("#channel-" + i))
+                .iterator();
+        List<Long> seen = new ArrayList<>();
+
+        // Act
+        BatchSummary summary = service.sendBatchStreaming(source, item -> seen.add(item.index())).join();
+
+        // Assert
+        assertEquals(new BatchSummary(10_000, 10_000, 0, 0), summary);
+        assertEquals(10_000, seen.size());
+        assertEquals(10_000, seen.stream().distinct().count());
+        assertTrue(maxActiveChunks.get() <= 4, "max chunks in flight: " + maxActiveChunks.get());
+    }
+
+    @Test
+    void shouldDeliverRareTypesBeforeTheStreamingSourceEnds() {
+        // Arrange
+        CountDownLatch smsDelivered = new CountDownLatch(1);
+        AtomicBoolean deliveredWhileReading = new AtomicBoolean();
+        Map<Class<? extends Notification>, Notifier<?>> notifiers = Map.of(
+                ChatNotification.class, (Notifier<ChatNotification>) n -> NotificationResult.success(),
+                SmsNotification.class, (Notifier<SmsNotification>) n -> NotificationResult.success());
+        service = NotificationService.builder(new NotifierRegistry(notifiers))
+                .batchChunkSize(10)
+                .build();
+
+        Iterator<Notification> chats = IntStream.range(0, 1_000)
+                .<Notification>mapToObj(i -> chat("#channel-" + i))
+                .iterator();
+        Iterable<Notification> source = () -> new Iterator<>() {
+            private int read;
+            private boolean smsSent;
+
+            @Override
+            public boolean hasNext() {
+                return chats.hasNext();
+            }
+
+            @Override
+            public Notification next() {
+                if (!smsSent) {
+                    smsSent = true;
+                    return new SmsNotification("+15550000000", "+15550001111", "Hola", null);
+                }
+                if (++read == 500) {
+                    try {
+                        deliveredWhileReading.set(smsDelivered.await(5, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return chats.next();
+            }
+        };
+
+        // Act
+        BatchSummary summary = service.sendBatchStreaming(source, item -> {
+            if (item.notification() instanceof SmsNotification) {
+                smsDelivered.countDown();
+            }
+        }).join();
+
+        // Assert
+        assertEquals(1_001, summary.total());
+        assertTrue(deliveredWhileReading.get());
+    }
+
+    @Test
+    void shouldRejectWhenSubmissionQueueIsFull() {
+        // Arrange
+        List<Runnable> dispatched = new ArrayList<>();
+        service = NotificationService.builder(registryWith(n -> NotificationResult.success()))
+                .executor(dispatched::add)
+                .maxInFlight(1)
+                .queueCapacity(1)
+                .overflowPolicy(OverflowPolicy.REJECT)
+                .build();
+
+        CompletableFuture<NotificationResult> running = service.sendAsync(chat("#a"));
+        CompletableFuture<NotificationResult> queued = service.sendAsync(chat("#b"));
+
+        // Act
+        NotificationRejectedException ex = assertThrows(NotificationRejectedException.class,
+                () -> service.sendAsync(chat("#c")));
+
+        // Assert
+        assertEquals(NotificationRejectedException.Reason.QUEUE_FULL, ex.getReason());
+        assertEquals(1, service.inFlight());
+        QueueStats stats = service.queueStats();
+        assertEquals(1, stats.depth());
+        assertEquals(1, stats.rejected());
+
+        dispatched.remove(0).run();
+        dispatched.remove(0).run();
+        assertTrue(running.join().isSuccess());
+        assertTrue(queued.join().isSuccess());
+        assertEquals(0, service.inFlight());
+    }
+
+    @Test
+    void shouldDropQueuedBulkNotificationsInFavourOfCritical() {
+        // Arrange
+        List<Runnable> dispatched = new ArrayList<>();
+        service = NotificationService.builder(registryWith(n -> NotificationResult.success()))
+                .executor(dispatched::add)
+                .maxInFlight(1)
+                .queueCapacity(1)
+                .overflowPolicy(OverflowPolicy.DROP_LOWEST_PRIORITY)
+                .priorityResolver(n -> n.recipient().startsWith("#ops")
+                        ? NotificationPriority.CRITICAL
+                        : NotificationPriority.BULK)
+                .build();
+
+        service.sendAsync(chat("#marketing-1"));
+        CompletableFuture<NotificationResult> bulk = service.sendAsync(chat("#marketing-2"));
+
+        // Act
+        CompletableFuture<NotificationResult> critical = service.sendAsync(chat("#ops"));
+
+        // Assert
+        CompletionException ex = assertThrows(CompletionException.class, bulk::join);
+        NotificationRejectedException cause = assertInstanceOf(NotificationRejectedException.class, ex.getCause());
+        assertEquals(NotificationRejectedException.Reason.DROPPED, cause.getReason());
+        dispatched.remove(0).run();
+        dispatched.remove(0).run();
+        assertTrue(critical.join().isSuccess());
+    }
+
+    @Test
+    void shouldKeepReservedCapacityForCriticalMetadataPriority() {
+        // Arrange
+        List<Runnable> dispatched = new ArrayList<>();
+        service = NotificationService.builder(registryWith(n -> NotificationResult.success()))
+                .executor(dispatched::add)
+                .maxInFlight(2)
+                .reservedCriticalCapacity(1)
+                .build();
+        service.sendAsync(chat("#pedidos-1"));
+        CompletableFuture<NotificationResult> waiting = service.sendAsync(chat("#pedidos-2"));
+
+        // Act
+        CompletableFuture<NotificationResult> otp = service.sendAsync(new ChatNotification("#otp", "Código", null,
+                NotificationMetadata.priority(NotificationPriority.CRITICAL)));
+
+        // Assert
+        assertEquals(2, dispatched.size());
+        dispatched.get(1).run();
+        assertTrue(otp.join().isSuccess());
+        assertFalse(waiting.isDone());
+        assertEquals(1, service.laneStats().get(NotificationPriority.TRANSACTIONAL).depth());
+    }
+
+    @Test
+    void shouldNotLetANoisyTenantTakeEveryWorker() {
+        // Arrange
+        List<Runnable> dispatched = new ArrayList<>();
+        service = NotificationService.builder(registryWith(n -> NotificationResult.success()))
+                .executor(dispatched::add)
+                .maxInFlight(4)
+                .tenantQuota("marketing", TenantQuota.unlimited().withMaxConcurrency(2))
+                .build();
+        for (int i = 0; i < 5; i++) {
+            service.sendAsync(new ChatNotification("#campaña-" + i, "Oferta", null,
+                    NotificationMetadata.tenant("marketing")));
+        }
+
+        // Act
+        CompletableFuture<NotificationResult> payment =
+                service.sendAsync(new ChatNotification("#pagos", "Pago recibido", null, NotificationMetadata.tenant("pagos")));
+
+        // Assert
+        assertEquals(3, dispatched.size());
+        dispatched.get(2).run();
+        assertTrue(payment.join().isSuccess());
+        TenantStats marketing = service.tenantStats().get("marketing");
+        assertEquals(3, marketing.backlog());
+        assertEquals(2, marketing.inFlight());
+    }
+
+    @Test
+    void shouldRetryTransientFailuresUntilSuccess() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        Notifier<ChatNotification> flaky = notification -> attempts.incrementAndGet() < 3
+                ? NotificationResult.failure("503 Service Unavailable", ErrorClassification.TRANSIENT)
+                : NotificationResult.success();
+        service = NotificationService.builder(registryWith(flaky))
+                .retryPolicy(RetryPolicy.exponential(5, Duration.ofMillis(1), Duration.ofMillis(5)))
+                .build();
+
+        // Act
+        NotificationResult result = service.sendAsync(chat("#alerts")).join();
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void shouldNotRetryPermanentFailuresOrBeyondBudget() {
+        // Arrange
+        AtomicInteger permanentAttempts = new AtomicInteger();
+        AtomicInteger transientAttempts = new AtomicInteger();
+        Notifier<ChatNotification> notifier = notification -> {
+            if (notification.recipient().equals("#invalid")) {
+                permanentAttempts.incrementAndGet();
+                return NotificationResult.failure("channel_not_found");
+            }
+            transientAttempts.incrementAndGet();
+            return NotificationResult.failure("ratelimited", ErrorClassification.TRANSIENT);
+        };
+        service = NotificationService.builder(registryWith(notifier))
+                .retryPolicy(RetryPolicy.exponential(10, Duration.ZERO, Duration.ZERO))
+                .retryBudget(new RetryBudget(0.0, 2))
+                .build();
+
+        // Act
+        NotificationResult permanent = service.sendAsync(chat("#invalid")).join();
+        NotificationResult exhausted = service.sendAsync(chat("#busy")).join();
+
+        // Assert
+        assertFalse(permanent.isSuccess());
+        assertEquals(1, permanentAttempts.get());
+        assertTrue(exhausted.isRetryable());
+        assertEquals(3, transientAttempts.get());
+    }
+
+    @Test
+    void shouldRetryOnlyTransientItemsOfABatch() {
+        // Arrange
+        List<String> sent = new ArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+        Notifier<ChatNotification> notifier = new Notifier<>() {
+            @Override
+            public NotificationResult send(ChatNotification notification) {
+                return NotificationResult.success();
+            }
+
+            @Override
+            public boolean batchesNatively() {
+                return true;
+            }
+
+            @Override
+            public List<NotificationResult> sendBatch(List<ChatNotification> notifications) {
+                boolean firstCall = calls.incrementAndGet() == 1;
+                List<NotificationResult> results = new ArrayList<>();
+                for (ChatNotification notification : notifications) {
+                    synchronized (sent) {
+                        sent.add(notification.recipient());
+                    }
+                    results.add(firstCall && notification.recipient().equals("#b")
+                            ? NotificationResult.failure("timeout", ErrorClassification.TRANSIENT)
+                            : NotificationResult.success());
+                }
+                return results;
+            }
+        };
+        service = NotificationService.builder(registryWith(notifier))
+                .retryPolicy(RetryPolicy.exponential(3, Duration.ofMillis(1), Duration.ofMillis(1)))
+                .build();
+
+        // Act
+        List<NotificationResult> results = service.sendBatchAsync(List.of(chat("#a"), chat("#b"), chat("#c"))).join();
+
+        // Assert
+        assertTrue(results.stream().allMatch(NotificationResult::isSuccess));
+        assertEquals(List.of("#a", "#b", "#c", "#b"), sent);
+    }
+
+    @Test
+    void shouldReplayPendingOutboxEntriesAndCompleteThemOnceSent() {
+        // Arrange
+        InMemoryOutbox outbox = new InMemoryOutbox();
+        outbox.append(chat("#pendiente"));
+        List<String> sent = new CopyOnWriteArrayList<>();
+        Notifier<ChatNotification> notifier = notification -> {
+            sent.add(notification.recipient());
+            return NotificationResult.success();
+        };
+
+        // Act
+        service = NotificationService.builder(registryWith(notifier)).outbox(outbox).build();
+        service.sendAsync(chat("#nuevo")).join();
+        awaitEmpty(outbox);
+
+        // Assert
+        assertTrue(sent.containsAll(List.of("#pendiente", "#nuevo")));
+        assertEquals(2, sent.size());
+        assertTrue(outbox.pending().isEmpty());
+    }
+
+    @Test
+    void shouldSendScheduledNotificationsWhenDueAndSkipCancelledOnes() {
+        // Arrange
+        InMemoryOutbox outbox = new InMemoryOutbox();
+        List<String> sent = new CopyOnWriteArrayList<>();
+        Notifier<ChatNotification> notifier = notification -> {
+            sent.add(notification.recipient());
+            return NotificationResult.success();
+        };
+        service = NotificationService.builder(registryWith(notifier))
+                .outbox(outbox)
+                .schedulerTick(Duration.ofMillis(5))
+                .build();
+        Instant start = Instant.now();
+
+        // Act
+        ScheduledNotification reminder = service.schedule(chat("#recordatorio"), start.plusMillis(100));
+        ScheduledNotification cancelled = service.schedule(chat("#cancelado"), Duration.ofMillis(100));
+        int scheduledBeforeCancel = service.scheduledCount();
+        boolean wasCancelled = cancelled.cancel();
+        NotificationResult result = reminder.result().join();
+        Instant sentAt = Instant.now();
+        awaitEmpty(outbox);
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertFalse(sentAt.isBefore(start.plusMillis(100)));
+        assertEquals(2, scheduledBeforeCancel);
+        assertTrue(wasCancelled);
+        assertTrue(cancelled.result().isCancelled());
+        assertFalse(cancelled.cancel());
+        assertEquals(List.of("#recordatorio"), sent);
+        assertEquals(0, service.scheduledCount());
+    }
+
+    @Test
+    void shouldDeferDueScheduledSendsInsteadOfBlockingOnAFullQueue() {
+        // Arrange
+        List<Runnable> dispatched = new CopyOnWriteArrayList<>();
+        service = NotificationService.builder(registryWith(n -> NotificationResult.success()))
+                .executor(dispatched::add)
+                .maxInFlight(1)
+                .queueCapacity(1)
+                .overflowPolicy(OverflowPolicy.BLOCK)
+                .schedulerTick(Duration.ofMillis(5))
+                .build();
+        CompletableFuture<NotificationResult> running = service.sendAsync(chat("#a"));
+        CompletableFuture<NotificationResult> queued = service.sendAsync(chat("#b"));
+
+        // Act
+        ScheduledNotification overdue = assertTimeoutPreemptively(Duration.ofSeconds(1),
+                () -> service.schedule(chat("#vencido"), Instant.now().minusSeconds(1)));
+        ScheduledNotification soon = service.schedule(chat("#pronto"), Duration.ofMillis(20));
+        sleep(100);
+        boolean deliveredWhileFull = overdue.result().isDone() || soon.result().isDone();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!(overdue.result().isDone() && soon.result().isDone()) && System.nanoTime() < deadline) {
+            if (dispatched.isEmpty()) {
+                sleep(5);
+            } else {
+                dispatched.remove(0).run();
+            }
+        }
+
+        // Assert
+        assertFalse(deliveredWhileFull);
+        assertTrue(running.join().isSuccess());
+        assertTrue(queued.join().isSuccess());
+        assertTrue(overdue.result().join().isSuccess());
+        assertTrue(soon.result().join().isSuccess());
+    }
+
+    @Test
+    void shouldRescheduleFutureOutboxEntriesOnRestart() {
+        // Arrange
+        InMemoryOutbox outbox = new InMemoryOutbox();
+        outbox.append(chat("#futuro"), Instant.now().plus(Duration.ofHours(1)));
+        outbox.append(chat("#vencido"), Instant.now().minusSeconds(1));
+        List<String> sent = new CopyOnWriteArrayList<>();
+        Notifier<ChatNotification> notifier = notification -> {
+            sent.add(notification.recipient());
+            return NotificationResult.success();
+        };
+
+        // Act
+        service = NotificationService.builder(registryWith(notifier)).outbox(outbox).build();
+        while (outbox.pending().size() > 1) {
+            sleep(5);
+        }
+        service.shutdown();
+
+        // Assert
+        assertEquals(List.of("#vencido"), sent);
+        assertEquals(1, outbox.pending().size());
+        assertEquals("#futuro", ((ChatNotification) outbox.pending().get(0).notification()).recipient());
+    }
+
+    @Test
+    void shouldCoalesceABurstToTheSameChannelIntoOneDigest() {
+        // Arrange
+        List<ChatNotification> sent = new CopyOnWriteArrayList<>();
+        Notifier<ChatNotification> notifier = notification -> {
+            sent.add(notification);
+            return NotificationResult.success();
+        };
+        service = NotificationService.builder(registryWith(notifier))
+                .coalesce(ChatNotification.class, new CoalescingPolicy<>(
+                        new ChatDigester(new SimpleTemplateEngine(), "{{count}} alertas"), Duration.ofMillis(50)))
+                .build();
+
+        // Act
+        List<CompletableFuture<NotificationResult>> futures = IntStream.range(0, 20)
+                .mapToObj(i -> service.sendAsync(chat("#incidencias")))
+                .toList();
+        futures.forEach(CompletableFuture::join);
+
+        // Assert
+        assertEquals(1, sent.size());
+        assertEquals(20, sent.get(0).variables().get("count"));
+        assertEquals("{{count}} alertas", sent.get(0).messageTemplate());
+    }
+
+    @Test
+    void shouldReportSendOutcomesQueueWaitAndGauges() {
+        // Arrange
+        Map<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+        List<String> gauges = new CopyOnWriteArrayList<>();
+        NotificationMetrics metrics = new NotificationMetrics() {
+            @Override
+            public void sent(String channel) {
+                counters.computeIfAbsent("sent:" + channel, k -> new AtomicInteger()).incrementAndGet();
+            }
+
+            @Override
+            public void failed(String channel, ErrorClassification classification) {
+                counters.computeIfAbsent("failed:" + channel + ":" + classification, k -> new AtomicInteger())
+                        .incrementAndGet();
+            }
+
+            @Override
+            public void queueWait(NotificationPriority priority, long nanos) {
+                counters.computeIfAbsent("wait:" + priority, k -> new AtomicInteger()).incrementAndGet();
+            }
+
+            @Override
+            public void gauge(String name, String help, DoubleSupplier value) {
+                gauges.add(name);
+            }
+        };
+        Notifier<ChatNotification> notifier = notification -> notification.recipient().equals("#ok")
+                ? NotificationResult.success()
+                : NotificationResult.failure("boom", ErrorClassification.PERMANENT);
+        service = NotificationService.builder(registryWith(notifier)).metrics(metrics).build();
+
+        // Act
+        service.sendAsync(chat("#ok")).join();
+        service.sendAsync(chat("#roto")).join();
+        service.send(chat("#ok"));
+
+        // Assert
+        assertEquals(2, counters.get("sent:chat").get());
+        assertEquals(1, counters.get("failed:chat:PERMANENT").get());
+        assertEquals(2, counters.get("wait:TRANSACTIONAL").get());
+        assertTrue(gauges.containsAll(List.of("notification_in_flight", "notification_executor_utilization")));
+    }
+
+    @Test
+    void shouldReturnTheOriginalResultForDuplicateIdempotencyKeys() {
+        // Arrange
+        AtomicInteger sent = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Notifier<ChatNotification> notifier = notification -> {
+            sent.incrementAndGet();
+            await(release);
+            return NotificationResult.success();
+        };
+        service = NotificationService.builder(registryWith(notifier))
+                .deduplication(Duration.ofMinutes(5), 1024)
+                .build();
+        NotificationMetadata otp = NotificationMetadata.idempotencyKey("otp-123");
+
+        // Act
+        CompletableFuture<NotificationResult> first = service.sendAsync(new ChatNotification("#otp", "Código", null, otp));
+        CompletableFuture<NotificationResult> inFlightDuplicate =
+                service.sendAsync(new ChatNotification("#otp", "Código", null, otp));
+        release.countDown();
+        NotificationResult firstResult = first.join();
+        NotificationResult duplicateResult = inFlightDuplicate.join();
+        NotificationResult lateDuplicate = service.send(new ChatNotification("#otp", "Código", null, otp));
+        service.send(chat("#sin-clave"));
+        service.send(chat("#sin-clave"));
+
+        // Assert
+        assertTrue(firstResult.isSuccess());
+        assertSame(firstResult, duplicateResult);
+        assertSame(firstResult, lateDuplicate);
+        assertEquals(3, sent.get());
+    }
+
+    @Test
+    void shouldRejectInvalidConcurrencyLimit() {
+        NotificationService.Builder builder = NotificationService.builder(registryWith(n -> NotificationResult.success()));
+
+        assertThrows(IllegalArgumentException.class, () -> builder.maxConcurrency(ChatNotification.class, 0));
+        assertThrows(IllegalArgumentException.class, () -> builder.fixedThreadPool(0));
+    }
+
+    @Test
+    void shouldKeepAsyncSendsInFlightWithoutHoldingExecutorThreads() {
+        // Arrange
+        List<CompletableFuture<NotificationResult>> responses = new CopyOnWriteArrayList<>();
+        Notifier<ChatNotification> notifier = new Notifier<>() {
+            @Override
+            public NotificationResult send(ChatNotification notification) {
+                throw new AssertionError("El servicio debe usar sendAsync");
+            }
+
+            @Override
+            public CompletionStage<NotificationResult> sendAsync(ChatNotification notification) {
+                CompletableFuture<NotificationResult> response = new CompletableFuture<>();
+                responses.add(response);
+                return response;
+            }
+        };
+        service = NotificationService.builder(registryWith(notifier))
+                .fixedThreadPool(1)
+                .maxInFlight(1_000)
+                .build();
+
+        // Act
+        List<CompletableFuture<NotificationResult>> results = IntStream.range(0, 500)
+                .mapToObj(i -> service.sendAsync(chat("#canal-" + i)))
+                .toList();
+        for (int i = 0; i < 200 && responses.size() < 500; i++) {
+            sleep(10);
+        }
+
+        // Assert
+        assertEquals(500, responses.size());
+        assertEquals(500, service.inFlight());
+        assertTrue(results.stream().noneMatch(CompletableFuture::isDone));
+
+        responses.forEach(response -> response.complete(NotificationResult.success()));
+        assertTrue(results.stream().allMatch(result -> result.join().isSuccess()));
+        assertEquals(0, service.inFlight());
+    }
+
+    @Test
+    void shouldWaitForChannelPermitsWithoutHoldingTheExecutorThread() throws Exception {
+        // Arrange
+        List<CompletableFuture<NotificationResult>> responses = new CopyOnWriteArrayList<>();
+        Notifier<ChatNotification> notifier = new Notifier<>() {
+            @Override
+            public NotificationResult send(ChatNotification notification) {
+                throw new AssertionError("El servicio debe usar sendAsync");
+            }
+
+            @Override
+            public CompletionStage<NotificationResult> sendAsync(ChatNotification notification) {
+                CompletableFuture<NotificationResult> response = new CompletableFuture<>();
+                responses.add(response);
+                return response;
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            service = NotificationService.builder(registryWith(notifier))
+                    .executor(executor)
+                    .maxInFlight(10)
+                    .maxConcurrency(ChatNotification.class, 2)
+                    .build();
+
+            // Act
+            List<CompletableFuture<NotificationResult>> results = IntStream.range(0, 5)
+                    .mapToObj(i -> service.sendAsync(chat("#canal-" + i)))
+                    .toList();
+            for (int i = 0; i < 200 && service.inFlight() < 5; i++) {
+                sleep(10);
+            }
+            executor.submit(() -> { }).get(1, TimeUnit.SECONDS);
+            int outstandingWhileFull = responses.size();
+            for (int i = 0; i < 5; i++) {
+                for (int j = 0; j < 200 && responses.size() <= i; j++) {
+                    sleep(5);
+                }
+                responses.get(i).complete(NotificationResult.success());
+            }
+
+            // Assert
+            assertEquals(2, outstandingWhileFull);
+            assertTrue(results.stream().allMatch(result -> result.join().isSuccess()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldReturnQueuedNotificationsWhenTheDrainDeadlinePasses() {
+        // Arrange
+        InMemoryOutbox outbox = new InMemoryOutbox();
+        List<Runnable> dispatched = new ArrayList<>();
+        service = NotificationService.builder(registryWith(n -> NotificationResult.success()))
+                .executor(dispatched::add)
+                .maxInFlight(1)
+                .outbox(outbox)
+                .build();
+        CompletableFuture<NotificationResult> running = service.sendAsync(chat("#a"));
+        CompletableFuture<NotificationResult> queued = service.sendAsync(chat("#b"));
+        service.sendAsync(chat("#c"));
+
+        // Act
+        ShutdownReport report = service.shutdown(Duration.ofMillis(20));
+
+        // Assert
+        assertFalse(report.drained());
+        assertEquals(List.of("#b", "#c"),
+                report.unsent().stream().map(n -> ((ChatNotification) n).recipient()).toList());
+        assertEquals(1, report.inFlightTasks());
+        assertEquals(1, report.inFlightNotifications());
+        CompletionException error = assertThrows(CompletionException.class, queued::join);
+        assertEquals(NotificationRejectedException.Reason.SHUTDOWN,
+                ((NotificationRejectedException) error.getCause()).getReason());
+
+        dispatched.remove(0).run();
+        assertTrue(running.join().isSuccess());
+        assertEquals(0, service.inFlightNotifications());
+        assertEquals(2, outbox.pending().size());
+    }
+
+    @Test
+    void shouldReportRetriesWaitingOnBackoffAsUnsent() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        service = NotificationService.builder(registryWith(notification -> {
+                    attempts.incrementAndGet();
+                    return NotificationResult.failure("503 Service Unavailable", ErrorClassification.TRANSIENT);
+                }))
+                .executor(Runnable::run)
+                .retryPolicy(RetryPolicy.exponential(3, Duration.ofSeconds(30), Duration.ofSeconds(30)))
+                .build();
+        CompletableFuture<NotificationResult> retrying = service.sendAsync(chat("#reintento"));
+
+        // Act
+        ShutdownReport report = service.shutdown(Duration.ofMillis(200));
+
+        // Assert
+        assertFalse(report.drained());
+        assertEquals(List.of("#reintento"),
+                report.unsent().stream().map(n -> ((ChatNotification) n).recipient()).toList());
+        assertEquals(1, attempts.get());
+        CompletionException error = assertThrows(CompletionException.class, retrying::join);
+        assertEquals(NotificationRejectedException.Reason.SHUTDOWN,
+                ((NotificationRejectedException) error.getCause()).getReason());
+    }
+
+    @Test
+    void shouldReportPendingScheduledSendsAsUnsent() {
+        // Arrange
+        service = NotificationService.builder(registryWith(n -> NotificationResult.success())).build();
+        ScheduledNotification later = service.schedule(chat("#mañana"), Duration.ofHours(1));
+        NotificationResult sent = service.sendAsync(chat("#ahora")).join();
+
+        // Act
+        ShutdownReport report = service.shutdown(Duration.ofSeconds(1));
+
+        // Assert
+        assertTrue(sent.isSuccess());
+        assertFalse(report.drained());
+        assertEquals(List.of("#mañana"),
+                report.unsent().stream().map(n -> ((ChatNotification) n).recipient()).toList());
+        CompletionException error = assertThrows(CompletionException.class, () -> later.result().join());
+        assertEquals(NotificationRejectedException.Reason.SHUTDOWN,
+                ((NotificationRejectedException) error.getCause()).getReason());
+    }
+
+    @Test
+    void shouldDrainQueuedSendsWhenClosed() {
+        // Arrange
+        List<CompletableFuture<NotificationResult>> results;
+        Notifier<ChatNotification> notifier = notification -> {
+            sleep(5);
+            return NotificationResult.success();
+        };
+
+        // Act
+        try (NotificationService closing = NotificationService.builder(registryWith(notifier))
+                .fixedThreadPool(2)
+                .drainTimeout(Duration.ofSeconds(5))
+                .build()) {
+            results = IntStream.range(0, 20).mapToObj(i -> closing.sendAsync(chat("#canal-" + i))).toList();
+            service = closing;
+        }
+
+        // Assert
+        assertTrue(results.stream().allMatch(result -> result.isDone() && result.join().isSuccess()));
+        assertEquals(0, service.inFlight());
+        NotificationRejectedException error = assertThrows(NotificationRejectedException.class,
+                () -> service.send(chat("#tarde")));
+        assertEquals(NotificationRejectedException.Reason.SHUTDOWN, error.getReason());
+    }
+
+    @Test
+    void shouldPullFromPublisherOnlyWithinTheWindow() throws InterruptedException {
+        // Arrange
+        service = NotificationService.builder(registryWith(n -> NotificationResult.success()))
+                .batchChunkSize(16)
+                .build();
+        ChatSource source = new ChatSource(1_000, null);
+        ResultSubscriber subscriber = new ResultSubscriber(source);
+
+        // Act
+        service.sendStream(source, 64).subscribe(subscriber);
+        sleep(100);
+        long requestedWithoutDemand = source.requested.get();
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // Assert
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+        assertEquals(64, requestedWithoutDemand);
+        assertEquals(1_000, subscriber.results.size());
+        assertEquals(1_000, subscriber.results.stream().mapToLong(BatchItemResult::index).distinct().count());
+        assertTrue(subscriber.results.stream().allMatch(item -> item.status() == BatchItemStatus.SUCCESS));
+        assertTrue(subscriber.maxOutstanding.get() <= 64, "outstanding: " + subscriber.maxOutstanding.get());
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void shouldDeliverReceivedResultsBeforeSourceError() throws InterruptedException {
+        // Arrange
+        service = NotificationService.builder(registryWith(n -> NotificationResult.success())).build();
+        IllegalStateException failure = new IllegalStateException("cursor cerrado");
+        ChatSource source = new ChatSource(10, failure);
+        ResultSubscriber subscriber = new ResultSubscriber(source);
+
+        // Act
+        service.sendStream(source).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // Assert
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+        assertEquals(10, subscriber.results.size());
+        assertSame(failure, subscriber.error);
+    }
+
+    @Test
+    void shouldSendWhatArrivedWhenTheSourceIdlesMidRound() throws InterruptedException {
+        // Arrange
+        service = NotificationService.builder(registryWith(n -> NotificationResult.success()))
+                .streamLinger(Duration.ofMillis(20))
+                .build();
+        ChatSource source = ChatSource.idleAfter(10);
+        ResultSubscriber subscriber = new ResultSubscriber(source);
+
+        // Act
+        service.sendStream(source).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        for (int i = 0; i < 500 && subscriber.results.size() < 10; i++) {
+            sleep(10);
+        }
+
+        // Assert
+        assertEquals(500, source.requested.get());
+        assertEquals(10, subscriber.results.size());
+        assertTrue(subscriber.results.stream().allMatch(item -> item.status() == BatchItemStatus.SUCCESS));
+        assertEquals(1, subscriber.done.getCount());
+    }
+
+    @Test
+    void shouldSignalAnInvalidRequestAsOnError() throws InterruptedException {
+        // Arrange
+        service = NotificationService.builder(registryWith(n -> NotificationResult.success())).build();
+        ChatSource source = new ChatSource(10, null);
+        ResultSubscriber subscriber = new ResultSubscriber(source);
+        service.sendStream(source).subscribe(subscriber);
+
+        // Act
+        subscriber.subscription.request(0);
+
+        // Assert
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+        assertTrue(subscriber.results.isEmpty());
+    }
+
+    private static NotifierRegistry registryWith(Notifier<ChatNotification> notifier) {
+        Map<Class<? extends Notification>, Notifier<?>> notifiers = Map.of(ChatNotification.class, notifier);
+        return new NotifierRegistry(notifiers);
+    }
+
+    private static ChatNotification chat(String channel) {
+        return new ChatNotification(channel, "Mensaje", null);
+    }
+
+    private static void awaitEmpty(NotificationOutbox outbox) {
+        for (int i = 0; i < 100 && !outbox.pending().isEmpty(); i++) {
+            sleep(10);
+        }
+    }
+
+    private static final class InMemoryOutbox implements NotificationOutbox {
+
+        private final Map<Long, OutboxEntry> entries = new ConcurrentSkipListMap<>();
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public long append(Notification notification, Instant dueAt) {
+            long id = ids.incrementAndGet();
+            entries.put(id, new OutboxEntry(id, notification, dueAt));
+            return id;
+        }
+
+        @Override
+        public long[] appendAll(List<? extends Notification> notifications) {
+            return notifications.stream().mapToLong(this::append).toArray();
+        }
+
+        @Override
+        public void complete(long id) {
+            entries.remove(id);
+        }
+
+        @Override
+        public List<OutboxEntry> pending() {
+            return List.copyOf(entries.values());
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Origen que respeta la demanda: emite {@code count} chats en el hilo que los pide y termina con
+     * {@code failure} o con {@code onComplete}; o, con {@link #idleAfter(int)}, se queda parado sin terminar.
+     */
+    private static final class ChatSource implements Flow.Publisher<Notification> {
+
+        private final int count;
+        private final Throwable failure;
+        private final boolean completes;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicLong emitted = new AtomicLong();
+        private final AtomicInteger draining = new AtomicInteger();
+
+        private ChatSource(int count, Throwable failure) {
+            this(count, failure, true);
+        }
+
+        private ChatSource(int count, Throwable failure, boolean completes) {
+            this.count = count;
+            this.failure = failure;
+            this.completes = completes;
+        }
+
+        private static ChatSource idleAfter(int count) {
+            return new ChatSource(count, null, false);
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super Notification> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested.addAndGet(n);
+                    if (draining.getAndIncrement() != 0) {
+                        return;
+                    }
+                    do {
+                        while (emitted.get() < Math.min(requested.get(), count)) {
+                            subscriber.onNext(chat("#canal-" + emitted.getAndIncrement()));
+                        }
+                        if (emitted.get() == count && completes) {
+                            emitted.incrementAndGet();
+                            if (failure != null) {
+                                subscriber.onError(failure);
+                            } else {
+                                subscriber.onComplete();
+                            }
+                        }
+                    } while (draining.decrementAndGet() != 0);
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+        }
+    }
+
+    private static final class ResultSubscriber implements Flow.Subscriber<BatchItemResult> {
+
+        private final ChatSource source;
+        private final List<BatchItemResult> results = new CopyOnWriteArrayList<>();
+        private final AtomicLong maxOutstanding = new AtomicLong();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile Flow.Subscription subscription;
+        private volatile Throwable error;
+
+        private ResultSubscriber(ChatSource source) {
+            this.source = source;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(BatchItemResult item) {
+            results.add(item);
+            maxOutstanding.accumulateAndGet(source.requested.get() - results.size() + 1, Math::max);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.notifications.domain.validation;
+
+import com.example.notifications.domain.model.SmsNotification;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipientsTest {
+
+    private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+    private static final Pattern PHONE = Pattern.compile("^\\+?[1-9]\\d{7,14}$");
+
+    @Test
+    void shouldAcceptExactlyWhatTheOriginalRegexesAccept() {
+        // Arrange
+        List<String> inputs = new ArrayList<>(List.of(
+                "", "@", "a@", "@b", "a@b", "a.b+c_d-e@mail.com", "a@b@c", "a b@c", "a@b c", "ñ@mail.com",
+                "a@ñ", "a@b\n", "a@\nb", "a@b\r", "a@b ", "a@b\u0085", "a@\t", "a@😀",
+                "+", "+1", "12345678", "1234567", "+123456789012345", "+1234567890123456", "123456789012345",
+                "1234567890123456", "01234567", "+01234567", "++12345678", "1234567a", "١٢٣٤٥٦٧٨٩", "+ 12345678",
+                "12345678\n"));
+        Random random = new Random(42);
+        String alphabet = "aZ09+_.-@ \n+1";
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder value = new StringBuilder();
+            int length = random.nextInt(18);
+            for (int j = 0; j < length; j++) {
+                value.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            inputs.add(value.toString());
+        }
+
+        // Act & Assert
+        for (String input : inputs) {
+            assertEquals(EMAIL.matcher(input).matches(), Recipients.isEmail(input), () -> "email: " + input);
+            assertEquals(PHONE.matcher(input).matches(), Recipients.isPhone(input), () -> "phone: " + input);
+        }
+        assertFalse(Recipients.isEmail(null));
+        assertFalse(Recipients.isPhone(null));
+    }
+
+    @Test
+    void shouldReportEveryInvalidRecipientWithItsIndex() {
+        // Arrange
+        List<String> emails = List.of("ana@mail.com", "sin-arroba", "luis@mail.com", "@mail.com");
+        List<String> phones = new ArrayList<>();
+        for (int i = 0; i < Recipients.PARALLEL_THRESHOLD * 2; i++) {
+            phones.add(i % 1000 == 7 ? "0" + i : "+5058888" + String.format("%04d", i % 10_000));
+        }
+
+        // Act
+        List<RecipientError> emailErrors = Recipients.validateEmails(emails);
+        List<RecipientError> phoneErrors = Recipients.validatePhones(phones);
+
+        // Assert
+        assertEquals(List.of(
+                new RecipientError(1, "sin-arroba", Recipients.INVALID_EMAIL),
+                new RecipientError(3, "@mail.com", Recipients.INVALID_EMAIL)), emailErrors);
+        assertEquals(17, phoneErrors.size());
+        for (int i = 0; i < phoneErrors.size(); i++) {
+            assertEquals(i * 1000 + 7, phoneErrors.get(i).index());
+            assertEquals(Recipients.INVALID_PHONE, phoneErrors.get(i).message());
+        }
+    }
+
+    @Test
+    void shouldKeepRejectingInvalidRecipientsOnConstruction() {
+        // Act
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> new SmsNotification("+50512345678", "0888", "Hola", null));
+
+        // Assert
+        assertEquals(Recipients.INVALID_PHONE, error.getMessage());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.notifications.infraestructure.audit;
+
+import com.example.notifications.application.port.out.audit.AuditOutcome;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncAuditSinkTest {
+
+    @Test
+    void shouldWriteOneJsonLinePerEventOnClose() {
+        // Arrange
+        StringWriter out = new StringWriter();
+        AsyncAuditSink sink = AsyncAuditSink.builder(out).build();
+
+        // Act
+        sink.record(AuditOutcome.SENT, "sendgrid", "ana@mail.com", "msg-1", 1);
+        sink.record(AuditOutcome.FAILED, "twilio", "+50588887777", "invalid \"number\"", 1);
+        sink.record(AuditOutcome.SENT, "firebase", null, null, 500);
+        sink.close();
+
+        // Assert
+        String[] lines = out.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].matches("\\{\"ts\":\"[^\"]+\",\"outcome\":\"SENT\",\"provider\":\"sendgrid\","
+                + "\"recipient\":\"ana@mail.com\",\"messageId\":\"msg-1\",\"count\":1}"), lines[0]);
+        assertTrue(lines[1].endsWith(
+                "\"outcome\":\"FAILED\",\"provider\":\"twilio\",\"recipient\":\"+50588887777\","
+                        + "\"messageId\":\"invalid \\\"number\\\"\",\"count\":1}"), lines[1]);
+        assertTrue(lines[2].endsWith("\"recipient\":null,\"messageId\":null,\"count\":500}"), lines[2]);
+        assertEquals(3, sink.written());
+        assertEquals(0, sink.dropped());
+    }
+
+    @Test
+    void shouldSampleSuccessesButKeepEveryFailure() {
+        // Arrange
+        StringWriter out = new StringWriter();
+        AsyncAuditSink sink = AsyncAuditSink.builder(out).sampleEvery(10).build();
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            sink.record(AuditOutcome.SENT, "slack", "#general", "MSG-" + i, 1);
+        }
+        for (int i = 0; i < 5; i++) {
+            sink.record(AuditOutcome.FAILED, "slack", "#general", "channel_not_found", 1);
+        }
+        sink.close();
+
+        // Assert
+        String text = out.toString();
+        assertEquals(15, sink.written());
+        assertEquals(10, text.split("\"outcome\":\"SENT\"", -1).length - 1);
+        assertEquals(5, text.split("\"outcome\":\"FAILED\"", -1).length - 1);
+    }
+
+    @Test
+    void shouldDropInsteadOfBlockingWhenTheBufferIsFull() throws InterruptedException {
+        // Arrange
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StringWriter out = new StringWriter();
+        Writer slow = new Writer() {
+            @Override
+            public void write(char[] chars, int offset, int length) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                out.write(chars, offset, length);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        AsyncAuditSink sink = AsyncAuditSink.builder(slow).capacity(4).batchSize(1).build();
+
+        // Act
+        sink.record(AuditOutcome.SENT, "twilio", "+1", "SM0", 1);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 10; i++) {
+            sink.record(AuditOutcome.SENT, "twilio", "+1", "SM" + i, 1);
+        }
+        release.countDown();
+        sink.close();
+
+        // Assert
+        // SM0 está en escritura y ocupa su casilla hasta terminar: solo caben SM1..SM3.
+        assertEquals(4, sink.written());
+        assertEquals(7, sink.dropped());
+        assertTrue(out.toString().contains("\"messageId\":\"SM3\""));
+        assertFalse(out.toString().contains("\"messageId\":\"SM4\""));
+    }
+}
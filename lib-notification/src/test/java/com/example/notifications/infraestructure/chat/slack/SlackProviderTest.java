@@ -0,0 +1,47 @@
+package com.example.notifications.infraestructure.chat.slack;
+
+import com.example.notifications.application.port.out.chat.ChatGatewayResponse;
+import com.example.notifications.application.port.out.chat.ChatMessage;
+import com.example.notifications.domain.result.ErrorClassification;
+import com.example.notifications.infraestructure.http.HttpStubServer;
+import com.example.notifications.infraestructure.http.HttpTransport;
+import com.example.notifications.infraestructure.http.Json;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlackProviderTest {
+
+    @Test
+    void shouldUseTheWebApiWithABotTokenAndTheWebhookWithout() {
+        // Arrange
+        try (HttpStubServer stub = new HttpStubServer();
+             HttpTransport transport = HttpTransport.builder().build()) {
+            stub.respond("/api/chat.postMessage", 200, "{\"ok\":true,\"ts\":\"1700000000.000100\"}");
+            stub.respond("/hooks/T000", 200, "ok");
+            SlackProvider bot = new SlackProvider(new SlackConfig(
+                    null, "xoxb-token", "#alerts", "Deploy Bot", ":rocket:", null, stub.baseUrl() + "/api"), transport);
+            SlackProvider webhook = new SlackProvider(new SlackConfig(
+                    stub.baseUrl() + "/hooks/T000", null, null, null, null, null, null), transport);
+
+            // Act
+            ChatGatewayResponse viaApi = bot.send(new ChatMessage("Despliegue listo", null));
+            ChatGatewayResponse viaWebhook = webhook.send(new ChatMessage("Despliegue listo", "#general"));
+            stub.respond("/api/chat.postMessage", 200, "{\"ok\":false,\"error\":\"ratelimited\"}");
+            ChatGatewayResponse limited = bot.send(new ChatMessage("Despliegue listo", "#alerts"));
+
+            // Assert
+            assertEquals("1700000000.000100", viaApi.messageId());
+            assertEquals("Bearer xoxb-token", stub.requests().get(0).header("Authorization"));
+            assertEquals(Map.of("channel", "#alerts", "text", "Despliegue listo", "username", "Deploy Bot",
+                    "icon_emoji", ":rocket:"), Json.parse(stub.requests().get(0).body()));
+            assertNotNull(viaWebhook.messageId());
+            assertNull(viaWebhook.errorMessage());
+            assertNull(stub.requests().get(1).header("Authorization"));
+            assertNotNull(limited.errorMessage());
+            assertEquals(ErrorClassification.TRANSIENT, limited.classification());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.notifications.infraestructure.config;
+
+import com.example.notifications.infraestructure.email.sendgrid.SendGridConfig;
+import com.example.notifications.infraestructure.sms.twilio.TwilioConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigFileWatcherTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldPublishTheNewConfigWhenTheFileChanges() throws Exception {
+        // Arrange
+        Path file = dir.resolve("providers.properties");
+        write(file, "AC-old", "token-old");
+        ConfigHolder<TwilioConfig> twilio = ConfigHolder.of(new TwilioConfig("AC-initial", "token", "+15550000000"));
+        CountDownLatch rotated = new CountDownLatch(1);
+        twilio.onChange(config -> {
+            if (config.accountSid().equals("AC-new")) {
+                rotated.countDown();
+            }
+        });
+
+        try (ConfigFileWatcher watcher = ConfigFileWatcher.watch(file)
+                .bind("twilio", twilio, TwilioConfig::fromProperties)) {
+            String loaded = twilio.get().accountSid();
+
+            // Act
+            write(file, "AC-new", "token-new");
+
+            // Assert
+            assertEquals("AC-old", loaded);
+            assertTrue(rotated.await(10, TimeUnit.SECONDS));
+            assertEquals("token-new", twilio.get().authToken());
+        }
+    }
+
+    @Test
+    void shouldKeepThePreviousConfigWhenTheFileIsInvalid() throws IOException {
+        // Arrange
+        Path file = dir.resolve("providers.properties");
+        write(file, "AC-old", "token-old");
+        ConfigHolder<TwilioConfig> twilio = ConfigHolder.of(new TwilioConfig("AC-initial", "token", "+15550000000"));
+
+        try (ConfigFileWatcher watcher = ConfigFileWatcher.watch(file)
+                .bind("twilio", twilio, TwilioConfig::fromProperties)) {
+
+            // Act
+            Files.writeString(file, "twilio.accountSid=AC-new\n");
+            watcher.reload();
+
+            // Assert
+            assertEquals("AC-old", twilio.get().accountSid());
+        }
+    }
+
+    @Test
+    void shouldReloadOnceWhenTheFileStopsChanging() throws Exception {
+        // Arrange
+        Path file = dir.resolve("providers.properties");
+        write(file, "AC-0", "token-0");
+        ConfigHolder<TwilioConfig> twilio = ConfigHolder.of(new TwilioConfig("AC-initial", "token", "+15550000000"));
+        List<String> published = new CopyOnWriteArrayList<>();
+        CountDownLatch last = new CountDownLatch(1);
+        twilio.onChange(config -> {
+            published.add(config.accountSid());
+            if (config.accountSid().equals("AC-3")) {
+                last.countDown();
+            }
+        });
+
+        try (ConfigFileWatcher watcher = ConfigFileWatcher.watch(file, Duration.ofMillis(300))
+                .bind("twilio", twilio, TwilioConfig::fromProperties)) {
+            published.clear();
+
+            // Act
+            write(file, "AC-1", "token-1");
+            write(file, "AC-2", "token-2");
+            write(file, "AC-3", "token-3");
+
+            // Assert
+            assertTrue(last.await(10, TimeUnit.SECONDS));
+            Thread.sleep(500);
+            assertEquals(List.of("AC-3"), published);
+        }
+    }
+
+    @Test
+    void shouldKeepEveryConfigWhenAnyOfThemIsInvalid() throws IOException {
+        // Arrange
+        Path file = dir.resolve("providers.properties");
+        write(file, "AC-old", "token-old");
+        ConfigHolder<TwilioConfig> twilio = ConfigHolder.of(new TwilioConfig("AC-initial", "token", "+15550000000"));
+        ConfigHolder<SendGridConfig> sendGrid = ConfigHolder.of(new SendGridConfig("SG.initial", "https://initial"));
+
+        try (ConfigFileWatcher watcher = ConfigFileWatcher.watch(file)
+                .bind("twilio", twilio, TwilioConfig::fromProperties)
+                .bind("sendgrid", sendGrid, SendGridConfig::fromProperties)) {
+
+            // Act
+            Files.writeString(file, """
+                    twilio.accountSid=AC-new
+                    twilio.authToken=token-new
+                    twilio.fromNumber=+15550000000
+                    sendgrid.apiKey=SG.new
+                    """);
+            watcher.reload();
+
+            // Assert
+            assertEquals("AC-old", twilio.get().accountSid());
+            assertEquals("SG.key", sendGrid.get().apiKey());
+        }
+    }
+
+    @Test
+    void shouldRebuildDerivedResourcesAndCloseThePreviousOne() throws InterruptedException {
+        // Arrange
+        ConfigHolder<TwilioConfig> twilio = ConfigHolder.of(new TwilioConfig("AC-1", "token", "+15550000000"));
+        AtomicInteger built = new AtomicInteger();
+        CountDownLatch closed = new CountDownLatch(1);
+        ConfigHolder<AutoCloseable> pool = twilio.derive(config -> {
+            built.incrementAndGet();
+            return closed::countDown;
+        });
+        AutoCloseable first = pool.get();
+
+        // Act
+        twilio.set(new TwilioConfig("AC-1", "token", "+15550000000"));
+        twilio.set(new TwilioConfig("AC-2", "token", "+15550000000"));
+
+        // Assert
+        assertEquals(2, built.get());
+        assertNotSame(first, pool.get());
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+    }
+
+    private static void write(Path file, String accountSid, String authToken) throws IOException {
+        Files.writeString(file, """
+                twilio.accountSid=%s
+                twilio.authToken=%s
+                twilio.fromNumber=+15550000000
+                sendgrid.apiKey=SG.key
+                sendgrid.baseUrl=https://api.sendgrid.com/v3/mail/send
+                """.formatted(accountSid, authToken));
+    }
+}
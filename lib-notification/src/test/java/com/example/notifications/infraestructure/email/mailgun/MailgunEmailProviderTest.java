@@ -1,11 +1,20 @@
 package com.example.notifications.infraestructure.email.mailgun;
 
+import com.example.notifications.application.port.out.audit.AuditSink;
 import com.example.notifications.application.port.out.email.EmailGatewayResponse;
 import com.example.notifications.application.port.out.email.EmailMessage;
+import com.example.notifications.infraestructure.config.ConfigHolder;
+import com.example.notifications.infraestructure.http.HttpStubServer;
+import com.example.notifications.infraestructure.http.HttpTransport;
+import com.example.notifications.infraestructure.http.Json;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class MailgunEmailProviderTest {
@@ -93,4 +102,72 @@ class MailgunEmailProviderTest {
 
         assertDoesNotThrow(() -> provider.send(message));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldSendBatchWithRecipientVariables() {
+        MailgunEmailProvider spyProvider = Mockito.spy(provider);
+        List<EmailMessage> messages = List.of(
+                new EmailMessage("from@test.com", "a@test.com", "Subject", "Body"),
+                new EmailMessage("from@test.com", "b@test.com", "Subject", "Body")
+        );
+
+        List<EmailGatewayResponse> responses = spyProvider.sendBatch(messages);
+
+        ArgumentCaptor<MailgunBatchRequest> captor = ArgumentCaptor.forClass(MailgunBatchRequest.class);
+        Mockito.verify(spyProvider).simulatedBatchSend(captor.capture());
+        assertEquals(List.of("a@test.com", "b@test.com"), captor.getValue().to());
+        assertEquals(2, captor.getValue().recipientVariables().size());
+        assertEquals(2, responses.size());
+        responses.forEach(response -> assertEquals("SENT", response.status()));
+    }
+
+    @Test
+    void shouldPostOneFormPerBatchGroupWhenGivenATransport() {
+        // Arrange
+        try (HttpStubServer stub = new HttpStubServer();
+             HttpTransport transport = HttpTransport.builder().build()) {
+            stub.respond("/v3/fake-domain/messages", 200, "{\"id\":\"<mg-1>\",\"message\":\"Queued. Thank you.\"}");
+            MailgunEmailProvider http = new MailgunEmailProvider(
+                    new MailgunConfig("fake-api-key", "fake-domain", stub.baseUrl()), transport);
+
+            // Act
+            List<EmailGatewayResponse> responses = http.sendBatch(List.of(
+                    new EmailMessage("from@test.com", "a@test.com", "Asunto", "Cuerpo"),
+                    new EmailMessage("from@test.com", "b@test.com", "Asunto", "Cuerpo")));
+
+            // Assert
+            assertEquals(2, responses.size());
+            assertTrue(responses.stream().allMatch(r -> "<mg-1>".equals(r.messageId())));
+            assertEquals(1, stub.requests().size());
+            HttpStubServer.Request request = stub.requests().get(0);
+            assertEquals(HttpTransport.basicAuth("api", "fake-api-key"), request.header("Authorization"));
+            assertEquals(List.of("a@test.com", "b@test.com"), request.formField("to"));
+            assertEquals(Map.of("a@test.com", Map.of("id", "0"), "b@test.com", Map.of("id", "1")),
+                    Json.parse(request.formField("recipient-variables").get(0)));
+        }
+    }
+
+    @Test
+    void shouldUseTheRotatedKeyAndDomainFromTheNextSend() {
+        // Arrange
+        try (HttpStubServer stub = new HttpStubServer();
+             HttpTransport transport = HttpTransport.builder().build()) {
+            ConfigHolder<MailgunConfig> config = ConfigHolder.of(
+                    new MailgunConfig("key-old", "old.example.com", stub.baseUrl()));
+            MailgunEmailProvider http = new MailgunEmailProvider(config, transport, AuditSink.NOOP);
+            stub.respond("/v3/old.example.com/messages", 200, "{\"id\":\"<mg-1>\",\"message\":\"Queued.\"}");
+            stub.respond("/v3/new.example.com/messages", 200, "{\"id\":\"<mg-2>\",\"message\":\"Queued.\"}");
+            EmailMessage message = new EmailMessage("from@example.com", "to@example.com", "Asunto", "Cuerpo");
+
+            // Act
+            EmailGatewayResponse before = http.send(message);
+            config.set(new MailgunConfig("key-new", "new.example.com", stub.baseUrl()));
+            EmailGatewayResponse after = http.send(message);
+
+            // Assert
+            assertEquals("<mg-1>", before.messageId());
+            assertEquals("<mg-2>", after.messageId());
+            assertEquals(HttpTransport.basicAuth("api", "key-new"), stub.requests().get(1).header("Authorization"));
+        }
+    }
+}
@@ -2,8 +2,17 @@ package com.example.notifications.infraestructure.email.sendgrid;
 
 import com.example.notifications.application.port.out.email.EmailGatewayResponse;
 import com.example.notifications.application.port.out.email.EmailMessage;
+import com.example.notifications.domain.result.ErrorClassification;
+import com.example.notifications.infraestructure.http.HttpStubServer;
+import com.example.notifications.infraestructure.http.HttpTransport;
+import com.example.notifications.infraestructure.http.Json;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -64,4 +73,56 @@ class SendGridEmailProviderTest {
 
         assertDoesNotThrow(() -> provider.send(message));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldGroupPersonalizedMessagesFromTheSameSenderIntoOneBatchRequest() {
+        SendGridEmailProvider spyProvider = Mockito.spy(provider);
+        List<EmailMessage> messages = List.of(
+                new EmailMessage("from@test.com", "a@test.com", "Oferta", "Hola Ana"),
+                new EmailMessage("from@test.com", "b@test.com", "Oferta", "Hola Luis"),
+                new EmailMessage("from@test.com", "c@test.com", "Otro asunto", "Hola Eva"),
+                new EmailMessage("other@test.com", "d@test.com", "Oferta", "Hola Ana")
+        );
+
+        List<EmailGatewayResponse> responses = spyProvider.sendBatch(messages);
+
+        assertEquals(4, responses.size());
+        responses.forEach(response -> assertEquals("accepted", response.status()));
+        ArgumentCaptor<SendGridBatchRequest> captor = ArgumentCaptor.forClass(SendGridBatchRequest.class);
+        Mockito.verify(spyProvider, Mockito.times(2)).simulatedBatchSend(captor.capture());
+        Mockito.verify(spyProvider, Mockito.never()).simulatedSend(Mockito.any());
+        SendGridBatchRequest personalized = captor.getAllValues().get(0);
+        assertEquals(SendGridEmailProvider.BODY_TAG, personalized.body());
+        assertNull(personalized.subject());
+        assertEquals(new SendGridPersonalization("c@test.com", "Otro asunto",
+                        Map.of(SendGridEmailProvider.BODY_TAG, "Hola Eva")),
+                personalized.personalizations().get(2));
+        assertEquals("Hola Ana", captor.getAllValues().get(1).body());
+    }
+
+    @Test
+    void shouldPostToTheConfiguredEndpointWhenGivenATransport() {
+        // Arrange
+        try (HttpStubServer stub = new HttpStubServer();
+             HttpTransport transport = HttpTransport.builder().build()) {
+            stub.respond("/v3/mail/send", 202, "", "X-Message-Id", "sg-123");
+            SendGridEmailProvider http = new SendGridEmailProvider(
+                    new SendGridConfig("sg-key", stub.baseUrl() + "/v3/mail/send"), transport);
+
+            // Act
+            EmailGatewayResponse sent = http.send(new EmailMessage("from@test.com", "to@test.com", "Asunto", "Cuerpo"));
+            stub.respond("/v3/mail/send", 503, "{\"errors\":[{\"message\":\"Service Unavailable\"}]}");
+            EmailGatewayResponse failed = http.send(new EmailMessage("from@test.com", "to@test.com", "Asunto", "Cuerpo"));
+
+            // Assert
+            assertEquals("sg-123", sent.messageId());
+            assertNull(sent.errorMessage());
+            assertEquals(ErrorClassification.TRANSIENT, failed.classification());
+            HttpStubServer.Request request = stub.requests().get(0);
+            assertEquals("Bearer sg-key", request.header("Authorization"));
+            assertEquals(Map.of("email", "to@test.com"),
+                    ((List<?>) ((Map<?, ?>) ((List<?>) ((Map<?, ?>) Json.parse(request.body()))
+                            .get("personalizations")).get(0)).get("to")).get(0));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.notifications.infraestructure.http;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+/**
+ * Servidor HTTP en proceso para probar los proveedores contra respuestas preparadas, sin red.
+ */
+public final class HttpStubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Map<String, Response> responses = new ConcurrentHashMap<>();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+
+    public HttpStubServer() {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * URL base, sin barra final.
+     */
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Respuesta para las peticiones a {@code path}; sin preparar, se responde {@code 404}.
+     */
+    public HttpStubServer respond(String path, int status, String body, String... headers) {
+        responses.put(path, new Response(status, body, headers, 0));
+        return this;
+    }
+
+    /**
+     * Como {@link #respond(String, int, String, String...)}, pero tardando {@code delayMillis} en responder.
+     */
+    public HttpStubServer respondSlowly(String path, long delayMillis, int status, String body) {
+        responses.put(path, new Response(status, body, new String[0], delayMillis));
+        return this;
+    }
+
+    public List<Request> requests() {
+        return new ArrayList<>(requests);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String path = exchange.getRequestURI().getPath();
+            requests.add(new Request(exchange.getRequestMethod(), path, exchange.getRequestHeaders(), body));
+
+            Response response = responses.getOrDefault(path, new Response(404, "", new String[0], 0));
+            if (response.delayMillis() > 0) {
+                try {
+                    Thread.sleep(response.delayMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            for (int i = 0; i + 1 < response.headers().length; i += 2) {
+                exchange.getResponseHeaders().add(response.headers()[i], response.headers()[i + 1]);
+            }
+            byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(response.status(), bytes.length == 0 ? -1 : bytes.length);
+            if (bytes.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            }
+        }
+    }
+
+    private record Response(int status, String body, String[] headers, long delayMillis) {
+    }
+
+    public record Request(String method, String path, Headers headers, String body) {
+
+        public String header(String name) {
+            return headers.getFirst(name);
+        }
+
+        /**
+         * Valores de un campo de un cuerpo {@code application/x-www-form-urlencoded}.
+         */
+        public List<String> formField(String name) {
+            List<String> values = new ArrayList<>();
+            for (String pair : body.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0 && URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8).equals(name)) {
+                    values.add(URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+            return values;
+        }
+    }
+}
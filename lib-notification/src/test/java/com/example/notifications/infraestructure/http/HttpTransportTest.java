@@ -0,0 +1,121 @@
+package com.example.notifications.infraestructure.http;
+
+import com.example.notifications.domain.result.ErrorClassification;
+import com.example.notifications.infraestructure.common.ProviderErrors;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTransportTest {
+
+    @Test
+    void shouldPostJsonAndFormBodiesWithHeaders() {
+        // Arrange
+        try (HttpStubServer stub = new HttpStubServer();
+             HttpTransport transport = HttpTransport.builder().build()) {
+            stub.respond("/json", 202, "", "X-Message-Id", "abc");
+            stub.respond("/form", 200, "{\"id\":\"1\"}");
+            Map<String, List<String>> form = new LinkedHashMap<>();
+            form.put("to", List.of("a@mail.com", "b@mail.com"));
+            form.put("text", List.of("hola & adiós"));
+
+            // Act
+            HttpResult json = transport.postJson("sendgrid", URI.create(stub.baseUrl() + "/json"),
+                    Map.of("Authorization", "Bearer key"), Map.of("subject", "Hola \"mundo\"")).join();
+            HttpResult posted = transport.postForm("mailgun", URI.create(stub.baseUrl() + "/form"),
+                    Map.of("Authorization", HttpTransport.basicAuth("api", "key")), form).join();
+
+            // Assert
+            assertTrue(json.isSuccess());
+            assertEquals("abc", json.header("X-Message-Id"));
+            assertEquals("1", Json.field(posted.body(), "id"));
+            HttpStubServer.Request jsonRequest = stub.requests().get(0);
+            assertEquals("POST", jsonRequest.method());
+            assertEquals("Bearer key", jsonRequest.header("Authorization"));
+            assertEquals("application/json", jsonRequest.header("Content-Type"));
+            assertEquals(Map.of("subject", "Hola \"mundo\""), Json.parse(jsonRequest.body()));
+            HttpStubServer.Request formRequest = stub.requests().get(1);
+            assertEquals("Basic YXBpOmtleQ==", formRequest.header("Authorization"));
+            assertEquals(List.of("a@mail.com", "b@mail.com"), formRequest.formField("to"));
+            assertEquals(List.of("hola & adiós"), formRequest.formField("text"));
+        }
+    }
+
+    @Test
+    void shouldApplyPerProviderTimeoutsAsTransientErrors() {
+        // Arrange
+        try (HttpStubServer stub = new HttpStubServer();
+             HttpTransport transport = HttpTransport.builder()
+                     .requestTimeout(Duration.ofSeconds(5))
+                     .timeout("twilio", Duration.ofMillis(100))
+                     .build()) {
+            stub.respondSlowly("/slow", 1000, 200, "ok");
+            URI uri = URI.create(stub.baseUrl() + "/slow");
+
+            // Act
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> transport.post("twilio", uri, Map.of(), "text/plain", "x").join());
+            HttpResult patient = transport.post("slack", uri, Map.of(), "text/plain", "x").join();
+
+            // Assert
+            HttpFailure failure = HttpFailure.of(error);
+            assertEquals(HttpFailure.Kind.TIMEOUT, failure.kind());
+            assertEquals(ErrorClassification.TRANSIENT, ProviderErrors.classify(failure));
+            assertEquals(200, patient.status());
+            assertEquals(Duration.ofSeconds(5), transport.timeout("sendgrid"));
+        }
+    }
+
+    @Test
+    void shouldKeepManyRequestsInFlightWithoutBlockingTheCaller() {
+        // Arrange
+        try (HttpStubServer stub = new HttpStubServer();
+             HttpTransport transport = HttpTransport.builder().build()) {
+            stub.respondSlowly("/slow", 200, 200, "ok");
+            URI uri = URI.create(stub.baseUrl() + "/slow");
+
+            // Act
+            long start = System.nanoTime();
+            List<CompletableFuture<HttpResult>> calls = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                calls.add(transport.post("slack", uri, Map.of(), "text/plain", "x"));
+            }
+            long submitMillis = (System.nanoTime() - start) / 1_000_000;
+            calls.forEach(CompletableFuture::join);
+            long totalMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // Assert
+            assertTrue(submitMillis < 200, "post() bloqueó " + submitMillis + " ms");
+            assertTrue(totalMillis < 20 * 200, "las peticiones no fueron concurrentes: " + totalMillis + " ms");
+            assertEquals(20, stub.requests().size());
+        }
+    }
+
+    @Test
+    void shouldClassifyNetworkFailuresByTypeRatherThanByMessage() {
+        // Arrange
+        CompletionException refused = new CompletionException(new ConnectException("timeout while connecting"));
+        IllegalArgumentException invalid = new IllegalArgumentException("connection timeout unavailable");
+
+        // Act
+        HttpFailure connection = HttpFailure.of(refused);
+        HttpFailure other = HttpFailure.of(invalid);
+
+        // Assert
+        assertEquals(HttpFailure.Kind.CONNECTION, connection.kind());
+        assertEquals(ErrorClassification.TRANSIENT, ProviderErrors.classify(connection));
+        assertEquals(HttpFailure.Kind.OTHER, other.kind());
+        assertEquals(ErrorClassification.PERMANENT, ProviderErrors.classify(other));
+        assertSame(invalid, other.cause());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.notifications.infraestructure.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTest {
+
+    @Test
+    void shouldWriteAndParseBackTheSameStructure() {
+        // Arrange
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("text", "línea 1\nlínea \"2\" \\ fin\u0001");
+        value.put("count", 3L);
+        value.put("ratio", 0.5);
+        value.put("ok", true);
+        value.put("none", null);
+        value.put("items", List.of(Map.of("email", "a@mail.com"), List.of()));
+
+        // Act
+        String json = Json.write(value);
+        Object parsed = Json.parse(json);
+
+        // Assert
+        assertEquals("{\"text\":\"línea 1\\nlínea \\\"2\\\" \\\\ fin\\u0001\",\"count\":3,\"ratio\":0.5,\"ok\":true,"
+                + "\"none\":null,\"items\":[{\"email\":\"a@mail.com\"},[]]}", json);
+        assertEquals(value, parsed);
+    }
+
+    @Test
+    void shouldReadTopLevelFieldsAndRejectInvalidJson() {
+        // Act & Assert
+        assertEquals("SM123", Json.field(" {\"sid\": \"SM123\", \"code\": 21211} ", "sid"));
+        assertEquals("21211", Json.field("{\"sid\": \"SM123\", \"code\": 21211}", "code"));
+        assertNull(Json.field("{\"sid\": \"SM123\"}", "status"));
+        assertNull(Json.field("ok", "ts"));
+        assertNull(Json.field("", "ts"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\":1"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("[1,]"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{} x"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.notifications.infraestructure.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldReportPercentilesWithinTheBucketPrecision() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        // Assert
+        assertEquals(10_000, histogram.count());
+        assertWithinPrecision(TimeUnit.MICROSECONDS.toNanos(5_000), histogram.valueAtPercentile(50));
+        assertWithinPrecision(TimeUnit.MICROSECONDS.toNanos(9_900), histogram.valueAtPercentile(99));
+        assertWithinPrecision(TimeUnit.MICROSECONDS.toNanos(10_000), histogram.valueAtPercentile(100));
+        assertEquals(0, new LatencyHistogram().valueAtPercentile(99));
+    }
+
+    @Test
+    void shouldMapValuesToContiguousBuckets() {
+        // Arrange
+        int previous = -1;
+
+        // Act & Assert
+        for (long value = 0; value < 1 << 16; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(index == previous || index == previous + 1, "salto en " + value);
+            assertTrue(value < LatencyHistogram.upperBound(index));
+            previous = index;
+        }
+    }
+
+    @Test
+    void shouldClampOutOfRangeValues() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        // Assert
+        assertEquals(2, histogram.count());
+        assertEquals(1, histogram.countAtOrBelow(0));
+        assertEquals(LatencyHistogram.MAX_TRACKABLE_NANOS, histogram.sumNanos());
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        double error = Math.abs(actual - expected) / (double) expected;
+        assertTrue(error <= 1.0 / LatencyHistogram.BUCKETS_PER_OCTAVE, expected + " vs " + actual);
+    }
+}
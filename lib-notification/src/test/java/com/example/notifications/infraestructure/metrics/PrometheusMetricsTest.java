@@ -0,0 +1,73 @@
+package com.example.notifications.infraestructure.metrics;
+
+import com.example.notifications.domain.model.NotificationPriority;
+import com.example.notifications.domain.result.ErrorClassification;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrometheusMetricsTest {
+
+    @Test
+    void shouldRenderCountersHistogramsAndGauges() {
+        // Arrange
+        PrometheusMetrics metrics = new PrometheusMetrics();
+
+        // Act
+        metrics.sent("email");
+        metrics.sent("email");
+        metrics.failed("sms", ErrorClassification.TRANSIENT);
+        metrics.rejected("push", "FULL", 3);
+        metrics.providerResult("email", "sendgrid", ErrorClassification.NONE);
+        metrics.providerCall("email", "sendgrid", TimeUnit.MILLISECONDS.toNanos(3));
+        metrics.queueWait(NotificationPriority.CRITICAL, TimeUnit.MICROSECONDS.toNanos(200));
+        metrics.gauge("notification_in_flight", "En ejecución", () -> 7);
+        metrics.providerGauge("notification_provider_routing_share", "Reparto", "sms", "twilio", () -> 0.75);
+        metrics.providerGauge("notification_provider_routing_share", "Reparto", "sms", "vonage", () -> 0.25);
+        String text = metrics.scrape();
+
+        // Assert
+        assertTrue(text.contains("notification_sent_total{channel=\"email\"} 2\n"));
+        assertTrue(text.contains("notification_failed_total{channel=\"sms\",classification=\"transient\"} 1\n"));
+        assertTrue(text.contains("notification_rejected_total{channel=\"push\",reason=\"FULL\"} 3\n"));
+        assertTrue(text.contains(
+                "notification_provider_results_total{channel=\"email\",provider=\"sendgrid\",classification=\"none\"} 1\n"));
+        assertTrue(text.contains(
+                "notification_provider_call_seconds_bucket{channel=\"email\",provider=\"sendgrid\",le=\"0.0025\"} 0\n"));
+        assertTrue(text.contains(
+                "notification_provider_call_seconds_bucket{channel=\"email\",provider=\"sendgrid\",le=\"0.005\"} 1\n"));
+        assertTrue(text.contains("notification_queue_wait_seconds_count{priority=\"critical\"} 1\n"));
+        assertTrue(text.contains("# TYPE notification_in_flight gauge\nnotification_in_flight 7\n"));
+        assertTrue(text.contains("# TYPE notification_provider_routing_share gauge\n"
+                + "notification_provider_routing_share{channel=\"sms\",provider=\"twilio\"} 0.75\n"
+                + "notification_provider_routing_share{channel=\"sms\",provider=\"vonage\"} 0.25\n"));
+    }
+
+    @Test
+    void shouldServeTheScrapeOverHttp() throws Exception {
+        // Arrange
+        PrometheusMetrics metrics = new PrometheusMetrics();
+        metrics.sent("chat");
+
+        try (PrometheusExporter exporter = PrometheusExporter.start(metrics, new InetSocketAddress("127.0.0.1", 0))) {
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create("http://127.0.0.1:" + exporter.address().getPort() + "/metrics")).build();
+
+            // Act
+            HttpResponse<String> response = HttpClient.newHttpClient()
+                    .send(request, HttpResponse.BodyHandlers.ofString());
+
+            // Assert
+            assertEquals(200, response.statusCode());
+            assertEquals(PrometheusExporter.CONTENT_TYPE, response.headers().firstValue("Content-Type").orElseThrow());
+            assertTrue(response.body().contains("notification_sent_total{channel=\"chat\"} 1"));
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.notifications.infraestructure.outbox;
+
+import com.example.notifications.application.port.out.outbox.OutboxEntry;
+import com.example.notifications.domain.model.ChatNotification;
+import com.example.notifications.domain.model.EmailNotification;
+import com.example.notifications.domain.model.Notification;
+import com.example.notifications.domain.model.NotificationMetadata;
+import com.example.notifications.domain.model.PushNotification;
+import com.example.notifications.domain.model.SmsNotification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedFileOutboxTest {
+
+    private static final Instant DUE_AT = Instant.parse("2030-01-01T09:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldReplayOnlyPendingEntriesAfterReopening() {
+        // Arrange
+        long first;
+        long second;
+        long third;
+        try (MappedFileOutbox outbox = MappedFileOutbox.open(dir)) {
+            first = outbox.append(chat("#a"));
+            second = outbox.append(chat("#b"));
+            third = outbox.append(chat("#c"), DUE_AT);
+            outbox.complete(second);
+        }
+
+        // Act
+        try (MappedFileOutbox reopened = MappedFileOutbox.open(dir)) {
+            List<OutboxEntry> pending = reopened.pending();
+            long next = reopened.append(chat("#d"));
+
+            // Assert
+            assertEquals(List.of(first, third), pending.stream().map(OutboxEntry::id).toList());
+            assertEquals(List.of(chat("#a"), chat("#c")), pending.stream().map(OutboxEntry::notification).toList());
+            assertEquals(Arrays.asList(null, DUE_AT), pending.stream().map(OutboxEntry::dueAt).toList());
+            assertTrue(next > third);
+        }
+    }
+
+    @Test
+    void shouldRollSegmentsAndDeleteThemOnceCompleted() throws IOException {
+        // Arrange
+        try (MappedFileOutbox outbox = MappedFileOutbox.builder(dir).segmentSize(1024).build()) {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                ids.add(outbox.append(chat("#canal-" + i)));
+            }
+            int segmentsBefore = outbox.segmentCount();
+
+            // Act
+            for (int i = 0; i < ids.size() - 1; i++) {
+                outbox.complete(ids.get(i));
+            }
+
+            // Assert
+            assertTrue(segmentsBefore > 2);
+            assertEquals(1, outbox.segmentCount());
+            assertEquals(1, segmentFiles().size());
+            assertEquals(List.of(chat("#canal-59")), outbox.pending().stream().map(OutboxEntry::notification).toList());
+        }
+    }
+
+    @Test
+    void shouldCopyForwardLiveEntriesWhenCompacting() {
+        // Arrange
+        long kept;
+        try (MappedFileOutbox outbox = MappedFileOutbox.builder(dir).segmentSize(1024).compactionThreshold(0.5).build()) {
+            kept = outbox.append(chat("#superviviente"));
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                ids.add(outbox.append(chat("#canal-" + i)));
+            }
+
+            // Act
+            ids.forEach(outbox::complete);
+
+            // Assert
+            assertEquals(1, outbox.segmentCount());
+        }
+
+        try (MappedFileOutbox reopened = MappedFileOutbox.open(dir)) {
+            assertEquals(List.of(new OutboxEntry(kept, chat("#superviviente"))), reopened.pending());
+        }
+    }
+
+    @Test
+    void shouldIgnoreTornRecordAtTheTail() throws IOException {
+        // Arrange
+        try (MappedFileOutbox outbox = MappedFileOutbox.builder(dir).segmentSize(4096).build()) {
+            outbox.append(chat("#a"));
+            outbox.append(chat("#b"));
+        }
+        Path segment = segmentFiles().get(0);
+        int secondRecordOffset;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(length, 0);
+            secondRecordOffset = Integer.BYTES + length.flip().getInt() + Integer.BYTES;
+            // Simula un crash a mitad de escribir el segundo registro: el payload queda corrupto.
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f, 0x7f, 0x7f}), secondRecordOffset + 20);
+        }
+
+        // Act
+        try (MappedFileOutbox reopened = MappedFileOutbox.builder(dir).segmentSize(4096).build()) {
+            List<OutboxEntry> pending = reopened.pending();
+            reopened.append(chat("#c"));
+
+            // Assert
+            assertEquals(List.of(chat("#a")), pending.stream().map(OutboxEntry::notification).toList());
+            assertEquals(List.of(chat("#a"), chat("#c")),
+                    reopened.pending().stream().map(OutboxEntry::notification).toList());
+        }
+    }
+
+    @Test
+    void shouldRoundTripEveryNotificationType() {
+        // Arrange
+        List<Notification> notifications = List.of(
+                new EmailNotification("no-reply@example.com", "ana@example.com", "Hola {{name}}", "Cuerpo",
+                        Map.of("name", "Ana", "count", 3, "total", 12.5, "vip", true, "id", 9L)),
+                new SmsNotification("+15550000000", "+15550001111", "Código {{code}}", Map.of("code", "1234")),
+                new PushNotification("ana", "device-token", "Título", "Cuerpo", null, Map.of("deepLink", "app://home")),
+                new ChatNotification("#general", "Mensaje", null, NotificationMetadata.idempotencyKey("msg-1")));
+
+        // Act
+        List<Notification> decoded = notifications.stream()
+                .map(OutboxCodec::encode)
+                .map(OutboxCodec::decode)
+                .toList();
+
+        // Assert
+        assertEquals(notifications, decoded);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static ChatNotification chat(String channel) {
+        return new ChatNotification(channel, "Mensaje", null);
+    }
+}
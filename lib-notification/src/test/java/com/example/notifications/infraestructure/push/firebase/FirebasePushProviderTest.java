@@ -1,10 +1,16 @@
 package com.example.notifications.infraestructure.push.firebase;
 
+import com.example.notifications.infraestructure.http.Json;
+import com.example.notifications.infraestructure.http.HttpTransport;
+import com.example.notifications.infraestructure.http.HttpStubServer;
 import com.example.notifications.application.port.out.push.PushGatewayResponse;
 import com.example.notifications.application.port.out.push.PushMessage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -74,4 +80,52 @@ class FirebasePushProviderTest {
         // Act & Assert
         assertDoesNotThrow(() -> provider.send(message));
     }
+
+    @Test
+    void shouldSendBatchAsMulticastWithOneResponsePerToken() {
+        // Arrange
+        FirebasePushProvider spyProvider = Mockito.spy(provider);
+        List<PushMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            messages.add(new PushMessage("token-" + i, "Title", "Body", Map.of("key", "value")));
+        }
+
+        // Act
+        List<PushGatewayResponse> responses = spyProvider.sendBatch(messages);
+
+        // Assert
+        assertEquals(600, responses.size());
+        responses.forEach(response -> assertEquals("success", response.status()));
+        Mockito.verify(spyProvider, Mockito.times(2)).simulatedMulticastSend(Mockito.any());
+    }
+
+    @Test
+    void shouldSendOneRequestPerTokenWhenGivenATransport() {
+        // Arrange
+        try (HttpStubServer stub = new HttpStubServer();
+             HttpTransport transport = HttpTransport.builder().build()) {
+            stub.respond("/v1/projects/test-project-id/messages:send", 200,
+                    "{\"name\":\"projects/test-project-id/messages/1\"}");
+            FirebasePushProvider http = new FirebasePushProvider(
+                    new FirebaseConfig("test-project-id", "access-token", stub.baseUrl()), transport);
+
+            // Act
+            List<PushGatewayResponse> responses = http.sendBatch(List.of(
+                    new PushMessage("token-a", "Título", "Cuerpo", Map.of("screen", "home")),
+                    new PushMessage("token-b", "Título", "Cuerpo", Map.of("screen", "home"))));
+
+            // Assert
+            assertEquals(2, responses.size());
+            assertTrue(responses.stream().allMatch(r -> "projects/test-project-id/messages/1".equals(r.messageId())));
+            assertEquals(2, stub.requests().size());
+            assertEquals("Bearer access-token", stub.requests().get(0).header("Authorization"));
+            List<Object> tokens = new ArrayList<>();
+            for (HttpStubServer.Request request : stub.requests()) {
+                Map<?, ?> message = (Map<?, ?>) ((Map<?, ?>) Json.parse(request.body())).get("message");
+                assertEquals(Map.of("screen", "home"), message.get("data"));
+                tokens.add(message.get("token"));
+            }
+            assertTrue(tokens.containsAll(List.of("token-a", "token-b")));
+        }
+    }
 }
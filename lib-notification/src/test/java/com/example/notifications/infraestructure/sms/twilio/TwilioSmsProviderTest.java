@@ -1,10 +1,19 @@
 package com.example.notifications.infraestructure.sms.twilio;
 
+import com.example.notifications.infraestructure.config.ConfigHolder;
+import com.example.notifications.infraestructure.http.HttpTransport;
+import com.example.notifications.infraestructure.http.HttpStubServer;
+import com.example.notifications.application.port.out.audit.AuditOutcome;
+import com.example.notifications.application.port.out.audit.AuditSink;
 import com.example.notifications.application.port.out.sms.SmsGatewayResponse;
 import com.example.notifications.application.port.out.sms.SmsMessage;
+import com.example.notifications.domain.result.ErrorClassification;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class TwilioSmsProviderTest {
@@ -66,4 +75,114 @@ class TwilioSmsProviderTest {
         // Act & Assert
         assertDoesNotThrow(() -> provider.send(message));
     }
+
+    @Test
+    void shouldClassifyProviderErrors() {
+        // Arrange
+        TwilioConfig config = new TwilioConfig("test-account-sid", "test-auth-token", "+1234567890");
+        TwilioSmsProvider throttled = new TwilioSmsProvider(config) {
+            @Override
+            protected TwilioResponse simulatedSend(TwilioRequest request) {
+                return request.to().endsWith("1")
+                        ? new TwilioResponse(null, "failed", "20429: Too Many Requests", ErrorClassification.TRANSIENT)
+                        : new TwilioResponse(null, "failed", "21211: Invalid 'To' Phone Number");
+            }
+        };
+
+        // Act
+        SmsGatewayResponse rateLimited = throttled.send(new SmsMessage(null, "+15550000001", "Hola"));
+        SmsGatewayResponse invalid = throttled.send(new SmsMessage(null, "+15550000002", "Hola"));
+
+        // Assert
+        assertEquals(ErrorClassification.TRANSIENT, rateLimited.classification());
+        assertEquals(ErrorClassification.PERMANENT, invalid.classification());
+        assertEquals(ErrorClassification.NONE, provider.send(new SmsMessage(null, "+15550000003", "Hola")).classification());
+    }
+
+    @Test
+    void shouldRecordEachSendInTheAuditSink() {
+        // Arrange
+        List<String> events = new ArrayList<>();
+        TwilioConfig config = new TwilioConfig("test-account-sid", "test-auth-token", "+1234567890");
+        TwilioSmsProvider audited = new TwilioSmsProvider(config,
+                (outcome, provider, recipient, messageId, count) ->
+                        events.add(outcome + " " + provider + " " + recipient + " " + count));
+
+        // Act
+        audited.send(new SmsMessage(null, "+0987654321", "Test SMS Body"));
+
+        // Assert
+        assertEquals(List.of(AuditOutcome.SENT + " twilio +0987654321 1"), events);
+    }
+
+    @Test
+    void shouldTranslateTwilioHttpErrorsWhenGivenATransport() {
+        // Arrange
+        try (HttpStubServer stub = new HttpStubServer();
+             HttpTransport transport = HttpTransport.builder().build()) {
+            String path = "/2010-04-01/Accounts/test-account-sid/Messages.json";
+            TwilioSmsProvider http = new TwilioSmsProvider(
+                    new TwilioConfig("test-account-sid", "test-auth-token", "+1234567890", stub.baseUrl()), transport);
+
+            // Act
+            stub.respond(path, 201, "{\"sid\":\"SM42\",\"status\":\"queued\"}");
+            SmsGatewayResponse sent = http.send(new SmsMessage(null, "+0987654321", "Hola"));
+            stub.respond(path, 400, "{\"code\":21211,\"message\":\"Invalid 'To' Phone Number\",\"status\":400}");
+            SmsGatewayResponse invalid = http.send(new SmsMessage(null, "+0987654321", "Hola"));
+            stub.respond(path, 429, "{\"code\":20429,\"message\":\"Too Many Requests\",\"status\":429}");
+            SmsGatewayResponse throttled = http.send(new SmsMessage(null, "+0987654321", "Hola"));
+
+            // Assert
+            assertEquals("SM42", sent.messageId());
+            assertEquals(List.of("+1234567890"), stub.requests().get(0).formField("From"));
+            assertEquals(List.of("Hola"), stub.requests().get(0).formField("Body"));
+            assertEquals("21211: Invalid 'To' Phone Number", invalid.error());
+            assertEquals(ErrorClassification.PERMANENT, invalid.classification());
+            assertEquals(ErrorClassification.TRANSIENT, throttled.classification());
+        }
+    }
+
+    @Test
+    void shouldNotTreatDigitsInAClientErrorMessageAsTransient() {
+        // Arrange
+        try (HttpStubServer stub = new HttpStubServer();
+             HttpTransport transport = HttpTransport.builder().build()) {
+            String path = "/2010-04-01/Accounts/test-account-sid/Messages.json";
+            TwilioSmsProvider http = new TwilioSmsProvider(
+                    new TwilioConfig("test-account-sid", "test-auth-token", "+1234567890", stub.baseUrl()), transport);
+            stub.respond(path, 400,
+                    "{\"code\":21211,\"message\":\"The 'To' number +15005550001 is not valid\",\"status\":400}");
+
+            // Act
+            SmsGatewayResponse invalid = http.send(new SmsMessage(null, "+15005550001", "Hola"));
+
+            // Assert
+            assertEquals("21211: The 'To' number +15005550001 is not valid", invalid.error());
+            assertEquals(ErrorClassification.PERMANENT, invalid.classification());
+        }
+    }
+
+    @Test
+    void shouldUseTheRotatedAccountFromTheNextSend() {
+        // Arrange
+        try (HttpStubServer stub = new HttpStubServer();
+             HttpTransport transport = HttpTransport.builder().build()) {
+            ConfigHolder<TwilioConfig> config = ConfigHolder.of(
+                    new TwilioConfig("AC-old", "token-old", "+1234567890", stub.baseUrl()));
+            TwilioSmsProvider http = new TwilioSmsProvider(config, transport, AuditSink.NOOP);
+            stub.respond("/2010-04-01/Accounts/AC-old/Messages.json", 201, "{\"sid\":\"SM1\",\"status\":\"queued\"}");
+            stub.respond("/2010-04-01/Accounts/AC-new/Messages.json", 201, "{\"sid\":\"SM2\",\"status\":\"queued\"}");
+
+            // Act
+            SmsGatewayResponse before = http.send(new SmsMessage(null, "+0987654321", "Hola"));
+            config.set(new TwilioConfig("AC-new", "token-new", "+1555000000", stub.baseUrl()));
+            SmsGatewayResponse after = http.send(new SmsMessage(null, "+0987654321", "Hola"));
+
+            // Assert
+            assertEquals("SM1", before.messageId());
+            assertEquals("SM2", after.messageId());
+            assertEquals(HttpTransport.basicAuth("AC-new", "token-new"), stub.requests().get(1).header("Authorization"));
+            assertEquals(List.of("+1555000000"), stub.requests().get(1).formField("From"));
+        }
+    }
 }
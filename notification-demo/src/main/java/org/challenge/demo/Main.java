@@ -2,7 +2,8 @@ package org.challenge.demo;
 
 import com.example.notifications.application.port.out.chat.ChatMessage;
 import com.example.notifications.application.port.out.push.PushGateway;
-import com.example.notifications.application.port.out.template.SimpleTemplateEngine;
+import com.example.notifications.application.port.out.template.CompiledTemplateEngine;
+import com.example.notifications.application.port.out.template.TemplateEngine;
 import com.example.notifications.application.registry.NotifierRegistry;
 import com.example.notifications.application.service.*;
 import com.example.notifications.domain.model.ChatNotification;
@@ -29,10 +30,10 @@ public class Main {
     public static void main(String[] args) {
 
         // ===== Template Engine =====
-        var templateEngine = new SimpleTemplateEngine();
+        var templateEngine = new CompiledTemplateEngine();
 
         // ===== Registry (Factory) =====
-        var registry = new NotifierRegistry(
+        var registry = NotifierRegistry.exhaustive(
                 Map.of(
                         EmailNotification.class, getEmailNotifier(templateEngine),
                         SmsNotification.class, getSmsNotifier(templateEngine),
@@ -42,79 +43,79 @@ public class Main {
         );
 
         // ===== Service =====
-        var notificationService = new NotificationService(registry);
-
-        // ==========================================================
-        // =============== EJEMPLOS DE USO ==========================
-        // ==========================================================
-
-        // ===== 1. Email async con templates =====
-        var email = new EmailNotification(
-                "senderasync@mail.com",
-                "recipientasync@mail.com",
-                "Hola {{name}}",
-                "Bienvenido {{name}} a {{app}}",
-                Map.of(
-                        "name", "Javier",
-                        "app", "Notifications Lib"
-                )
-        );
-
-        var email2 = new EmailNotification(
-                "sendersync@mail.com","recipientsync@mail.com" ,"Hola","SALUDOS",new HashMap<>()
-        );
-        notificationService.send(email2);
-
-        notificationService
-                .sendAsync(email)
-                .join();
-
-        // ===== 2. SMS sync con template =====
-        var sms = new SmsNotification(
-                "+50512345678",
-                "+50588887777",
-                "Hola {{name}}, tu código es {{code}}",
-                Map.of(
-                        "name", "Javier",
-                        "code", "123456"
-                )
-        );
-
-        notificationService.send(sms);
-
-        // ===== 3. Push batch async =====
-        var push1 = new PushNotification(
-                "user-123",
-                "device-token-abc",
-                "Hello {{name}}",
-                "Your code is {{code}}",
-                Map.of("name", "Javier", "code", "9999"),
-                Map.of("screen", "home")
-        );
-
-        var push2 = new PushNotification(
-                "user-123",
-                "device-token-bcd",
-                "Hello {{name}}",
-                "Your code is {{code}}",
-                Map.of("name", "Javier", "code", "9999"),
-                Map.of("screen", "home")
-        );
-
-        notificationService
-                .sendBatchAsync(List.of(push1, push2))
-                .join();
-
-        notificationService.shutdown();
-
-        ChatNotification chat = new ChatNotification(
-                "Usuario de slack", "Mensaje de bienvenida", null
-        );
-
-        notificationService.send(chat);
+        // Al salir del bloque se cierra el servicio: espera a que termine lo pendiente (30 s como máximo).
+        try (var notificationService = new NotificationService(registry)) {
+
+            // ==========================================================
+            // =============== EJEMPLOS DE USO ==========================
+            // ==========================================================
+
+            // ===== 1. Email async con templates =====
+            var email = new EmailNotification(
+                    "senderasync@mail.com",
+                    "recipientasync@mail.com",
+                    "Hola {{name}}",
+                    "Bienvenido {{name}} a {{app}}",
+                    Map.of(
+                            "name", "Javier",
+                            "app", "Notifications Lib"
+                    )
+            );
+
+            var email2 = new EmailNotification(
+                    "sendersync@mail.com","recipientsync@mail.com" ,"Hola","SALUDOS",new HashMap<>()
+            );
+            notificationService.send(email2);
+
+            notificationService
+                    .sendAsync(email)
+                    .join();
+
+            // ===== 2. SMS sync con template =====
+            var sms = new SmsNotification(
+                    "+50512345678",
+                    "+50588887777",
+                    "Hola {{name}}, tu código es {{code}}",
+                    Map.of(
+                            "name", "Javier",
+                            "code", "123456"
+                    )
+            );
+
+            notificationService.send(sms);
+
+            // ===== 3. Push batch async =====
+            var push1 = new PushNotification(
+                    "user-123",
+                    "device-token-abc",
+                    "Hello {{name}}",
+                    "Your code is {{code}}",
+                    Map.of("name", "Javier", "code", "9999"),
+                    Map.of("screen", "home")
+            );
+
+            var push2 = new PushNotification(
+                    "user-123",
+                    "device-token-bcd",
+                    "Hello {{name}}",
+                    "Your code is {{code}}",
+                    Map.of("name", "Javier", "code", "9999"),
+                    Map.of("screen", "home")
+            );
+
+            notificationService
+                    .sendBatchAsync(List.of(push1, push2))
+                    .join();
+
+            ChatNotification chat = new ChatNotification(
+                    "Usuario de slack", "Mensaje de bienvenida", null
+            );
+
+            notificationService.send(chat);
+        }
     }
 
-    private static ChatNotifier getChatNotifier(SimpleTemplateEngine templateEngine) {
+    private static ChatNotifier getChatNotifier(TemplateEngine templateEngine) {
         var chatProvider = new SlackProvider(
             new SlackConfig(
                     "https://webhook.slack/", null, "workspace", "username", "icon", "iconUrl", "baseUrl"
@@ -123,18 +124,18 @@ public class Main {
         return new ChatNotifier(chatProvider, templateEngine);
     }
 
-    private static PushNotifier getPushNotifier(SimpleTemplateEngine templateEngine) {
+    private static PushNotifier getPushNotifier(TemplateEngine templateEngine) {
         PushGateway gateway = new FirebasePushProvider(new FirebaseConfig("projectId","serviceAccountKey"));
         return new PushNotifier(gateway, templateEngine);
     }
 
-    private static SmsNotifier getSmsNotifier(SimpleTemplateEngine templateEngine) {
+    private static SmsNotifier getSmsNotifier(TemplateEngine templateEngine) {
         var config = new TwilioConfig("account-sid", "auth-token", "+5052222222");
         var smsGateway = new TwilioSmsProvider(config);
         return new SmsNotifier(smsGateway, templateEngine);
     }
 
-    private static EmailNotifier getEmailNotifier(SimpleTemplateEngine templateEngine) {
+    private static EmailNotifier getEmailNotifier(TemplateEngine templateEngine) {
         // ===== SendGrid Email Gateway =====
         var emailGateway = new SendGridEmailProvider(
                 new SendGridConfig("api-key",